@@ -107,6 +107,32 @@ public class AIConfig {
      */
     private int maxRetries = 3;
     
+    /**
+     * Max callers allowed to wait for a provider rate-limit bucket to refill
+     */
+    private int maxQueuedRequests = 8;
+    
+    /**
+     * Max time a queued caller waits for a bucket refill before falling back
+     */
+    private long maxQueueWaitMillis = 2000;
+    
+    /**
+     * Whether the LLM re-ranks the shortlist retrieved from the local embedding index.
+     * When false, mood discovery is served from local retrieval alone.
+     */
+    private boolean embeddingLlmRerank = true;
+    
+    /**
+     * Max distinct search queries whose parsed filters are kept in memory
+     */
+    private int searchParseCacheSize = 1000;
+    
+    /**
+     * VND per USD, for converting "$15"-style price limits (listings are priced in VND)
+     */
+    private double usdToVndRate = 25000;
+    
     // ═══════════════════════════════════════════════════════════════════════
     // LEGACY (kept for backward compatibility)
     // ═══════════════════════════════════════════════════════════════════════
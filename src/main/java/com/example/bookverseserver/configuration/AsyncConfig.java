@@ -1,11 +1,17 @@
 package com.example.bookverseserver.configuration;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.annotation.EnableAsync;
 
 import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 @Configuration
 @EnableAsync
@@ -14,4 +20,50 @@ public class AsyncConfig {
     public Executor taskExecutor() {
         return Executors.newFixedThreadPool(5);
     }
+
+    /**
+     * Workers for streamed AI responses (SSE). Kept apart from {@link #taskExecutor()}
+     * so long-lived streams can't starve @Async jobs.
+     */
+    @Bean
+    public Executor aiStreamExecutor(@Value("${app.ai.stream-threads:8}") int threads) {
+        return Executors.newFixedThreadPool(threads);
+    }
+
+    /**
+     * Bounded pool for bulk moderation's parallel rule checks, so a catalog backfill
+     * can't saturate the common pool.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ForkJoinPool moderationPool(@Value("${app.moderation.bulk-parallelism:4}") int parallelism) {
+        return new ForkJoinPool(parallelism);
+    }
+
+    /**
+     * Single thread compiling moderation dictionary reloads, so requests never wait on it.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService moderationDictionaryExecutor() {
+        return Executors.newSingleThreadExecutor();
+    }
+
+    /**
+     * Virtual threads for book enrichment lookups: each ISBN lookup fans out to several
+     * blocking HTTP calls that mostly wait on the network.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService enrichmentExecutor() {
+        return Executors.newVirtualThreadPerTaskExecutor();
+    }
+
+    /**
+     * Workers for import jobs (bulk listing uploads, catalog backfills). The queue is
+     * bounded: when it is full, submissions are rejected instead of piling up.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService importJobExecutor(@Value("${app.import.workers:2}") int workers,
+                                             @Value("${app.import.queue-capacity:20}") int queueCapacity) {
+        return new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(queueCapacity), new ThreadPoolExecutor.AbortPolicy());
+    }
 }
@@ -0,0 +1,101 @@
+package com.example.bookverseserver.configuration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Settings for outbound HTTP clients, one client per upstream
+ * (see {@link com.example.bookverseserver.service.http.UpstreamHttpClients}).
+ *
+ * {@code app.http.defaults.*} applies to every upstream; an entry under
+ * {@code app.http.upstreams.<name>.*} overrides only the settings it sets.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.http")
+@Data
+public class HttpClientProperties {
+
+    /**
+     * User-Agent sent on every outbound request (Open Library asks clients to identify themselves)
+     */
+    private String userAgent = "BookverseApp/1.0 (contact@example.com)";
+
+    private Upstream defaults = Upstream.builtIn();
+
+    private Map<String, Upstream> upstreams = new HashMap<>();
+
+    /**
+     * Settings of {@code name}: its overrides on top of the defaults.
+     */
+    public Upstream resolve(String name) {
+        Upstream overrides = upstreams.getOrDefault(name, new Upstream());
+        Upstream resolved = new Upstream();
+        resolved.setConnectTimeoutMillis(pick(overrides.getConnectTimeoutMillis(), defaults.getConnectTimeoutMillis()));
+        resolved.setReadTimeoutMillis(pick(overrides.getReadTimeoutMillis(), defaults.getReadTimeoutMillis()));
+        resolved.setMaxConnectionsPerHost(pick(overrides.getMaxConnectionsPerHost(), defaults.getMaxConnectionsPerHost()));
+        resolved.setAcquireTimeoutMillis(pick(overrides.getAcquireTimeoutMillis(), defaults.getAcquireTimeoutMillis()));
+        resolved.setGzip(pick(overrides.getGzip(), defaults.getGzip()));
+        resolved.setFailureThreshold(pick(overrides.getFailureThreshold(), defaults.getFailureThreshold()));
+        resolved.setOpenMillis(pick(overrides.getOpenMillis(), defaults.getOpenMillis()));
+        return resolved;
+    }
+
+    private static <T> T pick(T override, T fallback) {
+        return override != null ? override : fallback;
+    }
+
+    @Data
+    public static class Upstream {
+
+        /**
+         * Time allowed to open a TCP/TLS connection
+         */
+        private Integer connectTimeoutMillis;
+
+        /**
+         * Time allowed for the response to arrive once the request is sent
+         */
+        private Integer readTimeoutMillis;
+
+        /**
+         * Requests in flight per host; pooled connections are reused with keep-alive
+         */
+        private Integer maxConnectionsPerHost;
+
+        /**
+         * How long a request waits for a free slot before it fails
+         */
+        private Integer acquireTimeoutMillis;
+
+        /**
+         * Ask for gzip-compressed responses (decompressed transparently)
+         */
+        private Boolean gzip;
+
+        /**
+         * Consecutive failures (I/O errors, 5xx) that open the host's circuit breaker
+         */
+        private Integer failureThreshold;
+
+        /**
+         * How long an open breaker rejects calls before letting one trial request through
+         */
+        private Integer openMillis;
+
+        static Upstream builtIn() {
+            Upstream upstream = new Upstream();
+            upstream.setConnectTimeoutMillis(2000);
+            upstream.setReadTimeoutMillis(10000);
+            upstream.setMaxConnectionsPerHost(20);
+            upstream.setAcquireTimeoutMillis(1000);
+            upstream.setGzip(true);
+            upstream.setFailureThreshold(5);
+            upstream.setOpenMillis(30000);
+            return upstream;
+        }
+    }
+}
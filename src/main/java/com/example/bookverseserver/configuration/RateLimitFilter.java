@@ -1,159 +1,160 @@
 package com.example.bookverseserver.configuration;
 
+import com.example.bookverseserver.dto.response.Admin.RateLimitStatsResponse;
+import com.example.bookverseserver.security.ratelimit.LocalBucketStore;
+import com.example.bookverseserver.security.ratelimit.RateLimitBucketStore;
+import com.example.bookverseserver.security.ratelimit.RateLimitRule;
+import com.example.bookverseserver.security.route.RouteClass;
+import com.example.bookverseserver.security.route.RouteClassifier;
 import io.github.bucket4j.Bandwidth;
-import io.github.bucket4j.Bucket;
+import io.github.bucket4j.BucketConfiguration;
+import io.github.bucket4j.ConsumptionProbe;
 import io.github.bucket4j.Refill;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
 import java.time.Duration;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
- * Rate limiting filter to prevent abuse of public endpoints.
- * Uses Bucket4j token bucket algorithm for smooth rate limiting.
+ * Rate limiting for the whole API, using Bucket4j token buckets.
  * 
- * Limits by IP address:
- * - General API: 100 requests/minute
- * - Auth endpoints: 20 requests/minute (stricter for login/signup)
- * - Search endpoints: 60 requests/minute
+ * Each request is charged to (see {@link RateLimitRule}, chosen by its {@link RouteClass}):
+ * - An endpoint rule for brute-force targets, POST only, per IP:
+ *   login 5/min, registration 3/min, password reset 3/min, OTP 5/min
+ * - One tier: auth 20/min (per IP), search 60/min, general 100/min.
+ *   Search and general are per user when the request carries a valid token, per IP otherwise.
+ * 
+ * Runs in the security chain right after bearer token authentication, so the user
+ * is known. Buckets live in a {@link RateLimitBucketStore} bean if one is defined,
+ * else in a size- and idle-bounded {@link LocalBucketStore}.
  */
 @Component
 @Slf4j
 public class RateLimitFilter extends OncePerRequestFilter {
 
-    // Configurable via application.properties
-    @Value("${app.rate-limit.enabled:true}")
-    private boolean rateLimitEnabled;
-
-    @Value("${app.rate-limit.general.requests-per-minute:100}")
-    private int generalRequestsPerMinute;
-
-    @Value("${app.rate-limit.auth.requests-per-minute:20}")
-    private int authRequestsPerMinute;
-
-    @Value("${app.rate-limit.search.requests-per-minute:60}")
-    private int searchRequestsPerMinute;
-
-    // IP-based buckets for different endpoint types
-    private final Map<String, Bucket> generalBuckets = new ConcurrentHashMap<>();
-    private final Map<String, Bucket> authBuckets = new ConcurrentHashMap<>();
-    private final Map<String, Bucket> searchBuckets = new ConcurrentHashMap<>();
+    private static final Duration REFILL_PERIOD = Duration.ofMinutes(1);
+
+    private final RouteClassifier classifier = RouteClassifier.standard();
+    private final boolean rateLimitEnabled;
+    private final RateLimitBucketStore store;
+    private final Map<RateLimitRule, BucketConfiguration> configurations = new EnumMap<>(RateLimitRule.class);
+    private final Map<RateLimitRule, LongAdder> allowed = new EnumMap<>(RateLimitRule.class);
+    private final Map<RateLimitRule, LongAdder> rejected = new EnumMap<>(RateLimitRule.class);
+
+    public RateLimitFilter(Environment environment,
+                           ObjectProvider<RateLimitBucketStore> storeProvider,
+                           @Value("${app.rate-limit.enabled:true}") boolean rateLimitEnabled,
+                           @Value("${app.rate-limit.max-buckets:100000}") int maxBuckets) {
+        this.rateLimitEnabled = rateLimitEnabled;
+        for (RateLimitRule rule : RateLimitRule.values()) {
+            int perMinute = environment.getProperty(rule.propertyName(), Integer.class, rule.getDefaultRequestsPerMinute());
+            configurations.put(rule, BucketConfiguration.builder()
+                    .addLimit(Bandwidth.classic(perMinute, Refill.greedy(perMinute, REFILL_PERIOD)))
+                    .build());
+            allowed.put(rule, new LongAdder());
+            rejected.put(rule, new LongAdder());
+        }
+        // An idle bucket is full again after one refill period, so evicting it then is lossless
+        this.store = storeProvider.getIfAvailable(() -> new LocalBucketStore(maxBuckets, REFILL_PERIOD));
+        log.info("Rate limiting {} with {}", rateLimitEnabled ? "enabled" : "disabled", store.getClass().getSimpleName());
+    }
 
-    // Cleanup old buckets periodically (every 1000 requests)
-    private int requestCounter = 0;
-    private static final int CLEANUP_THRESHOLD = 1000;
-    private static final int MAX_BUCKET_AGE_MINUTES = 10;
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !rateLimitEnabled || !classifier.classify(request).isRateLimited();
+    }
 
     @Override
     protected void doFilterInternal(HttpServletRequest request,
                                     HttpServletResponse response,
                                     FilterChain filterChain)
             throws ServletException, IOException {
-        
-        // Skip rate limiting if disabled
-        if (!rateLimitEnabled) {
-            filterChain.doFilter(request, response);
-            return;
-        }
 
-        // Skip for internal/health endpoints
         String path = request.getRequestURI();
-        if (isExcludedPath(path)) {
-            filterChain.doFilter(request, response);
+        String clientIp = getClientIp(request);
+        RouteClass route = classifier.classify(request);
+
+        RateLimitRule endpointRule = "POST".equalsIgnoreCase(request.getMethod()) ? route.getEndpointRule() : null;
+        if (endpointRule != null && !tryConsume(endpointRule, "ip:" + clientIp, response)) {
+            log.warn("Rate limit exceeded for {} from IP: {} on endpoint: {}", endpointRule.getKey(), clientIp, path);
             return;
         }
 
-        String clientIp = getClientIp(request);
-        Bucket bucket = resolveBucket(clientIp, path);
-
-        // Try to consume a token
-        if (bucket.tryConsume(1)) {
-            // Add rate limit headers for transparency
-            response.addHeader("X-RateLimit-Remaining", 
-                String.valueOf(bucket.getAvailableTokens()));
-            
-            filterChain.doFilter(request, response);
-            
-            // Periodic cleanup
-            if (++requestCounter >= CLEANUP_THRESHOLD) {
-                requestCounter = 0;
-                cleanupOldBuckets();
-            }
-        } else {
-            // Rate limit exceeded
-            log.warn("Rate limit exceeded for IP: {} on path: {}", clientIp, path);
-            
-            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
-            response.setContentType("application/json");
-            response.getWriter().write("""
-                {
-                    "code": 429,
-                    "message": "Too many requests. Please slow down.",
-                    "result": null
-                }
-                """);
+        RateLimitRule tier = route.getTier();
+        String clientKey = tier.isIpOnly() ? "ip:" + clientIp : clientKey(clientIp);
+        if (!tryConsume(tier, clientKey, response)) {
+            log.warn("Rate limit exceeded for {} on path: {}", clientKey, path);
+            return;
         }
-    }
 
-    private boolean isExcludedPath(String path) {
-        return path.startsWith("/v3/api-docs") ||
-               path.startsWith("/swagger-ui") ||
-               path.equals("/error") ||
-               path.startsWith("/actuator");
+        filterChain.doFilter(request, response);
     }
 
-    private Bucket resolveBucket(String clientIp, String path) {
-        if (isAuthPath(path)) {
-            return authBuckets.computeIfAbsent(clientIp, this::createAuthBucket);
-        } else if (isSearchPath(path)) {
-            return searchBuckets.computeIfAbsent(clientIp, this::createSearchBucket);
-        } else {
-            return generalBuckets.computeIfAbsent(clientIp, this::createGeneralBucket);
+    public RateLimitStatsResponse getStats() {
+        Map<String, Long> allowedCounts = new LinkedHashMap<>();
+        Map<String, Long> rejectedCounts = new LinkedHashMap<>();
+        for (RateLimitRule rule : RateLimitRule.values()) {
+            allowedCounts.put(rule.getKey(), allowed.get(rule).sum());
+            rejectedCounts.put(rule.getKey(), rejected.get(rule).sum());
         }
-    }
-
-    private boolean isAuthPath(String path) {
-        return path.startsWith("/api/auth/") ||
-               path.contains("/login") ||
-               path.contains("/signup") ||
-               path.contains("/otp");
-    }
-
-    private boolean isSearchPath(String path) {
-        return path.contains("search") ||
-               (path.startsWith("/api/listings") && path.contains("?")) ||
-               (path.startsWith("/api/books") && path.contains("?"));
-    }
-
-    private Bucket createGeneralBucket(String key) {
-        return Bucket.builder()
-                .addLimit(Bandwidth.classic(generalRequestsPerMinute, 
-                    Refill.greedy(generalRequestsPerMinute, Duration.ofMinutes(1))))
+        return RateLimitStatsResponse.builder()
+                .enabled(rateLimitEnabled)
+                .store(store.getClass().getSimpleName())
+                .buckets(store.size())
+                .evictions(store.evictions())
+                .allowed(allowedCounts)
+                .rejected(rejectedCounts)
                 .build();
     }
 
-    private Bucket createAuthBucket(String key) {
-        return Bucket.builder()
-                .addLimit(Bandwidth.classic(authRequestsPerMinute, 
-                    Refill.greedy(authRequestsPerMinute, Duration.ofMinutes(1))))
-                .build();
+    private boolean tryConsume(RateLimitRule rule, String clientKey, HttpServletResponse response) throws IOException {
+        ConsumptionProbe probe = store.tryConsume(rule.name() + '|' + clientKey, configurations.get(rule));
+        if (probe.isConsumed()) {
+            allowed.get(rule).increment();
+            response.setHeader("X-RateLimit-Remaining", String.valueOf(probe.getRemainingTokens()));
+            return true;
+        }
+
+        rejected.get(rule).increment();
+        long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(probe.getNanosToWaitForRefill()));
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType("application/json");
+        response.getWriter().write("""
+            {
+                "code": 429,
+                "message": "Too many requests. Please try again later.",
+                "result": null
+            }
+            """);
+        return false;
     }
 
-    private Bucket createSearchBucket(String key) {
-        return Bucket.builder()
-                .addLimit(Bandwidth.classic(searchRequestsPerMinute, 
-                    Refill.greedy(searchRequestsPerMinute, Duration.ofMinutes(1))))
-                .build();
+    private String clientKey(String clientIp) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication instanceof JwtAuthenticationToken jwtAuthentication) {
+            return "user:" + jwtAuthentication.getToken().getSubject();
+        }
+        return "ip:" + clientIp;
     }
 
     private String getClientIp(HttpServletRequest request) {
@@ -171,23 +172,4 @@ public class RateLimitFilter extends OncePerRequestFilter {
         
         return request.getRemoteAddr();
     }
-
-    private void cleanupOldBuckets() {
-        // Simple cleanup: if bucket count exceeds threshold, clear oldest half
-        // This is a simple approach; production might want TTL-based expiry
-        int maxBuckets = 10000;
-        
-        if (generalBuckets.size() > maxBuckets) {
-            log.info("Cleaning up {} general rate limit buckets", generalBuckets.size() / 2);
-            generalBuckets.clear();
-        }
-        if (authBuckets.size() > maxBuckets) {
-            log.info("Cleaning up {} auth rate limit buckets", authBuckets.size() / 2);
-            authBuckets.clear();
-        }
-        if (searchBuckets.size() > maxBuckets) {
-            log.info("Cleaning up {} search rate limit buckets", searchBuckets.size() / 2);
-            searchBuckets.clear();
-        }
-    }
 }
@@ -0,0 +1,29 @@
+package com.example.bookverseserver.configuration;
+
+import com.example.bookverseserver.security.ratelimit.PostgresBucketStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Shares rate limit buckets between instances through the application database
+ * when {@code app.rate-limit.store=postgres}. Otherwise {@link RateLimitFilter}
+ * keeps them in local heap.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.rate-limit.store", havingValue = "postgres")
+public class RateLimitStoreConfig {
+
+    @Bean
+    public PostgresBucketStore postgresBucketStore(DataSource dataSource,
+                                                   @Value("${app.rate-limit.max-buckets:100000}") int maxBuckets,
+                                                   @Value("${app.rate-limit.postgres.prefetch-ratio:0.1}") double prefetchRatio,
+                                                   @Value("${app.rate-limit.postgres.max-unsynchronized-millis:1000}") long maxUnsynchronizedMillis) {
+        return new PostgresBucketStore(dataSource, maxBuckets, Duration.ofMinutes(1),
+                prefetchRatio, Duration.ofMillis(maxUnsynchronizedMillis));
+    }
+}
@@ -1,17 +0,0 @@
-package com.example.bookverseserver.configuration;
-
-import org.springframework.boot.web.client.RestTemplateBuilder;
-import org.springframework.context.annotation.Bean;
-import org.springframework.context.annotation.Configuration;
-import org.springframework.web.client.RestTemplate;
-
-@Configuration
-public class RestTemplateConfig {
-
-    @Bean
-    public RestTemplate restTemplate(RestTemplateBuilder builder) {
-        return builder
-                .defaultHeader("User-Agent", "BookverseApp/1.0 (contact@example.com)")
-                .build();
-    }
-}
@@ -0,0 +1,46 @@
+package com.example.bookverseserver.configuration;
+
+import com.example.bookverseserver.dto.response.Admin.RouteStatsResponse;
+import com.example.bookverseserver.security.route.RouteClass;
+import com.example.bookverseserver.security.route.RouteClassifier;
+import com.example.bookverseserver.security.route.RouteMetrics;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * First filter of every request: tags it with its {@link RouteClass} (read by
+ * later filters such as {@link RateLimitFilter}) and records its count and
+ * latency per class.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class RouteMetricsFilter extends OncePerRequestFilter {
+
+    private final RouteClassifier classifier = RouteClassifier.standard();
+    private final RouteMetrics metrics = new RouteMetrics();
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        RouteClass routeClass = classifier.classify(request);
+        long start = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            metrics.record(routeClass, System.nanoTime() - start, response.getStatus());
+        }
+    }
+
+    public RouteStatsResponse getStats() {
+        return metrics.snapshot();
+    }
+}
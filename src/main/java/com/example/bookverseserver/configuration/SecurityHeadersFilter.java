@@ -26,7 +26,7 @@ import java.io.IOException;
  * - Permissions-Policy: Restricts browser features
  */
 @Component
-@Order(Ordered.HIGHEST_PRECEDENCE)
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
 @Slf4j
 public class SecurityHeadersFilter extends OncePerRequestFilter {
 
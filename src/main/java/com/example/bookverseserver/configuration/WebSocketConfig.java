@@ -16,6 +16,7 @@ import org.springframework.security.authentication.UsernamePasswordAuthenticatio
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.util.StringUtils;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
@@ -77,21 +78,20 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
                     if (StringUtils.hasText(authHeader) && authHeader.startsWith("Bearer ")) {
                         String token = authHeader.substring(7);
                         try {
-                            // Validate token and extract user ID
-                            if (jwtService.validateToken(token)) {
-                                Long userId = jwtService.extractUserId(token);
-                                String username = jwtService.extractUsername(token);
-                                
-                                // Create authentication with user ID as principal name
-                                Authentication authentication = new UsernamePasswordAuthenticationToken(
-                                    userId.toString(), 
-                                    null, 
-                                    Collections.singletonList(new SimpleGrantedAuthority("ROLE_USER"))
-                                );
-                                
-                                accessor.setUser(authentication);
-                                log.info("WebSocket user authenticated: {} (ID: {})", username, userId);
-                            }
+                            // Validate token once and read user ID/username from the verified claims
+                            Jwt jwt = jwtService.verifyAccessToken(token);
+                            Long userId = Long.valueOf(jwt.getSubject());
+                            String username = jwt.getClaimAsString("username");
+                            
+                            // Create authentication with user ID as principal name
+                            Authentication authentication = new UsernamePasswordAuthenticationToken(
+                                userId.toString(), 
+                                null, 
+                                Collections.singletonList(new SimpleGrantedAuthority("ROLE_USER"))
+                            );
+                            
+                            accessor.setUser(authentication);
+                            log.info("WebSocket user authenticated: {} (ID: {})", username, userId);
                         } catch (Exception e) {
                             log.error("WebSocket authentication failed: {}", e.getMessage());
                         }
@@ -5,6 +5,7 @@ import com.example.bookverseserver.dto.response.AI.MoodDiscoveryResponse;
 import com.example.bookverseserver.dto.response.ApiResponse;
 import com.example.bookverseserver.dto.response.Product.ListingResponse;
 import com.example.bookverseserver.service.AIService;
+import com.example.bookverseserver.service.AIStreamService;
 import com.example.bookverseserver.service.MoodDiscoveryService;
 import com.example.bookverseserver.util.SecurityUtils;
 import io.swagger.v3.oas.annotations.Operation;
@@ -13,8 +14,10 @@ import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 import java.util.Map;
@@ -39,6 +42,7 @@ import static lombok.AccessLevel.PRIVATE;
 public class AIController {
     
     AIService aiService;
+    AIStreamService aiStreamService;
     MoodDiscoveryService moodDiscoveryService;
     SecurityUtils securityUtils;
     
@@ -97,6 +101,16 @@ public class AIController {
                 .build();
     }
     
+    /**
+     * Stream the review summary as it is generated (server-sent events).
+     */
+    @GetMapping(value = "/reviews/summary/{bookId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream review summary", 
+               description = "SSE: 'token' events with raw model output, then 'complete' with the parsed summary")
+    public SseEmitter streamReviewSummary(@PathVariable Long bookId) {
+        return aiStreamService.streamReviewSummary(bookId);
+    }
+    
     /**
      * Get status of all AI providers.
      * Useful for health checks and debugging.
@@ -175,4 +189,31 @@ public class AIController {
                 .result(moodDiscoveryService.discoverByMood(request))
                 .build();
     }
+    
+    /**
+     * Streaming mood discovery (server-sent events)
+     */
+    @PostMapping(value = "/moods/discover/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream books by mood", 
+               description = "SSE: one 'recommendation' event per book as the AI picks it, then 'complete' with the full response")
+    public SseEmitter streamDiscoverByMood(@Valid @RequestBody MoodDiscoveryRequest request) {
+        return aiStreamService.streamMoodDiscovery(request);
+    }
+    
+    /**
+     * Streaming quick mood discovery (GET, works with EventSource)
+     */
+    @GetMapping(value = "/moods/{mood}/books/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream quick mood-based discovery", 
+               description = "SSE variant of /moods/{mood}/books")
+    public SseEmitter streamQuickMoodDiscovery(
+            @PathVariable String mood,
+            @RequestParam(defaultValue = "10") int limit
+    ) {
+        MoodDiscoveryRequest request = MoodDiscoveryRequest.builder()
+                .mood(mood)
+                .limit(limit)
+                .build();
+        return aiStreamService.streamMoodDiscovery(request);
+    }
 }
@@ -1,8 +1,13 @@
 package com.example.bookverseserver.controller;
 
 import com.example.bookverseserver.dto.request.Moderation.ModerationActionRequest;
+import com.example.bookverseserver.configuration.RateLimitFilter;
+import com.example.bookverseserver.configuration.RouteMetricsFilter;
 import com.example.bookverseserver.dto.response.Admin.PlatformStatsResponse;
 import com.example.bookverseserver.dto.response.Admin.ProApplicationDetailResponse;
+import com.example.bookverseserver.dto.response.Admin.RateLimitStatsResponse;
+import com.example.bookverseserver.dto.response.Admin.RouteStatsResponse;
+import com.example.bookverseserver.dto.response.Admin.UpstreamStatsResponse;
 import com.example.bookverseserver.dto.response.ApiResponse;
 import com.example.bookverseserver.dto.response.PagedResponse;
 import com.example.bookverseserver.dto.response.User.ProSellerApplicationResponse;
@@ -11,6 +16,7 @@ import com.example.bookverseserver.enums.ApplicationStatus;
 import com.example.bookverseserver.enums.RoleName;
 import com.example.bookverseserver.service.AdminService;
 import com.example.bookverseserver.service.ProSellerService;
+import com.example.bookverseserver.service.http.UpstreamHttpClients;
 import com.example.bookverseserver.util.SecurityUtils;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -38,6 +44,9 @@ public class AdminController {
     AdminService adminService;
     ProSellerService proSellerService;
     SecurityUtils securityUtils;
+    RateLimitFilter rateLimitFilter;
+    RouteMetricsFilter routeMetricsFilter;
+    UpstreamHttpClients upstreamHttpClients;
 
     // ============ Platform Stats ============
 
@@ -53,6 +62,36 @@ public class AdminController {
                 .build();
     }
 
+    @GetMapping("/rate-limit")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Get rate limiter statistics",
+               description = "Allowed/rejected requests per rule and bucket store size since startup")
+    public ApiResponse<RateLimitStatsResponse> getRateLimitStats() {
+        return ApiResponse.<RateLimitStatsResponse>builder()
+                .result(rateLimitFilter.getStats())
+                .build();
+    }
+
+    @GetMapping("/route-stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Get request statistics per route class",
+               description = "Request counts, 5xx counts and latency histograms per route class since startup")
+    public ApiResponse<RouteStatsResponse> getRouteStats() {
+        return ApiResponse.<RouteStatsResponse>builder()
+                .result(routeMetricsFilter.getStats())
+                .build();
+    }
+
+    @GetMapping("/upstream-stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Get outbound call statistics per upstream host",
+               description = "Call counts, errors, latency histograms and circuit breaker state per external host since startup")
+    public ApiResponse<UpstreamStatsResponse> getUpstreamStats() {
+        return ApiResponse.<UpstreamStatsResponse>builder()
+                .result(upstreamHttpClients.stats())
+                .build();
+    }
+
     // ============ PRO Seller Applications ============
 
     @GetMapping("/pro-applications")
@@ -54,10 +54,12 @@ public class AuthorController {
     })
     ApiResponse<AuthorDetailResponse> getAuthorByOLID(
         @Parameter(description = "OpenLibrary Author ID (format: OL23919A)", example = "OL23919A", required = true)
-        @PathVariable("olid") String olid
+        @PathVariable("olid") String olid,
+        @Parameter(description = "Maximum number of works to include", example = "20")
+        @RequestParam(value = "worksLimit", defaultValue = "20") int worksLimit
     ) {
         return ApiResponse.<AuthorDetailResponse>builder()
-                .result(authorService.getAuthorByOLID(olid))
+                .result(authorService.getAuthorByOLID(olid, worksLimit))
                 .build();
     }
 
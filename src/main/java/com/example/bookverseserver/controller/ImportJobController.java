@@ -0,0 +1,154 @@
+package com.example.bookverseserver.controller;
+
+import com.example.bookverseserver.dto.response.ApiResponse;
+import com.example.bookverseserver.dto.response.PagedResponse;
+import com.example.bookverseserver.dto.response.Product.ImportJobItemResponse;
+import com.example.bookverseserver.dto.response.Product.ImportJobResponse;
+import com.example.bookverseserver.enums.ImportItemStatus;
+import com.example.bookverseserver.enums.ImportJobType;
+import com.example.bookverseserver.service.importjob.ImportJobService;
+import com.example.bookverseserver.util.SecurityUtils;
+import com.example.bookverseserver.utils.PaginationUtils;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * Import jobs: progress and per-row results of background imports.
+ *
+ * Endpoints:
+ * - GET  /api/import-jobs                    - My recent jobs
+ * - GET  /api/import-jobs/{jobId}            - Job progress (owner or admin)
+ * - GET  /api/import-jobs/{jobId}/items      - Per-row results, optionally by status
+ * - POST /api/import-jobs/isbn-enrichment    - Fill in missing book metadata (admin)
+ * - POST /api/import-jobs/recategorization   - Re-derive book categories (admin)
+ * - POST /api/import-jobs/open-library-dump  - Load an Open Library dump file (admin)
+ * - POST /api/import-jobs/{jobId}/resume     - Resume a failed dump load (admin)
+ *
+ * Bulk listing jobs are submitted at POST /api/seller/listings/bulk-upload/jobs.
+ */
+@RestController
+@RequestMapping("/api/import-jobs")
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+@Slf4j
+@Tag(name = "Import Jobs", description = "Background bulk imports and catalog backfills")
+public class ImportJobController {
+
+    ImportJobService importJobService;
+    SecurityUtils securityUtils;
+
+    @GetMapping
+    @PreAuthorize("isAuthenticated()")
+    @Operation(summary = "Get my recent import jobs", description = "The 20 most recent jobs, newest first")
+    public ApiResponse<List<ImportJobResponse>> getMyJobs(Authentication authentication) {
+        Long userId = securityUtils.getCurrentUserId(authentication);
+        return ApiResponse.<List<ImportJobResponse>>builder()
+                .result(importJobService.getJobs(userId))
+                .build();
+    }
+
+    @GetMapping("/{jobId}")
+    @PreAuthorize("isAuthenticated()")
+    @Operation(summary = "Get import job progress")
+    public ApiResponse<ImportJobResponse> getJob(
+            @PathVariable String jobId,
+            Authentication authentication) {
+        Long userId = securityUtils.getCurrentUserId(authentication);
+        return ApiResponse.<ImportJobResponse>builder()
+                .result(importJobService.getJob(jobId, userId, isAdmin(authentication)))
+                .build();
+    }
+
+    @GetMapping("/{jobId}/items")
+    @PreAuthorize("isAuthenticated()")
+    @Operation(summary = "Get per-row results of an import job",
+               description = "Rows in upload order; filter with status=FAILED to list only the rows to fix")
+    public ApiResponse<PagedResponse<ImportJobItemResponse>> getJobItems(
+            @PathVariable String jobId,
+            @RequestParam(required = false) ImportItemStatus status,
+            @RequestParam(defaultValue = "1") int page,
+            @RequestParam(defaultValue = "50") int limit,
+            Authentication authentication) {
+        Long userId = securityUtils.getCurrentUserId(authentication);
+        return ApiResponse.<PagedResponse<ImportJobItemResponse>>builder()
+                .result(importJobService.getItems(jobId, userId, isAdmin(authentication), status,
+                        PaginationUtils.safePage(page), PaginationUtils.safeLimit(limit)))
+                .build();
+    }
+
+    @PostMapping("/isbn-enrichment")
+    @PreAuthorize("hasRole('ADMIN')")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    @Operation(summary = "Fill in missing book metadata",
+               description = "Looks up every book with an ISBN and missing description, publisher, pages, date or cover in Open Library and Google Books; existing values are kept")
+    public ApiResponse<ImportJobResponse> startIsbnEnrichment(Authentication authentication) {
+        Long adminId = securityUtils.getCurrentUserId(authentication);
+        log.info("Admin {} starting ISBN enrichment backfill", adminId);
+        return ApiResponse.<ImportJobResponse>builder()
+                .message("ISBN enrichment queued")
+                .result(importJobService.submitCatalogJob(ImportJobType.ISBN_ENRICHMENT, adminId))
+                .build();
+    }
+
+    @PostMapping("/recategorization")
+    @PreAuthorize("hasRole('ADMIN')")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    @Operation(summary = "Re-derive book categories",
+               description = "Maps the external subjects of every book with an ISBN to canonical categories again and moves its listings to the new primary category")
+    public ApiResponse<ImportJobResponse> startRecategorization(Authentication authentication) {
+        Long adminId = securityUtils.getCurrentUserId(authentication);
+        log.info("Admin {} starting re-categorization", adminId);
+        return ApiResponse.<ImportJobResponse>builder()
+                .message("Re-categorization queued")
+                .result(importJobService.submitCatalogJob(ImportJobType.RECATEGORIZATION, adminId))
+                .build();
+    }
+
+    @PostMapping("/open-library-dump")
+    @PreAuthorize("hasRole('ADMIN')")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    @Operation(summary = "Load an Open Library dump file",
+               description = "Streams an authors, editions or works dump (gzipped or not) from the server's dump directory into the catalog; load authors, then editions, then works. offset skips that many uncompressed bytes")
+    public ApiResponse<ImportJobResponse> startDumpImport(
+            @RequestParam String source,
+            @RequestParam(defaultValue = "0") long offset,
+            Authentication authentication) {
+        Long adminId = securityUtils.getCurrentUserId(authentication);
+        log.info("Admin {} loading Open Library dump {} from offset {}", adminId, source, offset);
+        return ApiResponse.<ImportJobResponse>builder()
+                .message("Open Library dump load queued")
+                .result(importJobService.submitDumpImport(source, offset, adminId))
+                .build();
+    }
+
+    @PostMapping("/{jobId}/resume")
+    @PreAuthorize("hasRole('ADMIN')")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    @Operation(summary = "Resume a failed Open Library dump load",
+               description = "Starts a new job loading the same file from the source offset the failed job reached")
+    public ApiResponse<ImportJobResponse> resumeDumpImport(
+            @PathVariable String jobId,
+            Authentication authentication) {
+        Long adminId = securityUtils.getCurrentUserId(authentication);
+        log.info("Admin {} resuming Open Library dump job {}", adminId, jobId);
+        return ApiResponse.<ImportJobResponse>builder()
+                .message("Open Library dump load queued")
+                .result(importJobService.resumeDumpImport(jobId, adminId))
+                .build();
+    }
+
+    private static boolean isAdmin(Authentication authentication) {
+        return authentication.getAuthorities().stream()
+                .anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN"));
+    }
+}
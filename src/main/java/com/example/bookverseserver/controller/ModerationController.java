@@ -2,11 +2,14 @@ package com.example.bookverseserver.controller;
 
 import com.example.bookverseserver.dto.request.Moderation.FlagListingRequest;
 import com.example.bookverseserver.dto.request.Moderation.ModerationActionRequest;
+import com.example.bookverseserver.dto.request.Moderation.ModerationTermRequest;
 import com.example.bookverseserver.dto.response.ApiResponse;
 import com.example.bookverseserver.dto.response.Moderation.*;
 import com.example.bookverseserver.dto.response.PagedResponse;
 import com.example.bookverseserver.enums.*;
 import com.example.bookverseserver.service.ModerationService;
+import com.example.bookverseserver.service.moderation.ModerationBackfillService;
+import com.example.bookverseserver.service.moderation.ModerationDictionaryService;
 import com.example.bookverseserver.util.SecurityUtils;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -19,6 +22,8 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 /**
  * Moderation Controller - per Vision features/moderation.md.
  * 
@@ -30,6 +35,14 @@ import org.springframework.web.bind.annotation.*;
  * - POST /api/moderation/reports/{id}      - Take action on report
  * - GET  /api/moderation/disputes          - Disputes queue
  * - POST /api/moderation/disputes/{id}     - Resolve dispute
+ * - POST /api/moderation/backfill          - Re-moderate existing listings/reviews (admin)
+ * - GET  /api/moderation/backfill          - Backfill progress
+ * - POST /api/moderation/backfill/stop     - Stop backfill (resumable)
+ * - GET  /api/moderation/terms             - Moderator-added blocked terms
+ * - POST /api/moderation/terms             - Add a term (live after the next reload, no restart)
+ * - DELETE /api/moderation/terms/{id}      - Remove a moderator-added term
+ * - GET  /api/moderation/terms/dictionary  - Live dictionary version and list sizes
+ * - POST /api/moderation/terms/reload      - Reload the dictionary file now (admin)
  */
 @RestController
 @RequestMapping("/api/moderation")
@@ -41,6 +54,8 @@ import org.springframework.web.bind.annotation.*;
 public class ModerationController {
     
     ModerationService moderationService;
+    ModerationBackfillService moderationBackfillService;
+    ModerationDictionaryService moderationDictionaryService;
     SecurityUtils securityUtils;
     
     // ============ Dashboard ============
@@ -175,4 +190,97 @@ public class ModerationController {
                 .result(response)
                 .build();
     }
+    
+    // ============ Catalog Re-moderation ============
+    
+    @PostMapping("/backfill")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Re-moderate existing listings or reviews with the current rules")
+    public ApiResponse<ModerationBackfillResponse> startBackfill(
+            Authentication authentication,
+            @RequestParam ModerationBackfillService.Target target,
+            @RequestParam(defaultValue = "false") boolean resume) {
+        
+        Long adminId = securityUtils.getCurrentUserId(authentication);
+        log.info("Admin {} starting moderation backfill of {} (resume={})", adminId, target, resume);
+        ModerationBackfillResponse response = moderationBackfillService.start(target, resume);
+        
+        return ApiResponse.<ModerationBackfillResponse>builder()
+                .result(response)
+                .build();
+    }
+    
+    @GetMapping("/backfill")
+    @Operation(summary = "Get progress of the current or last moderation backfill")
+    public ApiResponse<ModerationBackfillResponse> getBackfillProgress() {
+        return ApiResponse.<ModerationBackfillResponse>builder()
+                .result(moderationBackfillService.getProgress())
+                .build();
+    }
+    
+    @PostMapping("/backfill/stop")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Stop the running moderation backfill after its current chunk")
+    public ApiResponse<ModerationBackfillResponse> stopBackfill() {
+        return ApiResponse.<ModerationBackfillResponse>builder()
+                .result(moderationBackfillService.stop())
+                .build();
+    }
+    
+    // ============ Moderation Dictionary ============
+    
+    @GetMapping("/terms")
+    @Operation(summary = "List active moderator-added blocked terms and patterns")
+    public ApiResponse<List<ModerationTermResponse>> getTerms() {
+        return ApiResponse.<List<ModerationTermResponse>>builder()
+                .result(moderationDictionaryService.getTerms())
+                .build();
+    }
+    
+    @PostMapping("/terms")
+    @Operation(summary = "Add a blocked term or pattern; applied without a restart")
+    public ApiResponse<ModerationTermResponse> addTerm(
+            Authentication authentication,
+            @Valid @RequestBody ModerationTermRequest request) {
+        
+        Long moderatorId = securityUtils.getCurrentUserId(authentication);
+        ModerationTermResponse response = moderationDictionaryService.addTerm(request, moderatorId);
+        
+        return ApiResponse.<ModerationTermResponse>builder()
+                .message("Term added")
+                .result(response)
+                .build();
+    }
+    
+    @DeleteMapping("/terms/{termId}")
+    @Operation(summary = "Remove a moderator-added term")
+    public ApiResponse<Void> removeTerm(
+            Authentication authentication,
+            @PathVariable Long termId) {
+        
+        Long moderatorId = securityUtils.getCurrentUserId(authentication);
+        moderationDictionaryService.removeTerm(termId, moderatorId);
+        
+        return ApiResponse.<Void>builder()
+                .message("Term removed")
+                .build();
+    }
+    
+    @GetMapping("/terms/dictionary")
+    @Operation(summary = "Get the live moderation dictionary version and list sizes")
+    public ApiResponse<ModerationDictionaryResponse> getDictionaryInfo() {
+        return ApiResponse.<ModerationDictionaryResponse>builder()
+                .result(moderationDictionaryService.getDictionaryInfo())
+                .build();
+    }
+    
+    @PostMapping("/terms/reload")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Reload the moderation dictionary now instead of waiting for the next poll")
+    public ApiResponse<ModerationDictionaryResponse> reloadDictionary() {
+        moderationDictionaryService.reload();
+        return ApiResponse.<ModerationDictionaryResponse>builder()
+                .result(moderationDictionaryService.getDictionaryInfo())
+                .build();
+    }
 }
@@ -10,6 +10,7 @@ import com.example.bookverseserver.dto.response.Order.SellerOrderListResponse;
 import com.example.bookverseserver.dto.response.Order.UpdateOrderStatusResponse;
 import com.example.bookverseserver.dto.response.PagedResponse;
 import com.example.bookverseserver.dto.response.Product.BulkUploadResponse;
+import com.example.bookverseserver.dto.response.Product.ImportJobResponse;
 import com.example.bookverseserver.dto.response.Product.ListingResponse;
 import com.example.bookverseserver.dto.response.SellerSettingsResponse;
 import com.example.bookverseserver.enums.ListingStatus;
@@ -18,6 +19,7 @@ import com.example.bookverseserver.service.ListingService;
 import com.example.bookverseserver.service.OrderService;
 import com.example.bookverseserver.service.SellerService;
 import com.example.bookverseserver.service.SellerSettingsService;
+import com.example.bookverseserver.service.importjob.ImportJobService;
 import com.example.bookverseserver.util.SecurityUtils;
 import com.example.bookverseserver.utils.PaginationUtils;
 import io.swagger.v3.oas.annotations.Operation;
@@ -27,6 +29,7 @@ import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
@@ -54,6 +57,7 @@ public class SellerController {
     SellerService sellerService;
     OrderService orderService;
     ListingService listingService;
+    ImportJobService importJobService;
     SellerSettingsService sellerSettingsService;
     SecurityUtils securityUtils;
 
@@ -98,7 +102,7 @@ public class SellerController {
     @PostMapping("/listings/bulk-upload")
     @PreAuthorize("hasRole('PRO_SELLER')")
     @Operation(summary = "Bulk upload listings (PRO sellers only)", 
-               description = "Upload multiple listings at once from CSV/spreadsheet. Returns detailed results with success/failure breakdown per row.")
+               description = "Upload up to 100 listings at once from CSV/spreadsheet. Returns detailed results with success/failure breakdown per row. Larger uploads go to POST /api/seller/listings/bulk-upload/jobs.")
     public ApiResponse<BulkUploadResponse> bulkUploadListings(
             @Valid @RequestBody BulkListingUploadRequest request,
             Authentication authentication) {
@@ -109,6 +113,22 @@ public class SellerController {
                 .build();
     }
 
+    @PostMapping("/listings/bulk-upload/jobs")
+    @PreAuthorize("hasRole('PRO_SELLER')")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    @Operation(summary = "Bulk upload listings in the background (PRO sellers only)",
+               description = "Queues the upload and returns its import job at once. Progress at GET /api/import-jobs/{jobId}, per-row results at GET /api/import-jobs/{jobId}/items.")
+    public ApiResponse<ImportJobResponse> submitBulkUpload(
+            @Valid @RequestBody BulkListingUploadRequest request,
+            Authentication authentication) {
+        Long sellerId = securityUtils.getCurrentUserId(authentication);
+        log.info("Bulk upload job requested by seller {} with {} books", sellerId, request.getBooks().size());
+        return ApiResponse.<ImportJobResponse>builder()
+                .message("Bulk upload queued")
+                .result(importJobService.submitListings(sellerId, request.getBooks()))
+                .build();
+    }
+
     // ============ Seller Orders ============
 
     @GetMapping("/orders")
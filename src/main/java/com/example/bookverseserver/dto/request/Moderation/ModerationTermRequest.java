@@ -0,0 +1,27 @@
+package com.example.bookverseserver.dto.request.Moderation;
+
+import com.example.bookverseserver.enums.ModerationTermList;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * Request to add a term to the moderation dictionary at runtime.
+ * Takes effect after the next dictionary reload, which is triggered immediately.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class ModerationTermRequest {
+    
+    @NotBlank(message = "INVALID_INPUT")
+    @Size(max = 500, message = "INVALID_INPUT")
+    String term;
+    
+    @NotNull(message = "INVALID_INPUT")
+    ModerationTermList list;
+}
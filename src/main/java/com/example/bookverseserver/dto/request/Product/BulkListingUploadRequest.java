@@ -26,7 +26,7 @@ import java.util.List;
 public class BulkListingUploadRequest {
 
     @NotEmpty(message = "BULK_UPLOAD_EMPTY")
-    @Size(max = 100, message = "BULK_UPLOAD_TOO_MANY_ITEMS")
+    @Size(max = 5000, message = "BULK_UPLOAD_TOO_MANY_ITEMS")
     @Valid
     List<BulkListingItem> books;
 }
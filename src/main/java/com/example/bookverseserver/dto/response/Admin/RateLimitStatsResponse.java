@@ -0,0 +1,23 @@
+package com.example.bookverseserver.dto.response.Admin;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.util.Map;
+
+/**
+ * Rate limiter counters since startup.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class RateLimitStatsResponse {
+    Boolean enabled;
+    String store;                      // bucket store implementation
+    Long buckets;                      // buckets currently held
+    Long evictions;                    // buckets dropped for size/idle bounds
+    Map<String, Long> allowed;         // per rule
+    Map<String, Long> rejected;        // per rule
+}
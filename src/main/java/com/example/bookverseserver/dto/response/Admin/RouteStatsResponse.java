@@ -0,0 +1,35 @@
+package com.example.bookverseserver.dto.response.Admin;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Request counts and latency per route class since startup.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class RouteStatsResponse {
+    List<RouteClassStats> routes;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    @FieldDefaults(level = AccessLevel.PRIVATE)
+    public static class RouteClassStats {
+        String routeClass;
+        Long requests;
+        Long serverErrors;                 // 5xx responses
+        Long meanMillis;
+        Long p50Millis;                    // bucket upper bound; -1 if above the last bucket
+        Long p95Millis;
+        Long p99Millis;
+        Map<String, Long> latency;         // histogram bucket -> requests
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.bookverseserver.dto.response.Admin;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Outbound call counts, latency and circuit breaker state per upstream host since startup.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class UpstreamStatsResponse {
+    List<HostStats> hosts;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    @FieldDefaults(level = AccessLevel.PRIVATE)
+    public static class HostStats {
+        String host;
+        String upstream;                   // client that first called the host
+        String circuitState;               // CLOSED, OPEN or HALF_OPEN
+        Long requests;                     // calls that went out
+        Long serverErrors;                 // 5xx responses
+        Long clientErrors;                 // 4xx responses
+        Long ioErrors;                     // timeouts, refused or reset connections
+        Long rejected;                     // not sent: breaker open or no free connection
+        Integer inFlight;
+        Long meanMillis;
+        Long p50Millis;                    // bucket upper bound; -1 if above the last bucket
+        Long p95Millis;
+        Long p99Millis;
+        Map<String, Long> latency;         // histogram bucket -> calls
+    }
+}
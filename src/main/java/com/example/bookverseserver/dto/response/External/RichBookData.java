@@ -1,8 +1,10 @@
 
 package com.example.bookverseserver.dto.response.External;
 
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 import java.util.List;
 
@@ -16,6 +18,8 @@ import java.util.List;
  * - Cross-platform: openLibraryId, goodreadsId
  */
 @Data
+@NoArgsConstructor
+@AllArgsConstructor
 @Builder(toBuilder = true)
 public class RichBookData {
     // ═══════════════════════════════════════════════════════════════════════════
@@ -102,8 +106,20 @@ public class RichBookData {
      * Google Books ID for cross-platform linking
      */
     private String googleBooksId;
-    
+
+    // ═══════════════════════════════════════════════════════════════════════════
+    // FETCH STATUS
+    // ═══════════════════════════════════════════════════════════════════════════
+
+    /**
+     * Part of the lookup failed (e.g. the description request timed out): the data is
+     * usable, but the metadata cache fetches it again soon instead of keeping it
+     */
+    private boolean incomplete;
+
     @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
     @Builder
     public static class ExternalLink {
         private String title;
@@ -111,6 +127,8 @@ public class RichBookData {
     }
     
     @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
     @Builder
     public static class TableOfContentsEntry {
         private String label;   // e.g., "Chapter 1"
@@ -0,0 +1,29 @@
+package com.example.bookverseserver.dto.response.Moderation;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.time.LocalDateTime;
+
+/**
+ * Progress of a catalog re-moderation run.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class ModerationBackfillResponse {
+    String target;         // LISTING or REVIEW
+    String status;         // RUNNING, STOPPING, COMPLETED, STOPPED, FAILED
+    Long total;            // items left to scan when the run started
+    Long processed;
+    Long approved;
+    Long flagged;
+    Long blocked;
+    Long aiReviewed;       // gray-zone items settled by batched AI review
+    Long checkpointId;     // last id fully written; a resumed run continues after it
+    LocalDateTime startedAt;
+    LocalDateTime finishedAt;
+    String error;
+}
@@ -0,0 +1,23 @@
+package com.example.bookverseserver.dto.response.Moderation;
+
+import com.example.bookverseserver.enums.ModerationTermList;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * The moderation dictionary snapshot currently in use.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class ModerationDictionaryResponse {
+    Long version;                          // increases on every published reload
+    String source;                         // file location + database terms
+    LocalDateTime loadedAt;
+    Map<ModerationTermList, Integer> sizes; // entries per list
+}
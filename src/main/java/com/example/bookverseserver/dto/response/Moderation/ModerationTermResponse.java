@@ -0,0 +1,21 @@
+package com.example.bookverseserver.dto.response.Moderation;
+
+import com.example.bookverseserver.enums.ModerationTermList;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class ModerationTermResponse {
+    Long id;
+    String term;
+    ModerationTermList list;
+    Boolean active;
+    Long createdBy;
+    LocalDateTime createdAt;
+}
@@ -57,6 +57,11 @@ public class ModerationResponse {
      */
     Boolean aiUsed;
     
+    /**
+     * Provisional FLAG that will be settled by a batched AI review
+     */
+    Boolean pendingAiReview;
+    
     /**
      * Processing time in milliseconds
      */
@@ -20,6 +20,7 @@ import java.util.List;
 @FieldDefaults(level = AccessLevel.PRIVATE)
 public class BulkUploadResponse {
 
+    String jobId;   // per-row results at GET /api/import-jobs/{jobId}/items
     int successCount;
     int failureCount;
     List<ListingResponse> listings;
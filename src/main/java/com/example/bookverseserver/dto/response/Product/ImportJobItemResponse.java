@@ -0,0 +1,18 @@
+package com.example.bookverseserver.dto.response.Product;
+
+import com.example.bookverseserver.enums.ImportItemStatus;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class ImportJobItemResponse {
+    Integer rowNumber;     // 1-indexed
+    String key;            // listing title or ISBN
+    ImportItemStatus status;
+    Long referenceId;      // listing created or book updated
+    String message;
+}
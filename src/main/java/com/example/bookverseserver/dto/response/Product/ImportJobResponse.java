@@ -0,0 +1,34 @@
+package com.example.bookverseserver.dto.response.Product;
+
+import com.example.bookverseserver.enums.ImportJobStatus;
+import com.example.bookverseserver.enums.ImportJobType;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.time.LocalDateTime;
+
+/**
+ * Progress of a background import job; per-row results at GET /api/import-jobs/{jobId}/items.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class ImportJobResponse {
+    String jobId;
+    ImportJobType type;
+    ImportJobStatus status;
+    String phase;          // e.g. RESOLVING_ISBNS, WRITING
+    Integer totalItems;
+    Integer processedItems;
+    Integer succeededItems;
+    Integer failedItems;
+    String error;
+    String source;         // dump file of OPEN_LIBRARY_DUMP jobs
+    Long sourceOffset;     // resume a stopped dump import from here
+    Double itemsPerSecond;
+    LocalDateTime createdAt;
+    LocalDateTime startedAt;
+    LocalDateTime finishedAt;
+}
@@ -0,0 +1,53 @@
+package com.example.bookverseserver.entity.Moderation;
+
+import com.example.bookverseserver.enums.ModerationTermList;
+import jakarta.persistence.*;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * ModerationTerm - Dictionary entry added by a moderator at runtime.
+ * Merged with moderation/blocked_terms.json on every dictionary reload.
+ * Removing a term deactivates it, so the change still bumps {@code updatedAt} for reload detection.
+ */
+@Entity
+@Table(name = "moderation_term", uniqueConstraints = {
+    @UniqueConstraint(columnNames = {"term", "list_name"})
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class ModerationTerm {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    Long id;
+    
+    @Column(nullable = false, length = 500)
+    String term;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "list_name", nullable = false, length = 30)
+    ModerationTermList list;
+    
+    @Column(nullable = false)
+    @Builder.Default
+    Boolean active = true;
+    
+    @Column(name = "created_by")
+    Long createdBy; // Moderator who added the term
+    
+    @CreationTimestamp
+    @Column(name = "created_at", updatable = false)
+    LocalDateTime createdAt;
+    
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    LocalDateTime updatedAt;
+}
@@ -14,7 +14,9 @@ import com.fasterxml.jackson.annotation.JsonManagedReference;
 import java.util.*;
 
 @Entity
-@Table(name = "book_meta")
+@Table(name = "book_meta", indexes = {
+    @Index(name = "idx_book_meta_openlibrary_work", columnList = "openlibrary_work_id")
+})
 @Getter
 @Setter
 @ToString(exclude = {"images", "authors", "categories", "tags"})
@@ -107,6 +109,13 @@ public class BookMeta {
      */
     @Column(name = "openlibrary_id", length = 50)
     String openLibraryId;
+
+    /**
+     * Open Library Work ID of the edition: "OL66554W"
+     * Set by dump imports, whose works records carry the subjects
+     */
+    @Column(name = "openlibrary_work_id", length = 50)
+    String openLibraryWorkId;
     
     /**
      * Goodreads ID for cross-platform linking
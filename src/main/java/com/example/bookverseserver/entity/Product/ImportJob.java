@@ -0,0 +1,106 @@
+package com.example.bookverseserver.entity.Product;
+
+import com.example.bookverseserver.enums.ImportJobStatus;
+import com.example.bookverseserver.enums.ImportJobType;
+import jakarta.persistence.*;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * ImportJob - A bulk listing upload or catalog backfill run in the background.
+ * Counters and status are updated by the worker as it goes; per-row results
+ * are stored as {@link ImportJobItem}s.
+ */
+@Entity
+@Table(name = "import_job", indexes = {
+    @Index(name = "idx_import_job_owner", columnList = "owner_id, created_at DESC")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class ImportJob {
+
+    @Id
+    @Column(length = 36)
+    String id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 30)
+    ImportJobType type;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    ImportJobStatus status;
+
+    /**
+     * User who submitted the job (the seller for bulk listings, the admin for backfills)
+     */
+    @Column(name = "owner_id", nullable = false)
+    Long ownerId;
+
+    /**
+     * What the running job is doing, e.g. RESOLVING_ISBNS then WRITING for bulk listings
+     */
+    @Column(length = 30)
+    String phase;
+
+    @Column(name = "total_items", nullable = false)
+    @Builder.Default
+    Integer totalItems = 0;
+
+    @Column(name = "processed_items", nullable = false)
+    @Builder.Default
+    Integer processedItems = 0;
+
+    @Column(name = "succeeded_items", nullable = false)
+    @Builder.Default
+    Integer succeededItems = 0;
+
+    @Column(name = "failed_items", nullable = false)
+    @Builder.Default
+    Integer failedItems = 0;
+
+    @Column(columnDefinition = "TEXT")
+    String error;
+
+    /**
+     * Dump file of an OPEN_LIBRARY_DUMP job, relative to the dump directory
+     */
+    @Column(length = 500)
+    String source;
+
+    /**
+     * Uncompressed bytes of the source read and committed so far; a job resumed
+     * from this offset picks up where this one stopped
+     */
+    @Column(name = "source_offset")
+    Long sourceOffset;
+
+    @CreationTimestamp
+    @Column(name = "created_at", updatable = false)
+    LocalDateTime createdAt;
+
+    @Column(name = "started_at")
+    LocalDateTime startedAt;
+
+    @Column(name = "finished_at")
+    LocalDateTime finishedAt;
+
+    /**
+     * Instance whose worker queue holds the job
+     */
+    @Column(name = "worker_id", length = 36)
+    String workerId;
+
+    /**
+     * Last sign of life of that instance (database clock); a QUEUED or RUNNING job whose
+     * heartbeat is stale lost its worker and is failed by another instance
+     */
+    @Column(name = "heartbeat_at")
+    LocalDateTime heartbeatAt;
+}
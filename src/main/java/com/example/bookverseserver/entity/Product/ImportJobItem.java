@@ -0,0 +1,54 @@
+package com.example.bookverseserver.entity.Product;
+
+import com.example.bookverseserver.enums.ImportItemStatus;
+import jakarta.persistence.*;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * ImportJobItem - Result of one row of an {@link ImportJob}: the listing or book
+ * it produced, or why it failed. Written in batches by the job's worker.
+ */
+@Entity
+@Table(name = "import_job_item", indexes = {
+    @Index(name = "idx_import_job_item_job", columnList = "job_id, item_index")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class ImportJobItem {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    Long id;
+
+    @Column(name = "job_id", nullable = false, length = 36)
+    String jobId;
+
+    /**
+     * 0-based row of the upload, or position in the scan for backfills
+     */
+    @Column(name = "item_index", nullable = false)
+    Integer itemIndex;
+
+    /**
+     * What the row was about: listing title or ISBN
+     */
+    @Column(name = "item_key")
+    String itemKey;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    ImportItemStatus status;
+
+    /**
+     * Listing created, or book updated
+     */
+    @Column(name = "reference_id")
+    Long referenceId;
+
+    @Column(length = 500)
+    String message;
+}
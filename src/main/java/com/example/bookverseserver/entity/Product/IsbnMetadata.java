@@ -0,0 +1,45 @@
+package com.example.bookverseserver.entity.Product;
+
+import com.example.bookverseserver.enums.MetadataSource;
+import jakarta.persistence.*;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.time.LocalDateTime;
+
+/**
+ * IsbnMetadata - Cached answer of one external source for one ISBN.
+ * {@code payload} holds the source's RichBookData as JSON; a row with
+ * {@code found = false} records that the source had nothing (negative cache).
+ */
+@Entity
+@Table(name = "isbn_metadata", uniqueConstraints = {
+    @UniqueConstraint(columnNames = {"isbn", "source"})
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class IsbnMetadata {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    Long id;
+
+    @Column(nullable = false, length = 20)
+    String isbn;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    MetadataSource source;
+
+    @Column(nullable = false)
+    Boolean found;
+
+    @Column(columnDefinition = "TEXT")
+    String payload;
+
+    @Column(name = "fetched_at", nullable = false)
+    LocalDateTime fetchedAt;
+}
@@ -0,0 +1,10 @@
+package com.example.bookverseserver.enums;
+
+/**
+ * Result of one row (or book) of an import job
+ */
+public enum ImportItemStatus {
+    SUCCEEDED,
+    FAILED,
+    SKIPPED     // nothing to do, e.g. no external data for the ISBN
+}
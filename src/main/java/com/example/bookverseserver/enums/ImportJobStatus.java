@@ -0,0 +1,12 @@
+package com.example.bookverseserver.enums;
+
+public enum ImportJobStatus {
+    QUEUED,
+    RUNNING,
+    COMPLETED,
+    FAILED,
+    /**
+     * A FAILED dump load that has been resumed by a newer job
+     */
+    RESUMED
+}
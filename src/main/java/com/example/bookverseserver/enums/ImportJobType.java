@@ -0,0 +1,11 @@
+package com.example.bookverseserver.enums;
+
+/**
+ * Kinds of background import job, see ImportJobService
+ */
+public enum ImportJobType {
+    BULK_LISTINGS,      // a seller's bulk listing upload
+    ISBN_ENRICHMENT,    // fill in missing book metadata from Open Library / Google Books
+    RECATEGORIZATION,   // re-derive book categories from external subjects
+    OPEN_LIBRARY_DUMP   // load authors, editions and works from an Open Library dump file
+}
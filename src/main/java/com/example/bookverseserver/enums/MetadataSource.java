@@ -0,0 +1,9 @@
+package com.example.bookverseserver.enums;
+
+/**
+ * External providers of book metadata, as recorded in the ISBN metadata cache
+ */
+public enum MetadataSource {
+    OPEN_LIBRARY,
+    GOOGLE_BOOKS
+}
@@ -0,0 +1,28 @@
+package com.example.bookverseserver.enums;
+
+import lombok.Getter;
+
+/**
+ * Lists of the moderation dictionary, keyed like moderation/blocked_terms.json
+ */
+@Getter
+public enum ModerationTermList {
+    CRITICAL("critical"),                           // Immediate block
+    HIGH("high"),                                   // Flag, block when targeted
+    MEDIUM("medium"),                               // Flag
+    BOOK_WHITELIST("book_whitelist"),               // Phrases that excuse high terms ("killer story")
+    BOOK_TITLES_WHITELIST("book_titles_whitelist"), // Titles that excuse high terms ("To Kill a Mockingbird")
+    TROLL_PATTERNS("troll_patterns"),               // Regex
+    SPAM_PATTERNS("spam_patterns"),                 // Regex
+    OFF_TOPIC_KEYWORDS("off_topic_keywords");
+
+    private final String jsonKey;
+
+    ModerationTermList(String jsonKey) {
+        this.jsonKey = jsonKey;
+    }
+
+    public boolean isPattern() {
+        return this == TROLL_PATTERNS || this == SPAM_PATTERNS;
+    }
+}
@@ -41,6 +41,7 @@ public enum ErrorCode {
     CONTENT_TOXIC(400, "Your content contains language that may be offensive. Please revise and remove any hostile or hateful language.", HttpStatus.BAD_REQUEST),
     CONTENT_SPAM(400, "Your content was flagged as spam. Please remove promotional content or excessive links.", HttpStatus.BAD_REQUEST),
     CONTENT_OFF_TOPIC(400, "Your content appears off-topic. Please keep reviews focused on the book.", HttpStatus.BAD_REQUEST),
+    INVALID_MODERATION_PATTERN(400, "Moderation pattern is not a valid regular expression", HttpStatus.BAD_REQUEST),
     CANNOT_CANCEL_ORDER(400, "Cannot cancel this order (already processed or shipped)", HttpStatus.BAD_REQUEST),
     ORDER_CANNOT_BE_CANCELLED(400, "Order cannot be cancelled", HttpStatus.BAD_REQUEST),
     ORDER_ALREADY_PAID(400, "This order has already been paid", HttpStatus.BAD_REQUEST),
@@ -51,7 +52,8 @@ public enum ErrorCode {
 
     // Bulk Upload Validation
     BULK_UPLOAD_EMPTY(400, "Bulk upload must contain at least one book", HttpStatus.BAD_REQUEST),
-    BULK_UPLOAD_TOO_MANY_ITEMS(400, "Bulk upload cannot exceed 100 items", HttpStatus.BAD_REQUEST),
+    BULK_UPLOAD_TOO_MANY_ITEMS(400, "Bulk upload cannot exceed 5000 items", HttpStatus.BAD_REQUEST),
+    BULK_UPLOAD_TOO_LARGE_FOR_SYNC(400, "Uploads of more than 100 books must use POST /api/seller/listings/bulk-upload/jobs", HttpStatus.BAD_REQUEST),
 
     // Voucher Validation
     VOUCHER_CODE_REQUIRED(400, "Voucher code is required", HttpStatus.BAD_REQUEST),
@@ -111,6 +113,8 @@ public enum ErrorCode {
     AUTHOR_NOT_EXISTED(404, "Author not existed", HttpStatus.NOT_FOUND),
     NO_AUTHOR_FOUND(404, "No author found", HttpStatus.NOT_FOUND),
     LISTING_NOT_FOUND(404, "Listing not found", HttpStatus.NOT_FOUND),
+    IMPORT_JOB_NOT_FOUND(404, "Import job not found", HttpStatus.NOT_FOUND),
+    IMPORT_SOURCE_NOT_FOUND(404, "Import source file not found", HttpStatus.NOT_FOUND),
     LISTING_NOT_EXISTED(404, "Listing not existed", HttpStatus.NOT_FOUND),
     NO_LISTING_FOUND(404, "No listing found", HttpStatus.NOT_FOUND),
     REVIEW_NOT_FOUND(404, "Review not found", HttpStatus.NOT_FOUND),
@@ -129,6 +133,7 @@ public enum ErrorCode {
     FLAGGED_LISTING_NOT_FOUND(404, "Flagged listing not found", HttpStatus.NOT_FOUND),
     USER_REPORT_NOT_FOUND(404, "User report not found", HttpStatus.NOT_FOUND),
     DISPUTE_NOT_FOUND(404, "Dispute not found", HttpStatus.NOT_FOUND),
+    MODERATION_TERM_NOT_FOUND(404, "Moderation term not found", HttpStatus.NOT_FOUND),
     ORDER_NOT_DISPUTABLE(400, "This order cannot be disputed", HttpStatus.BAD_REQUEST),
     DISPUTE_ALREADY_EXISTS(409, "A dispute already exists for this order", HttpStatus.CONFLICT),
     NOT_ORDER_BUYER(403, "You are not the buyer of this order", HttpStatus.FORBIDDEN),
@@ -149,6 +154,8 @@ public enum ErrorCode {
     VOUCHER_EXPIRED(409, "Voucher code expired", HttpStatus.CONFLICT),
     REVIEW_ALREADY_EXISTS(409, "You have already reviewed this order item", HttpStatus.CONFLICT),
     ALREADY_VOTED_HELPFUL(409, "You have already voted this review as helpful", HttpStatus.CONFLICT),
+    MODERATION_BACKFILL_RUNNING(409, "A moderation backfill is already running", HttpStatus.CONFLICT),
+    IMPORT_QUEUE_FULL(429, "Too many import jobs are waiting. Please try again later.", HttpStatus.TOO_MANY_REQUESTS),
     CANNOT_VOTE_OWN_REVIEW(400, "You cannot vote on your own review", HttpStatus.BAD_REQUEST),
     REVIEW_UPDATE_EXPIRED(403, "Reviews can only be edited within 30 days of creation", HttpStatus.FORBIDDEN),
 
@@ -7,8 +7,11 @@ import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -33,4 +36,12 @@ public interface BookMetaRepository extends JpaRepository<BookMeta, String>, Jpa
 
     @EntityGraph(attributePaths = { "authors", "categories", "images" })
     Optional<BookMeta> findByIsbn(String isbn);
+
+    // Batch load with taxonomy for building the local embedding index
+    @EntityGraph(attributePaths = { "categories", "tags" })
+    List<BookMeta> findByIdIn(Collection<Long> ids);
+
+    // Bulk import: [isbn, id, lowest category id or null] per existing book
+    @Query("SELECT b.isbn, b.id, MIN(c.id) FROM BookMeta b LEFT JOIN b.categories c WHERE b.isbn IN :isbns GROUP BY b.isbn, b.id")
+    List<Object[]> findIdsAndPrimaryCategoryByIsbnIn(@Param("isbns") Collection<String> isbns);
 }
\ No newline at end of file
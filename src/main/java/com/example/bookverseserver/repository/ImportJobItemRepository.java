@@ -0,0 +1,16 @@
+package com.example.bookverseserver.repository;
+
+import com.example.bookverseserver.entity.Product.ImportJobItem;
+import com.example.bookverseserver.enums.ImportItemStatus;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ImportJobItemRepository extends JpaRepository<ImportJobItem, Long> {
+
+    Page<ImportJobItem> findByJobIdOrderByItemIndex(String jobId, Pageable pageable);
+
+    Page<ImportJobItem> findByJobIdAndStatusOrderByItemIndex(String jobId, ImportItemStatus status, Pageable pageable);
+}
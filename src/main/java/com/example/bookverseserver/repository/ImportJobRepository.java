@@ -0,0 +1,35 @@
+package com.example.bookverseserver.repository;
+
+import com.example.bookverseserver.entity.Product.ImportJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ImportJobRepository extends JpaRepository<ImportJob, String> {
+
+    List<ImportJob> findTop20ByOwnerIdOrderByCreatedAtDesc(Long ownerId);
+
+    /**
+     * Fail jobs whose worker is gone, e.g. queued or running when its server stopped:
+     * those whose heartbeat (database clock) is older than {@code staleSeconds}. Jobs of
+     * other live instances keep heartbeating and are left alone.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE import_job SET status = 'FAILED', error = :error, finished_at = :now " +
+                   "WHERE status IN (:statuses) " +
+                   "AND (heartbeat_at IS NULL OR heartbeat_at < now() - make_interval(secs => :staleSeconds))",
+           nativeQuery = true)
+    int failStale(@Param("statuses") Collection<String> statuses,
+                  @Param("staleSeconds") long staleSeconds,
+                  @Param("error") String error,
+                  @Param("now") LocalDateTime now);
+}
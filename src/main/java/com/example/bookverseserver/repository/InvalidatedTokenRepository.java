@@ -2,9 +2,35 @@ package com.example.bookverseserver.repository;
 
 import com.example.bookverseserver.entity.User.InvalidatedToken;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Date;
+import java.util.List;
 
 @Repository
 public interface InvalidatedTokenRepository extends JpaRepository<InvalidatedToken,Long> {
     boolean existsById(String id);
-}
\ No newline at end of file
+
+    /**
+     * Revoked tokens recorded since {@code since} that have not expired yet.
+     * Returns Object[]: [jti, expiryTime]
+     */
+    @Query("SELECT t.id, t.expiryTime FROM InvalidatedToken t WHERE t.createdAt >= :since AND t.expiryTime > :now")
+    List<Object[]> findUnexpiredCreatedSince(@Param("since") Date since, @Param("now") Date now);
+
+    /**
+     * Delete up to {@code limit} expired rows in its own transaction.
+     *
+     * @return Number of rows deleted; less than {@code limit} once nothing is left
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM invalidated_token WHERE id IN "
+            + "(SELECT id FROM invalidated_token WHERE expires_at < :now LIMIT :limit)",
+            nativeQuery = true)
+    int deleteExpiredBatch(@Param("now") Date now, @Param("limit") int limit);
+}
@@ -0,0 +1,14 @@
+package com.example.bookverseserver.repository;
+
+import com.example.bookverseserver.entity.Product.IsbnMetadata;
+import com.example.bookverseserver.enums.MetadataSource;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface IsbnMetadataRepository extends JpaRepository<IsbnMetadata, Long> {
+
+    Optional<IsbnMetadata> findByIsbnAndSource(String isbn, MetadataSource source);
+}
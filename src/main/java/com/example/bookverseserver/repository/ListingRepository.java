@@ -13,6 +13,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -408,6 +409,31 @@ public interface ListingRepository extends JpaRepository<Listing, Long>, JpaSpec
             Pageable pageable
     );
     
+    /**
+     * Lightweight (listingId, bookMetaId, bookMeta.updatedAt) rows for every live listing.
+     * Used to build the local embedding index without loading full entities.
+     */
+    @Query("""
+            SELECT l.id, l.bookMeta.id, l.bookMeta.updatedAt FROM Listing l
+            WHERE l.status = :status
+            AND l.visibility = true
+            AND l.deletedAt IS NULL
+            """)
+    List<Object[]> findListingBookPairs(@Param("status") ListingStatus status);
+    
+    /**
+     * Fetch a retrieved shortlist of listings with the details needed for display.
+     */
+    @Query("""
+            SELECT DISTINCT l FROM Listing l
+            LEFT JOIN FETCH l.bookMeta bm
+            LEFT JOIN FETCH bm.authors
+            LEFT JOIN FETCH bm.images
+            LEFT JOIN FETCH bm.categories
+            WHERE l.id IN :ids
+            """)
+    List<Listing> findAllWithDetailsByIdIn(@Param("ids") Collection<Long> ids);
+    
     /**
      * Find popular listings for fallback recommendations.
      */
@@ -0,0 +1,19 @@
+package com.example.bookverseserver.repository;
+
+import com.example.bookverseserver.entity.Moderation.ModerationTerm;
+import com.example.bookverseserver.enums.ModerationTermList;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ModerationTermRepository extends JpaRepository<ModerationTerm, Long> {
+    
+    List<ModerationTerm> findByActiveTrueOrderByIdAsc();
+    
+    Optional<ModerationTerm> findByTermAndList(String term, ModerationTermList list);
+    
+    Optional<ModerationTerm> findTopByOrderByUpdatedAtDesc();
+}
@@ -0,0 +1,9 @@
+package com.example.bookverseserver.repository;
+
+import com.example.bookverseserver.entity.SystemParameter;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface SystemParameterRepository extends JpaRepository<SystemParameter, String> {
+}
@@ -9,6 +9,8 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -28,6 +30,13 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     Optional<User> findByGoogleId(String googleId);
 
+    /**
+     * Password-change cutoffs for the token revocation index, without loading users and their roles.
+     * Returns Object[]: [userId, passwordChangedAt]
+     */
+    @Query("SELECT u.id, u.passwordChangedAt FROM User u WHERE u.passwordChangedAt >= :since")
+    List<Object[]> findPasswordChangesSince(@Param("since") LocalDateTime since);
+
     /**
      * P0 Security Fix #17: Case-insensitive email lookup for registration uniqueness check.
      */
@@ -0,0 +1,44 @@
+package com.example.bookverseserver.scheduled;
+
+import com.example.bookverseserver.repository.InvalidatedTokenRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+
+/**
+ * Scheduled task to purge revoked tokens that have expired anyway.
+ * Deletes in batches, each in its own transaction, so a large backlog
+ * never holds one long transaction or lock on invalidated_token.
+ */
+@Component
+public class InvalidatedTokenCleanupTask {
+    private static final Logger log = LoggerFactory.getLogger(InvalidatedTokenCleanupTask.class);
+
+    private final InvalidatedTokenRepository invalidatedTokenRepository;
+    private final int batchSize;
+
+    public InvalidatedTokenCleanupTask(InvalidatedTokenRepository invalidatedTokenRepository,
+                                       @Value("${app.security.revocation.purge-batch-size:1000}") int batchSize) {
+        this.invalidatedTokenRepository = invalidatedTokenRepository;
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    @Scheduled(fixedDelayString = "${app.security.revocation.purge-millis:3600000}")
+    public void purgeExpired() {
+        Date now = new Date();
+        int total = 0;
+        int deleted;
+        do {
+            deleted = invalidatedTokenRepository.deleteExpiredBatch(now, batchSize);
+            total += deleted;
+        } while (deleted == batchSize);
+
+        if (total > 0) {
+            log.info("Purged {} expired invalidated tokens", total);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.bookverseserver.scheduled;
+
+import com.example.bookverseserver.security.ratelimit.PostgresBucketStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Scheduled task to delete shared rate limit buckets that have fully refilled.
+ * Only runs with the database-backed store; deletes in batches like
+ * {@link InvalidatedTokenCleanupTask}.
+ */
+@Component
+@ConditionalOnProperty(name = "app.rate-limit.store", havingValue = "postgres")
+public class RateLimitBucketCleanupTask {
+    private static final Logger log = LoggerFactory.getLogger(RateLimitBucketCleanupTask.class);
+
+    private final PostgresBucketStore bucketStore;
+    private final int batchSize;
+
+    public RateLimitBucketCleanupTask(PostgresBucketStore bucketStore,
+                                      @Value("${app.rate-limit.postgres.purge-batch-size:1000}") int batchSize) {
+        this.bucketStore = bucketStore;
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    @Scheduled(fixedDelayString = "${app.rate-limit.postgres.purge-millis:300000}")
+    public void purgeExpired() {
+        int total = 0;
+        int deleted;
+        do {
+            deleted = bucketStore.purgeExpired(batchSize);
+            total += deleted;
+        } while (deleted == batchSize);
+
+        if (total > 0) {
+            log.info("Purged {} refilled rate limit buckets", total);
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package com.example.bookverseserver.security;
+
+import com.example.bookverseserver.repository.InvalidatedTokenRepository;
+import com.example.bookverseserver.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * In-memory view of token revocations, so verifying a token needs no database read.
+ *
+ * - Logged-out tokens: a Bloom filter in front of the exact jti set. Almost every
+ *   token is not revoked and is answered by the filter alone; a filter hit is
+ *   confirmed against the set. Entries are pruned once the token has expired.
+ * - Password changes: userId to the time of the last change, kept only while
+ *   tokens issued before it could still be used (refreshable duration).
+ *
+ * Loaded at startup and updated in place by logout and password changes on this
+ * instance. Changes made on other instances arrive with the periodic sync, which
+ * re-reads rows created since the previous sync (with some overlap).
+ */
+@Component
+@Slf4j
+public class TokenRevocationIndex {
+
+    // Re-read a little before the last sync: rows are stamped before their transaction commits
+    static final long SYNC_OVERLAP_MILLIS = 60_000;
+    static final double BLOOM_FALSE_POSITIVE_RATE = 0.01;
+
+    private final InvalidatedTokenRepository invalidatedTokenRepository;
+    private final UserRepository userRepository;
+    private final long retentionMillis;
+    private final int initialCapacity;
+
+    // jti -> token expiry (epoch millis)
+    private final Map<String, Long> revokedJtis = new ConcurrentHashMap<>();
+    // userId -> last password change (epoch millis)
+    private final Map<Long, Long> passwordChanges = new ConcurrentHashMap<>();
+
+    // Replaced, never cleared, when pruning or growing; writes hold the monitor
+    private volatile BloomFilter bloom;
+    private volatile long lastSyncMillis;
+
+    public TokenRevocationIndex(InvalidatedTokenRepository invalidatedTokenRepository,
+                                UserRepository userRepository,
+                                @Value("${jwt.valid-duration}") long validDuration,
+                                @Value("${jwt.refreshable-duration}") long refreshableDuration,
+                                @Value("${app.security.revocation.initial-capacity:10000}") int initialCapacity) {
+        this.invalidatedTokenRepository = invalidatedTokenRepository;
+        this.userRepository = userRepository;
+        this.retentionMillis = Math.max(validDuration, refreshableDuration) * 1000;
+        this.initialCapacity = Math.max(16, initialCapacity);
+        this.bloom = new BloomFilter(this.initialCapacity);
+    }
+
+    @PostConstruct
+    public void init() {
+        load(0L);
+        log.info("✅ Token revocation index loaded: {} revoked tokens, {} password changes",
+                revokedJtis.size(), passwordChanges.size());
+    }
+
+    public boolean isRevoked(String jti) {
+        return jti != null && bloom.mightContain(jti) && revokedJtis.containsKey(jti);
+    }
+
+    /**
+     * @return true if the user changed their password after {@code issuedAt}
+     */
+    public boolean isIssuedBeforePasswordChange(Long userId, Instant issuedAt) {
+        if (userId == null || issuedAt == null) {
+            return false;
+        }
+        Long changedAt = passwordChanges.get(userId);
+        return changedAt != null && changedAt > issuedAt.toEpochMilli();
+    }
+
+    public synchronized void revoke(String jti, Date expiryTime) {
+        if (jti == null || expiryTime == null || expiryTime.getTime() <= System.currentTimeMillis()) {
+            return;
+        }
+        revokedJtis.put(jti, expiryTime.getTime());
+        if (revokedJtis.size() > bloom.capacity) {
+            rebuildBloom();
+        } else {
+            bloom.put(jti);
+        }
+    }
+
+    public void passwordChanged(Long userId, LocalDateTime changedAt) {
+        if (userId != null && changedAt != null) {
+            passwordChanges.merge(userId, toMillis(changedAt), Math::max);
+        }
+    }
+
+    /**
+     * Pick up changes made on other instances and drop entries that can no longer matter.
+     */
+    @Scheduled(fixedDelayString = "${app.security.revocation.sync-millis:30000}")
+    public void sync() {
+        try {
+            load(lastSyncMillis - SYNC_OVERLAP_MILLIS);
+        } catch (RuntimeException e) {
+            log.warn("⚠️ Token revocation sync failed, will retry: {}", e.getMessage());
+        }
+        prune();
+    }
+
+    public int revokedCount() {
+        return revokedJtis.size();
+    }
+
+    public int passwordChangeCount() {
+        return passwordChanges.size();
+    }
+
+    private void load(long sinceMillis) {
+        long now = System.currentTimeMillis();
+        long since = Math.max(sinceMillis, now - retentionMillis);
+
+        for (Object[] row : invalidatedTokenRepository.findUnexpiredCreatedSince(new Date(since), new Date(now))) {
+            revoke((String) row[0], (Date) row[1]);
+        }
+        for (Object[] row : userRepository.findPasswordChangesSince(toLocalDateTime(since))) {
+            passwordChanged((Long) row[0], (LocalDateTime) row[1]);
+        }
+        lastSyncMillis = now;
+    }
+
+    private void prune() {
+        long now = System.currentTimeMillis();
+        boolean removed = revokedJtis.values().removeIf(expiry -> expiry <= now);
+        passwordChanges.values().removeIf(changedAt -> changedAt <= now - retentionMillis);
+        if (removed) {
+            synchronized (this) {
+                rebuildBloom();
+            }
+        }
+    }
+
+    // Caller holds the monitor
+    private void rebuildBloom() {
+        int capacity = initialCapacity;
+        while (capacity < revokedJtis.size() * 2) {
+            capacity *= 2;
+        }
+        BloomFilter next = new BloomFilter(capacity);
+        revokedJtis.keySet().forEach(next::put);
+        bloom = next;
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static LocalDateTime toLocalDateTime(long millis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault());
+    }
+
+    /**
+     * Fixed-size Bloom filter over jti strings, safe for concurrent reads and writes.
+     */
+    static final class BloomFilter {
+        final int capacity;
+        final int bitCount;
+        final int hashCount;
+        final AtomicLongArray bits;
+
+        BloomFilter(int capacity) {
+            this.capacity = capacity;
+            double ln2 = Math.log(2);
+            this.bitCount = (int) Math.ceil(-capacity * Math.log(BLOOM_FALSE_POSITIVE_RATE) / (ln2 * ln2));
+            this.hashCount = Math.max(1, (int) Math.round((double) bitCount / capacity * ln2));
+            this.bits = new AtomicLongArray((bitCount + 63) >>> 6);
+        }
+
+        void put(String key) {
+            long hash = hash(key);
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 0; i < hashCount; i++) {
+                int bit = Math.floorMod(h1 + i * h2, bitCount);
+                int word = bit >>> 6;
+                long mask = 1L << bit;
+                long current;
+                do {
+                    current = bits.get(word);
+                } while ((current & mask) == 0 && !bits.compareAndSet(word, current, current | mask));
+            }
+        }
+
+        boolean mightContain(String key) {
+            long hash = hash(key);
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 0; i < hashCount; i++) {
+                int bit = Math.floorMod(h1 + i * h2, bitCount);
+                if ((bits.get(bit >>> 6) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        // 64-bit FNV-1a; the two halves feed double hashing
+        private static long hash(String key) {
+            long hash = 0xcbf29ce484222325L;
+            for (int i = 0; i < key.length(); i++) {
+                hash ^= key.charAt(i);
+                hash *= 0x100000001b3L;
+            }
+            return hash;
+        }
+    }
+}
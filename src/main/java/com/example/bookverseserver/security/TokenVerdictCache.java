@@ -0,0 +1,88 @@
+package com.example.bookverseserver.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Remembers access tokens that passed full verification (signature, expiry,
+ * revocation, password-change cutoff) so repeat requests with the same token
+ * skip the HMAC and the database.
+ *
+ * Keyed by the raw token string, not its jti: a hit needs no parsing, and a
+ * forged token reusing a valid jti can never ride on another token's verdict.
+ * A verdict lives until the token expires or {@code verdict-recheck-seconds}
+ * pass, whichever comes first, so revocations made on another instance are
+ * picked up within that window. Revocations on this instance evict at once.
+ * When full, the least recently used verdict makes room.
+ */
+@Component
+@Slf4j
+public class TokenVerdictCache {
+
+    public record Verdict(Jwt jwt, Long userId, long validUntilMillis) {}
+
+    private final Map<String, Verdict> verdicts;
+    private final int maxEntries;
+    private final long recheckMillis;
+
+    public TokenVerdictCache(@Value("${app.security.jwt.verdict-cache-size:10000}") int maxEntries,
+                             @Value("${app.security.jwt.verdict-recheck-seconds:60}") long recheckSeconds) {
+        this.maxEntries = maxEntries;
+        this.recheckMillis = recheckSeconds * 1000;
+        this.verdicts = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Verdict> eldest) {
+                return size() > maxEntries;
+            }
+        });
+    }
+
+    /**
+     * @return The cached verified token, or null if unknown or due for re-verification
+     */
+    public Jwt get(String token) {
+        Verdict verdict = verdicts.get(token);
+        if (verdict == null) {
+            return null;
+        }
+        if (verdict.validUntilMillis() <= System.currentTimeMillis()) {
+            verdicts.remove(token, verdict);
+            return null;
+        }
+        return verdict.jwt();
+    }
+
+    public void put(String token, Jwt jwt, Long userId, long expiresAtMillis) {
+        if (maxEntries <= 0) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        verdicts.put(token, new Verdict(jwt, userId, Math.min(expiresAtMillis, now + recheckMillis)));
+    }
+
+    /**
+     * Forget a token, e.g. on logout or refresh.
+     */
+    public void evict(String token) {
+        verdicts.remove(token);
+    }
+
+    /**
+     * Forget every token of a user, e.g. after a password change.
+     */
+    public void evictUser(Long userId) {
+        if (userId != null && verdicts.values().removeIf(verdict -> userId.equals(verdict.userId()))) {
+            log.debug("Evicted cached token verdicts of user {}", userId);
+        }
+    }
+
+    public int size() {
+        return verdicts.size();
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.bookverseserver.security.ratelimit;
+
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.BucketConfiguration;
+import io.github.bucket4j.ConsumptionProbe;
+import io.github.bucket4j.local.LocalBucketBuilder;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiFunction;
+
+/**
+ * In-heap bucket store bounded by size and idle time.
+ *
+ * Buckets are spread over access-ordered segments, each an LRU map with its own
+ * lock, so eviction never wipes everyone's limits at once:
+ * - A bucket untouched for longer than {@code idleTimeout} is dropped. With an idle
+ *   timeout at least as long as the longest refill period it would have been full
+ *   again anyway, so dropping it loses nothing.
+ * - Past {@code maxEntries}, the least recently used bucket of the segment goes.
+ *   Active clients keep their buckets; only the quietest one is forgotten.
+ *
+ * Buckets are plain in-heap buckets unless a {@code bucketFactory} is given;
+ * {@link PostgresBucketStore} uses that to hold proxies of shared buckets.
+ */
+public class LocalBucketStore implements RateLimitBucketStore {
+
+    private static final int SEGMENTS = 16;
+
+    private final Segment[] segments = new Segment[SEGMENTS];
+    private final long idleNanos;
+    private final LongAdder evictions = new LongAdder();
+    private final BiFunction<String, BucketConfiguration, Bucket> bucketFactory;
+
+    public LocalBucketStore(int maxEntries, Duration idleTimeout) {
+        this(maxEntries, idleTimeout, (key, configuration) -> newBucket(configuration));
+    }
+
+    public LocalBucketStore(int maxEntries, Duration idleTimeout,
+                            BiFunction<String, BucketConfiguration, Bucket> bucketFactory) {
+        int perSegment = Math.max(1, maxEntries / SEGMENTS);
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment(perSegment);
+        }
+        this.idleNanos = idleTimeout.toNanos();
+        this.bucketFactory = bucketFactory;
+    }
+
+    @Override
+    public ConsumptionProbe tryConsume(String key, BucketConfiguration configuration) {
+        int hash = key.hashCode();
+        Segment segment = segments[(hash ^ (hash >>> 16)) & (SEGMENTS - 1)];
+        long now = System.nanoTime();
+
+        Bucket bucket;
+        synchronized (segment) {
+            segment.evictIdle(now);
+            Entry entry = segment.get(key);
+            if (entry == null) {
+                entry = new Entry(bucketFactory.apply(key, configuration));
+                segment.put(key, entry);
+            }
+            entry.lastAccessNanos = now;
+            bucket = entry.bucket;
+        }
+        // Buckets are thread-safe; consume outside the segment lock
+        return bucket.tryConsumeAndReturnRemaining(1);
+    }
+
+    @Override
+    public long size() {
+        long size = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    @Override
+    public long evictions() {
+        return evictions.sum();
+    }
+
+    private static Bucket newBucket(BucketConfiguration configuration) {
+        LocalBucketBuilder builder = Bucket.builder();
+        for (Bandwidth bandwidth : configuration.getBandwidths()) {
+            builder.addLimit(bandwidth);
+        }
+        return builder.build();
+    }
+
+    private static final class Entry {
+        final Bucket bucket;
+        long lastAccessNanos;
+
+        Entry(Bucket bucket) {
+            this.bucket = bucket;
+        }
+    }
+
+    private final class Segment extends LinkedHashMap<String, Entry> {
+        private final int capacity;
+
+        Segment(int capacity) {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+        }
+
+        // Least recently used first: stop at the first bucket still in use
+        void evictIdle(long now) {
+            Iterator<Entry> it = values().iterator();
+            while (it.hasNext() && now - it.next().lastAccessNanos > idleNanos) {
+                it.remove();
+                evictions.increment();
+            }
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+            if (size() > capacity) {
+                evictions.increment();
+                return true;
+            }
+            return false;
+        }
+    }
+}
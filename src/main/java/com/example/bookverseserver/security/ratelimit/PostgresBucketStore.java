@@ -0,0 +1,265 @@
+package com.example.bookverseserver.security.ratelimit;
+
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.BucketConfiguration;
+import io.github.bucket4j.ConsumptionProbe;
+import io.github.bucket4j.distributed.ExpirationAfterWriteStrategy;
+import io.github.bucket4j.distributed.proxy.ClientSideConfig;
+import io.github.bucket4j.distributed.proxy.RemoteBucketBuilder;
+import io.github.bucket4j.distributed.proxy.generic.select_for_update.AbstractSelectForUpdateBasedProxyManager;
+import io.github.bucket4j.distributed.proxy.generic.select_for_update.LockAndGetResult;
+import io.github.bucket4j.distributed.proxy.generic.select_for_update.SelectForUpdateBasedTransaction;
+import io.github.bucket4j.distributed.proxy.optimization.DelayParameters;
+import io.github.bucket4j.distributed.proxy.optimization.Optimizations;
+import io.github.bucket4j.distributed.remote.RemoteBucketState;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Bucket store shared by every instance through the application database, so a
+ * client gets the same limits whichever instance serves it.
+ *
+ * Each bucket is a row of {@code rate_limit_bucket}, updated under
+ * {@code SELECT ... FOR UPDATE} by Bucket4j's select-for-update proxy manager.
+ * The table is created on startup if missing (it has no JPA entity).
+ *
+ * Bucket proxies are kept per key in a {@link LocalBucketStore}, each with a local
+ * token prefetch: up to {@code prefetchRatio} of a bucket's capacity is consumed
+ * locally and written back in one transaction, or after {@code maxUnsynchronized}
+ * at the latest. Across N instances a client can overshoot by at most N times
+ * that share. Buckets too small to get a whole token (login, OTP...) are synced
+ * on every request.
+ *
+ * Rows carry the time their bucket is full again; {@link #purgeExpired(int)}
+ * deletes those, which loses nothing.
+ */
+@Slf4j
+public class PostgresBucketStore implements RateLimitBucketStore {
+
+    static final String TABLE = "rate_limit_bucket";
+    static final String UNIQUE_VIOLATION = "23505";
+
+    private final DataSource dataSource;
+    private final JdbcProxyManager proxyManager;
+    private final LocalBucketStore proxies;
+    private final double prefetchRatio;
+    private final Duration maxUnsynchronized;
+
+    public PostgresBucketStore(DataSource dataSource, int maxEntries, Duration idleTimeout,
+                               double prefetchRatio, Duration maxUnsynchronized) {
+        this.dataSource = dataSource;
+        this.prefetchRatio = prefetchRatio;
+        this.maxUnsynchronized = maxUnsynchronized;
+        // Keep rows a little past full refill so a quiet client doesn't churn inserts
+        this.proxyManager = new JdbcProxyManager(dataSource, ClientSideConfig.getDefault()
+                .withExpirationAfterWriteStrategy(
+                        ExpirationAfterWriteStrategy.basedOnTimeForRefillingBucketUpToMax(Duration.ofSeconds(10))));
+        this.proxies = new LocalBucketStore(maxEntries, idleTimeout, this::newProxy);
+        createTableIfMissing();
+    }
+
+    @Override
+    public ConsumptionProbe tryConsume(String key, BucketConfiguration configuration) {
+        return proxies.tryConsume(key, configuration);
+    }
+
+    /**
+     * @return Number of bucket proxies held by this instance
+     */
+    @Override
+    public long size() {
+        return proxies.size();
+    }
+
+    @Override
+    public long evictions() {
+        return proxies.evictions();
+    }
+
+    /**
+     * Delete up to {@code limit} rows whose bucket has fully refilled.
+     *
+     * @return Number of rows deleted
+     */
+    public int purgeExpired(int limit) {
+        String sql = "DELETE FROM " + TABLE + " WHERE id IN (SELECT id FROM " + TABLE
+                + " WHERE expires_at < ? LIMIT ?)";
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setLong(1, System.currentTimeMillis());
+            statement.setInt(2, limit);
+            return statement.executeUpdate();
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed to purge rate limit buckets", e);
+        }
+    }
+
+    private Bucket newProxy(String key, BucketConfiguration configuration) {
+        RemoteBucketBuilder<String> builder = proxyManager.builder();
+        long prefetch = (long) (capacity(configuration) * prefetchRatio);
+        if (prefetch > 0) {
+            builder = builder.withOptimization(Optimizations.delaying(new DelayParameters(prefetch, maxUnsynchronized)));
+        }
+        return builder.build(key, () -> configuration);
+    }
+
+    private static long capacity(BucketConfiguration configuration) {
+        long capacity = Long.MAX_VALUE;
+        for (Bandwidth bandwidth : configuration.getBandwidths()) {
+            capacity = Math.min(capacity, bandwidth.getCapacity());
+        }
+        return capacity;
+    }
+
+    private void createTableIfMissing() {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE IF NOT EXISTS " + TABLE
+                    + " (id VARCHAR(255) PRIMARY KEY, state BYTEA, expires_at BIGINT)");
+            statement.execute("CREATE INDEX IF NOT EXISTS idx_" + TABLE + "_expires_at ON " + TABLE + " (expires_at)");
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed to create " + TABLE, e);
+        }
+    }
+
+    /**
+     * Bucket4j proxy manager over plain JDBC: one connection and transaction per command.
+     */
+    static final class JdbcProxyManager extends AbstractSelectForUpdateBasedProxyManager<String> {
+
+        private final DataSource dataSource;
+        private final ClientSideConfig clientSideConfig;
+
+        JdbcProxyManager(DataSource dataSource, ClientSideConfig clientSideConfig) {
+            super(clientSideConfig);
+            this.dataSource = dataSource;
+            this.clientSideConfig = clientSideConfig;
+        }
+
+        @Override
+        public void removeProxy(String key) {
+            try (Connection connection = dataSource.getConnection();
+                 PreparedStatement statement = connection.prepareStatement("DELETE FROM " + TABLE + " WHERE id = ?")) {
+                statement.setString(1, key);
+                statement.executeUpdate();
+            } catch (SQLException e) {
+                throw new IllegalStateException("Failed to remove rate limit bucket", e);
+            }
+        }
+
+        @Override
+        public boolean isExpireAfterWriteSupported() {
+            return true;
+        }
+
+        @Override
+        protected SelectForUpdateBasedTransaction allocateTransaction(String key, Optional<Long> requestTimeoutNanos) {
+            Connection connection;
+            try {
+                connection = dataSource.getConnection();
+            } catch (SQLException e) {
+                throw new IllegalStateException("No connection for rate limit bucket", e);
+            }
+
+            return new SelectForUpdateBasedTransaction() {
+                @Override
+                public void begin(Optional<Long> timeoutNanos) {
+                    try {
+                        connection.setAutoCommit(false);
+                    } catch (SQLException e) {
+                        throw new IllegalStateException(e);
+                    }
+                }
+
+                @Override
+                public LockAndGetResult tryLockAndGet(Optional<Long> timeoutNanos) {
+                    try (PreparedStatement statement = connection.prepareStatement(
+                            "SELECT state FROM " + TABLE + " WHERE id = ? FOR UPDATE")) {
+                        applyTimeout(statement, timeoutNanos);
+                        statement.setString(1, key);
+                        try (ResultSet rs = statement.executeQuery()) {
+                            return rs.next() ? LockAndGetResult.locked(rs.getBytes(1)) : LockAndGetResult.notLocked();
+                        }
+                    } catch (SQLException e) {
+                        throw new IllegalStateException(e);
+                    }
+                }
+
+                @Override
+                public boolean tryInsertEmptyData(Optional<Long> timeoutNanos) {
+                    try (PreparedStatement statement = connection.prepareStatement(
+                            "INSERT INTO " + TABLE + " (id, state, expires_at) VALUES (?, NULL, NULL)")) {
+                        applyTimeout(statement, timeoutNanos);
+                        statement.setString(1, key);
+                        statement.executeUpdate();
+                        return true;
+                    } catch (SQLException e) {
+                        if (UNIQUE_VIOLATION.equals(e.getSQLState())) {
+                            // Another instance inserted it first: Bucket4j rolls back and locks that row
+                            return false;
+                        }
+                        throw new IllegalStateException(e);
+                    }
+                }
+
+                @Override
+                public void update(byte[] data, RemoteBucketState newState, Optional<Long> timeoutNanos) {
+                    try (PreparedStatement statement = connection.prepareStatement(
+                            "UPDATE " + TABLE + " SET state = ?, expires_at = ? WHERE id = ?")) {
+                        applyTimeout(statement, timeoutNanos);
+                        statement.setBytes(1, data);
+                        statement.setLong(2, expiresAt(newState));
+                        statement.setString(3, key);
+                        statement.executeUpdate();
+                    } catch (SQLException e) {
+                        throw new IllegalStateException(e);
+                    }
+                }
+
+                @Override
+                public void commit(Optional<Long> timeoutNanos) {
+                    try {
+                        connection.commit();
+                    } catch (SQLException e) {
+                        throw new IllegalStateException(e);
+                    }
+                }
+
+                @Override
+                public void rollback() {
+                    try {
+                        connection.rollback();
+                    } catch (SQLException e) {
+                        throw new IllegalStateException(e);
+                    }
+                }
+
+                @Override
+                public void release() {
+                    try {
+                        connection.close();
+                    } catch (SQLException e) {
+                        log.warn("Failed to release rate limit bucket connection: {}", e.getMessage());
+                    }
+                }
+            };
+        }
+
+        private long expiresAt(RemoteBucketState state) {
+            long nowMillis = System.currentTimeMillis();
+            long ttlMillis = clientSideConfig.getExpirationAfterWriteStrategy()
+                    .map(strategy -> strategy.calculateTimeToLiveMillis(state, nowMillis * 1_000_000))
+                    .orElse(Long.MAX_VALUE - nowMillis);
+            return nowMillis + ttlMillis;
+        }
+    }
+}
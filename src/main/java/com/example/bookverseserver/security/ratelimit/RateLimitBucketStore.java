@@ -0,0 +1,29 @@
+package com.example.bookverseserver.security.ratelimit;
+
+import io.github.bucket4j.BucketConfiguration;
+import io.github.bucket4j.ConsumptionProbe;
+
+/**
+ * Where rate limit buckets live. {@link LocalBucketStore} is used unless another
+ * implementation is registered as a bean, e.g. {@link PostgresBucketStore} with
+ * {@code app.rate-limit.store=postgres}.
+ */
+public interface RateLimitBucketStore {
+
+    /**
+     * Take one token from the bucket for {@code key}, creating it with {@code configuration} if needed.
+     */
+    ConsumptionProbe tryConsume(String key, BucketConfiguration configuration);
+
+    /**
+     * @return Number of buckets currently held
+     */
+    long size();
+
+    /**
+     * @return Buckets dropped to stay within bounds, since startup
+     */
+    default long evictions() {
+        return 0;
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.bookverseserver.security.ratelimit;
+
+import lombok.Getter;
+
+/**
+ * Rate limit classes. A request is charged to at most one endpoint rule
+ * (brute-force protection on specific auth POSTs) and exactly one tier.
+ *
+ * Limits are per minute, overridable with
+ * {@code app.rate-limit.<key>.requests-per-minute}.
+ */
+@Getter
+public enum RateLimitRule {
+    // Endpoint rules - always keyed by client IP
+    LOGIN("login", 5, true),
+    REGISTRATION("registration", 3, true),
+    PASSWORD_RESET("password-reset", 3, true),
+    OTP("otp", 5, true),
+
+    // Tiers
+    AUTH("auth", 20, true),
+    SEARCH("search", 60, false),
+    GENERAL("general", 100, false);
+
+    private final String key;
+    private final int defaultRequestsPerMinute;
+    private final boolean ipOnly;   // never keyed by user, e.g. logins
+
+    RateLimitRule(String key, int defaultRequestsPerMinute, boolean ipOnly) {
+        this.key = key;
+        this.defaultRequestsPerMinute = defaultRequestsPerMinute;
+        this.ipOnly = ipOnly;
+    }
+
+    public String propertyName() {
+        return "app.rate-limit." + key + ".requests-per-minute";
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.bookverseserver.security.route;
+
+import com.example.bookverseserver.security.ratelimit.RateLimitRule;
+import lombok.Getter;
+
+/**
+ * What kind of endpoint a request targets, as decided by {@link RouteClassifier}.
+ * Carries the rate limit rules charged for it; requests and latency are counted
+ * per class by {@link RouteMetrics}.
+ */
+@Getter
+public enum RouteClass {
+    // API docs, error page, actuator: not rate limited
+    EXCLUDED("excluded", null, null),
+
+    // Brute-force targets: endpoint rule (POST only) on top of the auth tier
+    LOGIN("login", RateLimitRule.LOGIN, RateLimitRule.AUTH),
+    REGISTRATION("registration", RateLimitRule.REGISTRATION, RateLimitRule.AUTH),
+    PASSWORD_RESET("password-reset", RateLimitRule.PASSWORD_RESET, RateLimitRule.AUTH),
+    OTP("otp", RateLimitRule.OTP, RateLimitRule.AUTH),
+
+    AUTH("auth", null, RateLimitRule.AUTH),
+    SEARCH("search", null, RateLimitRule.SEARCH),
+    GENERAL("general", null, RateLimitRule.GENERAL);
+
+    private final String key;
+    private final RateLimitRule endpointRule;   // null if none
+    private final RateLimitRule tier;           // null if not rate limited
+
+    RouteClass(String key, RateLimitRule endpointRule, RateLimitRule tier) {
+        this.key = key;
+        this.endpointRule = endpointRule;
+        this.tier = tier;
+    }
+
+    public boolean isRateLimited() {
+        return tier != null;
+    }
+}
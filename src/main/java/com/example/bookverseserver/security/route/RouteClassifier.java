@@ -0,0 +1,163 @@
+package com.example.bookverseserver.security.route;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maps a request path to its {@link RouteClass} in one walk over its segments.
+ *
+ * Routes are compiled once into a trie keyed by path segment. A pattern is a
+ * literal path where a segment may be {@code *} (any one segment) and the last
+ * segment may be {@code **} (this path and everything below it). The most
+ * specific route wins: a literal segment before {@code *}, a deeper match
+ * before a shallower {@code **}. Unmatched paths are {@link RouteClass#GENERAL}.
+ *
+ * Filters share the class through a request attribute, so a request is
+ * classified once however many filters ask.
+ */
+public final class RouteClassifier {
+
+    public static final String ATTRIBUTE = RouteClassifier.class.getName() + ".ROUTE_CLASS";
+
+    private static final RouteClassifier STANDARD = new Builder()
+            .route("/v3/api-docs/**", RouteClass.EXCLUDED)
+            .route("/swagger-ui/**", RouteClass.EXCLUDED)
+            .route("/swagger-ui.html", RouteClass.EXCLUDED)
+            .route("/error", RouteClass.EXCLUDED)
+            .route("/actuator/**", RouteClass.EXCLUDED)
+            .route("/api/auth/login", RouteClass.LOGIN)
+            .route("/api/auth/token", RouteClass.LOGIN)
+            .route("/api/auth/register", RouteClass.REGISTRATION)
+            .route("/api/auth/signup", RouteClass.REGISTRATION)
+            .route("/api/auth/forgot-password", RouteClass.PASSWORD_RESET)
+            .route("/api/auth/change-forgot-password", RouteClass.PASSWORD_RESET)
+            .route("/api/auth/reset-password", RouteClass.PASSWORD_RESET)
+            .route("/api/auth/send-otp", RouteClass.OTP)
+            .route("/api/auth/verify-otp", RouteClass.OTP)
+            .route("/api/auth/otp/**", RouteClass.OTP)
+            .route("/api/auth/**", RouteClass.AUTH)
+            .route("/login/**", RouteClass.AUTH)
+            .route("/oauth2/**", RouteClass.AUTH)
+            .route("/api/search/**", RouteClass.SEARCH)
+            .route("/api/*/search/**", RouteClass.SEARCH)
+            .build();
+
+    private final Node root;
+
+    private RouteClassifier(Node root) {
+        this.root = root;
+    }
+
+    /**
+     * @return The application's route table
+     */
+    public static RouteClassifier standard() {
+        return STANDARD;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Classify the request, or return the class an earlier filter already stored on it.
+     */
+    public RouteClass classify(HttpServletRequest request) {
+        if (request.getAttribute(ATTRIBUTE) instanceof RouteClass routeClass) {
+            return routeClass;
+        }
+        RouteClass routeClass = classify(request.getRequestURI());
+        request.setAttribute(ATTRIBUTE, routeClass);
+        return routeClass;
+    }
+
+    public RouteClass classify(String path) {
+        RouteClass routeClass = match(root, segments(path), 0);
+        return routeClass != null ? routeClass : RouteClass.GENERAL;
+    }
+
+    private static RouteClass match(Node node, List<String> segments, int index) {
+        if (index == segments.size()) {
+            return node.exact != null ? node.exact : node.subtree;
+        }
+        RouteClass found = null;
+        Node literal = node.children.get(segments.get(index));
+        if (literal != null) {
+            found = match(literal, segments, index + 1);
+        }
+        if (found == null && node.wildcard != null) {
+            found = match(node.wildcard, segments, index + 1);
+        }
+        return found != null ? found : node.subtree;
+    }
+
+    // Empty segments ("//", trailing "/") are skipped, and ";..." path parameters dropped
+    private static List<String> segments(String path) {
+        List<String> segments = new ArrayList<>(8);
+        if (path == null) {
+            return segments;
+        }
+        int length = path.length();
+        int start = 0;
+        while (start < length) {
+            int end = path.indexOf('/', start);
+            if (end < 0) {
+                end = length;
+            }
+            int paramStart = path.indexOf(';', start);
+            int segmentEnd = paramStart >= 0 && paramStart < end ? paramStart : end;
+            if (segmentEnd > start) {
+                segments.add(path.substring(start, segmentEnd));
+            }
+            start = end + 1;
+        }
+        return segments;
+    }
+
+    private static final class Node {
+        final Map<String, Node> children = new HashMap<>();
+        Node wildcard;          // "*"
+        RouteClass exact;       // the path ends here
+        RouteClass subtree;     // "**": here and below
+    }
+
+    public static final class Builder {
+        private final Node root = new Node();
+
+        private Builder() {
+        }
+
+        public Builder route(String pattern, RouteClass routeClass) {
+            List<String> segments = segments(pattern);
+            Node node = root;
+            for (int i = 0; i < segments.size(); i++) {
+                String segment = segments.get(i);
+                if (segment.equals("**")) {
+                    if (i != segments.size() - 1) {
+                        throw new IllegalArgumentException("'**' must be the last segment: " + pattern);
+                    }
+                    node.subtree = routeClass;
+                    return this;
+                }
+                if (segment.equals("*")) {
+                    if (node.wildcard == null) {
+                        node.wildcard = new Node();
+                    }
+                    node = node.wildcard;
+                } else {
+                    node = node.children.computeIfAbsent(segment, s -> new Node());
+                }
+            }
+            node.exact = routeClass;
+            return this;
+        }
+
+        public RouteClassifier build() {
+            return new RouteClassifier(root);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.bookverseserver.security.route;
+
+import com.example.bookverseserver.dto.response.Admin.RouteStatsResponse;
+import com.example.bookverseserver.util.LatencyHistogram;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Request counters and latency histograms per {@link RouteClass}, since startup.
+ *
+ * Latencies go into a {@link LatencyHistogram}, so recording is a couple of adds
+ * with no locking and percentiles are reported as bucket upper bounds.
+ */
+public class RouteMetrics {
+
+    private final Map<RouteClass, Counters> counters = new EnumMap<>(RouteClass.class);
+
+    public RouteMetrics() {
+        for (RouteClass routeClass : RouteClass.values()) {
+            counters.put(routeClass, new Counters());
+        }
+    }
+
+    public void record(RouteClass routeClass, long elapsedNanos, int status) {
+        Counters counter = counters.get(routeClass);
+        counter.requests.increment();
+        if (status >= 500) {
+            counter.serverErrors.increment();
+        }
+        counter.latency.record(elapsedNanos / 1_000_000);
+    }
+
+    public long requests(RouteClass routeClass) {
+        return counters.get(routeClass).requests.sum();
+    }
+
+    public RouteStatsResponse snapshot() {
+        List<RouteStatsResponse.RouteClassStats> classes = new ArrayList<>();
+        for (RouteClass routeClass : RouteClass.values()) {
+            Counters counter = counters.get(routeClass);
+            LatencyHistogram.Snapshot latency = counter.latency.snapshot();
+            classes.add(RouteStatsResponse.RouteClassStats.builder()
+                    .routeClass(routeClass.getKey())
+                    .requests(latency.count())
+                    .serverErrors(counter.serverErrors.sum())
+                    .meanMillis(latency.meanMillis())
+                    .p50Millis(latency.percentileMillis(0.50))
+                    .p95Millis(latency.percentileMillis(0.95))
+                    .p99Millis(latency.percentileMillis(0.99))
+                    .latency(latency.buckets())
+                    .build());
+        }
+        return RouteStatsResponse.builder().routes(classes).build();
+    }
+
+    private static final class Counters {
+        final LongAdder requests = new LongAdder();
+        final LongAdder serverErrors = new LongAdder();
+        final LatencyHistogram latency = new LatencyHistogram();
+    }
+}
@@ -12,6 +12,9 @@ import com.example.bookverseserver.repository.ReviewRepository;
 import com.example.bookverseserver.repository.UserProfileRepository;
 import com.example.bookverseserver.service.ai.AIProviderException;
 import com.example.bookverseserver.service.ai.ProviderRotator;
+import com.example.bookverseserver.service.embedding.BookEmbeddingIndex;
+import com.example.bookverseserver.util.ExternalCategoryMapper;
+import com.example.bookverseserver.util.SearchQueryParser;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.annotation.PostConstruct;
@@ -24,6 +27,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.*;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 import static lombok.AccessLevel.PRIVATE;
@@ -54,24 +58,37 @@ public class AIService {
     final ListingRepository listingRepository;
     final ReviewRepository reviewRepository;
     final UserProfileRepository userProfileRepository;
+    final BookEmbeddingIndex embeddingIndex;
     final ListingMapper listingMapper;
     final ObjectMapper objectMapper;
     
+    // Parsed search filters by normalized query (LRU)
+    final Map<String, SearchFilters> searchParseCache;
+    
     // Self-injection for proxy-based @Transactional to work on internal method calls
     AIService self;
     
     @Autowired
     public AIService(AIConfig aiConfig, ProviderRotator providerRotator, 
                      ListingRepository listingRepository, ReviewRepository reviewRepository,
-                     UserProfileRepository userProfileRepository,
+                     UserProfileRepository userProfileRepository, BookEmbeddingIndex embeddingIndex,
                      ListingMapper listingMapper, ObjectMapper objectMapper) {
         this.aiConfig = aiConfig;
         this.providerRotator = providerRotator;
         this.listingRepository = listingRepository;
         this.reviewRepository = reviewRepository;
         this.userProfileRepository = userProfileRepository;
+        this.embeddingIndex = embeddingIndex;
         this.listingMapper = listingMapper;
         this.objectMapper = objectMapper;
+        
+        int cacheSize = aiConfig.getSearchParseCacheSize();
+        this.searchParseCache = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, SearchFilters> eldest) {
+                return size() > cacheSize;
+            }
+        });
     }
     
     @Autowired
@@ -96,6 +113,7 @@ public class AIService {
                 aiConfig.getCohereApiKey(),
                 aiConfig.getGeminiApiKey()
         );
+        providerRotator.configureAdmission(aiConfig.getMaxQueuedRequests(), aiConfig.getMaxQueueWaitMillis());
         
         if (providerRotator.isReady()) {
             log.info("🚀 AI Service ready with {} providers", providerRotator.getTotalProviderCount());
@@ -154,12 +172,22 @@ public class AIService {
             // Parse user preferences
             JsonNode prefs = objectMapper.readTree(preferencesJson);
             
-            // Extract preferred categories
+            // Extract preferred categories; "like" ones only feed the preference vector
             List<String> preferredCategories = new ArrayList<>();
+            StringBuilder preferenceText = new StringBuilder();
             if (prefs.has("categories") && prefs.get("categories").isArray()) {
                 for (JsonNode cat : prefs.get("categories")) {
-                    if (cat.has("slug") && "love".equals(cat.path("interestLevel").asText())) {
-                        preferredCategories.add(cat.get("slug").asText());
+                    if (!cat.has("slug")) {
+                        continue;
+                    }
+                    String slug = cat.get("slug").asText();
+                    String interest = cat.path("interestLevel").asText();
+                    if ("love".equals(interest)) {
+                        preferredCategories.add(slug);
+                        // Repeat to weight loved categories above liked ones
+                        preferenceText.append(slug).append(' ').append(slug).append(' ');
+                    } else if ("like".equals(interest)) {
+                        preferenceText.append(slug).append(' ');
                     }
                 }
             }
@@ -194,8 +222,16 @@ public class AIService {
                 return getFallbackRecommendations(excludeListingIds, limit);
             }
             
-            // If AI is available, use it to rank/personalize further
-            // For now, return top matches directly
+            // Rank candidates locally against the user's preference vector
+            if (embeddingIndex.isReady() && !preferenceText.isEmpty()) {
+                Map<Long, Listing> byId = candidates.stream()
+                        .collect(Collectors.toMap(Listing::getId, l -> l, (a, b) -> a, LinkedHashMap::new));
+                List<Long> ranked = embeddingIndex.rank(
+                        preferenceText.toString().replace('-', ' ').replace('_', ' '),
+                        new ArrayList<>(byId.keySet()));
+                candidates = ranked.stream().map(byId::get).toList();
+            }
+            
             return candidates.stream()
                     .limit(limit)
                     .map(listingMapper::toListingResponse)
@@ -210,12 +246,42 @@ public class AIService {
     /**
      * Parse natural language search query into structured filters.
      * 
+     * Common patterns ("mystery under 100k", "by Agatha Christie like new") are parsed
+     * locally by {@link SearchQueryParser}; only queries that need interpretation go to
+     * the LLM. Results are cached by normalized query either way.
+     * 
      * Example: "cheap mystery books under $15" → 
-     *   { categories: ["mystery"], maxPrice: 15, condition: null }
+     *   { categories: ["mystery"], maxPrice: 375000, condition: null }
      */
     public SearchFilters parseNaturalLanguageQuery(String query) {
-        if (!aiConfig.isEnabled() || query == null || query.length() < 5) {
-            return new SearchFilters(query, null, null, null, null);
+        if (query == null || query.isBlank()) {
+            return SearchFilters.of(query);
+        }
+        
+        String cacheKey = query.trim().toLowerCase().replaceAll("\\s+", " ");
+        SearchFilters cached = searchParseCache.get(cacheKey);
+        if (cached != null) {
+            return cached;
+        }
+        
+        Optional<SearchQueryParser.ParsedQuery> local = SearchQueryParser.parse(query, aiConfig.getUsdToVndRate());
+        if (local.isPresent()) {
+            SearchQueryParser.ParsedQuery parsed = local.get();
+            SearchFilters filters = new SearchFilters(
+                    parsed.searchTerms(),
+                    parsed.author(),
+                    parsed.categories(),
+                    parsed.minPrice(),
+                    parsed.maxPrice(),
+                    parsed.minRating(),
+                    parsed.condition()
+            );
+            searchParseCache.put(cacheKey, filters);
+            return filters;
+        }
+        
+        if (!aiConfig.isEnabled() || query.length() < 5) {
+            return SearchFilters.of(query);
         }
         
         try {
@@ -225,10 +291,14 @@ public class AIService {
             // Parse JSON response
             JsonNode filters = objectMapper.readTree(response);
             
-            return new SearchFilters(
+            SearchFilters result = new SearchFilters(
                     filters.path("searchTerms").asText(query),
+                    filters.path("author").isTextual() 
+                            ? filters.path("author").asText() : null,
                     filters.path("categories").isArray() 
                             ? streamToList(filters.path("categories").elements()) : null,
+                    filters.path("minPrice").isNumber() 
+                            ? filters.path("minPrice").asDouble() : null,
                     filters.path("maxPrice").isNumber() 
                             ? filters.path("maxPrice").asDouble() : null,
                     filters.path("minRating").isNumber() 
@@ -236,10 +306,12 @@ public class AIService {
                     filters.path("condition").isTextual() 
                             ? filters.path("condition").asText() : null
             );
+            searchParseCache.put(cacheKey, result);
+            return result;
             
         } catch (Exception e) {
             log.warn("Failed to parse natural language query: {}", e.getMessage());
-            return new SearchFilters(query, null, null, null, null);
+            return SearchFilters.of(query);
         }
     }
     
@@ -297,15 +369,7 @@ public class AIService {
             // AI call happens OUTSIDE the transaction - no connection leak!
             String response = callLLM(prompt);
             
-            JsonNode summary = objectMapper.readTree(response);
-            
-            return new ReviewSummary(
-                    summary.path("overallSentiment").asText("mixed"),
-                    summary.path("summary").asText(),
-                    streamToList(summary.path("strengths").elements()),
-                    streamToList(summary.path("weaknesses").elements()),
-                    summary.path("recommendedFor").asText()
-            );
+            return parseReviewSummary(response);
             
         } catch (Exception e) {
             log.warn("Failed to summarize reviews: {}", e.getMessage());
@@ -313,6 +377,43 @@ public class AIService {
         }
     }
     
+    /**
+     * Streaming variant of {@link #summarizeReviews(Long)}: raw model text is passed to
+     * {@code onToken} as it is generated, and the parsed summary is returned at the end.
+     * Falls back to the stats summary (no tokens) when AI is off or fails before output.
+     */
+    public ReviewSummary summarizeReviewsStreaming(Long bookId, Consumer<String> onToken) {
+        List<ReviewSnapshot> reviews = self.fetchReviewSnapshots(bookId);
+        
+        if (reviews.size() < 3) {
+            return null;
+        }
+        
+        if (!aiConfig.isEnabled()) {
+            return buildStatsSummaryFromSnapshots(reviews);
+        }
+        
+        try {
+            String response = streamLLM(buildReviewSummaryPromptFromSnapshots(reviews), onToken);
+            return parseReviewSummary(response);
+        } catch (Exception e) {
+            log.warn("Failed to stream review summary: {}", e.getMessage());
+            return buildStatsSummaryFromSnapshots(reviews);
+        }
+    }
+    
+    private ReviewSummary parseReviewSummary(String response) throws Exception {
+        JsonNode summary = objectMapper.readTree(response);
+        
+        return new ReviewSummary(
+                summary.path("overallSentiment").asText("mixed"),
+                summary.path("summary").asText(),
+                streamToList(summary.path("strengths").elements()),
+                streamToList(summary.path("weaknesses").elements()),
+                summary.path("recommendedFor").asText()
+        );
+    }
+    
     // ─────────────────────────────────────────────────────────────────────────────
     // Private Helpers
     // ─────────────────────────────────────────────────────────────────────────────
@@ -331,12 +432,19 @@ public class AIService {
     /**
      * Call LLM using multi-provider rotation.
      * Falls back gracefully through all available providers.
+     * Sheds the call up front when every provider bucket is empty, so callers
+     * degrade to their stats-based fallback without waiting.
      */
     private String callLLM(String prompt) {
         if (!providerRotator.isReady()) {
             throw new IllegalStateException("No AI providers configured");
         }
         
+        if (!providerRotator.canAdmit()) {
+            log.info("AI capacity exhausted, shedding call to fallback");
+            throw new IllegalStateException("AI capacity exhausted");
+        }
+        
         try {
             return providerRotator.generate(prompt, aiConfig.getTimeoutSeconds(), aiConfig.getMaxRetries());
         } catch (AIProviderException e) {
@@ -345,6 +453,28 @@ public class AIService {
         }
     }
     
+    /**
+     * Stream LLM output using multi-provider rotation.
+     * Same admission rules as {@link #callLLM(String)}.
+     */
+    private String streamLLM(String prompt, Consumer<String> onToken) {
+        if (!providerRotator.isReady()) {
+            throw new IllegalStateException("No AI providers configured");
+        }
+        
+        if (!providerRotator.canAdmit()) {
+            log.info("AI capacity exhausted, shedding stream to fallback");
+            throw new IllegalStateException("AI capacity exhausted");
+        }
+        
+        try {
+            return providerRotator.generateStream(prompt, aiConfig.getTimeoutSeconds(), aiConfig.getMaxRetries(), onToken);
+        } catch (AIProviderException e) {
+            log.error("AI stream failed: {}", e.getMessage());
+            throw new RuntimeException("AI service unavailable", e);
+        }
+    }
+    
     /**
      * Generate raw text from a prompt (public API for other services)
      */
@@ -352,6 +482,14 @@ public class AIService {
         return callLLM(prompt);
     }
     
+    /**
+     * Generate raw text from a prompt, receiving text deltas as they are produced
+     * (public API for other services). Returns the full text.
+     */
+    public String generateStreaming(String prompt, Consumer<String> onToken) {
+        return streamLLM(prompt, onToken);
+    }
+    
     /**
      * Get status of all AI providers (for health checks and debugging)
      */
@@ -373,15 +511,16 @@ public class AIService {
             Query: "%s"
             
             Extract:
-            - searchTerms: the main search text (title/author keywords)
-            - categories: array of category slugs if mentioned (fiction, mystery, sci-fi, etc)
-            - maxPrice: number if price limit mentioned
+            - searchTerms: the main search text (title keywords)
+            - author: author name if mentioned
+            - categories: array of category slugs if mentioned (%s)
+            - minPrice / maxPrice: numbers in VND if a price limit is mentioned (1 USD ≈ %.0f VND)
             - minRating: number if rating mentioned
-            - condition: NEW, LIKE_NEW, GOOD, ACCEPTABLE if mentioned
+            - condition: NEW, LIKE_NEW, VERY_GOOD, GOOD, ACCEPTABLE if mentioned
             
             Return ONLY valid JSON, no explanation:
-            {"searchTerms": "...", "categories": [...], "maxPrice": null, "minRating": null, "condition": null}
-            """.formatted(query);
+            {"searchTerms": "...", "author": null, "categories": [...], "minPrice": null, "maxPrice": null, "minRating": null, "condition": null}
+            """.formatted(query, String.join(", ", ExternalCategoryMapper.CANONICAL_CATEGORIES), aiConfig.getUsdToVndRate());
     }
     
     private String buildReviewSummaryPrompt(List<Review> reviews) {
@@ -480,11 +619,17 @@ public class AIService {
     
     public record SearchFilters(
             String searchTerms,
+            String author,
             List<String> categories,
+            Double minPrice,
             Double maxPrice,
             Double minRating,
             String condition
-    ) {}
+    ) {
+        static SearchFilters of(String searchTerms) {
+            return new SearchFilters(searchTerms, null, null, null, null, null, null);
+        }
+    }
     
     public record ReviewSummary(
             String overallSentiment,
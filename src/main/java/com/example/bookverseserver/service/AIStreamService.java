@@ -0,0 +1,147 @@
+package com.example.bookverseserver.service;
+
+import com.example.bookverseserver.dto.request.AI.MoodDiscoveryRequest;
+import com.example.bookverseserver.dto.response.AI.MoodDiscoveryResponse;
+import com.example.bookverseserver.dto.response.ApiResponse;
+import com.example.bookverseserver.exception.ErrorCode;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+
+import static lombok.AccessLevel.PRIVATE;
+
+/**
+ * Server-sent event streams for AI endpoints.
+ *
+ * Instead of waiting 5-30s for the whole completion, clients receive output as the
+ * model writes it:
+ * - Mood discovery: one {@code recommendation} event per card, then {@code complete}
+ * - Review summary: {@code token} events (JSON strings of raw output), then {@code complete}
+ *
+ * The final {@code complete} event carries the same payload as the non-streaming
+ * endpoint, so clients can treat it as authoritative. Work runs on a dedicated
+ * executor. When the client disconnects or the emitter times out, the worker is
+ * interrupted, which aborts the blocked read of the provider stream and closes it,
+ * so the provider stops generating (and billing) tokens nobody will receive.
+ */
+@Service
+@FieldDefaults(level = PRIVATE)
+@Slf4j
+public class AIStreamService {
+
+    final AIService aiService;
+    final MoodDiscoveryService moodDiscoveryService;
+    final Executor executor;
+    final long timeoutMillis;
+
+    public AIStreamService(AIService aiService, MoodDiscoveryService moodDiscoveryService,
+                           @Qualifier("aiStreamExecutor") Executor executor,
+                           @Value("${app.ai.stream-timeout-millis:90000}") long timeoutMillis) {
+        this.aiService = aiService;
+        this.moodDiscoveryService = moodDiscoveryService;
+        this.executor = executor;
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    public SseEmitter streamMoodDiscovery(MoodDiscoveryRequest request) {
+        return stream(emitter -> {
+            MoodDiscoveryResponse response = moodDiscoveryService.streamByMood(
+                    request, recommendation -> send(emitter, "recommendation", recommendation));
+            send(emitter, "complete", ApiResponse.<MoodDiscoveryResponse>builder().result(response).build());
+        });
+    }
+
+    public SseEmitter streamReviewSummary(Long bookId) {
+        return stream(emitter -> {
+            AIService.ReviewSummary summary = aiService.summarizeReviewsStreaming(
+                    bookId, token -> send(emitter, "token", token));
+            send(emitter, "complete", ApiResponse.<AIService.ReviewSummary>builder().result(summary).build());
+        });
+    }
+
+    private SseEmitter stream(Consumer<SseEmitter> body) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Worker worker = new Worker();
+        emitter.onTimeout(worker::cancel);
+        emitter.onError(error -> worker.cancel());
+        emitter.onCompletion(worker::cancel);
+
+        executor.execute(() -> {
+            if (!worker.start()) {
+                return;     // Client gone before the stream started
+            }
+            try {
+                body.accept(emitter);
+                emitter.complete();
+            } catch (UncheckedIOException e) {
+                // Client went away mid-stream
+                log.debug("AI stream closed by client: {}", e.getMessage());
+                emitter.completeWithError(e.getCause());
+            } catch (Exception e) {
+                log.warn("AI stream failed: {}", e.getMessage());
+                try {
+                    send(emitter, "error", ApiResponse.builder()
+                            .code(ErrorCode.UNCATEGORIZED_EXCEPTION.getCode())
+                            .message(ErrorCode.UNCATEGORIZED_EXCEPTION.getMessage())
+                            .build());
+                    emitter.complete();
+                } catch (UncheckedIOException | IllegalStateException ignored) {
+                    emitter.completeWithError(e);
+                }
+            } finally {
+                worker.finish();
+            }
+        });
+
+        return emitter;
+    }
+
+    /**
+     * The thread running a stream, interrupted if the emitter closes while it runs.
+     * The JDK HTTP client's blocked body read gives up when interrupted, and closing the
+     * response cancels the upstream request.
+     */
+    static final class Worker {
+
+        private Thread thread;
+        private boolean cancelled;
+
+        synchronized boolean start() {
+            thread = Thread.currentThread();
+            return !cancelled;
+        }
+
+        synchronized void cancel() {
+            if (!cancelled && thread != null) {
+                log.debug("AI stream closed, aborting the upstream request");
+                thread.interrupt();
+            }
+            cancelled = true;
+        }
+
+        synchronized void finish() {
+            thread = null;
+            Thread.interrupted();   // Don't leave a late interrupt on the pooled thread
+        }
+    }
+
+    private void send(SseEmitter emitter, String event, Object data) {
+        try {
+            // Always JSON: a token containing newlines would otherwise break SSE framing
+            emitter.send(SseEmitter.event()
+                    .name(event)
+                    .data(data, MediaType.APPLICATION_JSON));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
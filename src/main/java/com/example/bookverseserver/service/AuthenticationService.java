@@ -21,6 +21,7 @@ import com.nimbusds.jwt.SignedJWT;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import com.example.bookverseserver.dto.response.Authentication.AuthenticationResponse;
 import com.example.bookverseserver.dto.response.Authentication.IntrospectResponse;
@@ -30,6 +31,8 @@ import com.example.bookverseserver.exception.AppException;
 import com.example.bookverseserver.exception.ErrorCode;
 import com.example.bookverseserver.repository.InvalidatedTokenRepository;
 import com.example.bookverseserver.repository.UserRepository;
+import com.example.bookverseserver.security.TokenRevocationIndex;
+import com.example.bookverseserver.security.TokenVerdictCache;
 
 
 
@@ -57,6 +60,8 @@ public class AuthenticationService {
     ForgotPasswordRepository forgotPasswordRepository;
     EmailService emailService;
     NimbusJwtService jwtService;
+    TokenVerdictCache tokenVerdictCache;
+    TokenRevocationIndex tokenRevocationIndex;
 
     // P0 Security Fix #6: Brute-force protection constants
     private static final int MAX_FAILED_LOGIN_ATTEMPTS = 5;
@@ -99,7 +104,13 @@ public class AuthenticationService {
 
         if (!(verified && expiryTime.after(new Date()))) throw new AppException(ErrorCode.UNAUTHENTICATED);
 
-        if (invalidatedTokenRepository.existsById(signedJWT.getJWTClaimsSet().getJWTID()))
+        if (tokenRevocationIndex.isRevoked(signedJWT.getJWTClaimsSet().getJWTID()))
+            throw new AppException(ErrorCode.UNAUTHENTICATED);
+
+        // P1 Security Fix #H1: A token from before a password change can't be refreshed either
+        if (tokenRevocationIndex.isIssuedBeforePasswordChange(
+                Long.valueOf(signedJWT.getJWTClaimsSet().getSubject()),
+                signedJWT.getJWTClaimsSet().getIssueTime().toInstant()))
             throw new AppException(ErrorCode.UNAUTHENTICATED);
 
         return signedJWT;
@@ -117,6 +128,8 @@ public class AuthenticationService {
                 InvalidatedToken.builder().id(jit).expiryTime(expiryTime).build();
 
         invalidatedTokenRepository.save(invalidatedToken);
+        tokenRevocationIndex.revoke(jit, expiryTime);
+        tokenVerdictCache.evict(request.getToken());
 
         // Sinh token mới
         var username = signedJWT.getJWTClaimsSet().getSubject();
@@ -132,15 +145,13 @@ public class AuthenticationService {
     }
 
 
+    /**
+     * Runs on every authenticated request (TokenIntrospectionFilter). No transaction:
+     * a verdict cache hit must not check out a database connection.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
     public IntrospectResponse introspect(IntrospectRequest request) throws JOSEException, ParseException {
-        var token = request.getToken();
-        boolean isValid = true;
-
-        try {
-            jwtService.introspectToken(token);
-        } catch (AppException e) {
-            isValid = false;
-        }
+        boolean isValid = jwtService.introspectToken(request.getToken());
 
         return IntrospectResponse.builder().valid(isValid).build();
     }
@@ -217,6 +228,8 @@ public class AuthenticationService {
                     InvalidatedToken.builder().id(jit).expiryTime(expiryTime).build();
 
             invalidatedTokenRepository.save(invalidatedToken);
+            tokenRevocationIndex.revoke(jit, expiryTime);
+            tokenVerdictCache.evict(request.getToken());
         } catch (AppException exception) {
             log.info("Token already expired");
         }
@@ -339,6 +352,8 @@ public class AuthenticationService {
             user.setPasswordChangedAt(LocalDateTime.now());
             
             userRepository.save(user);
+            tokenRevocationIndex.passwordChanged(user.getId(), user.getPasswordChangedAt());
+            tokenVerdictCache.evictUser(user.getId());
 
             // 5. Dọn dẹp
             // Xóa bản ghi OTP sau khi đã sử dụng thành công
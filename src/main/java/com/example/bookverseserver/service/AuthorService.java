@@ -11,35 +11,53 @@ import com.example.bookverseserver.exception.ErrorCode;
 import com.example.bookverseserver.mapper.AuthorMapper;
 import com.example.bookverseserver.mapper.OpenLibraryMapper;
 import com.example.bookverseserver.repository.AuthorRepository;
+import com.example.bookverseserver.util.AuthorNameNormalizer;
 import lombok.AccessLevel;
-import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
-@RequiredArgsConstructor
 @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
 @Transactional
 @Slf4j
 public class AuthorService {
-    AuthorRepository authorRepository;
+    static final int AUTHOR_ID_CACHE_SIZE = 10_000;
 
-    @Autowired
+    AuthorRepository authorRepository;
     AuthorMapper authorMapper;
-
-    @Autowired
     OpenLibraryService openLibraryService;
+    AuthorWorksHydrator authorWorksHydrator;
+    TaxonomyIdResolver authorIds;   // lower-case name -> id
+
+    public AuthorService(AuthorRepository authorRepository, AuthorMapper authorMapper,
+                         OpenLibraryService openLibraryService, AuthorWorksHydrator authorWorksHydrator,
+                         JdbcTemplate jdbcTemplate) {
+        this.authorRepository = authorRepository;
+        this.authorMapper = authorMapper;
+        this.openLibraryService = openLibraryService;
+        this.authorWorksHydrator = authorWorksHydrator;
+        this.authorIds = new TaxonomyIdResolver(jdbcTemplate, "author", "lower(name)",
+                "name, openlibrary_id, books_count, created_at, updated_at", AUTHOR_ID_CACHE_SIZE);
+    }
 
-    public AuthorDetailResponse getAuthorByOLID(String openLibraryId) {
+    public AuthorDetailResponse getAuthorByOLID(String openLibraryId, int worksLimit) {
         // 1. Fetch works directly from OpenLibrary API
-        List<OpenLibraryBookResponse> bookResponses = getFilteredWorks(openLibraryId);
+        List<OpenLibraryBookResponse> bookResponses = getFilteredWorks(openLibraryId, worksLimit);
 
         // 2. Fetch author from DB if exists, otherwise fetch from OpenLibrary and save
         Optional<Author> optionalAuthor = authorRepository.findByOpenLibraryId(openLibraryId);
@@ -59,22 +77,24 @@ public class AuthorService {
         return response;
     }
 
-    public List<OpenLibraryBookResponse> getFilteredWorks(String openLibraryId) {
+    /**
+     * First {@code limit} works worth showing (several editions, a description and a cover).
+     * Works are hydrated in parallel; those past the first page keep hydrating in the
+     * background so the next request finds them cached.
+     */
+    public List<OpenLibraryBookResponse> getFilteredWorks(String openLibraryId, int limit) {
         var works = openLibraryService.getAuthorWorks(openLibraryId).getEntries();
 
-        works.forEach(openLibraryService::populateWorkDetails);
-
         log.debug("Total works from OpenLibrary: {}", works.size());
 
-        return works.stream()
-                .filter(entry -> entry.getEdition_count() != null
+        return authorWorksHydrator.hydrateFirst(works, limit, entry -> entry.getEdition_count() != null
                         && entry.getEdition_count() > 1
                         && entry.getDescription() != null
                         && entry.getCovers() != null
                         && !entry.getCovers().isEmpty())
+                .stream()
                 .map(OpenLibraryMapper::toBookResponse) // works because entry is Entry
                 .toList();
-
     }
 
     public List<AuthorResponse> getAuthorsByName(String name) {
@@ -152,6 +172,7 @@ public class AuthorService {
     public AuthorDetailResponse updateAuthor(String OLID, AuthorDetailRequest authorRequest) {
         Author author = authorRepository.findByOpenLibraryId(OLID)
                 .orElseThrow(() -> new AppException(ErrorCode.AUTHOR_NOT_FOUND));
+        evict(author);
         authorMapper.updateAuthor(author, authorRequest);
         return authorMapper.toAuthorDetailResponse(authorRepository.save(author));
     }
@@ -161,6 +182,7 @@ public class AuthorService {
         Author author = authorRepository.findByOpenLibraryId(OLID)
                 .orElseThrow(() -> new AppException(ErrorCode.AUTHOR_NOT_FOUND));
         authorRepository.delete(author);
+        evict(author);
         return authorMapper.toAuthorDetailResponse(author);
     }
 
@@ -179,7 +201,7 @@ public class AuthorService {
 
         // 2. If not found by ID, try to find by Name (case-insensitive with normalization)
         if (name != null && !name.isEmpty()) {
-            String normalizedName = com.example.bookverseserver.util.AuthorNameNormalizer.normalize(name);
+            String normalizedName = AuthorNameNormalizer.normalize(name);
             Optional<Author> existingAuthor = authorRepository.findByNameIgnoreCase(normalizedName);
             if (existingAuthor.isPresent()) {
                 Author author = existingAuthor.get();
@@ -221,4 +243,79 @@ public class AuthorService {
                 .build();
         return authorRepository.save(skeletalAuthor);
     }
+
+    /**
+     * Authors of a book in bulk: those already known by name are loaded with two queries
+     * at most; only new authors are created one by one, with their details, as in
+     * {@link #getOrCreateAuthor}.
+     *
+     * @param openLibraryKeys Open Library key of each author, by position; may be null or shorter
+     */
+    public Set<Author> getOrCreateAuthors(List<String> names, List<String> openLibraryKeys) {
+        Map<String, String[]> authors = byKey(names, openLibraryKeys);
+        Map<String, Long> ids = authorIds.find(authors.keySet());
+
+        Set<Author> result = new HashSet<>(authorRepository.findAllById(ids.values()));
+        for (Map.Entry<String, String[]> author : authors.entrySet()) {
+            if (!ids.containsKey(author.getKey())) {
+                result.add(getOrCreateAuthor(author.getValue()[0], author.getValue()[1]));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Ids of these authors, creating the missing ones as skeletons (name and Open Library id)
+     * in one insert. For bulk imports, which cannot afford a detail lookup per new author.
+     *
+     * @param openLibraryKeys Open Library key of each author, by position; may be null or shorter
+     * @return Lower-case normalized name -> id
+     */
+    public Map<String, Long> getOrCreateAuthorIds(List<String> names, List<String> openLibraryKeys) {
+        Map<String, String[]> authors = byKey(names, openLibraryKeys);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        Map<String, Long> ids = authorIds.resolve(authors.keySet(),
+                key -> new Object[] {authors.get(key)[0], authors.get(key)[1], 0, now, now});
+
+        // Another author may already have the Open Library id
+        for (Map.Entry<String, String[]> author : authors.entrySet()) {
+            if (!ids.containsKey(author.getKey())) {
+                ids.put(author.getKey(), getOrCreateAuthor(author.getValue()[0], author.getValue()[1]).getId());
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * Key of an author in {@link #getOrCreateAuthorIds}.
+     */
+    public static String nameKey(String name) {
+        String normalized = AuthorNameNormalizer.normalize(name);
+        return normalized != null ? normalized.toLowerCase(Locale.ROOT) : null;
+    }
+
+    /**
+     * Lower-case normalized name -> {normalized name, Open Library id}, without blank names.
+     */
+    private static Map<String, String[]> byKey(List<String> names, List<String> openLibraryKeys) {
+        Map<String, String[]> authors = new LinkedHashMap<>();
+        for (int i = 0; i < names.size(); i++) {
+            String name = AuthorNameNormalizer.normalize(names.get(i));
+            if (name == null) {
+                continue;
+            }
+            String olKey = openLibraryKeys != null && i < openLibraryKeys.size() && openLibraryKeys.get(i) != null
+                    && !openLibraryKeys.get(i).isBlank()
+                    ? openLibraryKeys.get(i).replace("/authors/", "")
+                    : null;
+            authors.putIfAbsent(name.toLowerCase(Locale.ROOT), new String[] {name, olKey});
+        }
+        return authors;
+    }
+
+    private void evict(Author author) {
+        if (author.getName() != null) {
+            authorIds.evict(author.getName().toLowerCase(Locale.ROOT));
+        }
+    }
 }
@@ -0,0 +1,152 @@
+package com.example.bookverseserver.service;
+
+import com.example.bookverseserver.dto.response.External.OpenLibraryAuthorWorkResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.function.Predicate;
+
+/**
+ * Fills in author works (edition count, description, covers) from Open Library,
+ * one {@code /works/{key}/editions.json} request per work.
+ *
+ * - Requests run in parallel on virtual threads, but never more than
+ *   {@code max-concurrent-requests} at once, to stay polite to Open Library.
+ * - Results are cached per work key for {@code cache-ttl-hours}; concurrent
+ *   requests for the same work share one fetch. Failures are not cached.
+ * - {@link #hydrateFirst} returns as soon as the first page of works is ready;
+ *   the remaining works keep hydrating in the background, into the cache.
+ */
+@Service
+@Slf4j
+public class AuthorWorksHydrator {
+
+    // Fields taken from the work's first edition; null fields leave the work's own value
+    private record WorkDetails(int editionCount, String description, List<Integer> covers,
+                               String coverImageUrl, long fetchedAtMillis) {
+
+        void applyTo(OpenLibraryAuthorWorkResponse.Entry work) {
+            work.setEdition_count(editionCount);
+            if (description != null) {
+                work.setDescription(description);
+            }
+            if (covers != null) {
+                work.setCovers(covers);
+            }
+            if (coverImageUrl != null) {
+                work.setCoverImageUrl(coverImageUrl);
+            }
+        }
+    }
+
+    private final OpenLibraryService openLibraryService;
+    private final Executor executor;
+    private final Semaphore permits;
+    private final long cacheTtlMillis;
+    private final Map<String, WorkDetails> cache;
+    private final Map<String, CompletableFuture<WorkDetails>> inFlight = new ConcurrentHashMap<>();
+
+    public AuthorWorksHydrator(OpenLibraryService openLibraryService,
+                               @Qualifier("enrichmentExecutor") Executor executor,
+                               @Value("${app.enrichment.open-library.max-concurrent-requests:4}") int maxConcurrentRequests,
+                               @Value("${app.enrichment.author-works.cache-size:5000}") int cacheSize,
+                               @Value("${app.enrichment.author-works.cache-ttl-hours:24}") long cacheTtlHours) {
+        this.openLibraryService = openLibraryService;
+        this.executor = executor;
+        this.permits = new Semaphore(Math.max(1, maxConcurrentRequests));
+        this.cacheTtlMillis = cacheTtlHours * 3_600_000;
+        this.cache = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, WorkDetails> eldest) {
+                return size() > cacheSize;
+            }
+        });
+    }
+
+    /**
+     * Hydrate works in order until {@code limit} of them pass {@code filter}.
+     *
+     * @return The hydrated works that passed, in their original order
+     */
+    public List<OpenLibraryAuthorWorkResponse.Entry> hydrateFirst(List<OpenLibraryAuthorWorkResponse.Entry> works,
+                                                                   int limit,
+                                                                   Predicate<OpenLibraryAuthorWorkResponse.Entry> filter) {
+        // Start every work now: later ones hydrate while earlier ones are awaited
+        List<CompletableFuture<WorkDetails>> lookups = new ArrayList<>(works.size());
+        for (OpenLibraryAuthorWorkResponse.Entry work : works) {
+            lookups.add(lookup(work.getKey()));
+        }
+
+        List<OpenLibraryAuthorWorkResponse.Entry> accepted = new ArrayList<>();
+        for (int i = 0; i < works.size() && accepted.size() < limit; i++) {
+            OpenLibraryAuthorWorkResponse.Entry work = works.get(i);
+            try {
+                lookups.get(i).join().applyTo(work);
+            } catch (CompletionException e) {
+                log.debug("Skipping work {}: {}", work.getKey(), e.getCause().getMessage());
+                work.setEdition_count(0);
+            }
+            if (filter.test(work)) {
+                accepted.add(work);
+            }
+        }
+        return accepted;
+    }
+
+    private CompletableFuture<WorkDetails> lookup(String key) {
+        WorkDetails cached = cache.get(key);
+        if (cached != null && System.currentTimeMillis() - cached.fetchedAtMillis() < cacheTtlMillis) {
+            return CompletableFuture.completedFuture(cached);
+        }
+        CompletableFuture<WorkDetails> created = new CompletableFuture<>();
+        CompletableFuture<WorkDetails> existing = inFlight.putIfAbsent(key, created);
+        if (existing != null) {
+            return existing;
+        }
+        executor.execute(() -> {
+            // Leave inFlight before completing, so a caller woken by a failure can retry
+            try {
+                WorkDetails details = fetch(key);
+                inFlight.remove(key, created);
+                created.complete(details);
+            } catch (RuntimeException e) {
+                inFlight.remove(key, created);
+                created.completeExceptionally(e);
+            }
+        });
+        return created;
+    }
+
+    private WorkDetails fetch(String key) {
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CompletionException(e);
+        }
+        try {
+            OpenLibraryAuthorWorkResponse.Entry probe = OpenLibraryAuthorWorkResponse.Entry.builder().key(key).build();
+            openLibraryService.fetchWorkDetails(probe);
+            WorkDetails details = new WorkDetails(
+                    probe.getEdition_count() != null ? probe.getEdition_count() : 0,
+                    probe.getDescription(), probe.getCovers(), probe.getCoverImageUrl(),
+                    System.currentTimeMillis());
+            cache.put(key, details);
+            return details;
+        } finally {
+            permits.release();
+        }
+    }
+}
@@ -1,14 +1,21 @@
 package com.example.bookverseserver.service;
 
 import com.example.bookverseserver.dto.response.External.RichBookData;
+import com.example.bookverseserver.enums.MetadataSource;
 import com.example.bookverseserver.util.ExternalCategoryMapper;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 /**
  * THE CUNNING BOOK ENRICHMENT ORCHESTRATOR.
@@ -21,14 +28,35 @@ import java.util.List;
  * 5. Calculate data quality score
  * 
  * The goal: NEVER return incomplete data if any source has it.
+ *
+ * Both sources are queried at once on virtual threads, under one deadline
+ * ({@code app.enrichment.deadline-millis}). A source still running at the
+ * deadline is left out and the other one's data is returned, so a lookup
+ * takes as long as the slower source, never longer than the deadline.
+ * Each source's answer goes through {@link IsbnMetadataCacheService}, so repeat
+ * lookups are served locally.
  */
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class BookEnrichmentService {
 
     private final OpenLibraryService openLibraryService;
     private final GoogleBooksService googleBooksService;
+    private final IsbnMetadataCacheService isbnMetadataCacheService;
+    private final Executor executor;
+    private final long deadlineMillis;
+
+    public BookEnrichmentService(OpenLibraryService openLibraryService,
+                                 GoogleBooksService googleBooksService,
+                                 IsbnMetadataCacheService isbnMetadataCacheService,
+                                 @Qualifier("enrichmentExecutor") Executor executor,
+                                 @Value("${app.enrichment.deadline-millis:8000}") long deadlineMillis) {
+        this.openLibraryService = openLibraryService;
+        this.googleBooksService = googleBooksService;
+        this.isbnMetadataCacheService = isbnMetadataCacheService;
+        this.executor = executor;
+        this.deadlineMillis = deadlineMillis;
+    }
 
     /**
      * Fetch and enrich book data from multiple sources.
@@ -41,9 +69,17 @@ public class BookEnrichmentService {
         
         log.info("Enriching book data for ISBN: {}", cleanIsbn);
         
-        // Try both sources in parallel conceptually (but sequential for simplicity)
-        RichBookData openLibraryData = openLibraryService.fetchRichBookDetailsByIsbn(cleanIsbn);
-        RichBookData googleData = googleBooksService.fetchBookByIsbn(cleanIsbn);
+        // Query both sources at once; wait for each until the shared deadline
+        CompletableFuture<RichBookData> openLibraryLookup = isbnMetadataCacheService.getAsync(
+                cleanIsbn, MetadataSource.OPEN_LIBRARY,
+                () -> openLibraryService.fetchRichBookDetailsByIsbnAsync(cleanIsbn, executor));
+        CompletableFuture<RichBookData> googleLookup = isbnMetadataCacheService.getAsync(
+                cleanIsbn, MetadataSource.GOOGLE_BOOKS,
+                () -> CompletableFuture.supplyAsync(() -> googleBooksService.fetchBookByIsbn(cleanIsbn), executor));
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(deadlineMillis);
+        RichBookData openLibraryData = await(openLibraryLookup, "Open Library", cleanIsbn, deadline);
+        RichBookData googleData = await(googleLookup, "Google Books", cleanIsbn, deadline);
         
         if (openLibraryData == null && googleData == null) {
             log.warn("No book data found for ISBN {} from any source", cleanIsbn);
@@ -76,6 +112,24 @@ public class BookEnrichmentService {
                 .build();
     }
 
+    /**
+     * Wait for a source until the deadline; a failed or late source counts as having no data.
+     */
+    private RichBookData await(CompletableFuture<RichBookData> lookup, String source, String isbn, long deadlineNanos) {
+        try {
+            return lookup.get(Math.max(0, deadlineNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            // Not cancelled: that would not interrupt the request, and a late answer is still cached
+            log.warn("{} lookup for ISBN {} missed the {} ms deadline, merging without it", source, isbn, deadlineMillis);
+        } catch (ExecutionException e) {
+            log.warn("{} lookup for ISBN {} failed: {}", source, isbn, e.getCause().getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            lookup.cancel(true);
+        }
+        return null;
+    }
+
     /**
      * Merge data from two sources, preferring Open Library but filling gaps from Google.
      */
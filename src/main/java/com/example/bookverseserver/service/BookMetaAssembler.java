@@ -0,0 +1,199 @@
+package com.example.bookverseserver.service;
+
+import com.example.bookverseserver.dto.response.External.RichBookData;
+import com.example.bookverseserver.entity.Product.Author;
+import com.example.bookverseserver.entity.Product.BookImage;
+import com.example.bookverseserver.entity.Product.BookMeta;
+import com.example.bookverseserver.entity.Product.Category;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Builds unsaved {@link BookMeta} entities from Open Library data or seller input.
+ *
+ * Authors and categories are resolved by the caller, so single listings and bulk
+ * imports can look them up their own way.
+ */
+@Component
+@Slf4j
+public class BookMetaAssembler {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    /**
+     * Book from Open Library canonical data, with its cover image attached
+     * (persisted by cascade when the book is saved).
+     */
+    public BookMeta fromOpenLibrary(RichBookData data, String isbn, Set<Author> authors, Set<Category> categories) {
+        // The builder leaves the collections null
+        BookMeta bookMeta = BookMeta.builder()
+                .isbn(isbn)
+                .images(new HashSet<>())
+                .authors(new HashSet<>())
+                .categories(new HashSet<>())
+                .tags(new HashSet<>())
+                .build();
+        return applyOpenLibrary(bookMeta, data, authors, categories);
+    }
+
+    /**
+     * Overwrite a book's fields with the Open Library data that is present, e.g. a book
+     * created from seller input. Authors and categories are replaced unless empty; the
+     * cover is added if the book has no images.
+     */
+    public BookMeta applyOpenLibrary(BookMeta bookMeta, RichBookData data, Set<Author> authors, Set<Category> categories) {
+        setIfPresent(data.getTitle(), bookMeta::setTitle);
+        setIfPresent(data.getDescription(), bookMeta::setDescription);
+        setIfPresent(data.getPublisher(), bookMeta::setPublisher);
+        setIfPresent(parsePublishedDate(data.getPublishedDate()), bookMeta::setPublishedDate);
+        setIfPresent(data.getNumberOfPages() > 0 ? data.getNumberOfPages() : null, bookMeta::setPages);
+        setIfPresent(data.getOpenLibraryId(), bookMeta::setOpenLibraryId);
+        setIfPresent(data.getGoodreadsId(), bookMeta::setGoodreadsId);
+        setIfPresent(data.getGoogleBooksId(), bookMeta::setGoogleBooksId);
+        setIfPresent(data.getFirstLine(), bookMeta::setFirstLine);
+        setIfPresent(data.getSubjectPlaces() != null ? String.join(", ", data.getSubjectPlaces()) : null, bookMeta::setSubjectPlaces);
+        setIfPresent(data.getSubjectPeople() != null ? String.join(", ", data.getSubjectPeople()) : null, bookMeta::setSubjectPeople);
+        setIfPresent(data.getSubjectTimes() != null ? String.join(", ", data.getSubjectTimes()) : null, bookMeta::setSubjectTimes);
+        setIfPresent(serializeExternalLinks(data.getExternalLinks()), bookMeta::setExternalLinks);
+        setIfPresent(serializeTableOfContents(data.getTableOfContents()), bookMeta::setTableOfContents);
+        if (!authors.isEmpty()) {
+            bookMeta.setAuthors(new HashSet<>(authors));
+        }
+        if (!categories.isEmpty()) {
+            bookMeta.setCategories(new LinkedHashSet<>(categories));   // Best match first
+        }
+
+        if (data.getCoverUrl() != null && !data.getCoverUrl().isBlank() && bookMeta.getImages().isEmpty()) {
+            bookMeta.getImages().add(BookImage.builder()
+                    .bookMeta(bookMeta)
+                    .url(data.getCoverUrl())
+                    .isCover(true)
+                    .position(0)
+                    .altText(bookMeta.getTitle() + " cover")
+                    .build());
+        }
+        return bookMeta;
+    }
+
+    /**
+     * Book from seller-provided input (fallback, unverified).
+     */
+    public BookMeta fromSellerInput(String title, String isbn, String description, String publisher,
+                                    Integer publishYear, Author author, Category category) {
+        return BookMeta.builder()
+                .title(title)
+                .isbn(isbn)
+                .description(description)
+                .publisher(publisher)
+                .publishedDate(publishYear != null ? LocalDate.of(publishYear, 1, 1) : null)
+                .authors(new HashSet<>(List.of(author)))
+                .categories(new HashSet<>(List.of(category)))
+                .build();
+    }
+
+    /**
+     * Display name of a canonical category slug: "non_fiction" -> "Non fiction".
+     */
+    public static String canonicalCategoryName(String slug) {
+        String words = slug.replace("_", " ");
+        return words.substring(0, 1).toUpperCase() + words.substring(1);
+    }
+
+    /**
+     * Display name of a seller-entered category slug: "kinh-doanh" -> "Kinh Doanh".
+     */
+    public static String sellerCategoryName(String slug) {
+        return Arrays.stream(slug.split("-"))
+                .filter(word -> !word.isEmpty())
+                .map(word -> word.substring(0, 1).toUpperCase() + word.substring(1))
+                .collect(Collectors.joining(" "));
+    }
+
+    /**
+     * Slug of a seller-entered category ("Kinh doanh" -> "kinh-doanh").
+     */
+    public static String sellerCategorySlug(String category) {
+        return category.toLowerCase().trim().replaceAll("\\s+", "-");
+    }
+
+    /**
+     * ISBN without hyphens or spaces, or null if none was given.
+     */
+    public static String normalizeIsbn(String isbn) {
+        if (isbn == null || isbn.isBlank()) {
+            return null;
+        }
+        String normalized = isbn.replaceAll("[^0-9X]", "");
+        return normalized.isEmpty() ? null : normalized;
+    }
+
+    /**
+     * Publication date of an external source, as January 1st of its year
+     * (sources use various formats; only the year is reliable). Null if unparseable.
+     */
+    public static LocalDate parsePublishedDate(String dateStr) {
+        if (dateStr == null || dateStr.length() < 4) {
+            return null;
+        }
+        try {
+            return LocalDate.of(Integer.parseInt(dateStr.substring(0, 4)), 1, 1);
+        } catch (NumberFormatException e) {
+            log.debug("Could not parse published date: {}", dateStr);
+            return null;
+        }
+    }
+
+    private static <T> void setIfPresent(T value, Consumer<T> setter) {
+        if (value != null) {
+            setter.accept(value);
+        }
+    }
+
+    /**
+     * Serialize external links to JSON format for storage.
+     * Format: [{"title": "Wikipedia", "url": "https://..."}, ...]
+     */
+    private String serializeExternalLinks(List<RichBookData.ExternalLink> links) {
+        if (links == null || links.isEmpty()) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsString(links.stream()
+                    .map(link -> Map.of("title", link.getTitle(), "url", link.getUrl()))
+                    .toList());
+        } catch (Exception e) {
+            log.warn("Failed to serialize external links: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Serialize table of contents to JSON for storage.
+     */
+    private String serializeTableOfContents(List<RichBookData.TableOfContentsEntry> toc) {
+        if (toc == null || toc.isEmpty()) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsString(toc.stream()
+                    .map(entry -> Map.of(
+                            "label", entry.getLabel() != null ? entry.getLabel() : "",
+                            "title", entry.getTitle() != null ? entry.getTitle() : ""))
+                    .toList());
+        } catch (Exception e) {
+            log.warn("Failed to serialize table of contents: {}", e.getMessage());
+            return null;
+        }
+    }
+}
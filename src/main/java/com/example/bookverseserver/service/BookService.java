@@ -9,6 +9,7 @@ import com.example.bookverseserver.dto.response.External.RichBookData;
 import com.example.bookverseserver.dto.response.PagedResponse;
 import com.example.bookverseserver.entity.Product.*;
 import com.example.bookverseserver.enums.ListingStatus;
+import com.example.bookverseserver.enums.MetadataSource;
 import com.example.bookverseserver.exception.AppException;
 import com.example.bookverseserver.exception.ErrorCode;
 import com.example.bookverseserver.mapper.AuthorMapper;
@@ -45,6 +46,7 @@ public class BookService {
     private final ListingRepository listingRepository;
     private final ReviewRepository reviewRepository;
     private final OpenLibraryService openLibraryService;
+    private final IsbnMetadataCacheService isbnMetadataCacheService;
     private final AuthorService authorService;
     private final CategoryService categoryService;
     private final TagService tagService;
@@ -62,7 +64,8 @@ public class BookService {
         }
 
         // 2. Fetch rich data from OpenLibrary
-        RichBookData bookData = openLibraryService.fetchRichBookDetailsByIsbn(isbn);
+        RichBookData bookData = isbnMetadataCacheService.get(isbn, MetadataSource.OPEN_LIBRARY,
+                () -> openLibraryService.fetchRichBookDetailsByIsbn(isbn));
         if (bookData == null) {
             throw new AppException(ErrorCode.BOOK_NOT_FOUND_IN_OPEN_LIBRARY);
         }
@@ -81,11 +84,7 @@ public class BookService {
         // ═══════════════════════════════════════════════════════════════════════════
         Set<Author> authors = new HashSet<>();
         if (bookData.getAuthors() != null && bookData.getAuthorKeys() != null) {
-            for (int i = 0; i < bookData.getAuthors().size(); i++) {
-                String name = bookData.getAuthors().get(i);
-                String key = bookData.getAuthorKeys().get(i);
-                authors.add(authorService.getOrCreateAuthor(name, key));
-            }
+            authors.addAll(authorService.getOrCreateAuthors(bookData.getAuthors(), bookData.getAuthorKeys()));
         }
         newBookMeta.setAuthors(authors);
 
@@ -94,12 +93,7 @@ public class BookService {
         // ═══════════════════════════════════════════════════════════════════════════
         Set<Category> finalCategories = new HashSet<>();
         if (bookData.getCategories() != null) {
-            for (String rawSubject : bookData.getCategories()) {
-                Category validCategory = categoryService.filterAndGetCategory(rawSubject);
-                if (validCategory != null) {
-                    finalCategories.add(validCategory);
-                }
-            }
+            finalCategories.addAll(categoryService.filterAndGetCategories(bookData.getCategories()));
         }
         newBookMeta.setCategories(finalCategories);
 
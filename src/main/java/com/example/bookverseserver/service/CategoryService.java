@@ -1,8 +1,14 @@
 package com.example.bookverseserver.service;
 
+import java.sql.Timestamp;
 import java.text.Normalizer;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.Set;
 import java.util.regex.Pattern;
 
 import com.example.bookverseserver.dto.request.Book.CategoryRequest;
@@ -14,22 +20,32 @@ import com.example.bookverseserver.exception.ErrorCode;
 import com.example.bookverseserver.mapper.CategoryMapper;
 import com.example.bookverseserver.repository.CategoryRepository;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import lombok.AccessLevel;
-import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
 import lombok.extern.slf4j.Slf4j;
 
 @Service
-@RequiredArgsConstructor
 @Slf4j
 @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
 @Transactional(readOnly = true)
 public class CategoryService {
+    static final int CATEGORY_ID_CACHE_SIZE = 1_000;
+
     CategoryRepository categoryRepository;
     CategoryMapper categoryMapper;
+    TaxonomyIdResolver categoryIds;
+
+    public CategoryService(CategoryRepository categoryRepository, CategoryMapper categoryMapper,
+                           JdbcTemplate jdbcTemplate) {
+        this.categoryRepository = categoryRepository;
+        this.categoryMapper = categoryMapper;
+        this.categoryIds = new TaxonomyIdResolver(jdbcTemplate, "category", "slug",
+                "name, slug, sort_order, featured, book_count, created_at, updated_at", CATEGORY_ID_CACHE_SIZE);
+    }
 
     // --- STANDARD CRUD METHODS ---
 
@@ -53,6 +69,7 @@ public class CategoryService {
         Category category = categoryRepository.findById(categoryId)
                 .orElseThrow(() -> new AppException(ErrorCode.CATEGORY_NOT_FOUND));
 
+        categoryIds.evict(category.getSlug());
         categoryMapper.updateCategory(category, request);
 
         // Update slug if name changed
@@ -69,6 +86,7 @@ public class CategoryService {
                 .orElseThrow(() -> new AppException(ErrorCode.CATEGORY_NOT_FOUND));
 
         categoryRepository.delete(category);
+        categoryIds.evict(category.getSlug());
         return categoryMapper.toCategoryResponse(category);
     }
 
@@ -138,30 +156,64 @@ public class CategoryService {
         return getOrCreateCategory(matchedEnum.getDisplayName());
     }
 
+    /**
+     * Categories of several raw subjects at once, see {@link #filterAndGetCategory}.
+     */
+    @Transactional
+    public Set<Category> filterAndGetCategories(Collection<String> rawSubjects) {
+        Map<String, String> namesBySlug = new LinkedHashMap<>();
+        for (String rawSubject : rawSubjects) {
+            if (rawSubject == null || rawSubject.isEmpty()) continue;
+            ApprovedCategory matchedEnum = mapSubjectToBucket(rawSubject);
+            if (matchedEnum != null) {
+                namesBySlug.putIfAbsent(toSlug(matchedEnum.getDisplayName()), matchedEnum.getDisplayName());
+            }
+        }
+        return getOrCreateCategories(namesBySlug);
+    }
+
     /**
      * 2. DB INTERACTION: Finds or Creates a category.
      * FIX: Now generates a Slug to prevent Database Constraint Violation.
      */
+    @Transactional
     public Category getOrCreateCategory(String categoryName) {
-        Optional<Category> existingCategory = categoryRepository.findByName(categoryName);
-        if (existingCategory.isPresent()) {
-            return existingCategory.get();
-        }
-
-        // Generate Slug automatically
-        String slug = toSlug(categoryName);
+        return getOrCreateCategories(Map.of(toSlug(categoryName), categoryName)).iterator().next();
+    }
 
-        Category newCategory = Category.builder()
-                .name(categoryName)
-                .slug(slug) // <--- THIS WAS MISSING
-                .build();
+    /**
+     * Finds or creates categories by slug in bulk: one query for the existing ones,
+     * one insert for the rest, one more to load them all.
+     *
+     * @param namesBySlug Slug -> display name to create the category with
+     */
+    @Transactional
+    public Set<Category> getOrCreateCategories(Map<String, String> namesBySlug) {
+        return new HashSet<>(categoryRepository.findAllById(getOrCreateCategoryIds(namesBySlug).values()));
+    }
 
-        // Handle race conditions (if two threads try to create 'Fiction' at once)
-        try {
-            return categoryRepository.save(newCategory);
-        } catch (DataIntegrityViolationException e) {
-            return categoryRepository.findByName(categoryName).orElseThrow();
+    /**
+     * Ids of {@link #getOrCreateCategories}, by slug, in the order of {@code namesBySlug}:
+     * pass the slugs best match first and the first id is the book's primary category.
+     */
+    @Transactional
+    public Map<String, Long> getOrCreateCategoryIds(Map<String, String> namesBySlug) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        Map<String, Long> resolved = categoryIds.resolve(namesBySlug.keySet(),
+                slug -> new Object[] {namesBySlug.get(slug), slug, 0, false, 0, now, now});
+
+        Map<String, Long> ids = new LinkedHashMap<>();
+        for (Map.Entry<String, String> category : namesBySlug.entrySet()) {
+            Long id = resolved.get(category.getKey());
+            if (id == null) {
+                // The name is unique too: a category may already exist under another slug
+                id = categoryRepository.findByName(category.getValue())
+                        .orElseThrow(() -> new IllegalStateException("Category not created: " + category.getKey()))
+                        .getId();
+            }
+            ids.put(category.getKey(), id);
         }
+        return ids;
     }
 
     // --- HELPERS ---
@@ -5,21 +5,19 @@ import com.example.bookverseserver.dto.response.ModerationResponse;
 import com.example.bookverseserver.enums.ContentCategory;
 import com.example.bookverseserver.enums.ContentModerationDecision;
 import com.example.bookverseserver.enums.ContentSeverity;
-import com.fasterxml.jackson.core.type.TypeReference;
+import com.example.bookverseserver.service.moderation.AIModerationBatcher;
+import com.example.bookverseserver.service.moderation.ModerationDictionary;
+import com.example.bookverseserver.service.moderation.ModerationDictionaryService;
+import com.example.bookverseserver.service.moderation.TextNormalizer;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.core.io.ClassPathResource;
 import org.springframework.stereotype.Service;
 
-import java.io.IOException;
-import java.io.InputStream;
-import java.text.Normalizer;
 import java.util.*;
+import java.util.function.Consumer;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
-import java.util.stream.Collectors;
 
 /**
  * Content Moderation Service
@@ -37,6 +35,10 @@ import java.util.stream.Collectors;
  * When content falls in the uncertain zone (25-74), AIService is called
  * to make an intelligent decision. This prevents false positives while
  * catching sophisticated attempts to bypass filters.
+ * 
+ * Write paths (reviews, listings) use {@link #moderateProvisional} instead:
+ * gray-zone content is saved as FLAG and reviewed by {@link AIModerationBatcher}
+ * many items per LLM call, off the request thread.
  */
 @Service
 @RequiredArgsConstructor
@@ -48,64 +50,20 @@ public class ContentModerationService {
     
     private final ObjectMapper objectMapper;
     private final AIService aiService;
+    private final AIModerationBatcher aiModerationBatcher;
+    private final ModerationDictionaryService moderationDictionaryService;
     
-    // Loaded from blocked_terms.json
-    private List<String> criticalTerms = new ArrayList<>();
-    private List<String> highTerms = new ArrayList<>();
-    private List<String> mediumTerms = new ArrayList<>();
-    private List<String> bookWhitelist = new ArrayList<>();
-    private List<String> bookTitlesWhitelist = new ArrayList<>();
-    private List<Pattern> trollPatterns = new ArrayList<>();
-    private List<Pattern> spamPatterns = new ArrayList<>();
-    private List<String> offTopicKeywords = new ArrayList<>();
-    
-    // Extended leet speak normalization map (HashMap allows >10 entries)
-    private static final Map<Character, Character> LEET_MAP;
-    static {
-        LEET_MAP = new HashMap<>();
-        // Basic leet
-        LEET_MAP.put('4', 'a'); LEET_MAP.put('@', 'a');
-        LEET_MAP.put('3', 'e'); LEET_MAP.put('€', 'e');
-        LEET_MAP.put('1', 'i'); LEET_MAP.put('!', 'i'); LEET_MAP.put('|', 'i');
-        LEET_MAP.put('0', 'o');
-        LEET_MAP.put('5', 's'); LEET_MAP.put('$', 's');
-        LEET_MAP.put('7', 't'); LEET_MAP.put('+', 't');
-        LEET_MAP.put('8', 'b');
-        LEET_MAP.put('6', 'g'); LEET_MAP.put('9', 'g');
-        LEET_MAP.put('2', 'z');
-    }
-    
-    // Cyrillic homoglyph map (lookalike characters used to bypass filters)
-    // Using Unicode escapes for reliability across different file encodings
-    private static final Map<Character, Character> HOMOGLYPH_MAP;
-    static {
-        HOMOGLYPH_MAP = new HashMap<>();
-        // Cyrillic lookalikes → Latin (using Unicode escapes for reliability)
-        HOMOGLYPH_MAP.put('\u0430', 'a'); HOMOGLYPH_MAP.put('\u0410', 'a'); // Cyrillic а/А → a
-        HOMOGLYPH_MAP.put('\u0435', 'e'); HOMOGLYPH_MAP.put('\u0415', 'e'); // Cyrillic е/Е → e
-        HOMOGLYPH_MAP.put('\u0456', 'i'); HOMOGLYPH_MAP.put('\u0406', 'i'); // Cyrillic і/І → i
-        HOMOGLYPH_MAP.put('\u043e', 'o'); HOMOGLYPH_MAP.put('\u041e', 'o'); // Cyrillic о/О → o
-        HOMOGLYPH_MAP.put('\u0440', 'p'); HOMOGLYPH_MAP.put('\u0420', 'p'); // Cyrillic р/Р → p
-        HOMOGLYPH_MAP.put('\u0441', 'c'); HOMOGLYPH_MAP.put('\u0421', 'c'); // Cyrillic с/С → c
-        HOMOGLYPH_MAP.put('\u0443', 'y'); HOMOGLYPH_MAP.put('\u0423', 'y'); // Cyrillic у/У → y
-        HOMOGLYPH_MAP.put('\u0445', 'x'); HOMOGLYPH_MAP.put('\u0425', 'x'); // Cyrillic х/Х → x
-        HOMOGLYPH_MAP.put('\u0412', 'b'); // Cyrillic В → b
-        HOMOGLYPH_MAP.put('\u041d', 'h'); // Cyrillic Н → h
-        HOMOGLYPH_MAP.put('\u041a', 'k'); // Cyrillic К → k
-        HOMOGLYPH_MAP.put('\u041c', 'm'); // Cyrillic М → m
-        HOMOGLYPH_MAP.put('\u0422', 't'); // Cyrillic Т → t
-        // Greek lookalikes
-        HOMOGLYPH_MAP.put('\u03b1', 'a'); // Greek α → a
-        HOMOGLYPH_MAP.put('\u03b5', 'e'); // Greek ε → e  
-        HOMOGLYPH_MAP.put('\u03bf', 'o'); // Greek ο → o
-    }
-    
-    // FAIL-CLOSED: Hardcoded fallback critical terms if JSON fails to load
-    // These are the absolute minimum that MUST always be blocked
-    private static final List<String> FALLBACK_CRITICAL_TERMS = List.of(
-        "kill yourself", "kill urself", "commit suicide",
-        "child porn", "child exploitation",
-        "i will kill you", "gonna kill you"
+    // Rule patterns, compiled once instead of per call
+    private static final Pattern URL_PATTERN = Pattern.compile("https?://", Pattern.CASE_INSENSITIVE);
+    private static final Pattern REPEATED_CHAR_PATTERN = Pattern.compile("(.)\\1{4,}");
+    private static final Pattern SELF_REFERENCE_PATTERN = Pattern.compile("\\b(i\\b|i'm\\b|i am\\b|me\\b|myself\\b)");
+    private static final Pattern INSULT_PATTERN = Pattern.compile("\\b(idiot|stupid|dumb|moron|fool)\\b");
+    private static final List<Pattern> ATTACK_PATTERNS = List.of(
+        Pattern.compile("\\byou\\s+are\\s+(a\\s+|an\\s+)?(stupid|idiot|moron|dumb|fool|loser)"),
+        Pattern.compile("\\byou'?re\\s+(a\\s+|an\\s+)?(stupid|idiot|moron|dumb|fool|loser)"),
+        Pattern.compile("\\bgo\\s+(die|kill yourself|f+u+c+k+ yourself)"),
+        Pattern.compile("\\bkill yourself\\b"),
+        Pattern.compile("\\bf+u+c+k+\\s+you\\b")
     );
     
     // Banter indicators (reduce severity for friendly jokes)
@@ -116,46 +74,76 @@ public class ContentModerationService {
         "💯", "👍", "🔥", "😎"
     );
     
-    @PostConstruct
-    public void loadBlockedTerms() {
-        try {
-            ClassPathResource resource = new ClassPathResource("moderation/blocked_terms.json");
-            InputStream inputStream = resource.getInputStream();
-            Map<String, List<String>> terms = objectMapper.readValue(
-                inputStream, new TypeReference<>() {}
-            );
-            
-            criticalTerms = terms.getOrDefault("critical", List.of());
-            highTerms = terms.getOrDefault("high", List.of());
-            mediumTerms = terms.getOrDefault("medium", List.of());
-            bookWhitelist = terms.getOrDefault("book_whitelist", List.of());
-            bookTitlesWhitelist = terms.getOrDefault("book_titles_whitelist", List.of());
-            offTopicKeywords = terms.getOrDefault("off_topic_keywords", List.of());
-            
-            // Compile regex patterns
-            trollPatterns = terms.getOrDefault("troll_patterns", List.of()).stream()
-                .map(p -> Pattern.compile(p, Pattern.CASE_INSENSITIVE))
-                .collect(Collectors.toList());
-            
-            spamPatterns = terms.getOrDefault("spam_patterns", List.of()).stream()
-                .map(p -> Pattern.compile(p, Pattern.CASE_INSENSITIVE))
-                .collect(Collectors.toList());
-            
-            log.info("✅ Loaded blocked terms: {} critical, {} high, {} medium, {} phrase whitelist, {} title whitelist",
-                criticalTerms.size(), highTerms.size(), mediumTerms.size(), bookWhitelist.size(), bookTitlesWhitelist.size());
-                
-        } catch (IOException e) {
-            log.error("❌ Failed to load blocked_terms.json: {} — USING FALLBACK CRITICAL TERMS", e.getMessage());
-            // FAIL-CLOSED: Use hardcoded fallback for critical terms, NEVER allow moderation to be a no-op
-            criticalTerms = new ArrayList<>(FALLBACK_CRITICAL_TERMS);
-            log.warn("⚠️ Moderation running with {} fallback critical terms only", criticalTerms.size());
-        }
-    }
-    
     /**
      * Main moderation entry point — hybrid rule + AI approach
      */
     public ModerationResponse moderate(ModerationRequest request) {
+        return evaluate(request, false);
+    }
+    
+    /**
+     * Rules-only moderation for write paths.
+     * Gray-zone content comes back as FLAG with {@code pendingAiReview=true} instead of
+     * blocking the request on an LLM call; pass it to {@link #submitForAiReview} once saved.
+     */
+    public ModerationResponse moderateProvisional(ModerationRequest request) {
+        return evaluate(request, true);
+    }
+    
+    /**
+     * Queue provisionally-flagged content for the next batched AI review.
+     * The callback runs after the surrounding transaction commits, on the batch worker thread.
+     */
+    public void submitForAiReview(ModerationRequest request, ModerationResponse provisional,
+                                  Consumer<ModerationResponse> onVerdict) {
+        aiModerationBatcher.submit(toAiReviewItem(request, provisional),
+            verdict -> onVerdict.accept(withAiVerdict(provisional, verdict)));
+    }
+    
+    /**
+     * Review provisionally-flagged content now, with one LLM call for the whole list.
+     * For callers that are already off the request thread (bulk moderation).
+     * 
+     * @return One final response per request, in input order
+     */
+    public List<ModerationResponse> reviewWithAi(List<ModerationRequest> requests,
+                                                 List<ModerationResponse> provisionals) {
+        List<AIModerationBatcher.Item> items = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            items.add(toAiReviewItem(requests.get(i), provisionals.get(i)));
+        }
+        
+        List<AIModerationBatcher.Verdict> verdicts = aiModerationBatcher.reviewBatch(items);
+        List<ModerationResponse> results = new ArrayList<>(verdicts.size());
+        for (int i = 0; i < verdicts.size(); i++) {
+            results.add(withAiVerdict(provisionals.get(i), verdicts.get(i)));
+        }
+        return results;
+    }
+    
+    private AIModerationBatcher.Item toAiReviewItem(ModerationRequest request, ModerationResponse provisional) {
+        return new AIModerationBatcher.Item(
+            request.getText(),
+            request.getContentType(),
+            provisional.getScore(),
+            provisional.getMatchedTerms() != null ? provisional.getMatchedTerms() : List.of()
+        );
+    }
+    
+    private ModerationResponse withAiVerdict(ModerationResponse provisional, AIModerationBatcher.Verdict verdict) {
+        return ModerationResponse.builder()
+            .decision(verdict.decision())
+            .category(provisional.getCategory())
+            .severity(provisional.getSeverity())
+            .score(provisional.getScore())
+            .matchedTerms(provisional.getMatchedTerms())
+            .reason(verdict.reason())
+            .aiUsed(verdict.aiUsed())
+            .pendingAiReview(false)
+            .build();
+    }
+    
+    private ModerationResponse evaluate(ModerationRequest request, boolean deferAi) {
         long startTime = System.currentTimeMillis();
         
         RuleResult ruleResult = checkRules(request.getText(), request.getUserReputation());
@@ -167,6 +155,7 @@ public class ContentModerationService {
         ContentModerationDecision decision;
         String reason;
         boolean aiUsed = false;
+        boolean pendingAiReview = false;
         
         if (ruleResult.shouldBlock) {
             decision = ContentModerationDecision.BLOCK;
@@ -177,6 +166,11 @@ public class ContentModerationService {
         } else if (ruleResult.score <= adjustedApproveThreshold) {
             decision = ContentModerationDecision.APPROVE;
             reason = "Content appears clean";
+        } else if (deferAi) {
+            // Uncertain zone: publish as FLAG now, AI batch settles it later
+            decision = ContentModerationDecision.FLAG;
+            reason = "Content queued for AI review";
+            pendingAiReview = true;
         } else {
             // Uncertain zone (25-74): AI decides
             AIModerationResult aiResult = callAIModeration(request.getText(), ruleResult, request.getContentType());
@@ -195,6 +189,7 @@ public class ContentModerationService {
             .matchedTerms(ruleResult.matchedTerms.isEmpty() ? null : ruleResult.matchedTerms)
             .reason(reason)
             .aiUsed(aiUsed)
+            .pendingAiReview(pendingAiReview)
             .processingTimeMs(processingTime)
             .build();
     }
@@ -305,26 +300,42 @@ public class ContentModerationService {
     // ========================================================================
     
     private RuleResult checkRules(String content, int userReputation) {
+        // One snapshot for the whole check, even if a reload is published meanwhile
+        ModerationDictionary dictionary = moderationDictionaryService.current();
         String normalizedText = normalizeText(content);
         int score = 0;
         List<String> matchedTerms = new ArrayList<>();
         ContentCategory category = ContentCategory.CLEAN;
         ContentSeverity severity = ContentSeverity.LOW;
         
-        // 1. Check critical violations first — immediate block
-        for (String term : criticalTerms) {
-            if (approxMatch(normalizedText, term)) {
-                matchedTerms.add(term);
-                return new RuleResult(100, ContentCategory.TOXIC, ContentSeverity.CRITICAL, 
-                    matchedTerms, true);
-            }
-        }
+        // Single automaton pass finds every exact hit; each word is then checked once
+        // against the fuzzy index for obfuscation attempts
+        List<ModerationDictionary.Term> blockedTerms = dictionary.getBlockedTerms();
+        boolean[] hits = new boolean[blockedTerms.size()];
+        dictionary.getTermMatcher().matchAll(normalizedText, hits);
+        dictionary.getFuzzyTermIndex().matchTokens(normalizedText, hits);
         
-        // 2. Check high severity terms
-        for (String term : highTerms) {
-            if (approxMatch(normalizedText, term)) {
-                // Check book-context whitelist
-                if (!isBookContext(content)) {
+        for (int i = 0; i < blockedTerms.size(); i++) {
+            if (!hits[i]) {
+                continue;
+            }
+            ModerationDictionary.Term blocked = blockedTerms.get(i);
+            String term = blocked.term();
+            
+            switch (blocked.severity()) {
+                // 1. Critical violations — immediate block
+                case CRITICAL -> {
+                    matchedTerms.add(term);
+                    return new RuleResult(100, ContentCategory.TOXIC, ContentSeverity.CRITICAL, 
+                        matchedTerms, true);
+                }
+                
+                // 2. High severity terms
+                case HIGH -> {
+                    // Check book-context whitelist
+                    if (isBookContext(dictionary, content)) {
+                        continue;
+                    }
                     matchedTerms.add(term);
                     
                     if (isSelfDeprecating(content) && isFriendlyBanter(content)) {
@@ -341,32 +352,30 @@ public class ContentModerationService {
                     category = ContentCategory.TOXIC;
                     severity = ContentSeverity.HIGH;
                 }
-            }
-        }
-        
-        // 3. Check medium severity terms
-        for (String term : mediumTerms) {
-            if (approxMatch(normalizedText, term)) {
-                if (isFriendlyBanter(content)) {
-                    continue; // Skip casual swearing in banter
-                }
-                matchedTerms.add(term);
                 
-                if (isTargetedAttack(content)) {
-                    score += 40;
-                } else {
-                    score += 25; // Medium term = flag threshold
-                }
-                
-                if (category == ContentCategory.CLEAN) {
-                    category = ContentCategory.TOXIC;
-                    severity = ContentSeverity.MEDIUM;
+                // 3. Medium severity terms
+                default -> {
+                    if (isFriendlyBanter(content)) {
+                        continue; // Skip casual swearing in banter
+                    }
+                    matchedTerms.add(term);
+                    
+                    if (isTargetedAttack(content)) {
+                        score += 40;
+                    } else {
+                        score += 25; // Medium term = flag threshold
+                    }
+                    
+                    if (category == ContentCategory.CLEAN) {
+                        category = ContentCategory.TOXIC;
+                        severity = ContentSeverity.MEDIUM;
+                    }
                 }
             }
         }
         
         // 4. Check troll patterns
-        for (Pattern pattern : trollPatterns) {
+        for (Pattern pattern : dictionary.getTrollPatterns()) {
             if (pattern.matcher(content).find()) {
                 matchedTerms.add("troll_pattern");
                 score += 30;
@@ -378,7 +387,7 @@ public class ContentModerationService {
         }
         
         // 5. Check spam patterns
-        for (Pattern pattern : spamPatterns) {
+        for (Pattern pattern : dictionary.getSpamPatterns()) {
             if (pattern.matcher(content).find()) {
                 matchedTerms.add("spam_pattern");
                 score += 35;
@@ -390,8 +399,7 @@ public class ContentModerationService {
         }
         
         // 6. Check for excessive URLs (spam indicator)
-        long urlCount = Pattern.compile("https?://", Pattern.CASE_INSENSITIVE)
-            .matcher(content).results().count();
+        long urlCount = URL_PATTERN.matcher(content).results().count();
         if (urlCount > 2) {
             score += (int) (urlCount * 10);
             if (category == ContentCategory.CLEAN) {
@@ -401,8 +409,8 @@ public class ContentModerationService {
         }
         
         // 7. Check off-topic keywords
-        for (String keyword : offTopicKeywords) {
-            if (normalizedText.contains(keyword.toLowerCase())) {
+        for (String keyword : dictionary.getOffTopicKeywords()) {
+            if (normalizedText.contains(keyword)) {
                 score += 10;
                 if (category == ContentCategory.CLEAN) {
                     category = ContentCategory.OFF_TOPIC;
@@ -419,7 +427,7 @@ public class ContentModerationService {
         }
         
         // 9. Check for repeated characters (spam indicator)
-        if (Pattern.compile("(.)\\1{4,}").matcher(content).find()) {
+        if (REPEATED_CHAR_PATTERN.matcher(content).find()) {
             score += 10;
         }
         
@@ -434,91 +442,12 @@ public class ContentModerationService {
     // TEXT NORMALIZATION (Stolen from chefkix, enhanced with Unicode security)
     // ========================================================================
     
+    /**
+     * NFKD, zero-width stripping, homoglyphs, lowercasing, leet speak, repeat and
+     * whitespace collapsing in one table-driven pass - see {@link TextNormalizer}.
+     */
     private String normalizeText(String text) {
-        if (text == null) return "";
-        
-        // Step 1: Unicode normalization (NFKD decomposes characters)
-        // This handles accented characters and some homoglyphs
-        String normalized = Normalizer.normalize(text, Normalizer.Form.NFKD);
-        
-        // Step 2: Strip zero-width characters and control characters
-        // These are used to bypass filters: "nig\u200Bger" (with zero-width space)
-        normalized = normalized.replaceAll("[\\u200B-\\u200D\\uFEFF\\u00AD\\u034F\\u2060\\u2061-\\u2064]", "");
-        
-        // Step 3: Apply Cyrillic/Greek homoglyph normalization BEFORE lowercasing
-        StringBuilder homoglyphNormalized = new StringBuilder();
-        for (char c : normalized.toCharArray()) {
-            homoglyphNormalized.append(HOMOGLYPH_MAP.getOrDefault(c, c));
-        }
-        normalized = homoglyphNormalized.toString().toLowerCase();
-        
-        // Step 4: Leet speak normalization
-        StringBuilder sb = new StringBuilder();
-        for (char c : normalized.toCharArray()) {
-            sb.append(LEET_MAP.getOrDefault(c, c));
-        }
-        normalized = sb.toString();
-        
-        // Step 5: Collapse spaced single letters (k i l l -> kill)
-        normalized = normalized.replaceAll("\\b([a-z])\\s+(?=[a-z]\\b)", "$1");
-        
-        // Step 6: Collapse repeated characters (more than 2)
-        normalized = normalized.replaceAll("(.)\\1{2,}", "$1$1");
-        
-        // Step 7: Remove special characters except spaces
-        normalized = normalized.replaceAll("[^a-z0-9\\s]", " ");
-        
-        // Step 8: Collapse multiple spaces
-        normalized = normalized.replaceAll("\\s+", " ").trim();
-        
-        return normalized;
-    }
-    
-    private boolean approxMatch(String normalizedText, String keyword) {
-        String normalizedKeyword = normalizeText(keyword);
-        
-        // Exact match
-        if (normalizedText.contains(normalizedKeyword)) {
-            return true;
-        }
-        
-        // Fuzzy match for obfuscation attempts
-        String[] words = normalizedText.split("\\s+");
-        for (String word : words) {
-            if (similarityRatio(word, normalizedKeyword) >= 0.85) {
-                return true;
-            }
-        }
-        
-        return false;
-    }
-    
-    private double similarityRatio(String s1, String s2) {
-        if (s1.equals(s2)) return 1.0;
-        if (s1.isEmpty() || s2.isEmpty()) return 0.0;
-        
-        int maxLen = Math.max(s1.length(), s2.length());
-        int distance = levenshteinDistance(s1, s2);
-        return 1.0 - ((double) distance / maxLen);
-    }
-    
-    private int levenshteinDistance(String s1, String s2) {
-        int[][] dp = new int[s1.length() + 1][s2.length() + 1];
-        
-        for (int i = 0; i <= s1.length(); i++) dp[i][0] = i;
-        for (int j = 0; j <= s2.length(); j++) dp[0][j] = j;
-        
-        for (int i = 1; i <= s1.length(); i++) {
-            for (int j = 1; j <= s2.length(); j++) {
-                int cost = s1.charAt(i - 1) == s2.charAt(j - 1) ? 0 : 1;
-                dp[i][j] = Math.min(
-                    Math.min(dp[i - 1][j] + 1, dp[i][j - 1] + 1),
-                    dp[i - 1][j - 1] + cost
-                );
-            }
-        }
-        
-        return dp[s1.length()][s2.length()];
+        return TextNormalizer.normalize(text);
     }
     
     // ========================================================================
@@ -529,16 +458,16 @@ public class ContentModerationService {
      * Checks if content is in a book-related context (phrases or titles).
      * Prevents false positives on "To Kill a Mockingbird" reviews.
      */
-    private boolean isBookContext(String text) {
+    private boolean isBookContext(ModerationDictionary dictionary, String text) {
         String textLower = text.toLowerCase();
         
         // Check phrase whitelist (e.g., "killer story", "bloody brilliant")
-        boolean hasPhrase = bookWhitelist.stream()
-            .anyMatch(term -> textLower.contains(term.toLowerCase()));
+        boolean hasPhrase = dictionary.getBookWhitelist().stream()
+            .anyMatch(textLower::contains);
         
         // Check book titles whitelist (e.g., "To Kill a Mockingbird", "American Psycho")
-        boolean hasTitle = bookTitlesWhitelist.stream()
-            .anyMatch(title -> textLower.contains(title.toLowerCase()));
+        boolean hasTitle = dictionary.getBookTitlesWhitelist().stream()
+            .anyMatch(textLower::contains);
         
         return hasPhrase || hasTitle;
     }
@@ -550,24 +479,14 @@ public class ContentModerationService {
     
     private boolean isSelfDeprecating(String text) {
         String textLower = text.toLowerCase();
-        boolean hasSelfReference = Pattern.compile("\\b(i\\b|i'm\\b|i am\\b|me\\b|myself\\b)")
-            .matcher(textLower).find();
-        boolean hasInsult = Pattern.compile("\\b(idiot|stupid|dumb|moron|fool)\\b")
-            .matcher(textLower).find();
+        boolean hasSelfReference = SELF_REFERENCE_PATTERN.matcher(textLower).find();
+        boolean hasInsult = INSULT_PATTERN.matcher(textLower).find();
         return hasSelfReference && hasInsult;
     }
     
     private boolean isTargetedAttack(String text) {
         String textLower = text.toLowerCase();
-        List<Pattern> attackPatterns = List.of(
-            Pattern.compile("\\byou\\s+are\\s+(a\\s+|an\\s+)?(stupid|idiot|moron|dumb|fool|loser)"),
-            Pattern.compile("\\byou'?re\\s+(a\\s+|an\\s+)?(stupid|idiot|moron|dumb|fool|loser)"),
-            Pattern.compile("\\bgo\\s+(die|kill yourself|f+u+c+k+ yourself)"),
-            Pattern.compile("\\bkill yourself\\b"),
-            Pattern.compile("\\bf+u+c+k+\\s+you\\b")
-        );
-        
-        return attackPatterns.stream().anyMatch(p -> p.matcher(textLower).find());
+        return ATTACK_PATTERNS.stream().anyMatch(p -> p.matcher(textLower).find());
     }
     
     // ========================================================================
@@ -0,0 +1,288 @@
+package com.example.bookverseserver.service;
+
+import com.example.bookverseserver.dto.response.External.RichBookData;
+import com.example.bookverseserver.entity.Product.Author;
+import com.example.bookverseserver.entity.Product.BookMeta;
+import com.example.bookverseserver.entity.Product.Category;
+import com.example.bookverseserver.enums.MetadataSource;
+import com.example.bookverseserver.repository.AuthorRepository;
+import com.example.bookverseserver.repository.BookMetaRepository;
+import com.example.bookverseserver.repository.CategoryRepository;
+import com.example.bookverseserver.util.ExternalCategoryMapper;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+
+import static lombok.AccessLevel.PRIVATE;
+
+/**
+ * Open Library enrichment of books created from seller input, off the request path.
+ *
+ * A seller listing an ISBN the catalog doesn't have gets a skeletal book built from
+ * what they typed, so the listing is created without waiting on Open Library. The book
+ * is queued here once the listing's transaction commits; a worker looks the ISBN up
+ * (through the ISBN metadata cache, at most {@code deferred-concurrency} at a time) and
+ * patches the book with the canonical data: title, description, publisher, cover,
+ * authors, categories, tags, subjects and table of contents. The book's listings move
+ * to its new primary category, as if it had been created from Open Library.
+ *
+ * Patching bumps the book's updatedAt, which the embedding index keys its vectors on,
+ * so discovery re-embeds it at the next rebuild.
+ *
+ * A failed lookup (timeout, 429, open circuit) or write is retried with exponential
+ * backoff, up to {@code deferred-max-attempts} times; so is incomplete data, to fill in
+ * what is missing. Only then is the skeleton left for the ISBN_ENRICHMENT import job.
+ * Open Library having no such book is final: the seller's input stays.
+ */
+@Service
+@FieldDefaults(level = PRIVATE)
+@Slf4j
+public class DeferredBookEnrichmentService {
+
+    static final String UPDATE_LISTINGS_SQL = "UPDATE listing SET category_id = ?, updated_at = now() WHERE book_id = ?";
+
+    final BookMetaRepository bookMetaRepository;
+    final AuthorRepository authorRepository;
+    final CategoryRepository categoryRepository;
+    final AuthorService authorService;
+    final CategoryService categoryService;
+    final TagService tagService;
+    final OpenLibraryService openLibraryService;
+    final IsbnMetadataCacheService isbnMetadataCacheService;
+    final BookMetaAssembler bookMetaAssembler;
+    final JdbcTemplate jdbcTemplate;
+    final TransactionTemplate writeTransaction;
+    final Executor executor;
+    final Semaphore permits;
+    final int maxAttempts;
+    final long retryDelayMillis;
+    final Set<Long> queued = ConcurrentHashMap.newKeySet();
+    final Map<Long, Retry> retries = new ConcurrentHashMap<>();
+
+    private record Retry(String isbn, int attempt, long dueAtMillis) {}
+
+    public DeferredBookEnrichmentService(BookMetaRepository bookMetaRepository,
+                                         AuthorRepository authorRepository,
+                                         CategoryRepository categoryRepository,
+                                         AuthorService authorService,
+                                         CategoryService categoryService,
+                                         TagService tagService,
+                                         OpenLibraryService openLibraryService,
+                                         IsbnMetadataCacheService isbnMetadataCacheService,
+                                         BookMetaAssembler bookMetaAssembler,
+                                         JdbcTemplate jdbcTemplate,
+                                         PlatformTransactionManager transactionManager,
+                                         @Qualifier("enrichmentExecutor") Executor executor,
+                                         @Value("${app.enrichment.deferred-concurrency:4}") int concurrency,
+                                         @Value("${app.enrichment.deferred-max-attempts:5}") int maxAttempts,
+                                         @Value("${app.enrichment.deferred-retry-delay-seconds:30}") long retryDelaySeconds) {
+        this.bookMetaRepository = bookMetaRepository;
+        this.authorRepository = authorRepository;
+        this.categoryRepository = categoryRepository;
+        this.authorService = authorService;
+        this.categoryService = categoryService;
+        this.tagService = tagService;
+        this.openLibraryService = openLibraryService;
+        this.isbnMetadataCacheService = isbnMetadataCacheService;
+        this.bookMetaAssembler = bookMetaAssembler;
+        this.jdbcTemplate = jdbcTemplate;
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        this.executor = executor;
+        this.permits = new Semaphore(Math.max(1, concurrency));
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.retryDelayMillis = retryDelaySeconds * 1000;
+    }
+
+    /**
+     * Book from Open Library data, with its authors, categories and tags resolved.
+     */
+    public BookMeta createFromOpenLibrary(RichBookData data, String isbn) {
+        Map<String, Long> categoryIds = categoryIds(data);
+        BookMeta bookMeta = bookMetaAssembler.fromOpenLibrary(data, isbn, authors(data), categories(categoryIds));
+        bookMeta.getTags().addAll(tagService.extractTags(data.getCategories()));
+        return bookMetaRepository.save(bookMeta);
+    }
+
+    /**
+     * Enrich a skeletal book in the background. Inside a transaction, the book is only
+     * queued after commit, so the worker sees it and a rolled-back book is never looked up.
+     */
+    public void enrichLater(Long bookId, String isbn) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    queue(bookId, isbn, 1);
+                }
+            });
+        } else {
+            queue(bookId, isbn, 1);
+        }
+    }
+
+    /**
+     * @return Number of books waiting for, being or due for another try at enrichment
+     */
+    public int getQueueSize() {
+        return queued.size() + retries.size();
+    }
+
+    /**
+     * Queue the books whose retry is due.
+     */
+    @Scheduled(fixedDelayString = "${app.enrichment.deferred-retry-poll-millis:10000}")
+    public void retryDue() {
+        long now = System.currentTimeMillis();
+        retries.forEach((bookId, retry) -> {
+            if (retry.dueAtMillis() <= now && retries.remove(bookId, retry)) {
+                queue(bookId, retry.isbn(), retry.attempt());
+            }
+        });
+    }
+
+    private void queue(Long bookId, String isbn, int attempt) {
+        if (!queued.add(bookId)) {
+            return;
+        }
+        retries.remove(bookId);
+        try {
+            executor.execute(() -> {
+                try {
+                    enrich(bookId, isbn, attempt);
+                } finally {
+                    queued.remove(bookId);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            queued.remove(bookId);
+            log.warn("Could not queue enrichment of book {} (ISBN {}): {}", bookId, isbn, e.getMessage());
+            retryLater(bookId, isbn, attempt);
+        }
+    }
+
+    /**
+     * Look the book's ISBN up and patch the book, scheduling a retry if either fails;
+     * never throws.
+     */
+    void enrich(Long bookId, String isbn, int attempt) {
+        RichBookData data;
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        try {
+            data = isbnMetadataCacheService.get(isbn, MetadataSource.OPEN_LIBRARY,
+                    () -> openLibraryService.fetchRichBookDetailsByIsbn(isbn));
+        } catch (RuntimeException e) {
+            log.warn("Deferred enrichment lookup failed for book {} (ISBN {}), attempt {}: {}",
+                    bookId, isbn, attempt, e.getMessage());
+            retryLater(bookId, isbn, attempt);
+            return;
+        } finally {
+            permits.release();
+        }
+        if (data == null) {
+            log.info("No Open Library data for book {} (ISBN {}), keeping seller input", bookId, isbn);
+            return;
+        }
+
+        try {
+            writeTransaction.executeWithoutResult(status -> patch(bookId, data));
+        } catch (RuntimeException e) {
+            log.warn("Deferred enrichment failed for book {} (ISBN {}), attempt {}: {}",
+                    bookId, isbn, attempt, e.getMessage());
+            retryLater(bookId, isbn, attempt);
+            return;
+        }
+        if (data.isIncomplete()) {
+            retryLater(bookId, isbn, attempt);
+        }
+    }
+
+    /**
+     * Retry after retry-delay, doubled for every attempt so far, until the attempts run out.
+     */
+    private void retryLater(Long bookId, String isbn, int attempt) {
+        if (attempt >= maxAttempts) {
+            log.warn("Giving up deferred enrichment of book {} (ISBN {}) after {} attempts", bookId, isbn, attempt);
+            return;
+        }
+        long delayMillis = retryDelayMillis << Math.min(attempt - 1, 16);
+        retries.put(bookId, new Retry(isbn, attempt + 1, System.currentTimeMillis() + delayMillis));
+    }
+
+    private void patch(Long bookId, RichBookData data) {
+        BookMeta bookMeta = bookMetaRepository.findById(bookId).orElse(null);
+        if (bookMeta == null) {
+            return;     // deleted meanwhile
+        }
+        Map<String, Long> categoryIds = categoryIds(data);
+        bookMetaAssembler.applyOpenLibrary(bookMeta, data, authors(data), categories(categoryIds));
+        bookMeta.getTags().addAll(tagService.extractTags(data.getCategories()));
+        bookMetaRepository.save(bookMeta);
+
+        // Listings follow the book's primary category, as when they are created
+        if (!categoryIds.isEmpty()) {
+            jdbcTemplate.update(UPDATE_LISTINGS_SQL, categoryIds.values().iterator().next(), bookId);
+        }
+        log.info("Enriched book {} from Open Library: {} authors, categories {}",
+                bookId, bookMeta.getAuthors().size(), categoryIds.keySet());
+    }
+
+    private Set<Author> authors(RichBookData data) {
+        if (data.getAuthors() == null || data.getAuthors().isEmpty()) {
+            return Set.of();
+        }
+        return new HashSet<>(authorRepository.findAllById(
+                authorService.getOrCreateAuthorIds(data.getAuthors(), data.getAuthorKeys()).values()));
+    }
+
+    /**
+     * Canonical category slug -> id for the book's Open Library subjects, best match first.
+     */
+    private Map<String, Long> categoryIds(RichBookData data) {
+        List<String> slugs = ExternalCategoryMapper.mapToCanonical(data.getCategories());
+        if (slugs.isEmpty()) {
+            return Map.of();
+        }
+        Map<String, String> namesBySlug = new LinkedHashMap<>();
+        for (String slug : slugs) {
+            namesBySlug.put(slug, BookMetaAssembler.canonicalCategoryName(slug)); // "fiction" -> "Fiction"
+        }
+        return categoryService.getOrCreateCategoryIds(namesBySlug);
+    }
+
+    private Set<Category> categories(Map<String, Long> categoryIds) {
+        if (categoryIds.isEmpty()) {
+            return Set.of();
+        }
+        List<Long> order = List.copyOf(categoryIds.values());
+        Set<Category> categories = new LinkedHashSet<>();
+        categoryRepository.findAllById(order).stream()
+                .sorted(Comparator.comparingInt(category -> order.indexOf(category.getId())))
+                .forEach(categories::add);
+        return categories;
+    }
+}
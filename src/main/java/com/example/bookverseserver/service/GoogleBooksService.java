@@ -1,10 +1,12 @@
 package com.example.bookverseserver.service;
 
 import com.example.bookverseserver.dto.response.External.RichBookData;
+import com.example.bookverseserver.service.http.UpstreamHttpClients;
 import com.fasterxml.jackson.databind.JsonNode;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.util.UriComponentsBuilder;
 
@@ -28,18 +30,23 @@ import java.util.List;
  * - Open Library is better for: public domain, academic, older books
  */
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class GoogleBooksService {
 
     private static final String GOOGLE_BOOKS_API = "https://www.googleapis.com/books/v1/volumes";
     private final RestTemplate restTemplate;
 
+    public GoogleBooksService(UpstreamHttpClients upstreamHttpClients) {
+        this.restTemplate = upstreamHttpClients.restTemplate("google-books");
+    }
+
     /**
      * Fetch book data from Google Books API by ISBN.
      * 
      * @param isbn ISBN-10 or ISBN-13 (without hyphens)
      * @return RichBookData or null if not found
+     * @throws RestClientException if Google Books could not be asked (timeout, 429, open circuit...),
+     *         so a failed lookup is never taken for a missing book
      */
     public RichBookData fetchBookByIsbn(String isbn) {
         try {
@@ -64,8 +71,8 @@ public class GoogleBooksService {
 
             return parseVolumeInfo(isbn, volumeInfo);
 
-        } catch (Exception e) {
-            log.warn("Google Books API error for ISBN {}: {}", isbn, e.getMessage());
+        } catch (HttpClientErrorException.NotFound e) {
+            log.debug("Google Books: No results for ISBN {}", isbn);
             return null;
         }
     }
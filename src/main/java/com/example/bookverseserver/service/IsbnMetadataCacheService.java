@@ -0,0 +1,250 @@
+package com.example.bookverseserver.service;
+
+import com.example.bookverseserver.dto.response.External.RichBookData;
+import com.example.bookverseserver.entity.Product.IsbnMetadata;
+import com.example.bookverseserver.enums.MetadataSource;
+import com.example.bookverseserver.repository.IsbnMetadataRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+/**
+ * Cache of external book metadata per ISBN and source (Open Library, Google Books),
+ * so repeat lookups never leave the server and Google's daily quota is spared.
+ *
+ * Two tiers: a bounded LRU map in memory, backed by the {@code isbn_metadata}
+ * table (RichBookData as JSON, with source and fetch time), which survives restarts
+ * and is shared by all instances.
+ * - "Not found" answers are cached too, but only for {@code negative-ttl-minutes}
+ *   in case the source adds the book later.
+ * - Found entries older than {@code refresh-after-hours} are still served at once
+ *   and refreshed in the background.
+ * - Fetch errors are not cached: the next lookup asks the source again. The fetchers
+ *   throw on errors (timeouts, 429s, open circuits) and return null only when the
+ *   source answered that it has no such book.
+ * - Incomplete data (part of the lookup failed) is served, but stored as already due
+ *   for a refresh, and never replaces complete data.
+ */
+@Service
+@Slf4j
+public class IsbnMetadataCacheService {
+
+    private record Key(String isbn, MetadataSource source) {}
+
+    // data == null: the source has no such book
+    private record Entry(RichBookData data, long fetchedAtMillis) {}
+
+    private final IsbnMetadataRepository isbnMetadataRepository;
+    private final ObjectMapper objectMapper;
+    private final Executor executor;
+    private final TransactionTemplate writeTransaction;
+    private final long refreshAfterMillis;
+    private final long negativeTtlMillis;
+    private final Map<Key, Entry> memory;
+    private final Set<Key> refreshing = ConcurrentHashMap.newKeySet();
+
+    public IsbnMetadataCacheService(IsbnMetadataRepository isbnMetadataRepository,
+                                    ObjectMapper objectMapper,
+                                    @Qualifier("enrichmentExecutor") Executor executor,
+                                    PlatformTransactionManager transactionManager,
+                                    @Value("${app.enrichment.cache.memory-entries:5000}") int memoryEntries,
+                                    @Value("${app.enrichment.cache.refresh-after-hours:720}") long refreshAfterHours,
+                                    @Value("${app.enrichment.cache.negative-ttl-minutes:60}") long negativeTtlMinutes) {
+        this.isbnMetadataRepository = isbnMetadataRepository;
+        this.objectMapper = objectMapper;
+        this.executor = executor;
+        // Callers may be inside read-only transactions; cache writes commit on their own
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        this.writeTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.refreshAfterMillis = refreshAfterHours * 3_600_000;
+        this.negativeTtlMillis = negativeTtlMinutes * 60_000;
+        this.memory = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                return size() > memoryEntries;
+            }
+        });
+    }
+
+    /**
+     * Cached metadata of {@code source} for the ISBN, calling {@code fetcher} on a miss.
+     *
+     * @return The source's data, or null if it has no such book
+     */
+    public RichBookData get(String isbn, MetadataSource source, Supplier<RichBookData> fetcher) {
+        Key key = key(isbn, source);
+        Entry entry = cached(key, () -> CompletableFuture.supplyAsync(fetcher, executor));
+        if (entry != null) {
+            return entry.data();
+        }
+        RichBookData data = fetcher.get();
+        store(key, data);
+        return data;
+    }
+
+    /**
+     * Same as {@link #get}, for fetchers that are already asynchronous.
+     */
+    public CompletableFuture<RichBookData> getAsync(String isbn, MetadataSource source,
+                                                    Supplier<CompletableFuture<RichBookData>> fetcher) {
+        Key key = key(isbn, source);
+        Entry entry = cached(key, fetcher);
+        if (entry != null) {
+            return CompletableFuture.completedFuture(entry.data());
+        }
+        return fetcher.get().thenApply(data -> {
+            store(key, data);
+            return data;
+        });
+    }
+
+    /**
+     * Cached metadata of {@code source} for the ISBN, without asking the source on a miss.
+     *
+     * @return The cached data, or null if the source has no such book or nothing is cached
+     */
+    public RichBookData peek(String isbn, MetadataSource source) {
+        Key key = key(isbn, source);
+        Entry entry = memory.get(key);
+        if (entry == null) {
+            entry = load(key);
+            if (entry == null) {
+                return null;
+            }
+            memory.put(key, entry);
+        }
+        return entry.data();
+    }
+
+    /**
+     * @return A usable entry, or null if the source must be asked
+     */
+    private Entry cached(Key key, Supplier<CompletableFuture<RichBookData>> refresher) {
+        Entry entry = memory.get(key);
+        if (entry == null) {
+            entry = load(key);
+            if (entry == null) {
+                return null;
+            }
+            memory.put(key, entry);
+        }
+
+        long age = System.currentTimeMillis() - entry.fetchedAtMillis();
+        if (entry.data() == null) {
+            return age < negativeTtlMillis ? entry : null;
+        }
+        if (age >= refreshAfterMillis) {
+            refresh(key, entry, refresher);
+        }
+        return entry;
+    }
+
+    private void refresh(Key key, Entry stale, Supplier<CompletableFuture<RichBookData>> refresher) {
+        if (!refreshing.add(key)) {
+            return;
+        }
+        CompletableFuture<RichBookData> refreshed;
+        try {
+            refreshed = refresher.get();
+        } catch (RuntimeException e) {
+            refreshing.remove(key);
+            log.warn("Could not start refresh of {} metadata for ISBN {}: {}", key.source(), key.isbn(), e.getMessage());
+            return;
+        }
+        refreshed.whenComplete((data, error) -> {
+            try {
+                if (error != null) {
+                    log.warn("Refresh of {} metadata for ISBN {} failed: {}", key.source(), key.isbn(), error.getMessage());
+                } else {
+                    // A source that lost the book (or part of it) doesn't erase what we had
+                    store(key, data == null || (data.isIncomplete() && !stale.data().isIncomplete()) ? stale.data() : data);
+                }
+            } finally {
+                refreshing.remove(key);
+            }
+        });
+    }
+
+    private Entry load(Key key) {
+        try {
+            IsbnMetadata row = isbnMetadataRepository.findByIsbnAndSource(key.isbn(), key.source()).orElse(null);
+            if (row == null) {
+                return null;
+            }
+            if (!Boolean.TRUE.equals(row.getFound())) {
+                return new Entry(null, toMillis(row.getFetchedAt()));
+            }
+            RichBookData data = readPayload(row.getPayload());
+            // Unreadable payload (e.g. written by an older version): fetch again
+            return data != null ? new Entry(data, toMillis(row.getFetchedAt())) : null;
+        } catch (RuntimeException e) {
+            log.warn("Could not read cached {} metadata for ISBN {}: {}", key.source(), key.isbn(), e.getMessage());
+            return null;
+        }
+    }
+
+    private void store(Key key, RichBookData data) {
+        // Incomplete data counts as stale right away, so the next lookup refreshes it
+        long fetchedAt = System.currentTimeMillis() - (data != null && data.isIncomplete() ? refreshAfterMillis : 0);
+        memory.put(key, new Entry(data, fetchedAt));
+        try {
+            String payload = data != null ? objectMapper.writeValueAsString(data) : null;
+            writeTransaction.executeWithoutResult(status -> {
+                IsbnMetadata row = isbnMetadataRepository.findByIsbnAndSource(key.isbn(), key.source())
+                        .orElseGet(() -> IsbnMetadata.builder().isbn(key.isbn()).source(key.source()).build());
+                row.setFound(data != null);
+                row.setPayload(payload);
+                row.setFetchedAt(toLocalDateTime(fetchedAt));
+                isbnMetadataRepository.save(row);
+            });
+        } catch (DataIntegrityViolationException e) {
+            // Another instance stored the same ISBN first; its copy is as good as ours
+            log.debug("Concurrent store of {} metadata for ISBN {}", key.source(), key.isbn());
+        } catch (JsonProcessingException | RuntimeException e) {
+            log.warn("Could not persist {} metadata for ISBN {}: {}", key.source(), key.isbn(), e.getMessage());
+        }
+    }
+
+    private RichBookData readPayload(String payload) {
+        if (payload == null) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(payload, RichBookData.class);
+        } catch (JsonProcessingException e) {
+            log.warn("Discarding unreadable cached book metadata: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private static Key key(String isbn, MetadataSource source) {
+        return new Key(isbn == null ? "" : isbn.replaceAll("[\\s-]", "").toUpperCase(), source);
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static LocalDateTime toLocalDateTime(long millis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault());
+    }
+}
@@ -0,0 +1,699 @@
+package com.example.bookverseserver.service;
+
+import com.example.bookverseserver.dto.request.Product.BulkListingItem;
+import com.example.bookverseserver.dto.response.External.RichBookData;
+import com.example.bookverseserver.dto.response.ModerationResponse;
+import com.example.bookverseserver.dto.response.Product.BulkUploadResponse;
+import com.example.bookverseserver.dto.response.Product.ListingResponse;
+import com.example.bookverseserver.entity.Product.Author;
+import com.example.bookverseserver.entity.Product.BookMeta;
+import com.example.bookverseserver.entity.Product.Category;
+import com.example.bookverseserver.entity.Product.Listing;
+import com.example.bookverseserver.enums.ContentCategory;
+import com.example.bookverseserver.enums.ContentModerationDecision;
+import com.example.bookverseserver.enums.FlagSeverity;
+import com.example.bookverseserver.enums.FlagStatus;
+import com.example.bookverseserver.enums.FlagType;
+import com.example.bookverseserver.enums.ListingStatus;
+import com.example.bookverseserver.enums.MetadataSource;
+import com.example.bookverseserver.exception.AppException;
+import com.example.bookverseserver.exception.ErrorCode;
+import com.example.bookverseserver.mapper.ListingMapper;
+import com.example.bookverseserver.repository.AuthorRepository;
+import com.example.bookverseserver.repository.BookMetaRepository;
+import com.example.bookverseserver.repository.CategoryRepository;
+import com.example.bookverseserver.repository.ListingRepository;
+import com.example.bookverseserver.service.importjob.ImportJobTracker;
+import com.example.bookverseserver.service.moderation.BulkModerationEngine;
+import com.example.bookverseserver.util.ExternalCategoryMapper;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.SqlParameterValue;
+import org.springframework.jdbc.core.StatementCreatorUtils;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+
+import static lombok.AccessLevel.PRIVATE;
+
+/**
+ * Imports a seller's bulk upload in stages, instead of one transaction per upload:
+ *
+ * 1. Rows are parsed and their ISBNs normalized and deduplicated.
+ * 2. Books already in the catalog are found in one query per {@link #ISBN_QUERY_SIZE} ISBNs;
+ *    the rest are looked up concurrently (at most {@code metadata-concurrency} at a time)
+ *    through the ISBN metadata cache, before any transaction is open.
+ * 3. Rows go in chunks of {@code chunk-size}. A chunk's titles and descriptions are first
+ *    moderated by the {@link BulkModerationEngine}, outside any transaction, its gray-zone
+ *    rows with one LLM call per AI batch. Blocked rows fail; flagged rows are imported and
+ *    queued for moderator review.
+ * 4. The rest of the chunk is written in one short transaction: the
+ *    authors and categories of the chunk's new books are resolved together, books are
+ *    created once per import with one multi-row insert (plus one JDBC batch for books
+ *    without an ISBN), their links and covers with one batch each, and listings with
+ *    one JDBC batch. If a chunk fails, its rows are retried one by one, so a bad row
+ *    fails alone.
+ *
+ * Progress and the result of each row are recorded through the job's {@link ImportJobTracker}.
+ */
+@Service
+@FieldDefaults(level = PRIVATE)
+@Slf4j
+public class ListingImportService {
+
+    static final int ISBN_QUERY_SIZE = 500;
+
+    static final String INSERT_LISTING_SQL = """
+            INSERT INTO listing
+                (book_id, seller_id, category_id, price, original_price, currency, condition, quantity,
+                 description, status, visibility, views, likes, sold_count, free_shipping, created_at, updated_at)
+            VALUES (?, ?, ?, ?, NULL, 'VND', ?, ?, ?, ?, true, 0, 0, 0, false, ?, ?)
+            """;
+
+    static final int[] LISTING_TYPES = {Types.BIGINT, Types.BIGINT, Types.BIGINT, Types.NUMERIC, Types.VARCHAR,
+            Types.INTEGER, Types.VARCHAR, Types.VARCHAR, Types.TIMESTAMP, Types.TIMESTAMP};
+
+    static final String INSERT_BOOKS_SQL = """
+            INSERT INTO book_meta (title, isbn, description, publisher, published_date, pages, language, total_reviews,
+                first_line, subject_places, subject_people, subject_times, external_links, table_of_contents,
+                openlibrary_id, goodreads_id, google_books_id, created_at, updated_at)
+            VALUES\s""";
+    // 16 parameters per book: a chunk stays far below Postgres' 65535
+    static final String BOOK_ROW = "(?, ?, ?, ?, ?, ?, ?, 0, ?, ?, ?, ?, ?, ?, ?, ?, ?, now(), now())";
+    static final int[] BOOK_TYPES = {Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.DATE,
+            Types.INTEGER, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR,
+            Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR};
+
+    static final String INSERT_FLAG_SQL = """
+            INSERT INTO flagged_listing
+                (listing_id, flag_type, flag_reason, confidence_score, severity, status, auto_action, flagged_at, updated_at)
+            VALUES (?, ?, ?, ?, ?, ?, 'BULK_IMPORT', now(), now())
+            """;
+
+    static final String INSERT_BOOK_AUTHOR_SQL = "INSERT INTO book_author (book_id, author_id) VALUES (?, ?)";
+    static final String INSERT_BOOK_CATEGORY_SQL = "INSERT INTO book_category (book_id, category_id) VALUES (?, ?)";
+    static final String INSERT_BOOK_IMAGE_SQL =
+            "INSERT INTO book_image (book_id, url, alt_text, is_cover, position, created_at) VALUES (?, ?, ?, ?, ?, now())";
+
+    final BookMetaRepository bookMetaRepository;
+    final AuthorRepository authorRepository;
+    final CategoryRepository categoryRepository;
+    final AuthorService authorService;
+    final CategoryService categoryService;
+    final ListingRepository listingRepository;
+    final ListingMapper listingMapper;
+    final BookMetaAssembler bookMetaAssembler;
+    final IsbnMetadataCacheService isbnMetadataCacheService;
+    final OpenLibraryService openLibraryService;
+    final BulkModerationEngine bulkModerationEngine;
+    final JdbcTemplate jdbcTemplate;
+    final TransactionTemplate writeTransaction;
+    final TransactionTemplate readTransaction;
+    final Executor executor;
+    final int chunkSize;
+    final int metadataConcurrency;
+
+    public ListingImportService(BookMetaRepository bookMetaRepository,
+                                AuthorRepository authorRepository,
+                                CategoryRepository categoryRepository,
+                                AuthorService authorService,
+                                CategoryService categoryService,
+                                ListingRepository listingRepository,
+                                ListingMapper listingMapper,
+                                BookMetaAssembler bookMetaAssembler,
+                                IsbnMetadataCacheService isbnMetadataCacheService,
+                                OpenLibraryService openLibraryService,
+                                BulkModerationEngine bulkModerationEngine,
+                                JdbcTemplate jdbcTemplate,
+                                PlatformTransactionManager transactionManager,
+                                @Qualifier("enrichmentExecutor") Executor executor,
+                                @Value("${app.import.chunk-size:100}") int chunkSize,
+                                @Value("${app.import.metadata-concurrency:4}") int metadataConcurrency) {
+        this.bookMetaRepository = bookMetaRepository;
+        this.authorRepository = authorRepository;
+        this.categoryRepository = categoryRepository;
+        this.authorService = authorService;
+        this.categoryService = categoryService;
+        this.listingRepository = listingRepository;
+        this.listingMapper = listingMapper;
+        this.bookMetaAssembler = bookMetaAssembler;
+        this.isbnMetadataCacheService = isbnMetadataCacheService;
+        this.openLibraryService = openLibraryService;
+        this.bulkModerationEngine = bulkModerationEngine;
+        this.jdbcTemplate = jdbcTemplate;
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+        this.executor = executor;
+        this.chunkSize = Math.max(1, chunkSize);
+        this.metadataConcurrency = Math.max(1, metadataConcurrency);
+    }
+
+    /**
+     * Import {@code items} as listings of the seller. Must not be called inside a transaction.
+     */
+    public BulkUploadResponse importListings(Long sellerId, List<BulkListingItem> items, ImportJobTracker tracker) {
+        tracker.total(items.size());
+        tracker.phase("RESOLVING_ISBNS");
+        List<Row> rows = parse(items);
+        Catalog catalog = new Catalog();
+        resolveBooks(rows, catalog);
+
+        tracker.phase("WRITING");
+        List<ListingResponse> listings = new ArrayList<>();
+        List<BulkUploadResponse.BulkUploadError> errors = new ArrayList<>();
+        for (int from = 0; from < rows.size(); from += chunkSize) {
+            List<Row> chunk = rows.subList(from, Math.min(from + chunkSize, rows.size()));
+            Map<Integer, ModerationResponse> flagged = new HashMap<>();
+            List<Row> accepted = moderate(chunk, flagged, errors, tracker);
+            if (!accepted.isEmpty()) {
+                catalog = writeChunk(sellerId, accepted, flagged, catalog, listings, errors, tracker);
+            }
+            tracker.flush();
+        }
+
+        log.info("Bulk import {} for seller {}: {} successful, {} failed out of {} total",
+                tracker.getJobId(), sellerId, listings.size(), errors.size(), items.size());
+
+        return BulkUploadResponse.builder()
+                .jobId(tracker.getJobId())
+                .successCount(listings.size())
+                .failureCount(errors.size())
+                .listings(listings)
+                .errors(errors)
+                .build();
+    }
+
+    private List<Row> parse(List<BulkListingItem> items) {
+        List<Row> rows = new ArrayList<>(items.size());
+        for (int i = 0; i < items.size(); i++) {
+            BulkListingItem item = items.get(i);
+            rows.add(new Row(i, item, BookMetaAssembler.normalizeIsbn(item.getIsbn())));
+        }
+        return rows;
+    }
+
+    /**
+     * Find the rows' books in the catalog, and fetch Open Library data for the rest.
+     */
+    private void resolveBooks(List<Row> rows, Catalog catalog) {
+        Set<String> isbns = new LinkedHashSet<>();
+        for (Row row : rows) {
+            if (row.isbn() != null) {
+                isbns.add(row.isbn());
+            }
+        }
+
+        List<String> pending = new ArrayList<>(isbns);
+        for (int from = 0; from < pending.size(); from += ISBN_QUERY_SIZE) {
+            List<String> batch = pending.subList(from, Math.min(from + ISBN_QUERY_SIZE, pending.size()));
+            for (Object[] book : bookMetaRepository.findIdsAndPrimaryCategoryByIsbnIn(batch)) {
+                Long bookId = (Long) book[1];
+                catalog.bookIds.put((String) book[0], bookId);
+                catalog.primaryCategory.put(bookId, (Long) book[2]);
+            }
+        }
+
+        Semaphore permits = new Semaphore(metadataConcurrency);
+        Map<String, CompletableFuture<RichBookData>> lookups = new LinkedHashMap<>();
+        for (String isbn : isbns) {
+            if (!catalog.bookIds.containsKey(isbn)) {
+                lookups.put(isbn, CompletableFuture.supplyAsync(() -> fetchMetadata(isbn, permits), executor));
+            }
+        }
+        lookups.forEach((isbn, lookup) -> {
+            RichBookData data = lookup.join();
+            if (data != null) {
+                catalog.metadata.put(isbn, data);
+            }
+        });
+    }
+
+    private RichBookData fetchMetadata(String isbn, Semaphore permits) {
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+        try {
+            return isbnMetadataCacheService.get(isbn, MetadataSource.OPEN_LIBRARY,
+                    () -> openLibraryService.fetchRichBookDetailsByIsbn(isbn));
+        } catch (RuntimeException e) {
+            // Same as a single listing: fall back to the seller's data
+            log.warn("Open Library fetch failed for ISBN {}: {}", isbn, e.getMessage());
+            return null;
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * Moderate the chunk's titles and descriptions, failing the rows that are blocked.
+     *
+     * @param flagged Receives the verdict of each row to queue for moderator review, by row index
+     * @return The rows to import, in order
+     */
+    private List<Row> moderate(List<Row> chunk, Map<Integer, ModerationResponse> flagged,
+                               List<BulkUploadResponse.BulkUploadError> errors, ImportJobTracker tracker) {
+        List<BulkModerationEngine.Item> items = new ArrayList<>(chunk.size());
+        for (Row row : chunk) {
+            String text = row.item().getDescription() != null
+                    ? row.item().getTitle() + " " + row.item().getDescription()
+                    : row.item().getTitle();
+            items.add(new BulkModerationEngine.Item((long) row.index(), text, "LISTING"));
+        }
+        List<BulkModerationEngine.Outcome> outcomes = bulkModerationEngine.moderateChunk(items);
+
+        List<Row> accepted = new ArrayList<>(chunk.size());
+        for (int i = 0; i < chunk.size(); i++) {
+            Row row = chunk.get(i);
+            ModerationResponse verdict = outcomes.get(i).verdict();
+            if (verdict.getDecision() == ContentModerationDecision.BLOCK) {
+                BulkUploadResponse.BulkUploadError error = toError(row, new AppException(blockedError(verdict.getCategory())));
+                tracker.failed(error.getIndex(), error.getTitle(), error.getMessage());
+                errors.add(error);
+                continue;
+            }
+            if (verdict.getDecision() == ContentModerationDecision.FLAG) {
+                flagged.put(row.index(), verdict);
+            }
+            accepted.add(row);
+        }
+        return accepted;
+    }
+
+    private static ErrorCode blockedError(ContentCategory category) {
+        if (category == null) {
+            return ErrorCode.CONTENT_POLICY_VIOLATION;
+        }
+        return switch (category) {
+            case TOXIC -> ErrorCode.CONTENT_TOXIC;
+            case SPAM -> ErrorCode.CONTENT_SPAM;
+            case OFF_TOPIC -> ErrorCode.CONTENT_OFF_TOPIC;
+            default -> ErrorCode.CONTENT_POLICY_VIOLATION;
+        };
+    }
+
+    /**
+     * Write one chunk in its own transaction, or row by row if that fails.
+     *
+     * @return The catalog including the books the chunk created
+     */
+    private Catalog writeChunk(Long sellerId, List<Row> chunk, Map<Integer, ModerationResponse> flagged, Catalog catalog,
+                               List<ListingResponse> listings, List<BulkUploadResponse.BulkUploadError> errors,
+                               ImportJobTracker tracker) {
+        Catalog next = catalog.copy();
+        List<Long> ids;
+        try {
+            ids = writeTransaction.execute(status -> insertRows(sellerId, chunk, flagged, next));
+        } catch (RuntimeException chunkError) {
+            if (chunk.size() == 1) {
+                BulkUploadResponse.BulkUploadError error = toError(chunk.get(0), chunkError);
+                tracker.failed(error.getIndex(), error.getTitle(), error.getMessage());
+                errors.add(error);
+                return catalog;
+            }
+            log.debug("Bulk import chunk of {} rows failed, retrying row by row: {}", chunk.size(), chunkError.getMessage());
+            for (Row row : chunk) {
+                catalog = writeChunk(sellerId, List.of(row), flagged, catalog, listings, errors, tracker);
+            }
+            return catalog;
+        }
+
+        for (int i = 0; i < chunk.size(); i++) {
+            tracker.succeeded(chunk.get(i).index(), chunk.get(i).item().getTitle(), ids.get(i), null);
+        }
+        listings.addAll(loadListings(ids));
+        return next;
+    }
+
+    private List<Long> insertRows(Long sellerId, List<Row> rows, Map<Integer, ModerationResponse> flagged, Catalog catalog) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        Map<Integer, Long> bookIds = booksFor(rows, catalog, taxonomyFor(rows, catalog));
+        List<Object[]> values = new ArrayList<>(rows.size());
+        for (Row row : rows) {
+            BulkListingItem item = row.item();
+            Long bookId = bookIds.get(row.index());
+            Long categoryId = listingCategory(bookId, item, catalog);
+            values.add(new Object[] {
+                    bookId, sellerId, categoryId,
+                    item.getPrice() != null ? BigDecimal.valueOf(item.getPrice()) : null,
+                    item.getCondition() != null ? item.getCondition().name() : null,
+                    item.getStock(),
+                    item.getDescription(),
+                    ListingStatus.DRAFT.name(),
+                    now, now
+            });
+        }
+        List<Long> ids = batchInsert(INSERT_LISTING_SQL, LISTING_TYPES, values);
+
+        List<Object[]> flags = new ArrayList<>();
+        for (int i = 0; i < rows.size(); i++) {
+            ModerationResponse verdict = flagged.get(rows.get(i).index());
+            if (verdict != null) {
+                flags.add(new Object[] {
+                        ids.get(i),
+                        (verdict.getCategory() == ContentCategory.SPAM ? FlagType.SPAM : FlagType.INAPPROPRIATE).name(),
+                        verdict.getReason() != null && verdict.getReason().length() > 500
+                                ? verdict.getReason().substring(0, 500)
+                                : verdict.getReason(),
+                        verdict.getScore() != null ? verdict.getScore() / 100.0 : null,
+                        FlagSeverity.MEDIUM.name(),
+                        FlagStatus.PENDING.name()
+                });
+            }
+        }
+        if (!flags.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_FLAG_SQL, flags);
+        }
+        return ids;
+    }
+
+    /**
+     * Insert the rows with one JDBC batch, nulls bound with their column's type.
+     *
+     * @return Generated ids, in row order
+     */
+    private List<Long> batchInsert(String sql, int[] types, List<Object[]> values) {
+        KeyHolder keys = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(connection -> connection.prepareStatement(sql, new String[] {"id"}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement statement, int i) throws SQLException {
+                        Object[] row = values.get(i);
+                        for (int column = 0; column < row.length; column++) {
+                            StatementCreatorUtils.setParameterValue(statement, column + 1, types[column], row[column]);
+                        }
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return values.size();
+                    }
+                }, keys);
+
+        List<Long> ids = new ArrayList<>(values.size());
+        for (Map<String, Object> key : keys.getKeyList()) {
+            ids.add(((Number) key.get("id")).longValue());
+        }
+        return ids;
+    }
+
+    /**
+     * Authors and categories of the books the rows will create, each set resolved with
+     * one query and one insert.
+     */
+    private Taxonomy taxonomyFor(List<Row> rows, Catalog catalog) {
+        List<String> authorNames = new ArrayList<>();
+        List<String> authorKeys = new ArrayList<>();
+        Map<String, String> categoryNames = new LinkedHashMap<>();  // slug -> name
+        Set<String> isbns = new HashSet<>();
+        for (Row row : rows) {
+            if (row.isbn() != null && (catalog.bookIds.containsKey(row.isbn()) || !isbns.add(row.isbn()))) {
+                continue;
+            }
+            RichBookData data = row.isbn() != null ? catalog.metadata.get(row.isbn()) : null;
+            if (data == null) {
+                authorNames.add(row.item().getAuthor());
+                authorKeys.add(null);
+                String slug = BookMetaAssembler.sellerCategorySlug(row.item().getCategory());
+                categoryNames.putIfAbsent(slug, BookMetaAssembler.sellerCategoryName(slug));
+                continue;
+            }
+            if (data.getAuthors() != null) {
+                List<String> keys = data.getAuthorKeys();
+                for (int i = 0; i < data.getAuthors().size(); i++) {
+                    authorNames.add(data.getAuthors().get(i));
+                    authorKeys.add(keys != null && i < keys.size() ? keys.get(i) : null);
+                }
+            }
+            for (String slug : canonicalSlugs(data)) {
+                categoryNames.putIfAbsent(slug, BookMetaAssembler.canonicalCategoryName(slug));
+            }
+        }
+        return new Taxonomy(
+                authorNames.isEmpty() ? Map.of() : authorService.getOrCreateAuthorIds(authorNames, authorKeys),
+                categoryNames.isEmpty() ? Map.of() : categoryService.getOrCreateCategoryIds(categoryNames));
+    }
+
+    /**
+     * The rows' books: already in the catalog, or created from Open Library data or the row
+     * itself. New books with an ISBN are written with one multi-row insert; one that another
+     * import created meanwhile is used as it is. Books without an ISBN go in one JDBC batch.
+     *
+     * @return Book of each row, by row index
+     */
+    private Map<Integer, Long> booksFor(List<Row> rows, Catalog catalog, Taxonomy taxonomy) {
+        Map<String, BookMeta> withIsbn = new LinkedHashMap<>();
+        Map<Integer, BookMeta> withoutIsbn = new LinkedHashMap<>();
+        for (Row row : rows) {
+            if (row.isbn() == null) {
+                withoutIsbn.put(row.index(), newBook(row, catalog, taxonomy));
+            } else if (!catalog.bookIds.containsKey(row.isbn()) && !withIsbn.containsKey(row.isbn())) {
+                withIsbn.put(row.isbn(), newBook(row, catalog, taxonomy));
+            }
+        }
+
+        Map<Integer, Long> bookIds = new HashMap<>();
+        Map<Long, BookMeta> created = new LinkedHashMap<>();
+        if (!withIsbn.isEmpty()) {
+            List<Object> args = new ArrayList<>(withIsbn.size() * BOOK_TYPES.length);
+            for (BookMeta book : withIsbn.values()) {
+                Object[] values = bookValues(book);
+                for (int column = 0; column < values.length; column++) {
+                    args.add(new SqlParameterValue(BOOK_TYPES[column], values[column]));
+                }
+            }
+            List<Map.Entry<String, Long>> inserted = jdbcTemplate.query(
+                    INSERT_BOOKS_SQL + String.join(", ", Collections.nCopies(withIsbn.size(), BOOK_ROW))
+                            + " ON CONFLICT DO NOTHING RETURNING id, isbn",
+                    (rs, rowNum) -> Map.entry(rs.getString("isbn"), rs.getLong("id")), args.toArray());
+            for (Map.Entry<String, Long> book : inserted) {
+                created.put(book.getValue(), withIsbn.get(book.getKey()));
+                catalog.bookIds.put(book.getKey(), book.getValue());
+            }
+            List<String> taken = withIsbn.keySet().stream().filter(isbn -> !catalog.bookIds.containsKey(isbn)).toList();
+            if (!taken.isEmpty()) {
+                for (Object[] book : bookMetaRepository.findIdsAndPrimaryCategoryByIsbnIn(taken)) {
+                    catalog.bookIds.put((String) book[0], (Long) book[1]);
+                    catalog.primaryCategory.put((Long) book[1], (Long) book[2]);
+                }
+            }
+        }
+        if (!withoutIsbn.isEmpty()) {
+            List<Long> ids = batchInsert(INSERT_BOOKS_SQL + BOOK_ROW, BOOK_TYPES,
+                    withoutIsbn.values().stream().map(ListingImportService::bookValues).toList());
+            int i = 0;
+            for (Map.Entry<Integer, BookMeta> book : withoutIsbn.entrySet()) {
+                bookIds.put(book.getKey(), ids.get(i));
+                created.put(ids.get(i++), book.getValue());
+            }
+        }
+        linkBooks(created, catalog);
+
+        for (Row row : rows) {
+            if (row.isbn() != null) {
+                bookIds.put(row.index(), catalog.bookIds.get(row.isbn()));
+            }
+        }
+        return bookIds;
+    }
+
+    private BookMeta newBook(Row row, Catalog catalog, Taxonomy taxonomy) {
+        BulkListingItem item = row.item();
+        RichBookData data = row.isbn() != null ? catalog.metadata.get(row.isbn()) : null;
+        if (data != null) {
+            return bookMetaAssembler.fromOpenLibrary(data, row.isbn(), authorsOf(data, taxonomy), categoriesOf(data, taxonomy));
+        }
+        return bookMetaAssembler.fromSellerInput(item.getTitle(), row.isbn(), item.getDescription(),
+                item.getPublisher(), item.getPublishYear(),
+                author(item.getAuthor(), taxonomy),
+                category(BookMetaAssembler.sellerCategorySlug(item.getCategory()), taxonomy));
+    }
+
+    /**
+     * Columns of {@link #BOOK_ROW}, typed by {@link #BOOK_TYPES}.
+     */
+    private static Object[] bookValues(BookMeta book) {
+        return new Object[] {
+                book.getTitle(), book.getIsbn(), book.getDescription(), book.getPublisher(),
+                book.getPublishedDate() != null ? Date.valueOf(book.getPublishedDate()) : null,
+                book.getPages(), book.getLanguage(), book.getFirstLine(),
+                book.getSubjectPlaces(), book.getSubjectPeople(), book.getSubjectTimes(),
+                book.getExternalLinks(), book.getTableOfContents(),
+                book.getOpenLibraryId(), book.getGoodreadsId(), book.getGoogleBooksId()
+        };
+    }
+
+    /**
+     * Link new books to their authors and categories and add their covers, one batch each.
+     */
+    private void linkBooks(Map<Long, BookMeta> books, Catalog catalog) {
+        List<Object[]> authors = new ArrayList<>();
+        List<Object[]> categories = new ArrayList<>();
+        List<Object[]> images = new ArrayList<>();
+        books.forEach((bookId, book) -> {
+            book.getAuthors().forEach(author -> authors.add(new Object[] {bookId, author.getId()}));
+            book.getCategories().forEach(category -> categories.add(new Object[] {bookId, category.getId()}));
+            if (book.getImages() != null) {
+                book.getImages().forEach(image -> images.add(new Object[] {
+                        bookId, image.getUrl(), image.getAltText(), image.getIsCover(), image.getPosition()}));
+            }
+            // Best match first, as in the deferred enrichment and the catalog backfill
+            catalog.primaryCategory.put(bookId, book.getCategories().stream()
+                    .map(Category::getId)
+                    .findFirst()
+                    .orElse(null));
+        });
+        if (!authors.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_BOOK_AUTHOR_SQL, authors);
+        }
+        if (!categories.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_BOOK_CATEGORY_SQL, categories);
+        }
+        if (!images.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_BOOK_IMAGE_SQL, images);
+        }
+    }
+
+    /**
+     * The listing's category is the book's; a book without one takes the seller's, if it exists.
+     */
+    private Long listingCategory(Long bookId, BulkListingItem item, Catalog catalog) {
+        Long categoryId = catalog.primaryCategory.get(bookId);
+        if (categoryId != null || item.getCategory() == null || item.getCategory().isBlank()) {
+            return categoryId;
+        }
+        String slug = BookMetaAssembler.sellerCategorySlug(item.getCategory());
+        Long sellerCategoryId = catalog.categoryIds.containsKey(slug)
+                ? catalog.categoryIds.get(slug)
+                : categoryRepository.findBySlug(slug).map(Category::getId).orElse(null);
+        if (sellerCategoryId != null) {
+            catalog.categoryIds.put(slug, sellerCategoryId);
+            jdbcTemplate.update(INSERT_BOOK_CATEGORY_SQL, bookId, sellerCategoryId);
+            catalog.primaryCategory.put(bookId, sellerCategoryId);
+        }
+        return sellerCategoryId;
+    }
+
+    private Set<Author> authorsOf(RichBookData data, Taxonomy taxonomy) {
+        Set<Author> authors = new HashSet<>();
+        if (data.getAuthors() == null) {
+            return authors;
+        }
+        for (String name : data.getAuthors()) {
+            if (AuthorService.nameKey(name) != null) {
+                authors.add(author(name, taxonomy));
+            }
+        }
+        return authors;
+    }
+
+    private Author author(String name, Taxonomy taxonomy) {
+        return authorRepository.getReferenceById(taxonomy.authorIds().get(AuthorService.nameKey(name)));
+    }
+
+    private Set<Category> categoriesOf(RichBookData data, Taxonomy taxonomy) {
+        Set<Category> categories = new LinkedHashSet<>();
+        for (String slug : canonicalSlugs(data)) {
+            categories.add(category(slug, taxonomy));
+        }
+        return categories;
+    }
+
+    private Category category(String slug, Taxonomy taxonomy) {
+        return categoryRepository.getReferenceById(taxonomy.categoryIds().get(slug));
+    }
+
+    private static List<String> canonicalSlugs(RichBookData data) {
+        if (data.getCategories() == null || data.getCategories().isEmpty()) {
+            return List.of();
+        }
+        return ExternalCategoryMapper.mapToCanonical(data.getCategories());
+    }
+
+    private List<ListingResponse> loadListings(List<Long> ids) {
+        return readTransaction.execute(status -> {
+            Map<Long, Listing> byId = new HashMap<>();
+            for (Listing listing : listingRepository.findAllById(ids)) {
+                byId.put(listing.getId(), listing);
+            }
+            List<ListingResponse> responses = new ArrayList<>(ids.size());
+            for (Long id : ids) {
+                responses.add(listingMapper.toListingResponse(byId.get(id)));
+            }
+            return responses;
+        });
+    }
+
+    private static BulkUploadResponse.BulkUploadError toError(Row row, RuntimeException e) {
+        String message;
+        if (e instanceof AppException appException) {
+            message = appException.getErrorCode().getMessage();
+            log.warn("Bulk upload: Failed row {} ({}): {}", row.index() + 1, row.item().getTitle(), message);
+        } else {
+            message = "Unexpected error: " + e.getMessage();
+            log.error("Bulk upload: Unexpected error at row {} ({}): {}", row.index() + 1, row.item().getTitle(), e.getMessage(), e);
+        }
+        return BulkUploadResponse.BulkUploadError.builder()
+                .index(row.index())
+                .rowNumber(row.index() + 1)
+                .title(row.item().getTitle())
+                .message(message)
+                .build();
+    }
+
+    private record Row(int index, BulkListingItem item, String isbn) {}
+
+    /**
+     * Ids of a chunk's authors (by {@link AuthorService#nameKey}) and categories (by slug).
+     */
+    private record Taxonomy(Map<String, Long> authorIds, Map<String, Long> categoryIds) {}
+
+    /**
+     * Ids known to exist in the database. Each chunk works on a copy, which replaces
+     * the original only once the chunk has committed.
+     */
+    private static final class Catalog {
+        final Map<String, Long> bookIds = new HashMap<>();          // ISBN -> book
+        final Map<Long, Long> primaryCategory = new HashMap<>();    // book -> its category, null if none
+        final Map<String, Long> categoryIds = new HashMap<>();      // slug -> seller category
+        final Map<String, RichBookData> metadata = new HashMap<>(); // ISBN -> Open Library data
+
+        Catalog copy() {
+            Catalog copy = new Catalog();
+            copy.bookIds.putAll(bookIds);
+            copy.primaryCategory.putAll(primaryCategory);
+            copy.categoryIds.putAll(categoryIds);
+            copy.metadata.putAll(metadata);
+            return copy;
+        }
+    }
+}
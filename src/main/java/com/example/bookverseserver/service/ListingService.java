@@ -2,15 +2,23 @@ package com.example.bookverseserver.service;
 
 import com.example.bookverseserver.dto.request.Product.*;
 import com.example.bookverseserver.dto.response.PagedResponse;
+import com.example.bookverseserver.dto.request.ModerationRequest;
+import com.example.bookverseserver.dto.response.ModerationResponse;
 import com.example.bookverseserver.dto.response.Product.*;
+import com.example.bookverseserver.entity.Moderation.FlaggedListing;
 import com.example.bookverseserver.entity.Product.BookMeta;
-import com.example.bookverseserver.entity.Product.BookImage;
 import com.example.bookverseserver.entity.Product.Likes;
 import com.example.bookverseserver.entity.Product.Listing;
 import com.example.bookverseserver.entity.Product.ListingPhoto;
 import com.example.bookverseserver.entity.User.User;
 import com.example.bookverseserver.enums.BookCondition;
+import com.example.bookverseserver.enums.ContentCategory;
+import com.example.bookverseserver.enums.ContentModerationDecision;
+import com.example.bookverseserver.enums.FlagSeverity;
+import com.example.bookverseserver.enums.FlagStatus;
+import com.example.bookverseserver.enums.FlagType;
 import com.example.bookverseserver.enums.ListingStatus;
+import com.example.bookverseserver.enums.MetadataSource;
 import com.example.bookverseserver.enums.StockOperation;
 import com.example.bookverseserver.exception.AppException;
 import com.example.bookverseserver.exception.ErrorCode;
@@ -21,7 +29,7 @@ import com.example.bookverseserver.entity.Product.Author;
 import com.example.bookverseserver.entity.Product.Category;
 import com.example.bookverseserver.repository.*;
 import com.example.bookverseserver.repository.specification.ListingSpecification;
-import com.example.bookverseserver.util.ExternalCategoryMapper;
+import com.example.bookverseserver.service.importjob.ImportJobService;
 import com.example.bookverseserver.util.HtmlSanitizer;
 import com.example.bookverseserver.util.SecurityUtils;
 import lombok.AccessLevel;
@@ -35,16 +43,18 @@ import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
 import com.example.bookverseserver.dto.response.External.RichBookData;
 
 import java.time.LocalDateTime;
-import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.HashSet;
+import java.util.Map;
 
 @Service
 @RequiredArgsConstructor
@@ -59,14 +69,21 @@ public class ListingService {
     BookMetaRepository bookMetaRepository;
     AuthorRepository authorRepository;
     CategoryRepository categoryRepository;
+    AuthorService authorService;
+    CategoryService categoryService;
     BookMetaMapper bookMetaMapper;
     ListingMapper listingMapper;
     ListingPhotoMapper listingPhotoMapper;
     CloudStorageService cloudStorageService;
-    OpenLibraryService openLibraryService;
+    IsbnMetadataCacheService isbnMetadataCacheService;
+    DeferredBookEnrichmentService deferredBookEnrichmentService;
     SecurityUtils securityUtils;
     HtmlSanitizer htmlSanitizer;
     ContentModerationService contentModerationService;
+    FlaggedListingRepository flaggedListingRepository;
+    BookMetaAssembler bookMetaAssembler;
+    ImportJobService importJobService;
+    PlatformTransactionManager transactionManager;
 
     // ============ Filtered Listings Query ============
 
@@ -446,13 +463,14 @@ public class ListingService {
         if (listing.getTitleOverride() != null) {
             contentToModerate = listing.getTitleOverride() + " " + contentToModerate;
         }
+        ModerationRequest moderationRequest = null;
+        ModerationResponse moderationResult = null;
         if (!contentToModerate.isBlank()) {
-            var moderationResult = contentModerationService.moderate(
-                    com.example.bookverseserver.dto.request.ModerationRequest.builder()
-                            .text(contentToModerate)
-                            .contentType("LISTING")
-                            .build()
-            );
+            moderationRequest = ModerationRequest.builder()
+                    .text(contentToModerate)
+                    .contentType("LISTING")
+                    .build();
+            moderationResult = contentModerationService.moderateProvisional(moderationRequest);
             
             if (moderationResult.getDecision() == com.example.bookverseserver.enums.ContentModerationDecision.BLOCK) {
                 log.warn("Listing blocked by content moderation: {} (category: {})", 
@@ -475,6 +493,12 @@ public class ListingService {
         
         listing = listingRepository.save(listing);
 
+        if (moderationResult != null && Boolean.TRUE.equals(moderationResult.getPendingAiReview())) {
+            Long listingId = listing.getId();
+            contentModerationService.submitForAiReview(moderationRequest, moderationResult,
+                    verdict -> applyAiModerationVerdict(listingId, verdict));
+        }
+
         // Create photos
         if (request.getPhotos() != null && !request.getPhotos().isEmpty()) {
             List<ListingPhoto> photos = new ArrayList<>();
@@ -647,8 +671,9 @@ public class ListingService {
      * Accepts flat form data + image files directly from frontend form.
      * 
      * CANONICAL FLOW (per Vision):
-     * 1. If ISBN provided → Fetch from Open Library for canonical metadata
-     * 2. If Open Library fails or no ISBN → Use seller-provided data (marked as unverified)
+     * 1. If ISBN provided → Use the catalog's book, or cached Open Library metadata
+     * 2. Otherwise → Use seller-provided data (marked as unverified); a new ISBN is
+     *    enriched from Open Library in the background once the listing is saved
      * 3. Create Listing with seller-specific data (price, condition, photos)
      * 
      * @param request  flat listing data
@@ -757,20 +782,20 @@ public class ListingService {
     }
 
     /**
-     * Resolve BookMeta using canonical sources.
+     * Resolve BookMeta using canonical sources, without waiting on Open Library.
      * 
      * Priority:
      * 1. Check if BookMeta exists in DB by ISBN
-     * 2. If not, try Open Library API (canonical source)
-     * 3. If Open Library fails, create from seller input (unverified)
+     * 2. If not, use Open Library data already in the ISBN metadata cache
+     *    (e.g. the seller looked the ISBN up while filling in the form)
+     * 3. Otherwise create from seller input (unverified); with an ISBN, the book is
+     *    patched from Open Library in the background after commit
      */
     private BookMeta resolveBookMeta(SimpleListingCreationRequest request) {
-        String isbn = request.getIsbn();
+        String normalizedIsbn = BookMetaAssembler.normalizeIsbn(request.getIsbn()); // Remove hyphens/spaces
         
         // Case 1: ISBN provided - try canonical sources
-        if (isbn != null && !isbn.isBlank()) {
-            String normalizedIsbn = isbn.replaceAll("[^0-9X]", ""); // Remove hyphens/spaces
-            
+        if (normalizedIsbn != null) {
             // 1a. Check if we already have this book
             var existingBook = bookMetaRepository.findByIsbn(normalizedIsbn);
             if (existingBook.isPresent()) {
@@ -778,281 +803,98 @@ public class ListingService {
                 return existingBook.get();
             }
             
-            // 1b. Fetch from Open Library (canonical source)
-            try {
-                RichBookData openLibraryData = openLibraryService.fetchRichBookDetailsByIsbn(normalizedIsbn);
-                if (openLibraryData != null) {
-                    log.info("Fetched canonical data from Open Library for ISBN {}", normalizedIsbn);
-                    return createBookMetaFromOpenLibrary(openLibraryData, normalizedIsbn);
-                }
-            } catch (Exception e) {
-                log.warn("Open Library fetch failed for ISBN {}: {}", normalizedIsbn, e.getMessage());
-                // Fall through to manual creation
+            // 1b. Open Library data we already have (canonical source)
+            RichBookData openLibraryData = isbnMetadataCacheService.peek(normalizedIsbn, MetadataSource.OPEN_LIBRARY);
+            if (openLibraryData != null) {
+                log.info("Using cached Open Library data for ISBN {}", normalizedIsbn);
+                return deferredBookEnrichmentService.createFromOpenLibrary(openLibraryData, normalizedIsbn);
             }
-        }
-        
-        // Case 2: No ISBN or Open Library failed - create from seller input
-        log.info("Creating BookMeta from seller input (no canonical source): {}", request.getTitle());
-        return createBookMetaFromSellerInput(request);
-    }
 
-    /**
-     * Create BookMeta from Open Library canonical data.
-     */
-    private BookMeta createBookMetaFromOpenLibrary(RichBookData data, String isbn) {
-        // Resolve authors (create if not exist) - case-insensitive with normalization
-        var authors = new HashSet<Author>();
-        if (data.getAuthors() != null) {
-            for (String authorName : data.getAuthors()) {
-                String normalizedName = com.example.bookverseserver.util.AuthorNameNormalizer.normalize(authorName);
-                Author author = authorRepository.findByNameIgnoreCase(normalizedName)
-                        .orElseGet(() -> authorRepository.save(Author.builder()
-                                .name(normalizedName) // Store normalized name
-                                .openLibraryId(data.getAuthorKeys() != null && !data.getAuthorKeys().isEmpty() 
-                                        ? data.getAuthorKeys().get(0).replace("/authors/", "") : null)
-                                .build()));
-                authors.add(author);
-            }
+            // 1c. Skeleton now, Open Library later
+            BookMeta skeleton = createBookMetaFromSellerInput(request, normalizedIsbn);
+            deferredBookEnrichmentService.enrichLater(skeleton.getId(), normalizedIsbn);
+            log.info("Created BookMeta {} from seller input, Open Library enrichment queued for ISBN {}",
+                    skeleton.getId(), normalizedIsbn);
+            return skeleton;
         }
         
-        // Resolve categories from Open Library subjects
-        // CRITICAL: Normalize chaotic Open Library subjects to our canonical 10 categories
-        var categories = new HashSet<Category>();
-        if (data.getCategories() != null && !data.getCategories().isEmpty()) {
-            // Map raw subjects to canonical categories using ExternalCategoryMapper
-            List<String> canonicalSlugs = ExternalCategoryMapper.mapToCanonical(data.getCategories());
-            
-            // If mapping found canonical categories, use them; otherwise skip
-            for (String slug : canonicalSlugs) {
-                // Canonical categories use slug as name (e.g., "fiction", "non_fiction")
-                Category cat = categoryRepository.findBySlug(slug)
-                        .orElseGet(() -> categoryRepository.save(Category.builder()
-                                .name(slug.replace("_", " ").substring(0, 1).toUpperCase() + slug.replace("_", " ").substring(1)) // "fiction" -> "Fiction"
-                                .slug(slug)
-                                .build()));
-                categories.add(cat);
-            }
-        }
-        
-        // Parse published date
-        LocalDate publishedDate = null;
-        if (data.getPublishedDate() != null) {
-            try {
-                // Open Library uses various formats, try to extract year
-                String dateStr = data.getPublishedDate();
-                if (dateStr.length() >= 4) {
-                    int year = Integer.parseInt(dateStr.substring(0, 4));
-                    publishedDate = LocalDate.of(year, 1, 1);
-                }
-            } catch (Exception e) {
-                log.debug("Could not parse published date: {}", data.getPublishedDate());
-            }
-        }
-        
-        BookMeta bookMeta = BookMeta.builder()
-                .title(data.getTitle())
-                .isbn(isbn)
-                .description(data.getDescription())
-                .publisher(data.getPublisher())
-                .publishedDate(publishedDate)
-                .pages(data.getNumberOfPages() > 0 ? data.getNumberOfPages() : null)
-                .authors(authors)
-                .categories(categories)
-                .openLibraryId(data.getOpenLibraryId())
-                .goodreadsId(data.getGoodreadsId())
-                .googleBooksId(data.getGoogleBooksId())
-                .firstLine(data.getFirstLine())
-                .subjectPlaces(data.getSubjectPlaces() != null ? String.join(", ", data.getSubjectPlaces()) : null)
-                .subjectPeople(data.getSubjectPeople() != null ? String.join(", ", data.getSubjectPeople()) : null)
-                .subjectTimes(data.getSubjectTimes() != null ? String.join(", ", data.getSubjectTimes()) : null)
-                .externalLinks(serializeExternalLinks(data.getExternalLinks()))
-                .tableOfContents(serializeTableOfContents(data.getTableOfContents()))
-                .build();
-        
-        // Save first to get ID
-        BookMeta savedBookMeta = bookMetaRepository.save(bookMeta);
-        
-        // Add cover image from Open Library if available
-        if (data.getCoverUrl() != null && !data.getCoverUrl().isBlank()) {
-            BookImage coverImage = BookImage.builder()
-                    .bookMeta(savedBookMeta)
-                    .url(data.getCoverUrl())
-                    .isCover(true)
-                    .position(0)
-                    .altText(data.getTitle() + " cover")
-                    .build();
-            savedBookMeta.getImages().add(coverImage);
-            // Re-save with image (cascade will persist BookImage)
-            savedBookMeta = bookMetaRepository.save(savedBookMeta);
-        }
-        
-        return savedBookMeta;
+        // Case 2: No ISBN - create from seller input
+        log.info("Creating BookMeta from seller input (no canonical source): {}", request.getTitle());
+        return createBookMetaFromSellerInput(request, null);
     }
 
     /**
      * Create BookMeta from seller-provided input (fallback, unverified).
      */
-    private BookMeta createBookMetaFromSellerInput(SimpleListingCreationRequest request) {
+    private BookMeta createBookMetaFromSellerInput(SimpleListingCreationRequest request, String isbn) {
         // Resolve author - case-insensitive with normalization
-        String normalizedAuthorName = com.example.bookverseserver.util.AuthorNameNormalizer.normalize(request.getAuthor());
-        Author author = authorRepository.findByNameIgnoreCase(normalizedAuthorName)
-                .orElseGet(() -> authorRepository.save(Author.builder()
-                        .name(normalizedAuthorName) // Store normalized name
-                        .build()));
+        Long authorId = authorService.getOrCreateAuthorIds(List.of(request.getAuthor()), null)
+                .get(AuthorService.nameKey(request.getAuthor()));
+        Author author = authorRepository.getReferenceById(authorId);
         
         // Resolve category by SLUG (the stable identifier), not name
         // Frontend sends slug like "kinh-doanh", not display name like "Kinh Doanh"
-        String categorySlug = request.getCategory().toLowerCase().replaceAll("\\s+", "-");
-        Category category = categoryRepository.findBySlug(categorySlug)
-                .orElseGet(() -> {
-                    // Only create new category if it truly doesn't exist
-                    // Convert slug back to title case for display name
-                    String displayName = java.util.Arrays.stream(categorySlug.split("-"))
-                            .map(word -> word.substring(0, 1).toUpperCase() + word.substring(1))
-                            .collect(java.util.stream.Collectors.joining(" "));
-                    log.info("Creating new category: {} (slug: {})", displayName, categorySlug);
-                    return categoryRepository.save(Category.builder()
-                            .name(displayName)
-                            .slug(categorySlug)
-                            .build());
-                });
+        // A new category gets the slug back in title case as its display name
+        String categorySlug = BookMetaAssembler.sellerCategorySlug(request.getCategory());
+        Category category = categoryRepository.getReferenceById(categoryService.getOrCreateCategoryIds(
+                Map.of(categorySlug, BookMetaAssembler.sellerCategoryName(categorySlug))).get(categorySlug));
         
-        BookMeta bookMeta = BookMeta.builder()
-                .title(request.getTitle())
-                .isbn(request.getIsbn())
-                .description(request.getDescription())
-                .publisher(request.getPublisher())
-                .publishedDate(request.getPublishYear() != null ? LocalDate.of(request.getPublishYear(), 1, 1) : null)
-                .authors(new HashSet<>(List.of(author)))
-                .categories(new HashSet<>(List.of(category)))
-                .build();
-        
-        return bookMetaRepository.save(bookMeta);
+        return bookMetaRepository.save(bookMetaAssembler.fromSellerInput(request.getTitle(), isbn,
+                request.getDescription(), request.getPublisher(), request.getPublishYear(), author, category));
     }
 
     /**
      * Bulk upload listings for PRO sellers.
-     * Processes each item individually, tracking successes and failures.
      * 
-     * NOTE: This method runs in a single transaction. If any item throws an
-     * uncaught exception, all items will be rolled back. Caught exceptions
-     * (AppException, Exception) allow the transaction to continue.
-     * 
-     * FUTURE: For true partial-commit behavior, refactor to use REQUIRES_NEW
-     * propagation on a separate service method for each item creation.
+     * Runs outside any transaction: {@link ListingImportService} resolves book metadata
+     * up front and commits the listings in chunks, so one bad row only fails itself.
+     * The upload is recorded as an import job; large uploads should use
+     * {@link ImportJobService#submitListings} instead.
      */
-    @Transactional
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public BulkUploadResponse bulkUploadListings(BulkListingUploadRequest request, Authentication authentication) {
         Long sellerId = securityUtils.getCurrentUserId(authentication);
-        
-        List<ListingResponse> successfulListings = new ArrayList<>();
-        List<BulkUploadResponse.BulkUploadError> errors = new ArrayList<>();
-        
-        List<BulkListingItem> books = request.getBooks();
-        
-        for (int i = 0; i < books.size(); i++) {
-            BulkListingItem item = books.get(i);
-            int rowNumber = i + 1; // 1-indexed for user-friendly display
-            
-            try {
-                // Convert BulkListingItem to SimpleListingCreationRequest to reuse existing logic
-                SimpleListingCreationRequest simpleRequest = SimpleListingCreationRequest.builder()
-                        .title(item.getTitle())
-                        .author(item.getAuthor())
-                        .isbn(item.getIsbn())
-                        .publisher(item.getPublisher())
-                        .publishYear(item.getPublishYear())
-                        .category(item.getCategory())
-                        .condition(item.getCondition())
-                        .price(item.getPrice())
-                        .stock(item.getStock())
-                        .description(item.getDescription())
-                        .build();
-                
-                // Reuse existing listing creation logic (no images for bulk upload)
-                ListingResponse listingResponse = createSimpleListing(simpleRequest, null, authentication);
-                successfulListings.add(listingResponse);
-                
-                log.debug("Bulk upload: Successfully created listing {} for row {}", 
-                        listingResponse.getId(), rowNumber);
-                
-            } catch (AppException e) {
-                // Known application exceptions - extract meaningful message
-                errors.add(BulkUploadResponse.BulkUploadError.builder()
-                        .index(i)
-                        .rowNumber(rowNumber)
-                        .title(item.getTitle())
-                        .message(e.getErrorCode().getMessage())
-                        .build());
-                log.warn("Bulk upload: Failed row {} ({}): {}", 
-                        rowNumber, item.getTitle(), e.getErrorCode().getMessage());
-                        
-            } catch (Exception e) {
-                // Unexpected exceptions - log full stack trace
-                errors.add(BulkUploadResponse.BulkUploadError.builder()
-                        .index(i)
-                        .rowNumber(rowNumber)
-                        .title(item.getTitle())
-                        .message("Unexpected error: " + e.getMessage())
-                        .build());
-                log.error("Bulk upload: Unexpected error at row {} ({}): {}", 
-                        rowNumber, item.getTitle(), e.getMessage(), e);
-            }
-        }
-        
-        log.info("Bulk upload completed for seller ID {}: {} successful, {} failed out of {} total",
-                sellerId, 
-                successfulListings.size(), 
-                errors.size(), 
-                books.size());
-        
-        return BulkUploadResponse.builder()
-                .successCount(successfulListings.size())
-                .failureCount(errors.size())
-                .listings(successfulListings)
-                .errors(errors)
-                .build();
+        return importJobService.importListingsNow(sellerId, request.getBooks());
     }
 
     /**
-     * Serialize external links to JSON format for storage.
-     * Format: [{"title": "Wikipedia", "url": "https://..."}, ...]
+     * Queue a listing for moderator review when the batched AI moderation
+     * doesn't approve it. Runs on the batcher's thread after the create transaction
+     * has committed, so it opens its own transaction for the check and the insert.
+     * A BLOCK also takes an active listing out of public view (INACTIVE) until a
+     * moderator approves the flag, which sets it back to ACTIVE.
      */
-    private String serializeExternalLinks(List<RichBookData.ExternalLink> links) {
-        if (links == null || links.isEmpty()) {
-            return null;
-        }
-        try {
-            return new com.fasterxml.jackson.databind.ObjectMapper().writeValueAsString(
-                    links.stream()
-                            .map(link -> java.util.Map.of("title", link.getTitle(), "url", link.getUrl()))
-                            .toList()
-            );
-        } catch (Exception e) {
-            log.warn("Failed to serialize external links: {}", e.getMessage());
-            return null;
+    private void applyAiModerationVerdict(Long listingId, ModerationResponse verdict) {
+        if (verdict.getDecision() == ContentModerationDecision.APPROVE) {
+            return;
         }
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> flagForReview(listingId, verdict));
     }
-    
-    /**
-     * Serialize table of contents to JSON for storage.
-     */
-    private String serializeTableOfContents(List<RichBookData.TableOfContentsEntry> toc) {
-        if (toc == null || toc.isEmpty()) {
-            return null;
-        }
-        try {
-            return new com.fasterxml.jackson.databind.ObjectMapper().writeValueAsString(
-                    toc.stream()
-                            .map(entry -> java.util.Map.of(
-                                    "label", entry.getLabel() != null ? entry.getLabel() : "",
-                                    "title", entry.getTitle() != null ? entry.getTitle() : ""
-                            ))
-                            .toList()
-            );
-        } catch (Exception e) {
-            log.warn("Failed to serialize table of contents: {}", e.getMessage());
-            return null;
-        }
+
+    private void flagForReview(Long listingId, ModerationResponse verdict) {
+        boolean blocked = verdict.getDecision() == ContentModerationDecision.BLOCK;
+        if (blocked) {
+            listingRepository.findById(listingId)
+                    .filter(listing -> listing.getStatus() == ListingStatus.ACTIVE)
+                    .ifPresent(listing -> {
+                        listing.setStatus(ListingStatus.INACTIVE);
+                        listingRepository.save(listing);
+                    });
+        }
+        if (flaggedListingRepository.existsByListingIdAndStatusIn(listingId,
+                List.of(FlagStatus.PENDING, FlagStatus.REVIEWING))) {
+            return;
+        }
+
+        FlaggedListing flag = FlaggedListing.builder()
+                .listing(listingRepository.getReferenceById(listingId))
+                .flagType(verdict.getCategory() == ContentCategory.SPAM ? FlagType.SPAM : FlagType.INAPPROPRIATE)
+                .flagReason(verdict.getReason())
+                .confidenceScore(verdict.getScore() != null ? verdict.getScore() / 100.0 : null)
+                .severity(blocked ? FlagSeverity.HIGH : FlagSeverity.MEDIUM)
+                .autoAction("AI_BATCH_REVIEW")
+                .build();
+        flaggedListingRepository.save(flag);
+        log.info("Listing {} queued for moderation by AI review: {}", listingId, verdict.getDecision());
     }
 }
@@ -1,5 +1,6 @@
 package com.example.bookverseserver.service;
 
+import com.example.bookverseserver.configuration.AIConfig;
 import com.example.bookverseserver.dto.request.AI.MoodDiscoveryRequest;
 import com.example.bookverseserver.dto.response.AI.MoodDiscoveryResponse;
 import com.example.bookverseserver.dto.response.AI.MoodDiscoveryResponse.MoodRecommendation;
@@ -9,6 +10,9 @@ import com.example.bookverseserver.enums.ListingStatus;
 import com.example.bookverseserver.exception.AppException;
 import com.example.bookverseserver.exception.ErrorCode;
 import com.example.bookverseserver.repository.ListingRepository;
+import com.example.bookverseserver.service.ai.JsonArrayStreamParser;
+import com.example.bookverseserver.service.embedding.BookEmbeddingIndex;
+import com.example.bookverseserver.service.embedding.VectorIndex;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.AccessLevel;
@@ -21,6 +25,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.*;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 @Service
@@ -29,16 +34,25 @@ import java.util.stream.Collectors;
 public class MoodDiscoveryService {
     
     final AIService aiService;
+    final AIConfig aiConfig;
     final ListingRepository listingRepository;
+    final BookEmbeddingIndex embeddingIndex;
     final ObjectMapper objectMapper;
     
+    // Retrieval shortlist bounds: enough for the LLM to choose from, small enough for a tight prompt
+    static final int SHORTLIST_MIN = 20;
+    static final int SHORTLIST_MAX = 50;
+    
     // Self-injection to enable proxy-based @Transactional for internal method calls
     MoodDiscoveryService self;
     
     @Autowired
-    public MoodDiscoveryService(AIService aiService, ListingRepository listingRepository, ObjectMapper objectMapper) {
+    public MoodDiscoveryService(AIService aiService, AIConfig aiConfig, ListingRepository listingRepository,
+                                BookEmbeddingIndex embeddingIndex, ObjectMapper objectMapper) {
         this.aiService = aiService;
+        this.aiConfig = aiConfig;
         this.listingRepository = listingRepository;
+        this.embeddingIndex = embeddingIndex;
         this.objectMapper = objectMapper;
     }
     
@@ -82,21 +96,21 @@ public class MoodDiscoveryService {
     
     // Curated mood definitions with emojis and characteristics
     private static final Map<String, MoodDefinition> MOODS = Map.ofEntries(
-        Map.entry("adventurous", new MoodDefinition("🏔️", "Ready for thrills", "action-packed, fast-paced, exotic locales", List.of("exciting", "escapist", "curious"))),
-        Map.entry("cozy", new MoodDefinition("☕", "Warm and comforting", "heartwarming, gentle pace, happy endings", List.of("relaxed", "nostalgic", "romantic"))),
-        Map.entry("intellectual", new MoodDefinition("🧠", "Mind-expanding", "thought-provoking, complex ideas, challenging", List.of("curious", "philosophical", "analytical"))),
-        Map.entry("escapist", new MoodDefinition("✨", "Another world", "fantasy, immersive worlds, far from reality", List.of("adventurous", "dreamy", "imaginative"))),
-        Map.entry("emotional", new MoodDefinition("💔", "Feel deeply", "moving, character-driven, cathartic", List.of("introspective", "romantic", "melancholic"))),
-        Map.entry("suspenseful", new MoodDefinition("🔍", "Edge of seat", "mysteries, twists, can't-put-down", List.of("thrilling", "curious", "intense"))),
-        Map.entry("inspiring", new MoodDefinition("🌟", "Motivated", "uplifting, transformative, empowering", List.of("hopeful", "ambitious", "growth-minded"))),
-        Map.entry("nostalgic", new MoodDefinition("📻", "Time travel", "classics, coming-of-age, simpler times", List.of("cozy", "reflective", "sentimental"))),
-        Map.entry("romantic", new MoodDefinition("💕", "Love in the air", "relationships, chemistry, swoon-worthy", List.of("emotional", "hopeful", "passionate"))),
-        Map.entry("dark", new MoodDefinition("🌙", "Embrace shadows", "gothic, horror, psychological", List.of("suspenseful", "intense", "atmospheric"))),
-        Map.entry("philosophical", new MoodDefinition("🤔", "Deep thoughts", "existential, meaning of life, ethics", List.of("intellectual", "introspective", "challenging"))),
-        Map.entry("playful", new MoodDefinition("🎭", "Light-hearted", "witty, humorous, entertaining", List.of("fun", "relaxed", "clever"))),
-        Map.entry("focused", new MoodDefinition("🎯", "Learn something", "educational, practical, skill-building", List.of("intellectual", "ambitious", "productive"))),
-        Map.entry("relaxed", new MoodDefinition("🌊", "Wind down", "easy reads, beach books, low stakes", List.of("cozy", "escapist", "light"))),
-        Map.entry("intense", new MoodDefinition("🔥", "All-in experience", "gripping, complex, demanding", List.of("suspenseful", "emotional", "immersive")))
+        Map.entry("adventurous", new MoodDefinition("🏔️", "Ready for thrills", "action-packed, fast-paced, exotic locales", List.of("exciting", "escapist", "curious"), "adventure action quest exploration journey survival travel")),
+        Map.entry("cozy", new MoodDefinition("☕", "Warm and comforting", "heartwarming, gentle pace, happy endings", List.of("relaxed", "nostalgic", "romantic"), "cozy mystery friendship family small town comfort cooking")),
+        Map.entry("intellectual", new MoodDefinition("🧠", "Mind-expanding", "thought-provoking, complex ideas, challenging", List.of("curious", "philosophical", "analytical"), "philosophy science history essays ideas economics")),
+        Map.entry("escapist", new MoodDefinition("✨", "Another world", "fantasy, immersive worlds, far from reality", List.of("adventurous", "dreamy", "imaginative"), "fantasy magic science fiction dragons myth other worlds")),
+        Map.entry("emotional", new MoodDefinition("💔", "Feel deeply", "moving, character-driven, cathartic", List.of("introspective", "romantic", "melancholic"), "family drama grief love loss literary fiction")),
+        Map.entry("suspenseful", new MoodDefinition("🔍", "Edge of seat", "mysteries, twists, can't-put-down", List.of("thrilling", "curious", "intense"), "mystery thriller suspense detective crime")),
+        Map.entry("inspiring", new MoodDefinition("🌟", "Motivated", "uplifting, transformative, empowering", List.of("hopeful", "ambitious", "growth-minded"), "biography memoir self help motivation success")),
+        Map.entry("nostalgic", new MoodDefinition("📻", "Time travel", "classics, coming-of-age, simpler times", List.of("cozy", "reflective", "sentimental"), "classics coming of age childhood historical fiction")),
+        Map.entry("romantic", new MoodDefinition("💕", "Love in the air", "relationships, chemistry, swoon-worthy", List.of("emotional", "hopeful", "passionate"), "romance love stories relationships")),
+        Map.entry("dark", new MoodDefinition("🌙", "Embrace shadows", "gothic, horror, psychological", List.of("suspenseful", "intense", "atmospheric"), "horror gothic psychological thriller ghosts supernatural")),
+        Map.entry("philosophical", new MoodDefinition("🤔", "Deep thoughts", "existential, meaning of life, ethics", List.of("intellectual", "introspective", "challenging"), "philosophy existentialism ethics religion")),
+        Map.entry("playful", new MoodDefinition("🎭", "Light-hearted", "witty, humorous, entertaining", List.of("fun", "relaxed", "clever"), "humor comedy satire wit")),
+        Map.entry("focused", new MoodDefinition("🎯", "Learn something", "educational, practical, skill-building", List.of("intellectual", "ambitious", "productive"), "education reference how to guide programming business")),
+        Map.entry("relaxed", new MoodDefinition("🌊", "Wind down", "easy reads, beach books, low stakes", List.of("cozy", "escapist", "light"), "humor romance light fiction short stories")),
+        Map.entry("intense", new MoodDefinition("🔥", "All-in experience", "gripping, complex, demanding", List.of("suspenseful", "emotional", "immersive"), "thriller war drama psychological crime"))
     );
 
     /**
@@ -113,33 +127,186 @@ public class MoodDiscoveryService {
             .toList();
     }
 
+    /**
+     * Fetch a retrieved shortlist in a short transaction, preserving retrieval order.
+     */
+    @Transactional(readOnly = true)
+    public List<ListingSnapshot> fetchListingSnapshotsByIds(List<Long> ids) {
+        Map<Long, ListingSnapshot> byId = listingRepository.findAllWithDetailsByIdIn(ids).stream()
+            .map(ListingSnapshot::from)
+            .collect(Collectors.toMap(ListingSnapshot::id, s -> s, (a, b) -> a));
+        return ids.stream()
+            .map(byId::get)
+            .filter(Objects::nonNull)
+            .toList();
+    }
+
     public MoodDiscoveryResponse discoverByMood(MoodDiscoveryRequest request) {
         String mood = request.getMood().toLowerCase().trim();
-        MoodDefinition moodDef = MOODS.getOrDefault(mood, 
-            new MoodDefinition("📚", "Custom mood", mood, List.of()));
+        MoodDefinition moodDef = resolveMood(mood);
         
-        // Call through self-proxy to ensure @Transactional works for internal method call
-        // This fixes the Spring AOP proxy limitation where this.method() bypasses the proxy
-        List<ListingSnapshot> snapshots = self.fetchListingSnapshots(100);
+        Map<Long, Double> retrievalScores = new HashMap<>();
+        List<ListingSnapshot> snapshots = retrieveShortlist(request, mood, moodDef, retrievalScores);
         
         if (snapshots.isEmpty()) {
             return buildEmptyResponse(mood, moodDef);
         }
         
+        // Retrieval alone is good enough when LLM re-ranking is switched off
+        if (!retrievalScores.isEmpty() && !aiConfig.isEmbeddingLlmRerank()) {
+            return getFallbackRecommendations(request, mood, moodDef, snapshots, retrievalScores);
+        }
+        
         // AI call happens OUTSIDE the transaction - no connection leak!
         try {
             return getAIRecommendations(request, mood, moodDef, snapshots);
         } catch (Exception e) {
             log.warn("AI mood discovery failed, using fallback: {}", e.getMessage());
-            return getFallbackRecommendations(request, mood, moodDef, snapshots);
+            return getFallbackRecommendations(request, mood, moodDef, snapshots, retrievalScores);
         }
     }
     
+    /**
+     * Streaming variant of {@link #discoverByMood}: each recommendation is passed to
+     * {@code onRecommendation} as soon as the model has finished writing it, and the
+     * complete response is returned at the end.
+     * 
+     * If the stream fails part-way, the cards already sent stand and the rest are
+     * topped up from local retrieval.
+     */
+    public MoodDiscoveryResponse streamByMood(MoodDiscoveryRequest request, Consumer<MoodRecommendation> onRecommendation) {
+        String mood = request.getMood().toLowerCase().trim();
+        MoodDefinition moodDef = resolveMood(mood);
+        int limit = request.getLimit() != null ? request.getLimit() : 10;
+        
+        Map<Long, Double> retrievalScores = new HashMap<>();
+        List<ListingSnapshot> snapshots = retrieveShortlist(request, mood, moodDef, retrievalScores);
+        
+        if (snapshots.isEmpty()) {
+            return buildEmptyResponse(mood, moodDef);
+        }
+        
+        if (!retrievalScores.isEmpty() && !aiConfig.isEmbeddingLlmRerank()) {
+            MoodDiscoveryResponse response = getFallbackRecommendations(request, mood, moodDef, snapshots, retrievalScores);
+            response.getRecommendations().forEach(onRecommendation);
+            return response;
+        }
+        
+        Map<Long, ListingSnapshot> snapshotMap = snapshots.stream()
+            .collect(Collectors.toMap(ListingSnapshot::id, s -> s, (a, b) -> a));
+        Map<Long, MoodRecommendation> sent = new LinkedHashMap<>();
+        
+        JsonArrayStreamParser parser = new JsonArrayStreamParser(objectMapper, node -> {
+            if (sent.size() >= limit) {
+                return;
+            }
+            Map<String, Object> rec = objectMapper.convertValue(node, new TypeReference<>() {});
+            MoodRecommendation recommendation = toRecommendation(rec, snapshotMap);
+            if (recommendation != null && !sent.containsKey(recommendation.getListingId())) {
+                sent.put(recommendation.getListingId(), recommendation);
+                onRecommendation.accept(recommendation);
+            }
+        });
+        
+        String moodDescription = moodDef.description;
+        String atmosphereSuggestion = "Find a quiet corner with your favorite beverage.";
+        
+        try {
+            String response = aiService.generateStreaming(buildMoodPrompt(request, mood, moodDef, snapshots), parser::feed);
+            
+            try {
+                Map<String, Object> parsed = objectMapper.readValue(extractJson(response), new TypeReference<>() {});
+                moodDescription = (String) parsed.getOrDefault("moodDescription", moodDescription);
+                atmosphereSuggestion = (String) parsed.getOrDefault("atmosphereSuggestion", atmosphereSuggestion);
+            } catch (Exception e) {
+                // Cards were already delivered; keep the default copy
+                log.debug("Streamed mood response had no parsable header: {}", e.getMessage());
+            }
+            
+        } catch (Exception e) {
+            log.warn("AI mood stream failed after {} recommendations, topping up: {}", sent.size(), e.getMessage());
+        }
+        
+        // Top up from retrieval order if the model returned too few (or failed)
+        if (sent.size() < limit) {
+            MoodDiscoveryResponse fallback = getFallbackRecommendations(request, mood, moodDef, snapshots, retrievalScores);
+            for (MoodRecommendation recommendation : fallback.getRecommendations()) {
+                if (sent.size() >= limit) {
+                    break;
+                }
+                if (!sent.containsKey(recommendation.getListingId())) {
+                    sent.put(recommendation.getListingId(), recommendation);
+                    onRecommendation.accept(recommendation);
+                }
+            }
+        }
+        
+        return MoodDiscoveryResponse.builder()
+            .mood(mood)
+            .moodDescription(moodDescription)
+            .atmosphereSuggestion(atmosphereSuggestion)
+            .recommendations(new ArrayList<>(sent.values()))
+            .relatedMoods(getRelatedMoods(moodDef))
+            .build();
+    }
+    
+    private MoodDefinition resolveMood(String mood) {
+        return MOODS.getOrDefault(mood, new MoodDefinition("📚", "Custom mood", mood, List.of(), mood));
+    }
+    
+    /**
+     * Local retrieval first: the embedding index narrows the catalog to a shortlist.
+     * Fills {@code retrievalScores} when the index was used.
+     */
+    private List<ListingSnapshot> retrieveShortlist(
+            MoodDiscoveryRequest request,
+            String mood,
+            MoodDefinition moodDef,
+            Map<Long, Double> retrievalScores
+    ) {
+        int limit = request.getLimit() != null ? request.getLimit() : 10;
+        
+        if (embeddingIndex.isReady()) {
+            int shortlist = Math.min(SHORTLIST_MAX, Math.max(SHORTLIST_MIN, limit * 2));
+            List<VectorIndex.Hit> hits = embeddingIndex.search(buildMoodQuery(mood, moodDef, request), shortlist, null);
+            hits.forEach(hit -> retrievalScores.put(hit.id(), (double) hit.score()));
+            
+            // Call through self-proxy to ensure @Transactional works for internal method call
+            return self.fetchListingSnapshotsByIds(hits.stream().map(VectorIndex.Hit::id).toList());
+        }
+        
+        // Index not built yet - fall back to scanning recent listings
+        return self.fetchListingSnapshots(100);
+    }
+    
+    private String buildMoodQuery(String mood, MoodDefinition moodDef, MoodDiscoveryRequest request) {
+        StringBuilder query = new StringBuilder()
+            .append(mood).append(' ')
+            .append(moodDef.description).append(' ')
+            .append(moodDef.subjects);
+        if (request.getPreferences() != null) {
+            request.getPreferences().forEach(p -> query.append(' ').append(p));
+        }
+        return query.toString();
+    }
+    
     private MoodDiscoveryResponse getAIRecommendations(
             MoodDiscoveryRequest request,
             String mood,
             MoodDefinition moodDef,
             List<ListingSnapshot> snapshots
+    ) {
+        String response = aiService.generateRecommendation(buildMoodPrompt(request, mood, moodDef, snapshots));
+        
+        // Parse AI response
+        return parseAIResponse(response, mood, moodDef, snapshots);
+    }
+    
+    private String buildMoodPrompt(
+            MoodDiscoveryRequest request,
+            String mood,
+            MoodDefinition moodDef,
+            List<ListingSnapshot> snapshots
     ) {
         // Build context about available books
         String booksContext = snapshots.stream()
@@ -156,7 +323,7 @@ public class MoodDiscoveryService {
             ))
             .collect(Collectors.joining("\n"));
         
-        String prompt = String.format("""
+        return String.format("""
             You are a literary mood curator. A reader is in a "%s" mood (%s).
             
             Available books:
@@ -183,11 +350,6 @@ public class MoodDiscoveryService {
             booksContext,
             request.getLimit() != null ? request.getLimit() : 10
         );
-        
-        String response = aiService.generateRecommendation(prompt);
-        
-        // Parse AI response
-        return parseAIResponse(response, mood, moodDef, snapshots);
     }
     
     private MoodDiscoveryResponse parseAIResponse(
@@ -215,24 +377,9 @@ public class MoodDiscoveryService {
             List<MoodRecommendation> recommendations = new ArrayList<>();
             if (recs != null) {
                 for (Map<String, Object> rec : recs) {
-                    Long listingId = ((Number) rec.get("listingId")).longValue();
-                    ListingSnapshot snapshot = snapshotMap.get(listingId);
-                    if (snapshot != null) {
-                        recommendations.add(MoodRecommendation.builder()
-                            .listingId(listingId)
-                            .title(snapshot.title())
-                            .author(snapshot.authors())
-                            .coverUrl(snapshot.coverUrl())
-                            .price(snapshot.price().doubleValue())
-                            .condition(snapshot.condition())
-                            .matchScore(((Number) rec.getOrDefault("matchScore", 80)).doubleValue())
-                            .whyThisFits((String) rec.getOrDefault("whyThisFits", "Great match for your mood"))
-                            .moodTags(rec.get("moodTags") != null ? 
-                                ((List<?>) rec.get("moodTags")).stream()
-                                    .map(Object::toString)
-                                    .collect(Collectors.toList()) 
-                                : List.of())
-                            .build());
+                    MoodRecommendation recommendation = toRecommendation(rec, snapshotMap);
+                    if (recommendation != null) {
+                        recommendations.add(recommendation);
                     }
                 }
             }
@@ -251,14 +398,45 @@ public class MoodDiscoveryService {
         }
     }
     
+    /**
+     * Map one model-chosen recommendation onto its listing, or null if the id is unknown.
+     */
+    private MoodRecommendation toRecommendation(Map<String, Object> rec, Map<Long, ListingSnapshot> snapshotMap) {
+        if (!(rec.get("listingId") instanceof Number id)) {
+            return null;
+        }
+        Long listingId = id.longValue();
+        ListingSnapshot snapshot = snapshotMap.get(listingId);
+        if (snapshot == null) {
+            return null;
+        }
+        return MoodRecommendation.builder()
+            .listingId(listingId)
+            .title(snapshot.title())
+            .author(snapshot.authors())
+            .coverUrl(snapshot.coverUrl())
+            .price(snapshot.price().doubleValue())
+            .condition(snapshot.condition())
+            .matchScore(((Number) rec.getOrDefault("matchScore", 80)).doubleValue())
+            .whyThisFits((String) rec.getOrDefault("whyThisFits", "Great match for your mood"))
+            .moodTags(rec.get("moodTags") != null ? 
+                ((List<?>) rec.get("moodTags")).stream()
+                    .map(Object::toString)
+                    .collect(Collectors.toList()) 
+                : List.of())
+            .build();
+    }
+    
     private MoodDiscoveryResponse getFallbackRecommendations(
             MoodDiscoveryRequest request,
             String mood,
             MoodDefinition moodDef,
-            List<ListingSnapshot> snapshots
+            List<ListingSnapshot> snapshots,
+            Map<Long, Double> retrievalScores
     ) {
-        // Simple keyword-based matching as fallback
+        // Snapshots are already in retrieval order when the embedding index was used
         int limit = request.getLimit() != null ? request.getLimit() : 10;
+        double topScore = retrievalScores.values().stream().mapToDouble(Double::doubleValue).max().orElse(0);
         
         List<MoodRecommendation> recommendations = snapshots.stream()
             .limit(limit)
@@ -269,7 +447,9 @@ public class MoodDiscoveryService {
                 .coverUrl(snapshot.coverUrl())
                 .price(snapshot.price().doubleValue())
                 .condition(snapshot.condition())
-                .matchScore(70.0 + new Random().nextDouble() * 20)
+                .matchScore(topScore > 0 && retrievalScores.containsKey(snapshot.id())
+                    ? Math.round((60.0 + 38.0 * Math.max(0, retrievalScores.get(snapshot.id())) / topScore) * 10) / 10.0
+                    : 70.0 + new Random().nextDouble() * 20)
                 .whyThisFits("Recommended for your " + mood + " mood")
                 .moodTags(List.of(mood))
                 .build())
@@ -332,6 +512,7 @@ public class MoodDiscoveryService {
             .collect(Collectors.toList());
     }
     
-    // Internal record for mood definitions
-    private record MoodDefinition(String emoji, String tagline, String description, List<String> relatedMoods) {}
+    // Internal record for mood definitions.
+    // subjects bridges mood vocabulary to the genre/subject words books are indexed under.
+    private record MoodDefinition(String emoji, String tagline, String description, List<String> relatedMoods, String subjects) {}
 }
@@ -3,23 +3,30 @@ package com.example.bookverseserver.service;
 import com.example.bookverseserver.entity.User.User;
 import com.example.bookverseserver.exception.AppException;
 import com.example.bookverseserver.exception.ErrorCode;
+import com.example.bookverseserver.security.TokenRevocationIndex;
+import com.example.bookverseserver.security.TokenVerdictCache;
 import com.nimbusds.jose.*;
 import com.nimbusds.jose.crypto.MACSigner;
 import com.nimbusds.jose.crypto.MACVerifier;
 import com.nimbusds.jwt.JWTClaimsSet;
 import com.nimbusds.jwt.SignedJWT;
+import jakarta.annotation.PostConstruct;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
 import lombok.experimental.NonFinal;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.MappedJwtClaimSetConverter;
 import org.springframework.stereotype.Service;
 
 import java.text.ParseException;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.Collections;
 import java.util.Date;
+import java.util.Map;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -29,6 +36,13 @@ import java.util.stream.Collectors;
 @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
 public class NimbusJwtService {
 
+    // Converts Nimbus claim types (Date, ...) the way NimbusJwtDecoder does
+    static final MappedJwtClaimSetConverter CLAIM_SET_CONVERTER =
+            MappedJwtClaimSetConverter.withDefaults(Collections.emptyMap());
+
+    TokenRevocationIndex tokenRevocationIndex;
+    TokenVerdictCache tokenVerdictCache;
+
     @NonFinal
     @Value("${jwt.signerKey}")
     protected String SIGNER_KEY;
@@ -41,6 +55,19 @@ public class NimbusJwtService {
     @Value("${jwt.refreshable-duration}")
     protected long REFRESHABLE_DURATION;
 
+    // MAC signer/verifier are immutable and thread-safe: build them once, not per token
+    @NonFinal
+    JWSSigner signer;
+
+    @NonFinal
+    JWSVerifier verifier;
+
+    @PostConstruct
+    void initKeys() throws JOSEException {
+        signer = new MACSigner(SIGNER_KEY.getBytes());
+        verifier = new MACVerifier(SIGNER_KEY.getBytes());
+    }
+
     public String generateToken(User user) {
         JWSHeader header = new JWSHeader(JWSAlgorithm.HS512);
 
@@ -60,7 +87,7 @@ public class NimbusJwtService {
         JWSObject jwsObject = new JWSObject(header, new Payload(jwtClaimsSet.toJSONObject()));
 
         try {
-            jwsObject.sign(new MACSigner(SIGNER_KEY.getBytes()));
+            jwsObject.sign(signer);
             return jwsObject.serialize();
         } catch (JOSEException e) {
             log.error("Cannot create token", e);
@@ -69,8 +96,6 @@ public class NimbusJwtService {
     }
 
     public SignedJWT verifyToken(String token, boolean isRefresh) throws JOSEException, ParseException {
-        JWSVerifier verifier = new MACVerifier(SIGNER_KEY.getBytes());
-
         SignedJWT signedJWT = SignedJWT.parse(token);
 
         Date expiryTime = (isRefresh)
@@ -90,9 +115,66 @@ public class NimbusJwtService {
         return signedJWT;
     }
 
-    public boolean introspectToken(String token) throws JOSEException, ParseException {
+    /**
+     * The one verification path for access tokens on authenticated requests.
+     *
+     * A token seen before is answered from {@link TokenVerdictCache} with no parsing
+     * or HMAC. Otherwise it is parsed once and checked for signature (HS512 only) and
+     * expiry, then against {@link TokenRevocationIndex} for logout and the user's
+     * password-change cutoff, and the resulting {@link Jwt} is cached for the security
+     * filter chain. Neither path touches the database.
+     *
+     * @throws AppException UNAUTHENTICATED if the token is not acceptable
+     */
+    public Jwt verifyAccessToken(String token) {
+        Jwt cached = tokenVerdictCache.get(token);
+        if (cached != null) {
+            return cached;
+        }
+
+        SignedJWT signedJWT;
+        JWTClaimsSet claims;
+        try {
+            signedJWT = SignedJWT.parse(token);
+            claims = signedJWT.getJWTClaimsSet();
+            if (!JWSAlgorithm.HS512.equals(signedJWT.getHeader().getAlgorithm()) || !signedJWT.verify(verifier)) {
+                throw new AppException(ErrorCode.UNAUTHENTICATED);
+            }
+        } catch (ParseException | JOSEException e) {
+            throw new AppException(ErrorCode.UNAUTHENTICATED);
+        }
+
+        Date expiryTime = claims.getExpirationTime();
+        if (expiryTime == null || !expiryTime.after(new Date())) {
+            throw new AppException(ErrorCode.UNAUTHENTICATED);
+        }
+
+        if (tokenRevocationIndex.isRevoked(claims.getJWTID())) {
+            throw new AppException(ErrorCode.UNAUTHENTICATED);
+        }
+
+        Long userId = parseUserId(claims.getSubject());
+        // P1 Security Fix #H1: Tokens issued before the last password change are rejected
+        if (claims.getIssueTime() != null
+                && tokenRevocationIndex.isIssuedBeforePasswordChange(userId, claims.getIssueTime().toInstant())) {
+            log.info("Rejecting token for user {} - issued before password change", userId);
+            throw new AppException(ErrorCode.UNAUTHENTICATED);
+        }
+
+        Map<String, Object> headers = signedJWT.getHeader().toJSONObject();
+        Map<String, Object> convertedClaims = CLAIM_SET_CONVERTER.convert(claims.getClaims());
+        Jwt jwt = Jwt.withTokenValue(token)
+                .headers(h -> h.putAll(headers))
+                .claims(c -> c.putAll(convertedClaims))
+                .build();
+
+        tokenVerdictCache.put(token, jwt, userId, expiryTime.getTime());
+        return jwt;
+    }
+
+    public boolean introspectToken(String token) {
         try {
-            verifyToken(token, false);
+            verifyAccessToken(token);
             return true;
         } catch (AppException e) {
             return false;
@@ -108,7 +190,7 @@ public class NimbusJwtService {
             return false;
         }
         try {
-            verifyToken(token, false);
+            verifyAccessToken(token);
             return true;
         } catch (Exception e) {
             log.debug("Token validation failed: {}", e.getMessage());
@@ -145,6 +227,14 @@ public class NimbusJwtService {
         }
     }
 
+    private static Long parseUserId(String subject) {
+        try {
+            return subject != null ? Long.valueOf(subject) : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
     private String buildScope(User user) {
         if (user.getRoles() == null || user.getRoles().isEmpty()) return "";
         return user.getRoles().stream()
@@ -1,12 +1,15 @@
 package com.example.bookverseserver.service;
 
 import com.example.bookverseserver.dto.response.External.*;
+import com.example.bookverseserver.service.http.UpstreamHttpClients;
 import com.example.bookverseserver.util.DataCleaningUtils;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.util.UriComponentsBuilder;
 
@@ -14,17 +17,34 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.stream.Collectors;
 
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class OpenLibraryService {
 
     private static final String BASE_URL = "https://openlibrary.org";
     private final RestTemplate restTemplate;
     private final ObjectMapper objectMapper;
+    private final long descriptionTimeoutMillis;
 
+    public OpenLibraryService(UpstreamHttpClients upstreamHttpClients, ObjectMapper objectMapper,
+                              @Value("${app.enrichment.open-library.description-timeout-millis:5000}") long descriptionTimeoutMillis) {
+        this.restTemplate = upstreamHttpClients.restTemplate("open-library");
+        this.objectMapper = objectMapper;
+        this.descriptionTimeoutMillis = descriptionTimeoutMillis;
+    }
+
+    /**
+     * @return The book's data, or null if Open Library has no such ISBN
+     * @throws RestClientException if the edition data could not be fetched (timeout, 429, open
+     *         circuit...); a failed description lookup only marks the data incomplete
+     */
     public RichBookData fetchRichBookDetailsByIsbn(String isbn) {
         // Step 1: Fetch initial data using the powerful 'data' command
         OpenLibraryDataResponse dataResponse = fetchDataResponse(isbn);
@@ -32,12 +52,53 @@ public class OpenLibraryService {
             return null; // Book not found
         }
 
-        String description = fetchDescription(dataResponse.getKey());
+        Description description;
+        try {
+            description = new Description(fetchDescription(dataResponse.getKey()), false);
+        } catch (RuntimeException e) {
+            description = Description.failed(isbn, e);
+        }
 
         // Step 4: Consolidate all data into RichBookData
         return buildRichBookData(isbn, dataResponse, description);
     }
 
+    /**
+     * Same result as {@link #fetchRichBookDetailsByIsbn(String)}, with the lookups pipelined on
+     * {@code executor}: the edition is fetched by ISBN, then its work, while the 'data' call is
+     * still in flight. Latency becomes max(data, edition + work) instead of all three in a row.
+     *
+     * The description is given up after {@code description-timeout-millis}, so a slow edition or
+     * work lookup only leaves the data incomplete instead of holding it past the caller's deadline.
+     * Giving up does not stop the request itself: it runs on until the client's read timeout.
+     */
+    public CompletableFuture<RichBookData> fetchRichBookDetailsByIsbnAsync(String isbn, Executor executor) {
+        CompletableFuture<OpenLibraryDataResponse> data =
+                CompletableFuture.supplyAsync(() -> fetchDataResponse(isbn), executor);
+        CompletableFuture<Description> description = CompletableFuture
+                .supplyAsync(() -> fetchEdition(BASE_URL + "/isbn/" + isbn + ".json"), executor)
+                .thenApply(edition -> new Description(fetchWorkDescription(edition), false))
+                .orTimeout(descriptionTimeoutMillis, TimeUnit.MILLISECONDS)
+                .exceptionally(e -> Description.failed(isbn, e));
+
+        return data.thenCombine(description, (dataResponse, desc) ->
+                dataResponse != null ? buildRichBookData(isbn, dataResponse, desc) : null);
+    }
+
+    /**
+     * Work description, or why there is none: {@code failed} if it could not be fetched,
+     * as opposed to the book having no description.
+     */
+    private record Description(String text, boolean failed) {
+
+        static Description failed(String isbn, Throwable error) {
+            Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            log.warn("Open Library description lookup failed for ISBN {}: {}", isbn,
+                    cause instanceof TimeoutException ? "timed out" : cause.getMessage());
+            return new Description(null, true);
+        }
+    }
+
     private OpenLibraryDataResponse fetchDataResponse(String isbn) {
         String url = UriComponentsBuilder.fromHttpUrl(BASE_URL + "/api/books")
                 .queryParam("bibkeys", "ISBN:" + isbn)
@@ -57,28 +118,35 @@ public class OpenLibraryService {
             return null;
         }
 
+        // Step 2: Get Edition details to find the Work ID
+        return fetchWorkDescription(fetchEdition(BASE_URL + bookKey + ".json"));
+    }
+
+    private OpenLibraryEditionResponse fetchEdition(String editionUrl) {
         try {
-            // Step 2: Get Edition details to find the Work ID
-            String editionUrl = BASE_URL + bookKey + ".json";
-            OpenLibraryEditionResponse editionResponse = restTemplate.getForObject(editionUrl, OpenLibraryEditionResponse.class);
+            return restTemplate.getForObject(editionUrl, OpenLibraryEditionResponse.class);
+        } catch (HttpClientErrorException.NotFound e) {
+            return null;
+        }
+    }
 
-            if (editionResponse == null || editionResponse.getWorks() == null || editionResponse.getWorks().isEmpty()) {
-                return null;
-            }
-            String workKey = editionResponse.getWorks().get(0).getKey(); // e.g., /works/OL82582W
+    private String fetchWorkDescription(OpenLibraryEditionResponse editionResponse) {
+        if (editionResponse == null || editionResponse.getWorks() == null || editionResponse.getWorks().isEmpty()) {
+            return null;
+        }
+        String workKey = editionResponse.getWorks().get(0).getKey(); // e.g., /works/OL82582W
 
-            // Step 3: Get Work details to find the description
-            String workUrl = BASE_URL + workKey + ".json";
+        // Step 3: Get Work details to find the description
+        String workUrl = BASE_URL + workKey + ".json";
+        try {
             OpenLibraryWorkResponse workResponse = restTemplate.getForObject(workUrl, OpenLibraryWorkResponse.class);
-
             return workResponse != null ? workResponse.getFullDescription() : null;
-        } catch (Exception e) {
-            // Log error, but don't block the whole process
+        } catch (HttpClientErrorException.NotFound e) {
             return null;
         }
     }
 
-    private RichBookData buildRichBookData(String isbn, OpenLibraryDataResponse dataResponse, String description) {
+    private RichBookData buildRichBookData(String isbn, OpenLibraryDataResponse dataResponse, Description description) {
         // ═══════════════════════════════════════════════════════════════════════════
         // COVER IMAGE (prefer large, fallback to medium/small)
         // ═══════════════════════════════════════════════════════════════════════════
@@ -236,7 +304,7 @@ public class OpenLibraryService {
         return RichBookData.builder()
                 .title(dataResponse.getTitle())
                 .isbn(isbn)
-                .description(description)
+                .description(description.text())
                 .publisher(publisherName)
                 .publishedDate(dataResponse.getPublishDate())
                 .numberOfPages(dataResponse.getNumberOfPages())
@@ -254,6 +322,7 @@ public class OpenLibraryService {
                 .openLibraryId(openLibraryId)
                 .goodreadsId(goodreadsId)
                 .googleBooksId(googleBooksId)
+                .incomplete(description.failed())
                 .build();
     }
 
@@ -271,44 +340,53 @@ public class OpenLibraryService {
 
     public void populateWorkDetails(OpenLibraryAuthorWorkResponse.Entry work) {
         try {
-            String key = work.getKey().startsWith("/works/") ? work.getKey().substring(7) : work.getKey();
-            String url = "https://openlibrary.org/works/" + key + "/editions.json";
-
-            JsonNode response = restTemplate.getForObject(url, JsonNode.class);
-            if (response != null && response.has("entries")) {
-                JsonNode entries = response.get("entries");
-                work.setEdition_count(entries.size());
-
-                if (!entries.isEmpty()) {
-                    JsonNode firstEdition = entries.get(0);
-
-                    // Description
-                    if (firstEdition.has("description")) {
-                        JsonNode descNode = firstEdition.get("description");
-                        if (descNode.isTextual()) {
-                            work.setDescription(descNode.toString());
-                        } else if (descNode.has("value")) {
-                            work.setDescription(descNode.get("value").toString());
-                        }
+            fetchWorkDetails(work);
+        } catch (Exception e) {
+            work.setEdition_count(0);
+        }
+    }
+
+    /**
+     * Fill edition count, description and covers of a work from its first edition.
+     * Unlike {@link #populateWorkDetails}, request failures are thrown, so callers can
+     * tell "no editions" from "Open Library unreachable".
+     */
+    public void fetchWorkDetails(OpenLibraryAuthorWorkResponse.Entry work) {
+        String key = work.getKey().startsWith("/works/") ? work.getKey().substring(7) : work.getKey();
+        String url = "https://openlibrary.org/works/" + key + "/editions.json";
+
+        JsonNode response = restTemplate.getForObject(url, JsonNode.class);
+        if (response != null && response.has("entries")) {
+            JsonNode entries = response.get("entries");
+            work.setEdition_count(entries.size());
+
+            if (!entries.isEmpty()) {
+                JsonNode firstEdition = entries.get(0);
+
+                // Description
+                if (firstEdition.has("description")) {
+                    JsonNode descNode = firstEdition.get("description");
+                    if (descNode.isTextual()) {
+                        work.setDescription(descNode.toString());
+                    } else if (descNode.has("value")) {
+                        work.setDescription(descNode.get("value").toString());
                     }
+                }
 
-                    // Covers
-                    if (firstEdition.has("covers") && firstEdition.get("covers").isArray()) {
-                        List<Integer> covers = new ArrayList<>();
-                        firstEdition.get("covers").forEach(n -> covers.add(n.asInt()));
-                        work.setCovers(covers);
-
-                        // Set the first cover as coverImageUrl
-                        if (!covers.isEmpty()) {
-                            String coverUrl = "https://covers.openlibrary.org/b/id/" + covers.get(0) + "-L.jpg";
-                            work.setCoverImageUrl(coverUrl);
-                        }
+                // Covers
+                if (firstEdition.has("covers") && firstEdition.get("covers").isArray()) {
+                    List<Integer> covers = new ArrayList<>();
+                    firstEdition.get("covers").forEach(n -> covers.add(n.asInt()));
+                    work.setCovers(covers);
+
+                    // Set the first cover as coverImageUrl
+                    if (!covers.isEmpty()) {
+                        String coverUrl = "https://covers.openlibrary.org/b/id/" + covers.get(0) + "-L.jpg";
+                        work.setCoverImageUrl(coverUrl);
                     }
                 }
-            } else {
-                work.setEdition_count(0);
             }
-        } catch (Exception e) {
+        } else {
             work.setEdition_count(0);
         }
     }
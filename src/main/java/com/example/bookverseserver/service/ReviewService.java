@@ -4,6 +4,7 @@ import com.example.bookverseserver.dto.request.Review.CreateReviewRequest;
 import com.example.bookverseserver.dto.request.Review.HideReviewRequest;
 import com.example.bookverseserver.dto.request.Review.UpdateReviewRequest;
 import com.example.bookverseserver.dto.response.Review.*;
+import com.example.bookverseserver.dto.response.ModerationResponse;
 import com.example.bookverseserver.entity.Order_Payment.Order;
 import com.example.bookverseserver.entity.Order_Payment.OrderItem;
 import com.example.bookverseserver.entity.Product.Review;
@@ -105,13 +106,12 @@ public class ReviewService {
         // 6. Create review with XSS-sanitized comment
         String sanitizedComment = htmlSanitizer.sanitizeBasic(request.getComment());
         
-        // 7. Content moderation check (hybrid rule-based)
-        var moderationResult = contentModerationService.moderate(
-                com.example.bookverseserver.dto.request.ModerationRequest.builder()
-                        .text(sanitizedComment)
-                        .contentType("REVIEW")
-                        .build()
-        );
+        // 7. Content moderation check (rules now, gray zone settled by batched AI review)
+        var moderationRequest = com.example.bookverseserver.dto.request.ModerationRequest.builder()
+                .text(sanitizedComment)
+                .contentType("REVIEW")
+                .build();
+        var moderationResult = contentModerationService.moderateProvisional(moderationRequest);
         
         if (moderationResult.getDecision() == com.example.bookverseserver.enums.ContentModerationDecision.BLOCK) {
             log.warn("Review blocked by content moderation for user {}: {} (category: {})", 
@@ -147,6 +147,12 @@ public class ReviewService {
         log.info("Created review {} for order item {} by user {}", 
                 savedReview.getId(), orderItemId, userId);
         
+        if (Boolean.TRUE.equals(moderationResult.getPendingAiReview())) {
+            Long reviewId = savedReview.getId();
+            contentModerationService.submitForAiReview(moderationRequest, moderationResult,
+                    verdict -> applyAiModerationVerdict(reviewId, verdict));
+        }
+        
         return buildReviewResponse(savedReview, userId);
     }
 
@@ -363,6 +369,22 @@ public class ReviewService {
     // Helper Methods
     // =========================================================================
     
+    /**
+     * Hide a review the batched AI moderation decided to BLOCK.
+     * Runs after the create transaction has committed.
+     */
+    private void applyAiModerationVerdict(Long reviewId, ModerationResponse verdict) {
+        if (verdict.getDecision() != com.example.bookverseserver.enums.ContentModerationDecision.BLOCK) {
+            return;
+        }
+        reviewRepository.findById(reviewId).ifPresent(review -> {
+            review.setIsHidden(true);
+            review.setHiddenReason(verdict.getReason());
+            reviewRepository.save(review);
+            log.info("Review {} hidden by AI moderation: {}", reviewId, verdict.getReason());
+        });
+    }
+    
     private ReviewResponse buildReviewResponse(Review review, Long currentUserId) {
         User reviewer = review.getUser();
         UserProfile profile = reviewer.getUserProfile();
@@ -1,10 +1,10 @@
 package com.example.bookverseserver.service;
 
 import com.example.bookverseserver.dto.response.ShippingRateResponse;
+import com.example.bookverseserver.service.http.UpstreamHttpClients;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.AccessLevel;
-import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -31,12 +31,11 @@ import java.util.*;
  * @see <a href="https://ghn.vn">Giao Hang Nhanh</a>
  */
 @Service
-@RequiredArgsConstructor
 @FieldDefaults(level = AccessLevel.PRIVATE)
 @Slf4j
 public class ShippingService {
 
-    final RestTemplate restTemplate = new RestTemplate();
+    final RestTemplate restTemplate;
     final ObjectMapper objectMapper = new ObjectMapper();
 
     @Value("${ghn.api.token:PLACEHOLDER_REPLACE_ME}")
@@ -51,6 +50,10 @@ public class ShippingService {
     @Value("${ghn.enabled:false}")
     boolean enabled;
 
+    public ShippingService(UpstreamHttpClients upstreamHttpClients) {
+        this.restTemplate = upstreamHttpClients.restTemplate("ghn");
+    }
+
     // Default warehouse location (configured per seller in production)
     private static final int DEFAULT_FROM_DISTRICT = 1442; // District 1, Ho Chi Minh
     private static final String DEFAULT_FROM_WARD = "20101"; // Default ward
@@ -1,9 +1,9 @@
 package com.example.bookverseserver.service;
 
+import com.example.bookverseserver.service.http.UpstreamHttpClients;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.AccessLevel;
-import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -26,12 +26,11 @@ import java.util.Map;
  * @see <a href="https://textbee.dev">TextBee</a>
  */
 @Service
-@RequiredArgsConstructor
 @FieldDefaults(level = AccessLevel.PRIVATE)
 @Slf4j
 public class SmsService {
 
-    final RestTemplate restTemplate = new RestTemplate();
+    final RestTemplate restTemplate;
     final ObjectMapper objectMapper = new ObjectMapper();
 
     @Value("${textbee.api.key:PLACEHOLDER_REPLACE_ME}")
@@ -46,6 +45,10 @@ public class SmsService {
     @Value("${textbee.enabled:false}")
     boolean enabled;
 
+    public SmsService(UpstreamHttpClients upstreamHttpClients) {
+        this.restTemplate = upstreamHttpClients.restTemplate("textbee");
+    }
+
     /**
      * Send OTP verification code
      */
@@ -2,11 +2,11 @@ package com.example.bookverseserver.service;
 
 import com.example.bookverseserver.entity.Product.BookTag;
 import com.example.bookverseserver.repository.BookTagRepository;
+import com.example.bookverseserver.util.SubjectClassifier;
 import lombok.AccessLevel;
-import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -23,110 +23,29 @@ import java.util.stream.Collectors;
  * - "romance", "historical", "regency", "mystery", "coming of age"
  * 
  * The goal: Enable powerful filtering like "Romance + Historical + Regency"
+ * (keywords live in {@link SubjectClassifier#OPEN_LIBRARY})
+ *
+ * Tags are resolved by slug in bulk, with their ids cached: the genre vocabulary is
+ * small and nearly every book hits it.
  */
 @Service
-@RequiredArgsConstructor
 @Slf4j
 @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
 @Transactional(readOnly = true)  // Default read-only, override for write methods
 public class TagService {
-    
+
+    static final int TAG_ID_CACHE_SIZE = 1_000;
+    static final int MAX_TAGS_PER_BOOK = 10;
+
     BookTagRepository bookTagRepository;
-    
-    /**
-     * High-value genre tags we want to extract from Open Library subjects.
-     * These are the tags that users actually search for.
-     * 
-     * Format: keyword -> display name
-     */
-    private static final Map<String, String> GENRE_MAPPINGS = Map.ofEntries(
-        // Fiction Genres
-        Map.entry("romance", "Romance"),
-        Map.entry("love stories", "Romance"),
-        Map.entry("historical fiction", "Historical Fiction"),
-        Map.entry("historical", "Historical"),
-        Map.entry("mystery", "Mystery"),
-        Map.entry("thriller", "Thriller"),
-        Map.entry("horror", "Horror"),
-        Map.entry("fantasy", "Fantasy"),
-        Map.entry("science fiction", "Science Fiction"),
-        Map.entry("literary fiction", "Literary Fiction"),
-        Map.entry("fiction classics", "Classics"),
-        Map.entry("classical literature", "Classics"),
-        Map.entry("domestic fiction", "Domestic Fiction"),
-        Map.entry("adventure", "Adventure"),
-        Map.entry("coming of age", "Coming of Age"),
-        Map.entry("regency", "Regency"),
-        Map.entry("gothic", "Gothic"),
-        Map.entry("magical realism", "Magical Realism"),
-        Map.entry("dystopian", "Dystopian"),
-        Map.entry("crime", "Crime"),
-        Map.entry("detective", "Detective"),
-        Map.entry("suspense", "Suspense"),
-        Map.entry("psychological", "Psychological"),
-        Map.entry("war", "War"),
-        Map.entry("satire", "Satire"),
-        Map.entry("humor", "Humor"),
-        Map.entry("comedy", "Comedy"),
-        
-        // Non-Fiction Genres  
-        Map.entry("biography", "Biography"),
-        Map.entry("memoir", "Memoir"),
-        Map.entry("autobiography", "Autobiography"),
-        Map.entry("history", "History"),
-        Map.entry("philosophy", "Philosophy"),
-        Map.entry("politics", "Politics"),
-        Map.entry("psychology", "Psychology"),
-        Map.entry("self-help", "Self-Help"),
-        Map.entry("personal development", "Personal Development"),
-        Map.entry("business", "Business"),
-        Map.entry("economics", "Economics"),
-        Map.entry("science", "Science"),
-        Map.entry("technology", "Technology"),
-        Map.entry("nature", "Nature"),
-        Map.entry("travel", "Travel"),
-        Map.entry("cooking", "Cooking"),
-        Map.entry("art", "Art"),
-        Map.entry("music", "Music"),
-        Map.entry("religion", "Religion"),
-        Map.entry("spirituality", "Spirituality"),
-        Map.entry("true crime", "True Crime"),
-        Map.entry("essays", "Essays"),
-        
-        // Themes & Descriptors
-        Map.entry("family", "Family"),
-        Map.entry("courtship", "Courtship"),
-        Map.entry("marriage", "Marriage"),
-        Map.entry("social class", "Social Class"),
-        Map.entry("manners", "Manners & Customs"),
-        Map.entry("young women", "Young Women"),
-        Map.entry("sisters", "Sisters"),
-        Map.entry("friendship", "Friendship"),
-        Map.entry("love", "Love"),
-        Map.entry("death", "Death"),
-        Map.entry("identity", "Identity"),
-        Map.entry("childhood", "Childhood")
-    );
-    
-    /**
-     * Subjects to EXCLUDE (noise, not useful for discovery)
-     */
-    private static final Set<String> EXCLUDED_PATTERNS = Set.of(
-        "fiction",  // Too generic (we have Fiction as a category)
-        "novel",    // Format, not genre
-        "large type books",
-        "reading level",
-        "textbooks",
-        "english language",
-        "language and languages",
-        "readers",
-        "adaptations",
-        "coloring books",
-        "emoticons",
-        "drama (dramatic works",
-        "british and irish fiction"
-    );
+    TaxonomyIdResolver tagIds;
 
+    public TagService(BookTagRepository bookTagRepository, JdbcTemplate jdbcTemplate) {
+        this.bookTagRepository = bookTagRepository;
+        this.tagIds = new TaxonomyIdResolver(jdbcTemplate, "book_tag", "slug",
+                "name, slug, usage_count", TAG_ID_CACHE_SIZE);
+    }
+    
     /**
      * Extract meaningful tags from a list of Open Library subject names.
      * 
@@ -139,37 +58,7 @@ public class TagService {
             return new HashSet<>();
         }
         
-        Set<String> matchedTagNames = new LinkedHashSet<>(); // Preserve order
-        
-        for (String rawSubject : rawSubjects) {
-            if (rawSubject == null) continue;
-            
-            String normalized = rawSubject.toLowerCase().trim();
-            
-            // Skip excluded patterns
-            if (isExcluded(normalized)) {
-                continue;
-            }
-            
-            // Try to match against our genre mappings
-            for (Map.Entry<String, String> entry : GENRE_MAPPINGS.entrySet()) {
-                if (normalized.contains(entry.getKey())) {
-                    matchedTagNames.add(entry.getValue());
-                }
-            }
-        }
-        
-        // Limit to 10 most relevant tags per book
-        List<String> finalTags = matchedTagNames.stream()
-                .limit(10)
-                .collect(Collectors.toList());
-        
-        // Get or create each tag
-        Set<BookTag> tags = new HashSet<>();
-        for (String tagName : finalTags) {
-            BookTag tag = getOrCreateTag(tagName);
-            tags.add(tag);
-        }
+        Set<BookTag> tags = getOrCreateTags(tagNames(rawSubjects));
         
         log.info("Extracted {} tags from {} raw subjects: {}", 
                 tags.size(), rawSubjects.size(), 
@@ -177,66 +66,63 @@ public class TagService {
         
         return tags;
     }
-    
+
     /**
-     * Get an existing tag or create a new one.
+     * Display names of the tags of a book with these subjects, at most 10.
      */
-    @Transactional
-    public BookTag getOrCreateTag(String tagName) {
-        String slug = toSlug(tagName);
-        
-        return bookTagRepository.findBySlug(slug)
-                .orElseGet(() -> {
-                    BookTag newTag = BookTag.builder()
-                            .name(tagName)
-                            .slug(slug)
-                            .usageCount(0)
-                            .build();
-                    
-                    try {
-                        return bookTagRepository.save(newTag);
-                    } catch (DataIntegrityViolationException e) {
-                        // Race condition - another thread created it
-                        return bookTagRepository.findBySlug(slug).orElseThrow();
-                    }
-                });
+    public static List<String> tagNames(List<String> rawSubjects) {
+        if (rawSubjects == null || rawSubjects.isEmpty()) {
+            return List.of();
+        }
+        // Genre keywords, exclusions and the Latin-script check are all in the shared classifier
+        return SubjectClassifier.OPEN_LIBRARY.classify(rawSubjects).tags().stream()
+                .limit(MAX_TAGS_PER_BOOK)
+                .collect(Collectors.toList());
     }
-    
+
     /**
-     * Get popular tags for discovery/browse pages.
+     * Get or create the tags with these display names: one query finds the existing
+     * ones, one insert creates the rest, one more loads them all.
      */
-    public List<BookTag> getPopularTags() {
-        return bookTagRepository.findTop20ByOrderByUsageCountDesc();
+    @Transactional
+    public Set<BookTag> getOrCreateTags(Collection<String> tagNames) {
+        return new HashSet<>(bookTagRepository.findAllById(new HashSet<>(getOrCreateTagIds(tagNames).values())));
     }
-    
-    private boolean isExcluded(String normalized) {
-        for (String pattern : EXCLUDED_PATTERNS) {
-            if (normalized.contains(pattern)) {
-                return true;
+
+    /**
+     * Ids of the tags with these display names, creating the missing ones, without
+     * loading the entities.
+     *
+     * @return Display name -> tag id; names that slug to the same tag share its id
+     */
+    @Transactional
+    public Map<String, Long> getOrCreateTagIds(Collection<String> tagNames) {
+        Map<String, String> namesBySlug = new LinkedHashMap<>();
+        Map<String, String> slugsByName = new LinkedHashMap<>();
+        for (String tagName : tagNames) {
+            String slug = toSlug(tagName);
+            if (slug != null && !slug.isEmpty()) {
+                namesBySlug.putIfAbsent(slug, tagName.trim());
+                slugsByName.put(tagName, slug);
             }
         }
-        // Exclude non-English subjects (contain non-ASCII letters that aren't accents)
-        if (containsNonLatinScript(normalized)) {
-            return true;
-        }
-        return false;
+        Map<String, Long> ids = tagIds.resolve(namesBySlug.keySet(),
+                slug -> new Object[] {namesBySlug.get(slug), slug, 0});
+
+        Map<String, Long> idsByName = new LinkedHashMap<>();
+        slugsByName.forEach((name, slug) -> {
+            if (ids.containsKey(slug)) {
+                idsByName.put(name, ids.get(slug));
+            }
+        });
+        return idsByName;
     }
     
-    private boolean containsNonLatinScript(String text) {
-        // Allow Latin letters (including accented), spaces, hyphens, apostrophes
-        // Reject Cyrillic, Chinese, Arabic, etc.
-        for (char c : text.toCharArray()) {
-            if (Character.isLetter(c)) {
-                Character.UnicodeBlock block = Character.UnicodeBlock.of(c);
-                if (block != Character.UnicodeBlock.BASIC_LATIN && 
-                    block != Character.UnicodeBlock.LATIN_1_SUPPLEMENT &&
-                    block != Character.UnicodeBlock.LATIN_EXTENDED_A &&
-                    block != Character.UnicodeBlock.LATIN_EXTENDED_B) {
-                    return true;
-                }
-            }
-        }
-        return false;
+    /**
+     * Get popular tags for discovery/browse pages.
+     */
+    public List<BookTag> getPopularTags() {
+        return bookTagRepository.findTop20ByOrderByUsageCountDesc();
     }
     
     private String toSlug(String input) {
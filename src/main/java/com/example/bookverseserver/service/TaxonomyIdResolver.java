@@ -0,0 +1,184 @@
+package com.example.bookverseserver.service;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.function.Function;
+
+/**
+ * Set-based get-or-create of taxonomy rows (authors, categories, tags) by a unique key.
+ *
+ * The keys not in the cache are read in one {@code IN} query; those still missing are
+ * inserted in one {@code INSERT ... ON CONFLICT DO NOTHING RETURNING}, and the few a
+ * concurrent writer inserted first are read again. Resolved ids are kept in a bounded
+ * LRU cache, but only once the caller's transaction commits, so a rollback never
+ * leaves ids of rows that do not exist.
+ */
+final class TaxonomyIdResolver {
+
+    static final int QUERY_SIZE = 500;
+
+    private static final RowMapper<Map.Entry<String, Long>> KEY_AND_ID =
+            (rs, rowNum) -> Map.entry(rs.getString("taxonomy_key"), rs.getLong("id"));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String table;
+    private final String keyExpression;
+    private final String insertColumns;
+    private final int columnCount;
+    private final Map<String, Long> cache;
+
+    /**
+     * @param keyExpression SQL expression of the key, e.g. {@code slug} or {@code lower(name)}
+     * @param insertColumns Columns set on insert, in the order of the values given for them
+     */
+    TaxonomyIdResolver(JdbcTemplate jdbcTemplate, String table, String keyExpression,
+                       String insertColumns, int cacheSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.table = table;
+        this.keyExpression = keyExpression;
+        this.insertColumns = insertColumns;
+        this.columnCount = insertColumns.split(",").length;
+        this.cache = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+                return size() > cacheSize;
+            }
+        });
+    }
+
+    /**
+     * Ids of the keys that exist.
+     */
+    Map<String, Long> find(Collection<String> keys) {
+        Map<String, Long> ids = new HashMap<>();
+        TreeSet<String> missing = cached(keys, ids);
+        if (!missing.isEmpty()) {
+            Map<String, Long> found = select(missing);
+            ids.putAll(found);
+            remember(found);
+        }
+        return ids;
+    }
+
+    /**
+     * Id of every key, creating the rows that do not exist yet.
+     *
+     * @param insertValues Values of the insert columns for a missing key
+     * @return Key -> id; a key is absent only if its insert conflicted on another unique column
+     */
+    Map<String, Long> resolve(Collection<String> keys, Function<String, Object[]> insertValues) {
+        Map<String, Long> ids = new HashMap<>();
+        TreeSet<String> missing = cached(keys, ids);
+        if (missing.isEmpty()) {
+            return ids;
+        }
+
+        Map<String, Long> resolved = select(missing);
+        missing.removeAll(resolved.keySet());
+        if (!missing.isEmpty()) {
+            resolved.putAll(insert(missing, insertValues));
+            missing.removeAll(resolved.keySet());
+            if (!missing.isEmpty()) {
+                resolved.putAll(select(missing));
+            }
+        }
+        ids.putAll(resolved);
+        remember(resolved);
+        return ids;
+    }
+
+    void evict(String key) {
+        cache.remove(key);
+    }
+
+    void clear() {
+        cache.clear();
+    }
+
+    /**
+     * Puts the cached ids into {@code ids}.
+     *
+     * @return The other keys, sorted so concurrent inserts of overlapping sets lock rows in the same order
+     */
+    private TreeSet<String> cached(Collection<String> keys, Map<String, Long> ids) {
+        TreeSet<String> missing = new TreeSet<>();
+        for (String key : keys) {
+            if (key == null) {
+                continue;
+            }
+            Long id = cache.get(key);
+            if (id != null) {
+                ids.put(key, id);
+            } else {
+                missing.add(key);
+            }
+        }
+        return missing;
+    }
+
+    private Map<String, Long> select(Collection<String> keys) {
+        Map<String, Long> ids = new HashMap<>();
+        for (List<String> batch : batches(keys)) {
+            String sql = "SELECT id, " + keyExpression + " AS taxonomy_key FROM " + table
+                    + " WHERE " + keyExpression + " IN (" + placeholders(batch.size()) + ") ORDER BY id";
+            // Lowest id wins if a case-insensitive key matches several rows
+            jdbcTemplate.query(sql, KEY_AND_ID, batch.toArray())
+                    .forEach(row -> ids.putIfAbsent(row.getKey(), row.getValue()));
+        }
+        return ids;
+    }
+
+    private Map<String, Long> insert(Collection<String> keys, Function<String, Object[]> insertValues) {
+        Map<String, Long> ids = new HashMap<>();
+        String row = "(" + placeholders(columnCount) + ")";
+        for (List<String> batch : batches(keys)) {
+            List<Object> args = new ArrayList<>(batch.size() * columnCount);
+            for (String key : batch) {
+                Collections.addAll(args, insertValues.apply(key));
+            }
+            String sql = "INSERT INTO " + table + " (" + insertColumns + ") VALUES "
+                    + String.join(", ", Collections.nCopies(batch.size(), row))
+                    + " ON CONFLICT DO NOTHING RETURNING id, " + keyExpression + " AS taxonomy_key";
+            jdbcTemplate.query(sql, KEY_AND_ID, args.toArray())
+                    .forEach(inserted -> ids.put(inserted.getKey(), inserted.getValue()));
+        }
+        return ids;
+    }
+
+    private void remember(Map<String, Long> ids) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            cache.putAll(ids);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                cache.putAll(ids);
+            }
+        });
+    }
+
+    private static List<List<String>> batches(Collection<String> keys) {
+        List<String> all = List.copyOf(keys);
+        List<List<String>> batches = new ArrayList<>();
+        for (int from = 0; from < all.size(); from += QUERY_SIZE) {
+            batches.add(all.subList(from, Math.min(from + QUERY_SIZE, all.size())));
+        }
+        return batches;
+    }
+
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+}
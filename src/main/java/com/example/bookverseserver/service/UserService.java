@@ -8,6 +8,8 @@ import java.util.Set;
 
 import com.example.bookverseserver.dto.request.Authentication.ChangePasswordRequest;
 import com.example.bookverseserver.dto.request.Authentication.UserStatusRequest;
+import com.example.bookverseserver.security.TokenRevocationIndex;
+import com.example.bookverseserver.security.TokenVerdictCache;
 import com.example.bookverseserver.util.SecurityUtils;
 import lombok.AccessLevel;
 import org.springframework.dao.DataIntegrityViolationException;
@@ -46,6 +48,8 @@ public class UserService {
     PasswordEncoder passwordEncoder;
     OtpService otpService;
     SecurityUtils securityUtils;
+    TokenVerdictCache tokenVerdictCache;
+    TokenRevocationIndex tokenRevocationIndex;
 
     public UserResponse createUser(UserCreationRequest request) {
         User user = userMapper.toUser(request);
@@ -127,6 +131,8 @@ public class UserService {
         user.setPasswordChangedAt(LocalDateTime.now());
         
         userRepository.save(user);
+        tokenRevocationIndex.passwordChanged(userId, user.getPasswordChangedAt());
+        tokenVerdictCache.evictUser(userId);
     }
 
     @PreAuthorize("hasRole('ADMIN')")
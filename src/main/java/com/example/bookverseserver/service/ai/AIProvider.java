@@ -1,5 +1,7 @@
 package com.example.bookverseserver.service.ai;
 
+import java.util.function.Consumer;
+
 /**
  * Abstract base for AI providers.
  * Each provider implements this interface with their specific API integration.
@@ -36,6 +38,25 @@ public interface AIProvider {
      */
     boolean isAvailable();
     
+    /**
+     * Take one request permit from the provider's client-side token bucket.
+     * 
+     * @return true if a permit was available and has been consumed
+     */
+    boolean tryAcquirePermit();
+    
+    /**
+     * Wait up to {@code maxWaitMillis} for a permit to become available.
+     * 
+     * @return true if a permit was consumed within the wait budget
+     */
+    boolean tryAcquirePermit(long maxWaitMillis) throws InterruptedException;
+    
+    /**
+     * @return Milliseconds until the next permit refills (0 if one is available now)
+     */
+    long millisUntilPermit();
+    
     /**
      * Generate a response from the AI provider.
      * 
@@ -46,6 +67,26 @@ public interface AIProvider {
      */
     String generate(String prompt, int timeoutSeconds) throws AIProviderException;
     
+    /**
+     * @return true if {@link #generateStream} forwards tokens as the provider produces them
+     */
+    default boolean supportsStreaming() {
+        return false;
+    }
+    
+    /**
+     * Generate a response, passing text deltas to {@code onToken} as they arrive.
+     * Providers without streaming deliver the whole completion as a single delta.
+     * 
+     * @return Full generated text
+     * @throws AIProviderException if call fails
+     */
+    default String generateStream(String prompt, int timeoutSeconds, Consumer<String> onToken) throws AIProviderException {
+        String result = generate(prompt, timeoutSeconds);
+        onToken.accept(result);
+        return result;
+    }
+    
     /**
      * Get usage statistics for this provider
      */
@@ -3,6 +3,9 @@ package com.example.bookverseserver.service.ai;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.Refill;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.*;
 import org.springframework.web.client.HttpClientErrorException;
@@ -11,8 +14,17 @@ import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 /**
  * Abstract base class for AI providers using OpenAI-compatible chat completion APIs.
@@ -30,7 +42,11 @@ public abstract class AbstractChatProvider implements AIProvider {
     protected final ObjectMapper objectMapper;
     protected final RestTemplate restTemplate;
     
-    protected AbstractChatProvider(String name, String apiKey, String model, int rpmLimit, String baseUrl) {
+    // Client-side throttle: enforce the advertised RPM before the provider has to 429 us
+    protected final Bucket rateLimitBucket;
+    
+    protected AbstractChatProvider(RestTemplate restTemplate, String name, String apiKey, String model,
+                                   int rpmLimit, String baseUrl) {
         this.name = name;
         this.apiKey = apiKey;
         this.model = model;
@@ -38,7 +54,10 @@ public abstract class AbstractChatProvider implements AIProvider {
         this.baseUrl = baseUrl;
         this.stats = new ProviderStats();
         this.objectMapper = new ObjectMapper();
-        this.restTemplate = new RestTemplate();
+        this.restTemplate = restTemplate;
+        this.rateLimitBucket = Bucket.builder()
+                .addLimit(Bandwidth.classic(rpmLimit, Refill.greedy(rpmLimit, Duration.ofMinutes(1))))
+                .build();
     }
     
     @Override
@@ -69,7 +88,7 @@ public abstract class AbstractChatProvider implements AIProvider {
         if (stats.isOnCooldown()) {
             return ProviderStatus.RATE_LIMITED;
         }
-        if (stats.callsInLastMinute() >= rpmLimit) {
+        if (rateLimitBucket.getAvailableTokens() < 1) {
             return ProviderStatus.RATE_LIMITED;
         }
         return ProviderStatus.AVAILABLE;
@@ -90,6 +109,22 @@ public abstract class AbstractChatProvider implements AIProvider {
         stats.setCooldown(seconds);
     }
     
+    @Override
+    public boolean tryAcquirePermit() {
+        return rateLimitBucket.tryConsume(1);
+    }
+    
+    @Override
+    public boolean tryAcquirePermit(long maxWaitMillis) throws InterruptedException {
+        return rateLimitBucket.asBlocking().tryConsume(1, Duration.ofMillis(maxWaitMillis));
+    }
+    
+    @Override
+    public long millisUntilPermit() {
+        return TimeUnit.NANOSECONDS.toMillis(
+                rateLimitBucket.estimateAbilityToConsume(1).getNanosToWaitForRefill());
+    }
+    
     @Override
     public String generate(String prompt, int timeoutSeconds) throws AIProviderException {
         if (!isEnabled()) {
@@ -142,43 +177,150 @@ public abstract class AbstractChatProvider implements AIProvider {
             log.debug("[{}] Generated {} chars", name, result.length());
             return result;
             
-        } catch (HttpClientErrorException e) {
-            int statusCode = e.getStatusCode().value();
-            String errorMsg = String.format("HTTP %d: %s", statusCode, e.getMessage());
+        } catch (Exception e) {
+            throw toProviderException(e);
+        }
+    }
+    
+    @Override
+    public boolean supportsStreaming() {
+        return true;
+    }
+    
+    /**
+     * Stream an OpenAI-compatible completion ({@code "stream": true}) and forward
+     * each {@code choices[0].delta.content} to {@code onToken} as it arrives.
+     */
+    @Override
+    public String generateStream(String prompt, int timeoutSeconds, Consumer<String> onToken) throws AIProviderException {
+        if (!supportsStreaming()) {
+            return AIProvider.super.generateStream(prompt, timeoutSeconds, onToken);
+        }
+        if (!isEnabled()) {
+            throw new AIProviderException(name, "Provider not enabled (missing API key)");
+        }
+        
+        try {
+            HttpHeaders headers = buildHeaders();
+            headers.setAccept(List.of(MediaType.TEXT_EVENT_STREAM, MediaType.APPLICATION_JSON));
+            Map<String, Object> body = new HashMap<>(buildRequestBody(prompt));
+            body.put("stream", true);
+            
+            String result = restTemplate.execute(
+                    baseUrl,
+                    HttpMethod.POST,
+                    restTemplate.httpEntityCallback(new HttpEntity<>(body, headers)),
+                    response -> readEventStream(response.getBody(), onToken)
+            );
+            
+            if (result == null || result.isEmpty()) {
+                stats.recordCall(false, "Empty response");
+                throw new AIProviderException(name, "Empty response from provider");
+            }
+            
+            stats.recordCall(true, null);
+            log.debug("[{}] Streamed {} chars", name, result.length());
+            return result;
+            
+        } catch (ConsumerAbortedException e) {
+            // The caller went away (e.g. client disconnected) - not the provider's fault
+            throw new AIProviderException(name, "Stream aborted by consumer", e.getCause());
+            
+        } catch (Exception e) {
+            if (Thread.currentThread().isInterrupted()) {
+                // The caller cancelled the stream (e.g. SSE client disconnected) - not a provider failure
+                throw new AIProviderException(name, "Stream cancelled by consumer", e);
+            }
+            throw toProviderException(e);
+        }
+    }
+    
+    private String readEventStream(InputStream stream, Consumer<String> onToken) throws IOException {
+        StringBuilder result = new StringBuilder();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(stream, StandardCharsets.UTF_8));
+        
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (!line.startsWith("data:")) {
+                continue; // blank separators, ": keep-alive" comments, "event:" lines
+            }
+            String data = line.substring(5).trim();
+            if (data.equals("[DONE]")) {
+                break;
+            }
+            if (data.isEmpty()) {
+                continue;
+            }
+            
+            JsonNode chunk;
+            try {
+                chunk = objectMapper.readTree(data);
+            } catch (JsonProcessingException e) {
+                log.debug("[{}] Skipping malformed stream chunk", name);
+                continue;
+            }
+            if (chunk.has("error")) {
+                String errorMsg = chunk.path("error").path("message").asText(chunk.path("error").asText("Unknown error"));
+                stats.recordCall(false, errorMsg);
+                throw new AIProviderException(name, "API error: " + errorMsg);
+            }
+            
+            String delta = parseStreamDelta(chunk);
+            if (delta != null && !delta.isEmpty()) {
+                result.append(delta);
+                try {
+                    onToken.accept(delta);
+                } catch (RuntimeException e) {
+                    throw new ConsumerAbortedException(e);
+                }
+            }
+        }
+        return result.toString();
+    }
+    
+    /**
+     * Map a failed call to an AIProviderException, recording stats and cooldowns.
+     */
+    private AIProviderException toProviderException(Exception e) {
+        if (e instanceof AIProviderException providerException) {
+            // Re-throw our own exceptions without wrapping
+            return providerException;
+        }
+        
+        if (e instanceof HttpClientErrorException clientError) {
+            int statusCode = clientError.getStatusCode().value();
+            String errorMsg = String.format("HTTP %d: %s", statusCode, clientError.getMessage());
             stats.recordCall(false, errorMsg);
             
             if (statusCode == 429) {
                 setCooldown(60); // Rate limited - 1 minute cooldown
-                throw new AIProviderException(name, "Rate limited", true, false);
+                return new AIProviderException(name, "Rate limited", true, false);
             }
-            
-            throw new AIProviderException(name, errorMsg, e);
-            
-        } catch (HttpServerErrorException e) {
-            String errorMsg = String.format("HTTP %d: %s", e.getStatusCode().value(), e.getMessage());
+            return new AIProviderException(name, errorMsg, e);
+        }
+        
+        if (e instanceof HttpServerErrorException serverError) {
+            String errorMsg = String.format("HTTP %d: %s", serverError.getStatusCode().value(), serverError.getMessage());
             stats.recordCall(false, errorMsg);
             setCooldown(30); // Server error - shorter cooldown
-            throw new AIProviderException(name, errorMsg, e);
-            
-        } catch (ResourceAccessException e) {
+            return new AIProviderException(name, errorMsg, e);
+        }
+        
+        if (e instanceof ResourceAccessException) {
             stats.recordCall(false, "Timeout");
-            throw new AIProviderException(name, "Timeout", false, true);
-            
-        } catch (RestClientException e) {
+            return new AIProviderException(name, "Timeout", false, true);
+        }
+        
+        if (e instanceof RestClientException) {
             // Handle network/connection errors that aren't HTTP errors
             String errorMsg = e.getCause() != null ? e.getCause().getMessage() : e.getMessage();
             log.warn("[{}] REST client error: {}", name, errorMsg);
             stats.recordCall(false, errorMsg);
-            throw new AIProviderException(name, "Connection error: " + errorMsg, e);
-            
-        } catch (AIProviderException e) {
-            // Re-throw our own exceptions without wrapping
-            throw e;
-            
-        } catch (Exception e) {
-            stats.recordCall(false, e.getMessage());
-            throw new AIProviderException(name, e.getMessage(), e);
+            return new AIProviderException(name, "Connection error: " + errorMsg, e);
         }
+        
+        stats.recordCall(false, e.getMessage());
+        return new AIProviderException(name, e.getMessage(), e);
     }
     
     /**
@@ -203,6 +345,17 @@ public abstract class AbstractChatProvider implements AIProvider {
         );
     }
     
+    /**
+     * Extract the text delta from one streamed chunk. Override for provider-specific format.
+     */
+    protected String parseStreamDelta(JsonNode chunk) {
+        JsonNode choices = chunk.path("choices");
+        if (choices.isArray() && !choices.isEmpty()) {
+            return choices.get(0).path("delta").path("content").asText("");
+        }
+        return "";
+    }
+    
     /**
      * Parse the response. Override for provider-specific response format.
      */
@@ -214,4 +367,13 @@ public abstract class AbstractChatProvider implements AIProvider {
         }
         throw new RuntimeException("Invalid response format from " + name);
     }
+    
+    /**
+     * Wraps a failure thrown by the token consumer so it isn't blamed on the provider.
+     */
+    private static class ConsumerAbortedException extends RuntimeException {
+        ConsumerAbortedException(Throwable cause) {
+            super(cause);
+        }
+    }
 }
@@ -0,0 +1,107 @@
+package com.example.bookverseserver.service.ai;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.util.function.Consumer;
+
+/**
+ * Incremental parser for streamed LLM JSON.
+ *
+ * Fed arbitrary text chunks, it emits every object that is a direct element of
+ * an array as soon as its closing brace arrives - e.g. each entry of
+ * {@code "recommendations": [...]} while the rest of the answer is still being
+ * generated. Text outside JSON (markdown fences, chatter) is ignored.
+ *
+ * Not thread-safe; use one instance per stream.
+ */
+public final class JsonArrayStreamParser {
+
+    private final ObjectMapper objectMapper;
+    private final Consumer<JsonNode> onElement;
+
+    // Open containers, '{' or '['
+    private final StringBuilder stack = new StringBuilder();
+    private final StringBuilder element = new StringBuilder();
+    private final StringBuilder full = new StringBuilder();
+
+    private boolean inString;
+    private boolean escaped;
+    private int captureDepth = -1;
+
+    public JsonArrayStreamParser(ObjectMapper objectMapper, Consumer<JsonNode> onElement) {
+        this.objectMapper = objectMapper;
+        this.onElement = onElement;
+    }
+
+    public void feed(CharSequence chunk) {
+        full.append(chunk);
+        for (int i = 0; i < chunk.length(); i++) {
+            accept(chunk.charAt(i));
+        }
+    }
+
+    /**
+     * @return Everything fed so far
+     */
+    public String getText() {
+        return full.toString();
+    }
+
+    private void accept(char c) {
+        boolean capturing = captureDepth >= 0;
+
+        if (inString) {
+            if (capturing) {
+                element.append(c);
+            }
+            if (escaped) {
+                escaped = false;
+            } else if (c == '\\') {
+                escaped = true;
+            } else if (c == '"') {
+                inString = false;
+            }
+            return;
+        }
+
+        switch (c) {
+            case '"' -> inString = true;
+            case '{' -> {
+                if (!capturing && !stack.isEmpty() && stack.charAt(stack.length() - 1) == '[') {
+                    captureDepth = stack.length();
+                    element.setLength(0);
+                    capturing = true;
+                }
+                stack.append(c);
+            }
+            case '[' -> stack.append(c);
+            case '}', ']' -> {
+                if (!stack.isEmpty()) {
+                    stack.setLength(stack.length() - 1);
+                }
+                if (capturing && c == '}' && stack.length() == captureDepth) {
+                    element.append(c);
+                    captureDepth = -1;
+                    emit();
+                    return;
+                }
+            }
+            default -> {
+            }
+        }
+
+        if (capturing) {
+            element.append(c);
+        }
+    }
+
+    private void emit() {
+        try {
+            onElement.accept(objectMapper.readTree(element.toString()));
+        } catch (JsonProcessingException e) {
+            // Malformed element - the final full-text parse still gets a chance
+        }
+    }
+}
@@ -1,14 +1,20 @@
 package com.example.bookverseserver.service.ai;
 
 import com.example.bookverseserver.service.ai.providers.*;
+import com.example.bookverseserver.service.http.UpstreamHttpClients;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
 
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 
 /**
  * Intelligent Provider Rotation with Fallback
@@ -24,6 +30,10 @@ import java.util.concurrent.atomic.AtomicInteger;
  * 5. Fireworks - Limited
  * 6. Cohere - 1000/month
  * 7. Gemini - Backup (limited free tier)
+ * 
+ * Each provider enforces its own RPM with a token bucket. When every bucket is
+ * empty, callers wait in a small bounded queue; beyond that they are shed so the
+ * caller can fall back instead of triggering 429 cooldown cascades.
  */
 @Component
 @Slf4j
@@ -31,8 +41,22 @@ public class ProviderRotator {
     
     private final List<AIProvider> providers = new ArrayList<>();
     private final AtomicInteger currentIndex = new AtomicInteger(0);
+    private final AtomicLong shedCount = new AtomicLong(0);
     private boolean initialized = false;
     
+    // Bounded wait queue used when every provider bucket is empty
+    private volatile Semaphore queueSlots = new Semaphore(DEFAULT_MAX_QUEUED_REQUESTS);
+    private volatile long maxQueueWaitMillis = DEFAULT_MAX_QUEUE_WAIT_MILLIS;
+    
+    private static final int DEFAULT_MAX_QUEUED_REQUESTS = 8;
+    private static final long DEFAULT_MAX_QUEUE_WAIT_MILLIS = 2000;
+    
+    private final UpstreamHttpClients upstreamHttpClients;
+    
+    public ProviderRotator(UpstreamHttpClients upstreamHttpClients) {
+        this.upstreamHttpClients = upstreamHttpClients;
+    }
+    
     /**
      * Initialize with API keys from configuration
      */
@@ -45,31 +69,41 @@ public class ProviderRotator {
             String cohereKey,
             String geminiKey
     ) {
-        providers.clear();
+        List<AIProvider> providers = new ArrayList<>();
+        RestTemplate restTemplate = upstreamHttpClients.restTemplate("ai");
         
         // Priority order: Most generous free tiers first
         if (groqKey != null && !groqKey.isBlank()) {
-            providers.add(new GroqProvider(groqKey));
+            providers.add(new GroqProvider(restTemplate, groqKey));
         }
         if (mistralKey != null && !mistralKey.isBlank()) {
-            providers.add(new MistralProvider(mistralKey));
+            providers.add(new MistralProvider(restTemplate, mistralKey));
         }
         if (openrouterKey != null && !openrouterKey.isBlank()) {
-            providers.add(new OpenRouterProvider(openrouterKey));
+            providers.add(new OpenRouterProvider(restTemplate, openrouterKey));
         }
         if (huggingfaceKey != null && !huggingfaceKey.isBlank()) {
-            providers.add(new HuggingFaceProvider(huggingfaceKey));
+            providers.add(new HuggingFaceProvider(restTemplate, huggingfaceKey));
         }
         if (fireworksKey != null && !fireworksKey.isBlank()) {
-            providers.add(new FireworksProvider(fireworksKey));
+            providers.add(new FireworksProvider(restTemplate, fireworksKey));
         }
         if (cohereKey != null && !cohereKey.isBlank()) {
-            providers.add(new CohereProvider(cohereKey));
+            providers.add(new CohereProvider(restTemplate, cohereKey));
         }
         if (geminiKey != null && !geminiKey.isBlank()) {
-            providers.add(new GeminiProvider(geminiKey));
+            providers.add(new GeminiProvider(restTemplate, geminiKey));
         }
         
+        initialize(providers);
+    }
+    
+    /**
+     * Initialize with the given providers, in priority order
+     */
+    void initialize(List<AIProvider> providers) {
+        this.providers.clear();
+        this.providers.addAll(providers);
         initialized = true;
         
         log.info("🤖 AI Provider Rotator initialized with {} providers: {}", 
@@ -85,9 +119,54 @@ public class ProviderRotator {
     }
     
     /**
-     * Get the next available provider using round-robin with fallback
+     * Configure admission control for bursts.
+     * 
+     * @param maxQueuedRequests How many callers may wait for a bucket refill at once
+     * @param maxQueueWaitMillis Longest a queued caller waits before being shed
+     */
+    public void configureAdmission(int maxQueuedRequests, long maxQueueWaitMillis) {
+        this.queueSlots = new Semaphore(Math.max(0, maxQueuedRequests));
+        this.maxQueueWaitMillis = Math.max(0, maxQueueWaitMillis);
+        
+        log.info("🤖 AI admission control: {} queued requests, {}ms max wait", 
+                maxQueuedRequests, maxQueueWaitMillis);
+    }
+    
+    /**
+     * Whether a call would be admitted right now: a bucket has a token, or a queue
+     * slot is free and some bucket refills within the wait budget.
+     * Callers use this to degrade to non-AI fallbacks instead of piling on.
      */
-    private AIProvider getNextAvailableProvider() {
+    public boolean canAdmit() {
+        if (!isReady()) {
+            return false;
+        }
+        if (providers.stream().anyMatch(AIProvider::isAvailable)) {
+            return true;
+        }
+        AIProvider soonest = findSoonestRefill();
+        return soonest != null 
+                && queueSlots.availablePermits() > 0 
+                && soonest.millisUntilPermit() <= maxQueueWaitMillis;
+    }
+    
+    /**
+     * @return Number of calls rejected by admission control since startup
+     */
+    public long getShedCount() {
+        return shedCount.get();
+    }
+    
+    /**
+     * Acquire a provider together with one of its rate-limit permits.
+     * 
+     * Fast path: round-robin over providers whose bucket has a token right now.
+     * Slow path: take a slot in the bounded wait queue and block on the provider
+     * whose bucket refills soonest, up to {@code maxQueueWaitMillis}.
+     * 
+     * @return Provider holding a permit, or null if the call should be shed
+     */
+    private AIProvider acquireProvider() {
         if (providers.isEmpty()) {
             return null;
         }
@@ -99,23 +178,51 @@ public class ProviderRotator {
             int idx = (startIdx + i) % providers.size();
             AIProvider provider = providers.get(idx);
             
-            if (provider.isAvailable()) {
+            if (isCallable(provider) && provider.tryAcquirePermit()) {
                 currentIndex.set((idx + 1) % providers.size());
                 return provider;
             }
         }
         
-        // All providers exhausted - try to find one anyway
-        log.warn("⚠️ All AI providers exhausted, attempting cooldown recovery");
+        // All buckets empty - queue briefly rather than hammering a provider into 429s
+        if (!queueSlots.tryAcquire()) {
+            log.warn("⚠️ AI request queue full, shedding call");
+            shedCount.incrementAndGet();
+            return null;
+        }
         
-        // Return first enabled provider (may hit rate limit but better than nothing)
-        for (AIProvider provider : providers) {
-            if (provider.isEnabled()) {
-                return provider;
+        try {
+            AIProvider soonest = findSoonestRefill();
+            if (soonest == null || soonest.millisUntilPermit() > maxQueueWaitMillis) {
+                log.warn("⚠️ All AI providers exhausted, no permit within {}ms", maxQueueWaitMillis);
+                shedCount.incrementAndGet();
+                return null;
+            }
+            
+            if (soonest.tryAcquirePermit(maxQueueWaitMillis)) {
+                return soonest;
             }
+            
+            shedCount.incrementAndGet();
+            return null;
+            
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } finally {
+            queueSlots.release();
         }
-        
-        return null;
+    }
+    
+    private boolean isCallable(AIProvider provider) {
+        return provider.isEnabled() && !provider.getStats().isOnCooldown();
+    }
+    
+    private AIProvider findSoonestRefill() {
+        return providers.stream()
+                .filter(this::isCallable)
+                .min(Comparator.comparingLong(AIProvider::millisUntilPermit))
+                .orElse(null);
     }
     
     /**
@@ -135,11 +242,11 @@ public class ProviderRotator {
         List<String> errors = new ArrayList<>();
         
         for (int attempt = 0; attempt < maxRetries; attempt++) {
-            AIProvider provider = getNextAvailableProvider();
+            AIProvider provider = acquireProvider();
             
             if (provider == null) {
                 throw new AIProviderException("rotator", 
-                        String.format("No AI providers available. Errors: %s", errors));
+                        String.format("No AI providers available. Errors: %s", errors), true, false);
             }
             
             try {
@@ -172,6 +279,64 @@ public class ProviderRotator {
                 String.format("All AI providers failed after %d attempts. Errors: %s", maxRetries, errors));
     }
     
+    /**
+     * Stream a response, rotating providers like {@link #generate(String, int, int)}.
+     * 
+     * A provider is only retried if it failed before emitting anything; once tokens
+     * have reached the caller the stream can't be silently restarted elsewhere.
+     * Providers without native streaming deliver their whole answer as one delta.
+     * 
+     * @param onToken receives text deltas in order
+     * @return Full generated text
+     * @throws AIProviderException If all providers fail, or a stream fails mid-way
+     */
+    public String generateStream(String prompt, int timeoutSeconds, int maxRetries,
+                                 Consumer<String> onToken) throws AIProviderException {
+        if (!isReady()) {
+            throw new AIProviderException("rotator", "Provider rotator not initialized or no providers available");
+        }
+        
+        List<String> errors = new ArrayList<>();
+        AtomicInteger emitted = new AtomicInteger();
+        Consumer<String> counting = delta -> {
+            emitted.incrementAndGet();
+            onToken.accept(delta);
+        };
+        
+        for (int attempt = 0; attempt < maxRetries; attempt++) {
+            AIProvider provider = acquireProvider();
+            
+            if (provider == null) {
+                throw new AIProviderException("rotator", 
+                        String.format("No AI providers available. Errors: %s", errors), true, false);
+            }
+            
+            try {
+                log.info("🤖 AI stream attempt {}/{} via {} ({}, native={})", 
+                        attempt + 1, maxRetries, provider.getName(), provider.getModel(), provider.supportsStreaming());
+                
+                String result = provider.generateStream(prompt, timeoutSeconds, counting);
+                
+                log.info("✅ AI stream completed via {} ({} chars)", provider.getName(), result.length());
+                return result;
+                
+            } catch (AIProviderException e) {
+                log.warn("⚠️ AI stream failed via {}: {}", provider.getName(), e.getMessage());
+                
+                if (e.isRateLimited()) {
+                    provider.setCooldown(60);
+                }
+                if (emitted.get() > 0 || Thread.currentThread().isInterrupted()) {
+                    throw e;    // Already partly delivered, or cancelled by the caller
+                }
+                errors.add(String.format("%s: %s", provider.getName(), e.getMessage()));
+            }
+        }
+        
+        throw new AIProviderException("rotator", 
+                String.format("All AI providers failed after %d attempts. Errors: %s", maxRetries, errors));
+    }
+    
     /**
      * Generate with default settings
      */
@@ -3,6 +3,7 @@ package com.example.bookverseserver.service.ai.providers;
 import com.example.bookverseserver.service.ai.AbstractChatProvider;
 import com.fasterxml.jackson.databind.JsonNode;
 import org.springframework.http.HttpHeaders;
+import org.springframework.web.client.RestTemplate;
 
 import java.util.List;
 import java.util.Map;
@@ -21,12 +22,12 @@ public class CohereProvider extends AbstractChatProvider {
     private static final String DEFAULT_MODEL = "command-r-08-2024";
     private static final int RPM_LIMIT = 20; // 1000/month = ~30/day = be conservative
     
-    public CohereProvider(String apiKey) {
-        super("cohere", apiKey, DEFAULT_MODEL, RPM_LIMIT, BASE_URL);
+    public CohereProvider(RestTemplate restTemplate, String apiKey) {
+        super(restTemplate, "cohere", apiKey, DEFAULT_MODEL, RPM_LIMIT, BASE_URL);
     }
     
-    public CohereProvider(String apiKey, String model) {
-        super("cohere", apiKey, model != null ? model : DEFAULT_MODEL, RPM_LIMIT, BASE_URL);
+    public CohereProvider(RestTemplate restTemplate, String apiKey, String model) {
+        super(restTemplate, "cohere", apiKey, model != null ? model : DEFAULT_MODEL, RPM_LIMIT, BASE_URL);
     }
     
     @Override
@@ -48,4 +49,10 @@ public class CohereProvider extends AbstractChatProvider {
         }
         throw new RuntimeException("Invalid response format from Cohere");
     }
+    
+    @Override
+    public boolean supportsStreaming() {
+        // Cohere v2 streams typed events, not OpenAI deltas
+        return false;
+    }
 }
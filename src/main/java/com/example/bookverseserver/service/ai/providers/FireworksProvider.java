@@ -1,6 +1,7 @@
 package com.example.bookverseserver.service.ai.providers;
 
 import com.example.bookverseserver.service.ai.AbstractChatProvider;
+import org.springframework.web.client.RestTemplate;
 
 import java.util.List;
 import java.util.Map;
@@ -19,12 +20,12 @@ public class FireworksProvider extends AbstractChatProvider {
     private static final String DEFAULT_MODEL = "accounts/fireworks/models/llama-v3p3-70b-instruct";
     private static final int RPM_LIMIT = 20; // Conservative
     
-    public FireworksProvider(String apiKey) {
-        super("fireworks", apiKey, DEFAULT_MODEL, RPM_LIMIT, BASE_URL);
+    public FireworksProvider(RestTemplate restTemplate, String apiKey) {
+        super(restTemplate, "fireworks", apiKey, DEFAULT_MODEL, RPM_LIMIT, BASE_URL);
     }
     
-    public FireworksProvider(String apiKey, String model) {
-        super("fireworks", apiKey, model != null ? model : DEFAULT_MODEL, RPM_LIMIT, BASE_URL);
+    public FireworksProvider(RestTemplate restTemplate, String apiKey, String model) {
+        super(restTemplate, "fireworks", apiKey, model != null ? model : DEFAULT_MODEL, RPM_LIMIT, BASE_URL);
     }
     
     @Override
@@ -7,6 +7,7 @@ import org.springframework.http.*;
 import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.HttpServerErrorException;
 import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
 
 import java.util.List;
 import java.util.Map;
@@ -25,12 +26,12 @@ public class GeminiProvider extends AbstractChatProvider {
     private static final String DEFAULT_MODEL = "gemini-2.0-flash";
     private static final int RPM_LIMIT = 3; // Very conservative - last resort backup
     
-    public GeminiProvider(String apiKey) {
-        super("gemini", apiKey, DEFAULT_MODEL, RPM_LIMIT, buildUrl(DEFAULT_MODEL, apiKey));
+    public GeminiProvider(RestTemplate restTemplate, String apiKey) {
+        super(restTemplate, "gemini", apiKey, DEFAULT_MODEL, RPM_LIMIT, buildUrl(DEFAULT_MODEL, apiKey));
     }
     
-    public GeminiProvider(String apiKey, String model) {
-        super("gemini", apiKey, model != null ? model : DEFAULT_MODEL, RPM_LIMIT, 
+    public GeminiProvider(RestTemplate restTemplate, String apiKey, String model) {
+        super(restTemplate, "gemini", apiKey, model != null ? model : DEFAULT_MODEL, RPM_LIMIT, 
               buildUrl(model != null ? model : DEFAULT_MODEL, apiKey));
     }
     
@@ -128,4 +129,10 @@ public class GeminiProvider extends AbstractChatProvider {
             throw new AIProviderException(getName(), e.getMessage(), e);
         }
     }
+    
+    @Override
+    public boolean supportsStreaming() {
+        // Gemini uses its own streaming endpoint and payload format
+        return false;
+    }
 }
@@ -2,6 +2,7 @@ package com.example.bookverseserver.service.ai.providers;
 
 import com.example.bookverseserver.service.ai.AbstractChatProvider;
 import org.springframework.http.HttpHeaders;
+import org.springframework.web.client.RestTemplate;
 
 import java.util.Map;
 
@@ -17,11 +18,11 @@ public class GroqProvider extends AbstractChatProvider {
     private static final String DEFAULT_MODEL = "llama-3.3-70b-versatile";
     private static final int RPM_LIMIT = 100;
     
-    public GroqProvider(String apiKey) {
-        super("groq", apiKey, DEFAULT_MODEL, RPM_LIMIT, BASE_URL);
+    public GroqProvider(RestTemplate restTemplate, String apiKey) {
+        super(restTemplate, "groq", apiKey, DEFAULT_MODEL, RPM_LIMIT, BASE_URL);
     }
     
-    public GroqProvider(String apiKey, String model) {
-        super("groq", apiKey, model != null ? model : DEFAULT_MODEL, RPM_LIMIT, BASE_URL);
+    public GroqProvider(RestTemplate restTemplate, String apiKey, String model) {
+        super(restTemplate, "groq", apiKey, model != null ? model : DEFAULT_MODEL, RPM_LIMIT, BASE_URL);
     }
 }
@@ -7,6 +7,7 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.RestTemplate;
 
 import java.util.List;
 import java.util.Map;
@@ -30,12 +31,12 @@ public class HuggingFaceProvider extends AbstractChatProvider {
     private static final String DEFAULT_MODEL = "Qwen/Qwen2.5-72B-Instruct";
     private static final int RPM_LIMIT = 60; // Conservative for free tier
     
-    public HuggingFaceProvider(String apiKey) {
-        super("huggingface", apiKey, DEFAULT_MODEL, RPM_LIMIT, BASE_URL);
+    public HuggingFaceProvider(RestTemplate restTemplate, String apiKey) {
+        super(restTemplate, "huggingface", apiKey, DEFAULT_MODEL, RPM_LIMIT, BASE_URL);
     }
     
-    public HuggingFaceProvider(String apiKey, String model) {
-        super("huggingface", apiKey, model != null ? model : DEFAULT_MODEL, RPM_LIMIT, BASE_URL);
+    public HuggingFaceProvider(RestTemplate restTemplate, String apiKey, String model) {
+        super(restTemplate, "huggingface", apiKey, model != null ? model : DEFAULT_MODEL, RPM_LIMIT, BASE_URL);
     }
     
     @Override
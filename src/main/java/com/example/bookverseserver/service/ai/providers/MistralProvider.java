@@ -2,6 +2,7 @@ package com.example.bookverseserver.service.ai.providers;
 
 import com.example.bookverseserver.service.ai.AbstractChatProvider;
 import org.springframework.http.HttpHeaders;
+import org.springframework.web.client.RestTemplate;
 
 /**
  * Mistral AI Provider — European excellence
@@ -15,11 +16,11 @@ public class MistralProvider extends AbstractChatProvider {
     private static final String DEFAULT_MODEL = "mistral-small-latest";
     private static final int RPM_LIMIT = 60;
     
-    public MistralProvider(String apiKey) {
-        super("mistral", apiKey, DEFAULT_MODEL, RPM_LIMIT, BASE_URL);
+    public MistralProvider(RestTemplate restTemplate, String apiKey) {
+        super(restTemplate, "mistral", apiKey, DEFAULT_MODEL, RPM_LIMIT, BASE_URL);
     }
     
-    public MistralProvider(String apiKey, String model) {
-        super("mistral", apiKey, model != null ? model : DEFAULT_MODEL, RPM_LIMIT, BASE_URL);
+    public MistralProvider(RestTemplate restTemplate, String apiKey, String model) {
+        super(restTemplate, "mistral", apiKey, model != null ? model : DEFAULT_MODEL, RPM_LIMIT, BASE_URL);
     }
 }
@@ -2,6 +2,7 @@ package com.example.bookverseserver.service.ai.providers;
 
 import com.example.bookverseserver.service.ai.AbstractChatProvider;
 import org.springframework.http.HttpHeaders;
+import org.springframework.web.client.RestTemplate;
 
 /**
  * OpenRouter Provider — Access to multiple free models
@@ -18,12 +19,12 @@ public class OpenRouterProvider extends AbstractChatProvider {
     private static final String DEFAULT_MODEL = "qwen/qwen3-next-80b-a3b-instruct:free";
     private static final int RPM_LIMIT = 20; // Conservative for free tier
     
-    public OpenRouterProvider(String apiKey) {
-        super("openrouter", apiKey, DEFAULT_MODEL, RPM_LIMIT, BASE_URL);
+    public OpenRouterProvider(RestTemplate restTemplate, String apiKey) {
+        super(restTemplate, "openrouter", apiKey, DEFAULT_MODEL, RPM_LIMIT, BASE_URL);
     }
     
-    public OpenRouterProvider(String apiKey, String model) {
-        super("openrouter", apiKey, model != null ? model : DEFAULT_MODEL, RPM_LIMIT, BASE_URL);
+    public OpenRouterProvider(RestTemplate restTemplate, String apiKey, String model) {
+        super(restTemplate, "openrouter", apiKey, model != null ? model : DEFAULT_MODEL, RPM_LIMIT, BASE_URL);
     }
     
     @Override
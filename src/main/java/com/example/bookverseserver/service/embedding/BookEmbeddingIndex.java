@@ -0,0 +1,154 @@
+package com.example.bookverseserver.service.embedding;
+
+import com.example.bookverseserver.entity.Product.BookMeta;
+import com.example.bookverseserver.entity.Product.BookTag;
+import com.example.bookverseserver.entity.Product.Category;
+import com.example.bookverseserver.enums.ListingStatus;
+import com.example.bookverseserver.repository.BookMetaRepository;
+import com.example.bookverseserver.repository.ListingRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongPredicate;
+import java.util.stream.Collectors;
+
+/**
+ * Local semantic retrieval over the live catalog.
+ *
+ * Every active listing is indexed under the embedding of its BookMeta
+ * (title, description, subjects, categories, tags). Retrieval for mood discovery
+ * and recommendations is then an in-memory lookup, and the LLM only needs to
+ * re-rank a short list - or isn't called at all.
+ *
+ * The index is rebuilt periodically off the request path and swapped in atomically;
+ * book vectors are reused across rebuilds until the BookMeta's updatedAt changes.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BookEmbeddingIndex {
+
+    private static final int LOAD_CHUNK_SIZE = 500;
+
+    private static final float TITLE_WEIGHT = 2.0f;
+    private static final float TAXONOMY_WEIGHT = 1.5f;
+    private static final float DESCRIPTION_WEIGHT = 1.0f;
+    private static final float SUBJECT_WEIGHT = 0.75f;
+
+    private final ListingRepository listingRepository;
+    private final BookMetaRepository bookMetaRepository;
+
+    private final Map<Long, BookVector> bookVectors = new ConcurrentHashMap<>();
+    private volatile VectorIndex index = VectorIndex.empty(TextEmbedder.DIMENSIONS);
+
+    /**
+     * Rebuild the index from the current catalog.
+     * Runs shortly after startup and then on a fixed delay.
+     */
+    @Scheduled(initialDelayString = "${app.ai.embedding-initial-delay-millis:15000}",
+               fixedDelayString = "${app.ai.embedding-refresh-millis:900000}")
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+
+        try {
+            List<Object[]> pairs = listingRepository.findListingBookPairs(ListingStatus.ACTIVE);
+
+            Map<Long, LocalDateTime> bookVersions = new HashMap<>();
+            for (Object[] row : pairs) {
+                bookVersions.put((Long) row[1], (LocalDateTime) row[2]);
+            }
+
+            List<Long> stale = bookVersions.entrySet().stream()
+                    .filter(e -> {
+                        BookVector cached = bookVectors.get(e.getKey());
+                        return cached == null || !Objects.equals(cached.updatedAt(), e.getValue());
+                    })
+                    .map(Map.Entry::getKey)
+                    .collect(Collectors.toList());
+
+            for (int i = 0; i < stale.size(); i += LOAD_CHUNK_SIZE) {
+                List<Long> chunk = stale.subList(i, Math.min(i + LOAD_CHUNK_SIZE, stale.size()));
+                for (BookMeta book : bookMetaRepository.findByIdIn(chunk)) {
+                    bookVectors.put(book.getId(), new BookVector(book.getUpdatedAt(), embed(book)));
+                }
+            }
+            bookVectors.keySet().retainAll(bookVersions.keySet());
+
+            long[] ids = new long[pairs.size()];
+            float[][] vectors = new float[pairs.size()][];
+            int n = 0;
+            for (Object[] row : pairs) {
+                BookVector vector = bookVectors.get((Long) row[1]);
+                if (vector != null) {
+                    ids[n] = (Long) row[0];
+                    vectors[n] = vector.vector();
+                    n++;
+                }
+            }
+
+            index = VectorIndex.build(Arrays.copyOf(ids, n), Arrays.copyOf(vectors, n), TextEmbedder.DIMENSIONS);
+
+            log.info("📚 Embedding index rebuilt: {} listings, {} books re-embedded in {}ms",
+                    n, stale.size(), System.currentTimeMillis() - start);
+
+        } catch (Exception e) {
+            // Keep serving the previous snapshot
+            log.warn("Embedding index rebuild failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * @return true once the first build has indexed at least one listing
+     */
+    public boolean isReady() {
+        return index.size() > 0;
+    }
+
+    /**
+     * Retrieve the listings closest to a free-text query.
+     *
+     * @param filter optional listing id predicate (e.g. exclusions)
+     */
+    public List<VectorIndex.Hit> search(String queryText, int k, LongPredicate filter) {
+        VectorIndex snapshot = index;
+        return snapshot.search(snapshot.prepareQuery(TextEmbedder.embed(queryText)), k, filter);
+    }
+
+    /**
+     * Re-order listing ids by similarity to a query. Ids missing from the index
+     * keep their relative order after the indexed ones.
+     */
+    public List<Long> rank(String queryText, List<Long> listingIds) {
+        VectorIndex snapshot = index;
+        float[] query = snapshot.prepareQuery(TextEmbedder.embed(queryText));
+
+        Map<Long, Float> scores = new HashMap<>();
+        for (Long id : listingIds) {
+            float score = snapshot.similarity(query, id);
+            scores.put(id, Float.isNaN(score) ? Float.NEGATIVE_INFINITY : score);
+        }
+
+        List<Long> ranked = new ArrayList<>(listingIds);
+        ranked.sort((a, b) -> Float.compare(scores.get(b), scores.get(a)));
+        return ranked;
+    }
+
+    private float[] embed(BookMeta book) {
+        return TextEmbedder.accumulator()
+                .add(book.getTitle(), TITLE_WEIGHT)
+                .add(book.getDescription(), DESCRIPTION_WEIGHT)
+                .add(book.getCategories().stream().map(Category::getName).collect(Collectors.joining(" ")), TAXONOMY_WEIGHT)
+                .add(book.getTags().stream().map(BookTag::getName).collect(Collectors.joining(" ")), TAXONOMY_WEIGHT)
+                .add(book.getSubjectPlaces(), SUBJECT_WEIGHT)
+                .add(book.getSubjectPeople(), SUBJECT_WEIGHT)
+                .add(book.getSubjectTimes(), SUBJECT_WEIGHT)
+                .build();
+    }
+
+    private record BookVector(LocalDateTime updatedAt, float[] vector) {}
+}
@@ -0,0 +1,141 @@
+package com.example.bookverseserver.service.embedding;
+
+import java.text.Normalizer;
+import java.util.Set;
+
+/**
+ * Offline, CPU-only text embedder based on the hashing trick.
+ *
+ * No model download, no network: tokens and adjacent-token bigrams are hashed
+ * into a fixed number of signed dimensions, weighted per field, and the result
+ * is L2-normalized so a dot product is cosine similarity.
+ *
+ * It won't understand synonyms the way a neural model does, so callers bridge
+ * vocabulary gaps by expanding queries (e.g. "suspenseful" → "mystery thriller").
+ */
+public final class TextEmbedder {
+
+    public static final int DIMENSIONS = 384;
+
+    private static final float BIGRAM_WEIGHT = 0.5f;
+
+    private static final Set<String> STOPWORDS = Set.of(
+            "a", "an", "and", "are", "as", "at", "be", "by", "for", "from", "has", "he",
+            "her", "his", "in", "is", "it", "its", "of", "on", "or", "she", "that", "the",
+            "their", "they", "this", "to", "was", "were", "will", "with", "who", "which",
+            "book", "books", "edition", "volume", "vol"
+    );
+
+    private TextEmbedder() {
+    }
+
+    /**
+     * Start a new vector that fields can be added to.
+     */
+    public static Accumulator accumulator() {
+        return new Accumulator();
+    }
+
+    /**
+     * Embed a single piece of text with unit weight.
+     */
+    public static float[] embed(String text) {
+        return accumulator().add(text, 1.0f).build();
+    }
+
+    /**
+     * Collects weighted features from several fields into one vector.
+     */
+    public static final class Accumulator {
+
+        private final float[] vector = new float[DIMENSIONS];
+
+        private Accumulator() {
+        }
+
+        public Accumulator add(String text, float weight) {
+            if (text == null || text.isBlank() || weight == 0f) {
+                return this;
+            }
+
+            String previous = null;
+            for (String token : tokenize(text)) {
+                addFeature(token, weight);
+                if (previous != null) {
+                    addFeature(previous + ' ' + token, weight * BIGRAM_WEIGHT);
+                }
+                previous = token;
+            }
+            return this;
+        }
+
+        public float[] build() {
+            normalize(vector);
+            return vector;
+        }
+
+        private void addFeature(String feature, float weight) {
+            int h = mix(feature.hashCode());
+            int idx = (h & 0x7fffffff) % DIMENSIONS;
+            vector[idx] += (h >>> 31) == 0 ? weight : -weight;
+        }
+    }
+
+    /**
+     * Scale a vector to unit length in place (no-op for the zero vector).
+     */
+    public static void normalize(float[] vector) {
+        double norm = 0;
+        for (float v : vector) {
+            norm += v * v;
+        }
+        if (norm == 0) {
+            return;
+        }
+        float inv = (float) (1.0 / Math.sqrt(norm));
+        for (int i = 0; i < vector.length; i++) {
+            vector[i] *= inv;
+        }
+    }
+
+    private static String[] tokenize(String text) {
+        String folded = Normalizer.normalize(text.toLowerCase(), Normalizer.Form.NFD)
+                .replaceAll("\\p{M}", "");
+        String[] raw = folded.split("[^\\p{L}\\p{N}]+");
+
+        int n = 0;
+        for (String token : raw) {
+            if (token.length() < 2 || STOPWORDS.contains(token)) {
+                continue;
+            }
+            raw[n++] = stem(token);
+        }
+        String[] tokens = new String[n];
+        System.arraycopy(raw, 0, tokens, 0, n);
+        return tokens;
+    }
+
+    /**
+     * Minimal plural folding so "mysteries"/"mystery" and "thrillers"/"thriller" collide.
+     */
+    private static String stem(String token) {
+        int len = token.length();
+        if (len > 4 && token.endsWith("ies")) {
+            return token.substring(0, len - 3) + "y";
+        }
+        if (len > 3 && token.endsWith("s") && !token.endsWith("ss") && !token.endsWith("us")) {
+            return token.substring(0, len - 1);
+        }
+        return token;
+    }
+
+    // Murmur3 finalizer - String.hashCode alone clusters badly in the low bits
+    private static int mix(int h) {
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+}
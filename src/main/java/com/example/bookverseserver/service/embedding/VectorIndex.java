@@ -0,0 +1,297 @@
+package com.example.bookverseserver.service.embedding;
+
+import java.util.*;
+import java.util.function.LongPredicate;
+
+/**
+ * Immutable in-memory approximate nearest-neighbour index over unit vectors.
+ *
+ * Layout: all vectors live in one row-major float[] for cache-friendly scans.
+ * Small catalogs are searched exhaustively; larger ones use an IVF layout
+ * (spherical k-means coarse quantizer, probing the closest few lists).
+ *
+ * At build time each dimension is re-weighted by an IDF computed over the
+ * hashed features, so very common words ("novel", "fiction") stop dominating.
+ * Queries go through the same weighting via {@link #prepareQuery(float[])}.
+ */
+public final class VectorIndex {
+
+    // Below this size a flat scan is already well under a millisecond
+    private static final int IVF_THRESHOLD = 2048;
+    private static final int KMEANS_ITERATIONS = 8;
+
+    private final int dim;
+    private final long[] ids;
+    private final float[] vectors;
+    private final float[] dimWeights;
+    private final Map<Long, Integer> rowById;
+
+    // IVF structures (null when flat)
+    private final float[] centroids;
+    private final int[][] lists;
+    private final int nprobe;
+
+    private VectorIndex(int dim, long[] ids, float[] vectors, float[] dimWeights,
+                        float[] centroids, int[][] lists) {
+        this.dim = dim;
+        this.ids = ids;
+        this.vectors = vectors;
+        this.dimWeights = dimWeights;
+        this.centroids = centroids;
+        this.lists = lists;
+        this.nprobe = lists == null ? 0 : Math.max(2, lists.length / 4);
+        this.rowById = new HashMap<>(ids.length * 2);
+        for (int i = 0; i < ids.length; i++) {
+            rowById.put(ids[i], i);
+        }
+    }
+
+    public static VectorIndex empty(int dim) {
+        return new VectorIndex(dim, new long[0], new float[0], uniformWeights(dim), null, null);
+    }
+
+    /**
+     * Build an index from parallel id/vector arrays. Vectors must all have {@code dim} entries.
+     */
+    public static VectorIndex build(long[] ids, float[][] rawVectors, int dim) {
+        int n = ids.length;
+        float[] weights = idfWeights(rawVectors, dim);
+
+        float[] flat = new float[n * dim];
+        for (int i = 0; i < n; i++) {
+            float[] v = rawVectors[i];
+            int base = i * dim;
+            for (int d = 0; d < dim; d++) {
+                flat[base + d] = v[d] * weights[d];
+            }
+            normalizeRow(flat, base, dim);
+        }
+
+        if (n < IVF_THRESHOLD) {
+            return new VectorIndex(dim, ids, flat, weights, null, null);
+        }
+
+        int nlist = (int) Math.sqrt(n);
+        float[] centroids = trainCentroids(flat, n, dim, nlist);
+        int[][] lists = assignLists(flat, n, dim, centroids, nlist);
+        return new VectorIndex(dim, ids, flat, weights, centroids, lists);
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    public boolean contains(long id) {
+        return rowById.containsKey(id);
+    }
+
+    /**
+     * Apply the index's dimension weights to a raw embedding and re-normalize.
+     */
+    public float[] prepareQuery(float[] raw) {
+        float[] q = new float[dim];
+        for (int d = 0; d < dim; d++) {
+            q[d] = raw[d] * dimWeights[d];
+        }
+        normalizeRow(q, 0, dim);
+        return q;
+    }
+
+    /**
+     * Cosine similarity between a prepared query and an indexed id, or NaN if unknown.
+     */
+    public float similarity(float[] preparedQuery, long id) {
+        Integer row = rowById.get(id);
+        return row == null ? Float.NaN : dot(preparedQuery, vectors, row * dim, dim);
+    }
+
+    /**
+     * Top-k most similar ids to a prepared query.
+     *
+     * @param filter optional predicate; ids failing it are skipped
+     */
+    public List<Hit> search(float[] preparedQuery, int k, LongPredicate filter) {
+        if (ids.length == 0 || k <= 0) {
+            return List.of();
+        }
+
+        PriorityQueue<Hit> heap = new PriorityQueue<>(k + 1, Comparator.comparingDouble(Hit::score));
+
+        if (lists == null) {
+            for (int row = 0; row < ids.length; row++) {
+                offer(heap, k, row, preparedQuery, filter);
+            }
+        } else {
+            for (int list : closestLists(preparedQuery)) {
+                for (int row : lists[list]) {
+                    offer(heap, k, row, preparedQuery, filter);
+                }
+            }
+        }
+
+        List<Hit> result = new ArrayList<>(heap);
+        result.sort(Comparator.comparingDouble(Hit::score).reversed());
+        return result;
+    }
+
+    private void offer(PriorityQueue<Hit> heap, int k, int row, float[] query, LongPredicate filter) {
+        long id = ids[row];
+        if (filter != null && !filter.test(id)) {
+            return;
+        }
+        float score = dot(query, vectors, row * dim, dim);
+        if (heap.size() < k) {
+            heap.add(new Hit(id, score));
+        } else if (score > heap.peek().score()) {
+            heap.poll();
+            heap.add(new Hit(id, score));
+        }
+    }
+
+    private int[] closestLists(float[] query) {
+        int nlist = lists.length;
+        float[] scores = new float[nlist];
+        Integer[] order = new Integer[nlist];
+        for (int c = 0; c < nlist; c++) {
+            scores[c] = dot(query, centroids, c * dim, dim);
+            order[c] = c;
+        }
+        Arrays.sort(order, (a, b) -> Float.compare(scores[b], scores[a]));
+
+        int probes = Math.min(nprobe, nlist);
+        int[] result = new int[probes];
+        for (int i = 0; i < probes; i++) {
+            result[i] = order[i];
+        }
+        return result;
+    }
+
+    // ─────────────────────────────────────────────────────────────────────────────
+    // Build helpers
+    // ─────────────────────────────────────────────────────────────────────────────
+
+    private static float[] idfWeights(float[][] vectors, int dim) {
+        int n = vectors.length;
+        if (n == 0) {
+            return uniformWeights(dim);
+        }
+        int[] df = new int[dim];
+        for (float[] v : vectors) {
+            for (int d = 0; d < dim; d++) {
+                if (v[d] != 0f) {
+                    df[d]++;
+                }
+            }
+        }
+        float[] weights = new float[dim];
+        for (int d = 0; d < dim; d++) {
+            weights[d] = (float) Math.log(1.0 + (double) n / (1 + df[d]));
+        }
+        return weights;
+    }
+
+    private static float[] uniformWeights(int dim) {
+        float[] weights = new float[dim];
+        Arrays.fill(weights, 1f);
+        return weights;
+    }
+
+    /**
+     * Spherical k-means with deterministic, evenly spaced seeds.
+     */
+    private static float[] trainCentroids(float[] flat, int n, int dim, int nlist) {
+        float[] centroids = new float[nlist * dim];
+        int step = n / nlist;
+        for (int c = 0; c < nlist; c++) {
+            System.arraycopy(flat, (c * step) * dim, centroids, c * dim, dim);
+        }
+
+        int[] assignment = new int[n];
+        for (int iter = 0; iter < KMEANS_ITERATIONS; iter++) {
+            for (int row = 0; row < n; row++) {
+                assignment[row] = nearestCentroid(flat, row * dim, centroids, nlist, dim);
+            }
+
+            float[] sums = new float[nlist * dim];
+            int[] counts = new int[nlist];
+            for (int row = 0; row < n; row++) {
+                int c = assignment[row];
+                counts[c]++;
+                int base = row * dim;
+                int cBase = c * dim;
+                for (int d = 0; d < dim; d++) {
+                    sums[cBase + d] += flat[base + d];
+                }
+            }
+            for (int c = 0; c < nlist; c++) {
+                if (counts[c] == 0) {
+                    continue; // keep the previous centroid for empty clusters
+                }
+                System.arraycopy(sums, c * dim, centroids, c * dim, dim);
+                normalizeRow(centroids, c * dim, dim);
+            }
+        }
+        return centroids;
+    }
+
+    private static int[][] assignLists(float[] flat, int n, int dim, float[] centroids, int nlist) {
+        int[] assignment = new int[n];
+        int[] counts = new int[nlist];
+        for (int row = 0; row < n; row++) {
+            assignment[row] = nearestCentroid(flat, row * dim, centroids, nlist, dim);
+            counts[assignment[row]]++;
+        }
+
+        int[][] lists = new int[nlist][];
+        for (int c = 0; c < nlist; c++) {
+            lists[c] = new int[counts[c]];
+        }
+        int[] fill = new int[nlist];
+        for (int row = 0; row < n; row++) {
+            int c = assignment[row];
+            lists[c][fill[c]++] = row;
+        }
+        return lists;
+    }
+
+    private static int nearestCentroid(float[] flat, int base, float[] centroids, int nlist, int dim) {
+        int best = 0;
+        float bestScore = Float.NEGATIVE_INFINITY;
+        for (int c = 0; c < nlist; c++) {
+            float score = 0f;
+            int cBase = c * dim;
+            for (int d = 0; d < dim; d++) {
+                score += flat[base + d] * centroids[cBase + d];
+            }
+            if (score > bestScore) {
+                bestScore = score;
+                best = c;
+            }
+        }
+        return best;
+    }
+
+    private static float dot(float[] query, float[] data, int base, int dim) {
+        float sum = 0f;
+        for (int d = 0; d < dim; d++) {
+            sum += query[d] * data[base + d];
+        }
+        return sum;
+    }
+
+    private static void normalizeRow(float[] data, int base, int dim) {
+        double norm = 0;
+        for (int d = 0; d < dim; d++) {
+            norm += data[base + d] * data[base + d];
+        }
+        if (norm == 0) {
+            return;
+        }
+        float inv = (float) (1.0 / Math.sqrt(norm));
+        for (int d = 0; d < dim; d++) {
+            data[base + d] *= inv;
+        }
+    }
+
+    public record Hit(long id, float score) {}
+}
@@ -0,0 +1,68 @@
+package com.example.bookverseserver.service.http;
+
+/**
+ * Consecutive-failure circuit breaker for one upstream host.
+ *
+ * CLOSED lets every call through. {@code failureThreshold} failures in a row
+ * open it; OPEN rejects calls for {@code openNanos}, then HALF_OPEN lets a single
+ * trial call through: success closes the breaker, failure opens it again.
+ */
+final class CircuitBreaker {
+
+    enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final int failureThreshold;
+    private final long openNanos;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAtNanos;
+    private boolean trialInFlight;
+
+    CircuitBreaker(int failureThreshold, long openNanos) {
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.openNanos = openNanos;
+    }
+
+    /**
+     * @return Whether a call may go out now; if so, its outcome must be reported
+     */
+    synchronized boolean tryAcquire(long nowNanos) {
+        if (state == State.OPEN && nowNanos - openedAtNanos >= openNanos) {
+            state = State.HALF_OPEN;
+            trialInFlight = false;
+        }
+        if (state == State.CLOSED) {
+            return true;
+        }
+        if (state == State.HALF_OPEN && !trialInFlight) {
+            trialInFlight = true;
+            return true;
+        }
+        return false;
+    }
+
+    synchronized void onSuccess() {
+        consecutiveFailures = 0;
+        trialInFlight = false;
+        state = State.CLOSED;
+    }
+
+    /**
+     * @return Whether this failure opened the breaker
+     */
+    synchronized boolean onFailure(long nowNanos) {
+        consecutiveFailures++;
+        trialInFlight = false;
+        if (state == State.HALF_OPEN || (state == State.CLOSED && consecutiveFailures >= failureThreshold)) {
+            state = State.OPEN;
+            openedAtNanos = nowNanos;
+            return true;
+        }
+        return false;
+    }
+
+    synchronized State state() {
+        return state;
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.bookverseserver.service.http;
+
+import com.example.bookverseserver.configuration.HttpClientProperties;
+import com.example.bookverseserver.dto.response.Admin.UpstreamStatsResponse;
+import com.example.bookverseserver.util.LatencyHistogram;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-host guard and counters: a connection slot limit, a circuit breaker and
+ * call metrics. Shared by every client that calls the host.
+ */
+final class UpstreamHost {
+
+    final String host;
+    final String upstream;
+    final CircuitBreaker breaker;
+
+    private final int maxConnections;
+    private final long acquireTimeoutMillis;
+    private final Semaphore slots;
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder serverErrors = new LongAdder();
+    private final LongAdder clientErrors = new LongAdder();
+    private final LongAdder ioErrors = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LatencyHistogram latency = new LatencyHistogram();
+
+    UpstreamHost(String host, String upstream, HttpClientProperties.Upstream settings) {
+        this.host = host;
+        this.upstream = upstream;
+        this.maxConnections = Math.max(1, settings.getMaxConnectionsPerHost());
+        this.acquireTimeoutMillis = settings.getAcquireTimeoutMillis();
+        this.slots = new Semaphore(maxConnections);
+        this.breaker = new CircuitBreaker(settings.getFailureThreshold(),
+                TimeUnit.MILLISECONDS.toNanos(settings.getOpenMillis()));
+    }
+
+    boolean acquireSlot() throws InterruptedException {
+        return slots.tryAcquire(acquireTimeoutMillis, TimeUnit.MILLISECONDS);
+    }
+
+    void releaseSlot() {
+        slots.release();
+    }
+
+    long acquireTimeoutMillis() {
+        return acquireTimeoutMillis;
+    }
+
+    void recordRejected() {
+        rejected.increment();
+    }
+
+    void recordResponse(int status, long elapsedNanos) {
+        requests.increment();
+        latency.record(elapsedNanos / 1_000_000);
+        if (status >= 500) {
+            serverErrors.increment();
+        } else if (status >= 400) {
+            clientErrors.increment();
+        }
+    }
+
+    void recordIoError(long elapsedNanos) {
+        requests.increment();
+        ioErrors.increment();
+        latency.record(elapsedNanos / 1_000_000);
+    }
+
+    UpstreamStatsResponse.HostStats snapshot() {
+        LatencyHistogram.Snapshot snapshot = latency.snapshot();
+        return UpstreamStatsResponse.HostStats.builder()
+                .host(host)
+                .upstream(upstream)
+                .circuitState(breaker.state().name())
+                .requests(requests.sum())
+                .serverErrors(serverErrors.sum())
+                .clientErrors(clientErrors.sum())
+                .ioErrors(ioErrors.sum())
+                .rejected(rejected.sum())
+                .inFlight(maxConnections - slots.availablePermits())
+                .meanMillis(snapshot.meanMillis())
+                .p50Millis(snapshot.percentileMillis(0.50))
+                .p95Millis(snapshot.percentileMillis(0.95))
+                .p99Millis(snapshot.percentileMillis(0.99))
+                .latency(snapshot.buckets())
+                .build();
+    }
+}
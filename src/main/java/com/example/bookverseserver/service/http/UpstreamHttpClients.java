@@ -0,0 +1,78 @@
+package com.example.bookverseserver.service.http;
+
+import com.example.bookverseserver.configuration.HttpClientProperties;
+import com.example.bookverseserver.dto.response.Admin.UpstreamStatsResponse;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The outbound HTTP layer: one pooled client per upstream (GHN, TextBee, AI providers,
+ * Open Library, Google Books...), configured under {@code app.http}.
+ *
+ * Each client is a JDK {@link HttpClient}, which keeps connections alive and reuses
+ * them per host, with the upstream's connect and read timeouts. Calls go through
+ * an {@link UpstreamInterceptor}: a per-host limit on connections in use, a per-host
+ * circuit breaker, gzip, and latency/error counters reported by {@link #stats()}.
+ * Host state is shared by all clients; a host takes the limits of the first
+ * upstream that calls it.
+ */
+@Component
+public class UpstreamHttpClients {
+
+    private final HttpClientProperties properties;
+    private final RestTemplateBuilder restTemplateBuilder;
+    private final Map<String, RestTemplate> clients = new ConcurrentHashMap<>();
+    private final Map<String, UpstreamHost> hosts = new ConcurrentHashMap<>();
+
+    public UpstreamHttpClients(HttpClientProperties properties, RestTemplateBuilder restTemplateBuilder) {
+        this.properties = properties;
+        this.restTemplateBuilder = restTemplateBuilder;
+    }
+
+    /**
+     * The shared client of {@code upstream}, created on first use.
+     */
+    public RestTemplate restTemplate(String upstream) {
+        return clients.computeIfAbsent(upstream, this::create);
+    }
+
+    public UpstreamStatsResponse stats() {
+        List<UpstreamStatsResponse.HostStats> stats = hosts.values().stream()
+                .map(UpstreamHost::snapshot)
+                .sorted(Comparator.comparing(UpstreamStatsResponse.HostStats::getHost))
+                .toList();
+        return UpstreamStatsResponse.builder().hosts(stats).build();
+    }
+
+    private RestTemplate create(String upstream) {
+        HttpClientProperties.Upstream settings = properties.resolve(upstream);
+        HttpClient httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofMillis(settings.getConnectTimeoutMillis()))
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .build();
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+        requestFactory.setReadTimeout(Duration.ofMillis(settings.getReadTimeoutMillis()));
+
+        return restTemplateBuilder
+                .requestFactory(() -> requestFactory)
+                .additionalInterceptors(new UpstreamInterceptor(
+                        uri -> host(uri, upstream, settings), properties.getUserAgent(), settings.getGzip()))
+                .build();
+    }
+
+    private UpstreamHost host(URI uri, String upstream, HttpClientProperties.Upstream settings) {
+        String host = uri.getHost() == null ? "unknown" : uri.getHost().toLowerCase(Locale.ROOT);
+        return hosts.computeIfAbsent(host, h -> new UpstreamHost(h, upstream, settings));
+    }
+}
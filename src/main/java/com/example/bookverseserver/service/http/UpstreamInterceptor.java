@@ -0,0 +1,211 @@
+package com.example.bookverseserver.service.http;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.PushbackInputStream;
+import java.net.URI;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Guards every call of one client: waits for a connection slot on the target host,
+ * checks its circuit breaker, records the outcome, and decompresses gzip responses.
+ *
+ * The slot is held until the response is closed, so a streamed body counts against
+ * the host's limit for as long as it is being read. Rejected calls fail with an
+ * {@link IOException}, which RestTemplate surfaces as a ResourceAccessException,
+ * like any other connection failure.
+ */
+@Slf4j
+class UpstreamInterceptor implements ClientHttpRequestInterceptor {
+
+    private final Function<URI, UpstreamHost> hosts;
+    private final String userAgent;
+    private final boolean gzip;
+
+    UpstreamInterceptor(Function<URI, UpstreamHost> hosts, String userAgent, boolean gzip) {
+        this.hosts = hosts;
+        this.userAgent = userAgent;
+        this.gzip = gzip;
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body,
+                                        ClientHttpRequestExecution execution) throws IOException {
+        HttpHeaders headers = request.getHeaders();
+        if (userAgent != null && !headers.containsKey(HttpHeaders.USER_AGENT)) {
+            headers.set(HttpHeaders.USER_AGENT, userAgent);
+        }
+        if (gzip && !headers.containsKey(HttpHeaders.ACCEPT_ENCODING)) {
+            headers.set(HttpHeaders.ACCEPT_ENCODING, "gzip");
+        }
+
+        UpstreamHost host = hosts.apply(request.getURI());
+        acquireSlot(host);
+        if (!host.breaker.tryAcquire(System.nanoTime())) {
+            host.releaseSlot();
+            host.recordRejected();
+            throw new IOException("Circuit open for " + host.host);
+        }
+
+        long start = System.nanoTime();
+        ClientHttpResponse response = null;
+        int status;
+        try {
+            response = execution.execute(request, body);
+            status = response.getStatusCode().value();
+        } catch (IOException | RuntimeException e) {
+            host.recordIoError(System.nanoTime() - start);
+            onFailure(host);
+            if (response != null) {
+                response.close();
+            }
+            host.releaseSlot();
+            throw e;
+        }
+
+        host.recordResponse(status, System.nanoTime() - start);
+        if (status >= 500) {
+            onFailure(host);
+        } else {
+            host.breaker.onSuccess();
+        }
+        return new GuardedResponse(response, host);
+    }
+
+    private static void acquireSlot(UpstreamHost host) throws IOException {
+        boolean acquired;
+        try {
+            acquired = host.acquireSlot();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted waiting for a connection to " + host.host);
+        }
+        if (!acquired) {
+            host.recordRejected();
+            throw new IOException("No free connection to " + host.host + " within " + host.acquireTimeoutMillis() + "ms");
+        }
+    }
+
+    private static void onFailure(UpstreamHost host) {
+        if (host.breaker.onFailure(System.nanoTime())) {
+            log.warn("Circuit opened for upstream host {}", host.host);
+        }
+    }
+
+    /**
+     * Releases the host slot on close and hides gzip content encoding from the caller.
+     */
+    private static final class GuardedResponse implements ClientHttpResponse {
+
+        private final ClientHttpResponse delegate;
+        private final UpstreamHost host;
+        private final boolean gzipped;
+        private final AtomicBoolean closed = new AtomicBoolean();
+        private HttpHeaders headers;
+        private InputStream body;
+
+        GuardedResponse(ClientHttpResponse delegate, UpstreamHost host) {
+            this.delegate = delegate;
+            this.host = host;
+            this.gzipped = "gzip".equalsIgnoreCase(delegate.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        }
+
+        @Override
+        public HttpStatusCode getStatusCode() throws IOException {
+            return delegate.getStatusCode();
+        }
+
+        @Override
+        public String getStatusText() throws IOException {
+            return delegate.getStatusText();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            if (!gzipped) {
+                return delegate.getHeaders();
+            }
+            if (headers == null) {
+                // Length and encoding describe the compressed bytes, not what the caller reads
+                headers = new HttpHeaders();
+                headers.putAll(delegate.getHeaders());
+                headers.remove(HttpHeaders.CONTENT_ENCODING);
+                headers.remove(HttpHeaders.CONTENT_LENGTH);
+            }
+            return headers;
+        }
+
+        @Override
+        public InputStream getBody() throws IOException {
+            if (!gzipped) {
+                return delegate.getBody();
+            }
+            if (body == null) {
+                body = new GunzipInputStream(delegate.getBody());
+            }
+            return body;
+        }
+
+        @Override
+        public void close() {
+            if (closed.compareAndSet(false, true)) {
+                try {
+                    delegate.close();
+                } finally {
+                    host.releaseSlot();
+                }
+            }
+        }
+    }
+
+    /**
+     * Inflates a gzip body, reading its header on first read so that an empty body
+     * (204, HEAD) reads as empty instead of failing.
+     */
+    private static final class GunzipInputStream extends InputStream {
+
+        private final InputStream raw;
+        private InputStream inflated;
+
+        GunzipInputStream(InputStream raw) {
+            this.raw = raw;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] one = new byte[1];
+            return read(one, 0, 1) < 0 ? -1 : one[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            if (inflated == null) {
+                PushbackInputStream pushback = new PushbackInputStream(raw, 1);
+                int first = pushback.read();
+                if (first < 0) {
+                    inflated = InputStream.nullInputStream();
+                } else {
+                    pushback.unread(first);
+                    inflated = new GZIPInputStream(pushback);
+                }
+            }
+            return inflated.read(buffer, offset, length);
+        }
+
+        @Override
+        public void close() throws IOException {
+            raw.close();
+        }
+    }
+}
@@ -0,0 +1,222 @@
+package com.example.bookverseserver.service.importjob;
+
+import com.example.bookverseserver.dto.response.External.RichBookData;
+import com.example.bookverseserver.enums.ImportJobType;
+import com.example.bookverseserver.service.BookEnrichmentService;
+import com.example.bookverseserver.service.BookMetaAssembler;
+import com.example.bookverseserver.service.CategoryService;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+
+import static lombok.AccessLevel.PRIVATE;
+
+/**
+ * Catalog-wide import jobs over books with an ISBN, driven by {@link BookEnrichmentService}:
+ *
+ * - ISBN_ENRICHMENT fills in what books are missing (description, publisher, pages,
+ *   publication date, cover) from Open Library and Google Books, never overwriting
+ *   what is there.
+ * - RECATEGORIZATION replaces each book's categories with the canonical ones mapped
+ *   from its external subjects, and moves the book's listings to the new primary
+ *   category, e.g. after the category mapping changes.
+ *
+ * Books are read in id order with keyset pagination; each page's lookups run
+ * concurrently (at most {@code metadata-concurrency} at a time) and each book is
+ * written in its own short transaction.
+ */
+@Service
+@FieldDefaults(level = PRIVATE)
+@Slf4j
+public class CatalogBackfillService {
+
+    static final String INCOMPLETE_BOOKS = """
+            FROM book_meta b
+            WHERE b.id > ? AND b.isbn IS NOT NULL
+              AND (b.description IS NULL OR b.publisher IS NULL OR b.pages IS NULL OR b.published_date IS NULL
+                   OR NOT EXISTS (SELECT 1 FROM book_image i WHERE i.book_id = b.id))
+            """;
+
+    static final String BOOKS_WITH_ISBN = "FROM book_meta b WHERE b.id > ? AND b.isbn IS NOT NULL ";
+
+    static final String FILL_BOOK_SQL = """
+            UPDATE book_meta SET
+                description = COALESCE(description, ?),
+                publisher = COALESCE(publisher, ?),
+                pages = COALESCE(pages, ?),
+                published_date = COALESCE(published_date, ?),
+                updated_at = now()
+            WHERE id = ?
+            """;
+
+    static final String INSERT_COVER_SQL = """
+            INSERT INTO book_image (book_id, url, alt_text, is_cover, position, created_at)
+            SELECT ?, ?, ?, true, 0, now()
+            WHERE NOT EXISTS (SELECT 1 FROM book_image WHERE book_id = ?)
+            """;
+
+    static final String SELECT_CATEGORIES_SQL = "SELECT category_id FROM book_category WHERE book_id = ?";
+    static final String DELETE_CATEGORIES_SQL = "DELETE FROM book_category WHERE book_id = ?";
+    static final String INSERT_CATEGORY_SQL = "INSERT INTO book_category (book_id, category_id) VALUES (?, ?)";
+    static final String UPDATE_LISTINGS_SQL = "UPDATE listing SET category_id = ?, updated_at = now() WHERE book_id = ?";
+
+    final BookEnrichmentService bookEnrichmentService;
+    final CategoryService categoryService;
+    final JdbcTemplate jdbcTemplate;
+    final TransactionTemplate writeTransaction;
+    final Executor executor;
+    final int pageSize;
+    final int metadataConcurrency;
+
+    public CatalogBackfillService(BookEnrichmentService bookEnrichmentService,
+                                  CategoryService categoryService,
+                                  JdbcTemplate jdbcTemplate,
+                                  PlatformTransactionManager transactionManager,
+                                  @Qualifier("enrichmentExecutor") Executor executor,
+                                  @Value("${app.import.chunk-size:100}") int pageSize,
+                                  @Value("${app.import.metadata-concurrency:4}") int metadataConcurrency) {
+        this.bookEnrichmentService = bookEnrichmentService;
+        this.categoryService = categoryService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        this.executor = executor;
+        this.pageSize = Math.max(1, pageSize);
+        this.metadataConcurrency = Math.max(1, metadataConcurrency);
+    }
+
+    /**
+     * Run an ISBN_ENRICHMENT or RECATEGORIZATION job to the end.
+     */
+    public void run(ImportJobType type, ImportJobTracker tracker) {
+        String books = switch (type) {
+            case ISBN_ENRICHMENT -> INCOMPLETE_BOOKS;
+            case RECATEGORIZATION -> BOOKS_WITH_ISBN;
+            default -> throw new IllegalArgumentException("Not a catalog job: " + type);
+        };
+        tracker.total(jdbcTemplate.queryForObject("SELECT COUNT(*) " + books, Integer.class, 0L));
+        tracker.phase("SCANNING");
+
+        long afterId = 0;
+        int index = 0;
+        List<Book> page;
+        while (!(page = jdbcTemplate.query("SELECT b.id, b.isbn " + books + " ORDER BY b.id LIMIT ?",
+                (rs, rowNum) -> new Book(rs.getLong("id"), rs.getString("isbn")), afterId, pageSize)).isEmpty()) {
+            List<RichBookData> found = lookup(page);
+            for (int i = 0; i < page.size(); i++) {
+                Book book = page.get(i);
+                RichBookData data = found.get(i);
+                try {
+                    if (data == null) {
+                        tracker.skipped(index, book.isbn(), "No data found in any source");
+                    } else if (type == ImportJobType.ISBN_ENRICHMENT) {
+                        fill(book, data);
+                        tracker.succeeded(index, book.isbn(), book.id(), null);
+                    } else {
+                        recategorize(book, data, index, tracker);
+                    }
+                } catch (RuntimeException e) {
+                    log.warn("{} failed for book {} (ISBN {}): {}", type, book.id(), book.isbn(), e.getMessage());
+                    tracker.failed(index, book.isbn(), "Unexpected error: " + e.getMessage());
+                }
+                index++;
+            }
+            tracker.flush();
+            afterId = page.get(page.size() - 1).id();
+        }
+    }
+
+    /**
+     * Enriched data of each book, in order; null where no source had the ISBN.
+     */
+    private List<RichBookData> lookup(List<Book> books) {
+        Semaphore permits = new Semaphore(metadataConcurrency);
+        List<CompletableFuture<RichBookData>> lookups = new ArrayList<>(books.size());
+        for (Book book : books) {
+            lookups.add(CompletableFuture.supplyAsync(() -> enrich(book.isbn(), permits), executor));
+        }
+        return lookups.stream().map(CompletableFuture::join).toList();
+    }
+
+    private RichBookData enrich(String isbn, Semaphore permits) {
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+        try {
+            BookEnrichmentService.EnrichedBookResult result = bookEnrichmentService.fetchEnrichedBookData(isbn);
+            return result.isFound() ? result.getData() : null;
+        } catch (RuntimeException e) {
+            log.warn("Enrichment failed for ISBN {}: {}", isbn, e.getMessage());
+            return null;
+        } finally {
+            permits.release();
+        }
+    }
+
+    private void fill(Book book, RichBookData data) {
+        LocalDate publishedDate = BookMetaAssembler.parsePublishedDate(data.getPublishedDate());
+        writeTransaction.executeWithoutResult(status -> {
+            jdbcTemplate.update(FILL_BOOK_SQL,
+                    data.getDescription(),
+                    data.getPublisher(),
+                    data.getNumberOfPages() > 0 ? data.getNumberOfPages() : null,
+                    publishedDate != null ? Date.valueOf(publishedDate) : null,
+                    book.id());
+            if (data.getCoverUrl() != null && !data.getCoverUrl().isBlank()) {
+                jdbcTemplate.update(INSERT_COVER_SQL, book.id(), data.getCoverUrl(), data.getTitle() + " cover", book.id());
+            }
+        });
+    }
+
+    private void recategorize(Book book, RichBookData data, int index, ImportJobTracker tracker) {
+        // Enriched categories are already canonical slugs
+        List<String> slugs = data.getCategories() != null ? data.getCategories() : List.of();
+        if (slugs.isEmpty()) {
+            tracker.skipped(index, book.isbn(), "No subjects map to a category");
+            return;
+        }
+        Map<String, String> namesBySlug = new LinkedHashMap<>();
+        for (String slug : slugs) {
+            namesBySlug.put(slug, BookMetaAssembler.canonicalCategoryName(slug));
+        }
+        // Best match first, like the deferred enrichment: the first id is the listings' category
+        List<Long> ids = categoryService.getOrCreateCategoryIds(namesBySlug).values().stream()
+                .distinct()
+                .toList();
+        List<Long> current = jdbcTemplate.queryForList(SELECT_CATEGORIES_SQL, Long.class, book.id());
+        if (new HashSet<>(current).equals(new HashSet<>(ids))) {
+            tracker.skipped(index, book.isbn(), "Categories unchanged");
+            return;
+        }
+
+        writeTransaction.executeWithoutResult(status -> {
+            jdbcTemplate.update(DELETE_CATEGORIES_SQL, book.id());
+            jdbcTemplate.batchUpdate(INSERT_CATEGORY_SQL, ids.stream()
+                    .map(id -> new Object[] {book.id(), id})
+                    .toList());
+            // Listings follow the book's primary category, as when they were created
+            jdbcTemplate.update(UPDATE_LISTINGS_SQL, ids.get(0), book.id());
+        });
+        tracker.succeeded(index, book.isbn(), book.id(), String.join(", ", slugs));
+    }
+
+    private record Book(long id, String isbn) {}
+}
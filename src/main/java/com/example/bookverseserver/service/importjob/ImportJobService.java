@@ -0,0 +1,326 @@
+package com.example.bookverseserver.service.importjob;
+
+import com.example.bookverseserver.dto.request.Product.BulkListingItem;
+import com.example.bookverseserver.dto.response.PagedResponse;
+import com.example.bookverseserver.dto.response.Product.BulkUploadResponse;
+import com.example.bookverseserver.dto.response.Product.ImportJobItemResponse;
+import com.example.bookverseserver.dto.response.Product.ImportJobResponse;
+import com.example.bookverseserver.entity.Product.ImportJob;
+import com.example.bookverseserver.entity.Product.ImportJobItem;
+import com.example.bookverseserver.enums.ImportItemStatus;
+import com.example.bookverseserver.enums.ImportJobStatus;
+import com.example.bookverseserver.enums.ImportJobType;
+import com.example.bookverseserver.exception.AppException;
+import com.example.bookverseserver.exception.ErrorCode;
+import com.example.bookverseserver.repository.ImportJobItemRepository;
+import com.example.bookverseserver.repository.ImportJobRepository;
+import com.example.bookverseserver.service.ListingImportService;
+import jakarta.annotation.PostConstruct;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
+
+import static lombok.AccessLevel.PRIVATE;
+
+/**
+ * Import jobs: bulk listing uploads, ISBN enrichment backfills, re-categorization runs
+ * and Open Library dump loads.
+ *
+ * A submitted job is stored as QUEUED and its id returned at once; a worker of the
+ * bounded {@code importJobExecutor} runs it, recording progress and the result of
+ * every row in the {@code import_job} / {@code import_job_item} tables through an
+ * {@link ImportJobTracker}. When the queue is full, submissions are refused rather
+ * than piling up. Job inputs live in memory only, so a job dies with the instance
+ * that queued it. Every instance heartbeats its own QUEUED and RUNNING jobs and fails
+ * other jobs whose heartbeat went stale (at startup and on every heartbeat), so a
+ * restart or a lost replica is noticed while jobs of live replicas keep running. A
+ * dump load can be resumed from the source offset it reached.
+ */
+@Service
+@FieldDefaults(level = PRIVATE)
+@Slf4j
+public class ImportJobService {
+
+    static final String INTERRUPTED = "Interrupted by a server restart";
+
+    static final String HEARTBEAT_SQL = """
+            UPDATE import_job SET heartbeat_at = now()
+            WHERE worker_id = ? AND status IN ('QUEUED', 'RUNNING')
+            """;
+
+    static final String CLAIM_RESUME_SQL = "UPDATE import_job SET status = 'RESUMED' WHERE id = ? AND status = 'FAILED'";
+
+    static final String RELEASE_RESUME_SQL = "UPDATE import_job SET status = 'FAILED' WHERE id = ? AND status = 'RESUMED'";
+
+    static final String HEARTBEAT_JOB_SQL = "UPDATE import_job SET heartbeat_at = now() WHERE id = ?";
+
+    final ImportJobRepository importJobRepository;
+    final ImportJobItemRepository importJobItemRepository;
+    final ListingImportService listingImportService;
+    final CatalogBackfillService catalogBackfillService;
+    final OpenLibraryDumpImporter openLibraryDumpImporter;
+    final JdbcTemplate jdbcTemplate;
+    final Executor executor;
+    final int syncMaxRows;
+    final long staleAfterSeconds;
+    final String workerId = UUID.randomUUID().toString();
+
+    public ImportJobService(ImportJobRepository importJobRepository,
+                            ImportJobItemRepository importJobItemRepository,
+                            ListingImportService listingImportService,
+                            CatalogBackfillService catalogBackfillService,
+                            OpenLibraryDumpImporter openLibraryDumpImporter,
+                            JdbcTemplate jdbcTemplate,
+                            @Qualifier("importJobExecutor") Executor executor,
+                            @Value("${app.import.sync-max-rows:100}") int syncMaxRows,
+                            @Value("${app.import.stale-after-seconds:120}") long staleAfterSeconds) {
+        this.importJobRepository = importJobRepository;
+        this.importJobItemRepository = importJobItemRepository;
+        this.listingImportService = listingImportService;
+        this.catalogBackfillService = catalogBackfillService;
+        this.openLibraryDumpImporter = openLibraryDumpImporter;
+        this.jdbcTemplate = jdbcTemplate;
+        this.executor = executor;
+        this.syncMaxRows = syncMaxRows;
+        this.staleAfterSeconds = staleAfterSeconds;
+    }
+
+    @PostConstruct
+    public void failInterruptedJobs() {
+        int failed = importJobRepository.failStale(
+                List.of(ImportJobStatus.QUEUED.name(), ImportJobStatus.RUNNING.name()),
+                staleAfterSeconds, INTERRUPTED, LocalDateTime.now());
+        if (failed > 0) {
+            log.warn("Marked {} import jobs whose instance stopped heartbeating as failed", failed);
+        }
+    }
+
+    /**
+     * Keep this instance's jobs alive, then fail the jobs of instances that are gone.
+     */
+    @Scheduled(fixedDelayString = "${app.import.heartbeat-millis:30000}")
+    public void heartbeat() {
+        jdbcTemplate.update(HEARTBEAT_SQL, workerId);
+        failInterruptedJobs();
+    }
+
+    /**
+     * Import a seller's listings in the background.
+     */
+    public ImportJobResponse submitListings(Long sellerId, List<BulkListingItem> items) {
+        return submit(ImportJobType.BULK_LISTINGS, sellerId,
+                tracker -> listingImportService.importListings(sellerId, items, tracker));
+    }
+
+    /**
+     * Import a seller's listings in the caller's thread, still recorded as a job.
+     * Only small uploads: larger ones would hold the request for minutes and must go
+     * through {@link #submitListings}.
+     */
+    public BulkUploadResponse importListingsNow(Long sellerId, List<BulkListingItem> items) {
+        if (items.size() > syncMaxRows) {
+            throw new AppException(ErrorCode.BULK_UPLOAD_TOO_LARGE_FOR_SYNC);
+        }
+        ImportJobTracker tracker = create(ImportJobType.BULK_LISTINGS, sellerId, null, null);
+        BulkUploadResponse[] response = new BulkUploadResponse[1];
+        RuntimeException failure = execute(ImportJobType.BULK_LISTINGS, tracker,
+                t -> response[0] = listingImportService.importListings(sellerId, items, t));
+        if (failure != null) {
+            throw failure;
+        }
+        return response[0];
+    }
+
+    /**
+     * Start an ISBN_ENRICHMENT or RECATEGORIZATION run over the catalog.
+     */
+    public ImportJobResponse submitCatalogJob(ImportJobType type, Long adminId) {
+        if (type != ImportJobType.ISBN_ENRICHMENT && type != ImportJobType.RECATEGORIZATION) {
+            throw new AppException(ErrorCode.INVALID_REQUEST);
+        }
+        return submit(type, adminId, tracker -> catalogBackfillService.run(type, tracker));
+    }
+
+    /**
+     * Load an Open Library dump file from the dump directory.
+     *
+     * @param offset Uncompressed bytes of the file to skip, 0 to load all of it
+     */
+    public ImportJobResponse submitDumpImport(String source, long offset, Long adminId) {
+        if (offset < 0) {
+            throw new AppException(ErrorCode.INVALID_REQUEST);
+        }
+        openLibraryDumpImporter.resolve(source);    // refuse a missing file now, not in the job
+        return submit(ImportJobType.OPEN_LIBRARY_DUMP, adminId, source, offset,
+                tracker -> openLibraryDumpImporter.run(source, offset, tracker));
+    }
+
+    /**
+     * Load the rest of the dump of a failed OPEN_LIBRARY_DUMP job, from the offset it reached.
+     * The failed job is claimed (FAILED -> RESUMED) first, so it is resumed only once even
+     * if the request is sent twice.
+     */
+    public ImportJobResponse resumeDumpImport(String jobId, Long adminId) {
+        ImportJob job = find(jobId, adminId, true);
+        if (job.getType() != ImportJobType.OPEN_LIBRARY_DUMP || job.getStatus() != ImportJobStatus.FAILED
+                || jdbcTemplate.update(CLAIM_RESUME_SQL, jobId) != 1) {
+            throw new AppException(ErrorCode.INVALID_REQUEST);
+        }
+        try {
+            return submitDumpImport(job.getSource(), job.getSourceOffset() != null ? job.getSourceOffset() : 0, adminId);
+        } catch (RuntimeException e) {
+            // Not resumed after all (e.g. queue full): it can be resumed again later
+            jdbcTemplate.update(RELEASE_RESUME_SQL, jobId);
+            throw e;
+        }
+    }
+
+    /**
+     * @param admin Admins can see every job, other users only their own
+     */
+    public ImportJobResponse getJob(String jobId, Long userId, boolean admin) {
+        return toResponse(find(jobId, userId, admin));
+    }
+
+    /**
+     * @return The user's 20 most recent jobs, newest first
+     */
+    public List<ImportJobResponse> getJobs(Long userId) {
+        return importJobRepository.findTop20ByOwnerIdOrderByCreatedAtDesc(userId).stream()
+                .map(ImportJobService::toResponse)
+                .toList();
+    }
+
+    /**
+     * Per-row results of a job in row order, optionally only those with {@code status}.
+     *
+     * @param page 0-indexed
+     */
+    public PagedResponse<ImportJobItemResponse> getItems(String jobId, Long userId, boolean admin,
+                                                         ImportItemStatus status, int page, int limit) {
+        find(jobId, userId, admin);
+        PageRequest pageable = PageRequest.of(page, limit);
+        Page<ImportJobItem> items = status == null
+                ? importJobItemRepository.findByJobIdOrderByItemIndex(jobId, pageable)
+                : importJobItemRepository.findByJobIdAndStatusOrderByItemIndex(jobId, status, pageable);
+        return PagedResponse.of(items.getContent().stream().map(ImportJobService::toResponse).toList(),
+                page, limit, items.getTotalElements(), items.getTotalPages());
+    }
+
+    private ImportJobResponse submit(ImportJobType type, Long ownerId, Consumer<ImportJobTracker> work) {
+        return submit(type, ownerId, null, null, work);
+    }
+
+    private ImportJobResponse submit(ImportJobType type, Long ownerId, String source, Long sourceOffset,
+                                     Consumer<ImportJobTracker> work) {
+        ImportJobTracker tracker = create(type, ownerId, source, sourceOffset);
+        try {
+            executor.execute(() -> execute(type, tracker, work));
+        } catch (RejectedExecutionException e) {
+            tracker.finish(ImportJobStatus.FAILED, "Import queue full");
+            throw new AppException(ErrorCode.IMPORT_QUEUE_FULL);
+        }
+        log.info("{} job {} queued for user {}", type, tracker.getJobId(), ownerId);
+        return toResponse(importJobRepository.findById(tracker.getJobId()).orElseThrow());
+    }
+
+    private ImportJobTracker create(ImportJobType type, Long ownerId, String source, Long sourceOffset) {
+        ImportJob job = importJobRepository.save(ImportJob.builder()
+                .id(UUID.randomUUID().toString())
+                .type(type)
+                .status(ImportJobStatus.QUEUED)
+                .ownerId(ownerId)
+                .source(source)
+                .sourceOffset(sourceOffset)
+                .workerId(workerId)
+                .build());
+        jdbcTemplate.update(HEARTBEAT_JOB_SQL, job.getId());
+        return new ImportJobTracker(job.getId(), jdbcTemplate);
+    }
+
+    /**
+     * Run the job's work and record how it ended.
+     *
+     * @return What made the job fail, null if it completed
+     */
+    private RuntimeException execute(ImportJobType type, ImportJobTracker tracker, Consumer<ImportJobTracker> work) {
+        try {
+            tracker.start();
+            work.accept(tracker);
+            tracker.finish(ImportJobStatus.COMPLETED, null);
+            log.info("✅ {} job {} completed", type, tracker.getJobId());
+            return null;
+        } catch (RuntimeException e) {
+            log.error("❌ {} job {} failed: {}", type, tracker.getJobId(), e.getMessage(), e);
+            try {
+                tracker.flush();
+            } catch (RuntimeException flushError) {
+                log.warn("Could not save the last results of job {}: {}", tracker.getJobId(), flushError.getMessage());
+            }
+            tracker.finish(ImportJobStatus.FAILED, e.getMessage());
+            return e;
+        }
+    }
+
+    private ImportJob find(String jobId, Long userId, boolean admin) {
+        return importJobRepository.findById(jobId)
+                .filter(job -> admin || job.getOwnerId().equals(userId))
+                .orElseThrow(() -> new AppException(ErrorCode.IMPORT_JOB_NOT_FOUND));
+    }
+
+    private static ImportJobResponse toResponse(ImportJob job) {
+        return ImportJobResponse.builder()
+                .jobId(job.getId())
+                .type(job.getType())
+                .status(job.getStatus())
+                .phase(job.getPhase())
+                .totalItems(job.getTotalItems())
+                .processedItems(job.getProcessedItems())
+                .succeededItems(job.getSucceededItems())
+                .failedItems(job.getFailedItems())
+                .error(job.getError())
+                .source(job.getSource())
+                .sourceOffset(job.getSourceOffset())
+                .itemsPerSecond(itemsPerSecond(job))
+                .createdAt(job.getCreatedAt())
+                .startedAt(job.getStartedAt())
+                .finishedAt(job.getFinishedAt())
+                .build();
+    }
+
+    /**
+     * Processed items per second since the job started, until it finished; null before it starts.
+     */
+    static Double itemsPerSecond(ImportJob job) {
+        if (job.getStartedAt() == null) {
+            return null;
+        }
+        LocalDateTime end = job.getFinishedAt() != null ? job.getFinishedAt() : LocalDateTime.now();
+        double seconds = Duration.between(job.getStartedAt(), end).toMillis() / 1000.0;
+        return seconds > 0 ? Math.round(job.getProcessedItems() / seconds * 10) / 10.0 : null;
+    }
+
+    private static ImportJobItemResponse toResponse(ImportJobItem item) {
+        return ImportJobItemResponse.builder()
+                .rowNumber(item.getItemIndex() + 1)
+                .key(item.getItemKey())
+                .status(item.getStatus())
+                .referenceId(item.getReferenceId())
+                .message(item.getMessage())
+                .build();
+    }
+}
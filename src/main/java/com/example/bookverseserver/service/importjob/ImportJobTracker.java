@@ -0,0 +1,128 @@
+package com.example.bookverseserver.service.importjob;
+
+import com.example.bookverseserver.enums.ImportItemStatus;
+import com.example.bookverseserver.enums.ImportJobStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Records the progress of one import job in the job store.
+ *
+ * Item results are buffered and written with one JDBC batch per {@link #flush()},
+ * together with the job's counters, so a worker calls it once per chunk rather than
+ * once per row. Each write also refreshes the job's heartbeat. Used by the job's
+ * worker thread only.
+ */
+public class ImportJobTracker {
+
+    static final String INSERT_ITEM_SQL = """
+            INSERT INTO import_job_item (job_id, item_index, item_key, status, reference_id, message)
+            VALUES (?, ?, ?, ?, ?, ?)
+            """;
+
+    static final String UPDATE_PROGRESS_SQL = """
+            UPDATE import_job
+            SET phase = ?, total_items = ?, processed_items = ?, succeeded_items = ?, failed_items = ?,
+                heartbeat_at = now()
+            WHERE id = ?
+            """;
+
+    static final String CHECKPOINT_SQL = "UPDATE import_job SET source_offset = ?, heartbeat_at = now() WHERE id = ?";
+
+    static final String START_SQL = "UPDATE import_job SET status = ?, started_at = ?, heartbeat_at = now() WHERE id = ?";
+
+    static final String FINISH_SQL = "UPDATE import_job SET status = ?, phase = NULL, error = ?, finished_at = ? WHERE id = ?";
+
+    private final String jobId;
+    private final JdbcTemplate jdbcTemplate;
+    private final List<Object[]> pending = new ArrayList<>();
+
+    private String phase;
+    private int total;
+    private int processed;
+    private int succeeded;
+    private int failed;
+
+    ImportJobTracker(String jobId, JdbcTemplate jdbcTemplate) {
+        this.jobId = jobId;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public String getJobId() {
+        return jobId;
+    }
+
+    /**
+     * Set what the job is doing now; written immediately.
+     */
+    public void phase(String phase) {
+        this.phase = phase;
+        flush();
+    }
+
+    public void total(int total) {
+        this.total = total;
+    }
+
+    public void succeeded(int index, String key, Long referenceId, String message) {
+        succeeded++;
+        record(index, key, ImportItemStatus.SUCCEEDED, referenceId, message);
+    }
+
+    public void failed(int index, String key, String message) {
+        failed++;
+        record(index, key, ImportItemStatus.FAILED, null, message);
+    }
+
+    public void skipped(int index, String key, String message) {
+        record(index, key, ImportItemStatus.SKIPPED, null, message);
+    }
+
+    /**
+     * Count items without recording each one, for jobs with too many items to list.
+     */
+    public void counted(int succeeded, int skipped) {
+        this.processed += succeeded + skipped;
+        this.succeeded += succeeded;
+    }
+
+    /**
+     * Write the buffered item results and the counters.
+     */
+    public void flush() {
+        if (!pending.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_ITEM_SQL, List.copyOf(pending));
+            pending.clear();
+        }
+        jdbcTemplate.update(UPDATE_PROGRESS_SQL, phase, total, processed, succeeded, failed, jobId);
+    }
+
+    /**
+     * Flush, then record that the job's source has been consumed up to {@code offset}.
+     */
+    public void checkpoint(long offset) {
+        flush();
+        jdbcTemplate.update(CHECKPOINT_SQL, offset, jobId);
+    }
+
+    void start() {
+        jdbcTemplate.update(START_SQL, ImportJobStatus.RUNNING.name(), Timestamp.valueOf(LocalDateTime.now()), jobId);
+    }
+
+    void finish(ImportJobStatus status, String error) {
+        jdbcTemplate.update(FINISH_SQL, status.name(), error, Timestamp.valueOf(LocalDateTime.now()), jobId);
+    }
+
+    private void record(int index, String key, ImportItemStatus status, Long referenceId, String message) {
+        processed++;
+        pending.add(new Object[] {jobId, index, truncate(key, 255), status.name(), referenceId, truncate(message, 500)});
+    }
+
+    private static String truncate(String value, int max) {
+        return value != null && value.length() > max ? value.substring(0, max) : value;
+    }
+}
@@ -0,0 +1,692 @@
+package com.example.bookverseserver.service.importjob;
+
+import com.example.bookverseserver.exception.AppException;
+import com.example.bookverseserver.exception.ErrorCode;
+import com.example.bookverseserver.service.AuthorService;
+import com.example.bookverseserver.service.BookMetaAssembler;
+import com.example.bookverseserver.service.CategoryService;
+import com.example.bookverseserver.service.TagService;
+import com.example.bookverseserver.util.DataCleaningUtils;
+import com.example.bookverseserver.util.ExternalCategoryMapper;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
+
+import static lombok.AccessLevel.PRIVATE;
+
+/**
+ * OPEN_LIBRARY_DUMP jobs: build the catalog from an Open Library data dump
+ * (https://openlibrary.org/developers/dumps) rather than one ISBN at a time over HTTP.
+ *
+ * The authors, editions or works dump is streamed, gzipped or not, as the dump's
+ * tab-separated lines (the JSON record is the last field) or as plain JSON lines, so
+ * memory holds one batch of records however large the file is. Records are cleaned
+ * with {@link DataCleaningUtils} and mapped with {@link ExternalCategoryMapper}:
+ *
+ * - Authors are added by Open Library id and cleaned name.
+ * - Editions with an ISBN and a Latin-script title become books, linked to their
+ *   authors (by Open Library id, else the name in their "by" statement) and to the
+ *   categories and tags of their subjects. ISBNs already in the catalog are left alone.
+ * - Works fill in the description and subjects of the books of their editions and add
+ *   their categories and tags. Load authors first, then editions, then works.
+ *
+ * Each batch is written in one transaction with multi-row inserts, then the number of
+ * uncompressed bytes consumed is checkpointed on the job. A job started at the offset
+ * of a stopped one decompresses and discards the bytes before it without parsing them.
+ */
+@Service
+@FieldDefaults(level = PRIVATE)
+@Slf4j
+public class OpenLibraryDumpImporter {
+
+    static final int MAX_BATCH_SIZE = 2_000;    // 17 parameters per book, Postgres allows 65535
+    static final long LOG_EVERY_RECORDS = 100_000;
+
+    static final String INSERT_AUTHORS_SQL = "INSERT INTO author (name, openlibrary_id, books_count, created_at, updated_at) VALUES ";
+    static final String AUTHOR_ROW = "(?, ?, 0, now(), now())";
+
+    static final String INSERT_BOOKS_SQL = """
+            INSERT INTO book_meta (title, isbn, description, publisher, published_date, pages, language, total_reviews,
+                first_line, subject_places, subject_people, subject_times, table_of_contents,
+                openlibrary_id, openlibrary_work_id, created_at, updated_at)
+            VALUES\s""";
+    static final String BOOK_ROW = "(?, ?, ?, ?, ?, ?, 'en', 0, ?, ?, ?, ?, ?, ?, ?, now(), now())";
+
+    static final String FILL_FROM_WORK_SQL = """
+            UPDATE book_meta SET
+                description = COALESCE(description, ?),
+                first_line = COALESCE(first_line, ?),
+                subject_places = COALESCE(subject_places, ?),
+                subject_people = COALESCE(subject_people, ?),
+                subject_times = COALESCE(subject_times, ?),
+                updated_at = now()
+            WHERE openlibrary_work_id = ?
+            """;
+
+    static final String INSERT_BOOK_AUTHOR_SQL = "INSERT INTO book_author (book_id, author_id) VALUES (?, ?) ON CONFLICT DO NOTHING";
+    static final String INSERT_BOOK_CATEGORY_SQL = "INSERT INTO book_category (book_id, category_id) VALUES (?, ?) ON CONFLICT DO NOTHING";
+    static final String INSERT_BOOK_TAG_SQL = "INSERT INTO book_tag_mapping (book_id, tag_id) VALUES (?, ?) ON CONFLICT DO NOTHING";
+
+    private static final Pattern YEAR = Pattern.compile("\\b(1[0-9]|20)\\d{2}\\b");
+
+    final AuthorService authorService;
+    final CategoryService categoryService;
+    final TagService tagService;
+    final JdbcTemplate jdbcTemplate;
+    final TransactionTemplate writeTransaction;
+    final Path dumpDirectory;
+    final int batchSize;
+    final ObjectMapper objectMapper = new ObjectMapper();
+
+    public OpenLibraryDumpImporter(AuthorService authorService,
+                                   CategoryService categoryService,
+                                   TagService tagService,
+                                   JdbcTemplate jdbcTemplate,
+                                   PlatformTransactionManager transactionManager,
+                                   @Value("${app.import.dump-dir:dumps}") String dumpDirectory,
+                                   @Value("${app.import.dump-batch-size:1000}") int batchSize) {
+        this.authorService = authorService;
+        this.categoryService = categoryService;
+        this.tagService = tagService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        this.dumpDirectory = Path.of(dumpDirectory).toAbsolutePath().normalize();
+        this.batchSize = Math.max(1, Math.min(batchSize, MAX_BATCH_SIZE));
+    }
+
+    /**
+     * The dump file, which must be in the dump directory.
+     *
+     * @param source Path relative to the dump directory
+     */
+    public Path resolve(String source) {
+        if (source == null || source.isBlank()) {
+            throw new AppException(ErrorCode.INVALID_REQUEST);
+        }
+        Path file = dumpDirectory.resolve(source).normalize();
+        if (!file.startsWith(dumpDirectory)) {
+            throw new AppException(ErrorCode.INVALID_REQUEST);
+        }
+        if (!Files.isRegularFile(file) || !Files.isReadable(file)) {
+            throw new AppException(ErrorCode.IMPORT_SOURCE_NOT_FOUND);
+        }
+        return file;
+    }
+
+    /**
+     * Load a dump file to the end.
+     *
+     * @param offset Uncompressed bytes to skip, e.g. the source offset of a stopped job
+     */
+    public void run(String source, long offset, ImportJobTracker tracker) {
+        Path file = resolve(source);
+        tracker.phase("LOADING");
+        long start = System.nanoTime();
+        long records = 0;
+        int index = 0;
+
+        try (DumpReader reader = DumpReader.open(file, offset)) {
+            Batch batch = new Batch();
+            while (reader.next()) {
+                if (reader.isBlank()) {
+                    continue;
+                }
+                try {
+                    add(batch, reader.json(objectMapper));
+                } catch (JsonProcessingException | RuntimeException e) {
+                    tracker.failed(index, "offset " + reader.lineOffset(), "Unreadable record: " + e.getMessage());
+                }
+                index++;
+                if (batch.size() >= batchSize) {
+                    records += write(batch, tracker, reader.offset());
+                    if (records / LOG_EVERY_RECORDS != (records - batch.size()) / LOG_EVERY_RECORDS) {
+                        logProgress(source, records, reader.offset(), start);
+                    }
+                    batch = new Batch();
+                }
+            }
+            records += write(batch, tracker, reader.offset());
+            logProgress(source, records, reader.offset(), start);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read " + source + ": " + e.getMessage(), e);
+        }
+    }
+
+    private void logProgress(String source, long records, long offset, long startNanos) {
+        double seconds = Math.max(1e-9, (System.nanoTime() - startNanos) / 1e9);
+        log.info("Open Library dump {}: {} records to offset {} ({} records/s)",
+                source, records, offset, Math.round(records / seconds));
+    }
+
+    // ═══════════════════════════════════════════════════════════════════════════
+    // PARSING
+    // ═══════════════════════════════════════════════════════════════════════════
+
+    private void add(Batch batch, JsonNode record) {
+        String type = record.path("type").path("key").asText();
+        switch (type) {
+            case "/type/author" -> addAuthor(batch, record);
+            case "/type/edition" -> addEdition(batch, record);
+            case "/type/work" -> addWork(batch, record);
+            default -> batch.skipped++;
+        }
+    }
+
+    private void addAuthor(Batch batch, JsonNode record) {
+        String olid = id(record.path("key").asText(null), "/authors/");
+        String name = DataCleaningUtils.cleanAuthorName(text(record.path("name")), null);
+        if (olid == null || name == null) {
+            batch.skipped++;
+            return;
+        }
+        batch.authors.putIfAbsent(olid, truncate(name, 500));
+    }
+
+    private void addEdition(Batch batch, JsonNode record) {
+        String isbn = BookMetaAssembler.normalizeIsbn(first(record.path("isbn_13")));
+        if (isbn == null) {
+            isbn = BookMetaAssembler.normalizeIsbn(first(record.path("isbn_10")));
+        }
+        String title = text(record.path("title"));
+        if (isbn == null || title == null || title.isBlank() || DataCleaningUtils.containsNonLatinScript(title)) {
+            batch.skipped++;
+            return;
+        }
+        List<String> authorIds = new ArrayList<>();
+        for (JsonNode author : record.path("authors")) {
+            String olid = id(author.path("key").asText(null), "/authors/");
+            if (olid != null) {
+                authorIds.add(olid);
+            }
+        }
+        Integer pages = record.path("number_of_pages").asInt(0) > 0 ? record.path("number_of_pages").asInt() : null;
+
+        Edition edition = new Edition(
+                truncate(isbn, 255),
+                truncate(title.trim(), 255),
+                text(record.path("description")),
+                truncate(first(record.path("publishers")), 255),
+                publishedDate(text(record.path("publish_date"))),
+                pages,
+                text(record.path("first_sentence")),
+                Subjects.of(record),
+                tableOfContents(record.path("table_of_contents")),
+                truncate(id(record.path("key").asText(null), "/books/"), 50),
+                truncate(id(record.path("works").path(0).path("key").asText(null), "/works/"), 50),
+                authorIds,
+                DataCleaningUtils.cleanAuthorName(null, text(record.path("by_statement"))));
+        if (batch.editions.putIfAbsent(isbn, edition) != null) {
+            batch.skipped++;
+        }
+    }
+
+    private void addWork(Batch batch, JsonNode record) {
+        String workId = id(record.path("key").asText(null), "/works/");
+        if (workId == null) {
+            batch.skipped++;
+            return;
+        }
+        Work work = new Work(workId, text(record.path("description")), text(record.path("first_sentence")), Subjects.of(record));
+        if (batch.works.putIfAbsent(workId, work) != null) {
+            batch.skipped++;
+        }
+    }
+
+    /**
+     * Text of a string field or of an Open Library {"type": "/type/text", "value": ...} object.
+     */
+    private static String text(JsonNode node) {
+        if (node.isTextual()) {
+            return node.asText();
+        }
+        return node.path("value").isTextual() ? node.path("value").asText() : null;
+    }
+
+    private static String first(JsonNode array) {
+        return array.isArray() && !array.isEmpty() ? text(array.get(0)) : null;
+    }
+
+    private static List<String> strings(JsonNode array) {
+        List<String> values = new ArrayList<>();
+        for (JsonNode value : array) {
+            if (value.isTextual()) {
+                values.add(value.asText());
+            }
+        }
+        return values;
+    }
+
+    /**
+     * "/books/OL7353617M" -> "OL7353617M"
+     */
+    private static String id(String key, String prefix) {
+        return key != null && key.startsWith(prefix) && key.length() > prefix.length() ? key.substring(prefix.length()) : null;
+    }
+
+    /**
+     * Dumps have dates like "1990", "March 1990" or "Mar 03, 1990"; only the year is kept.
+     */
+    private static LocalDate publishedDate(String date) {
+        if (date == null) {
+            return null;
+        }
+        Matcher year = YEAR.matcher(date);
+        return year.find() ? BookMetaAssembler.parsePublishedDate(year.group()) : null;
+    }
+
+    /**
+     * Table of contents as stored by {@link BookMetaAssembler}: [{"label": ..., "title": ...}]
+     */
+    private String tableOfContents(JsonNode entries) {
+        List<Map<String, String>> toc = new ArrayList<>();
+        for (JsonNode entry : entries) {
+            String title = text(entry.path("title"));
+            if (title != null && !title.isEmpty() && toc.size() < 50) {
+                String label = text(entry.path("label"));
+                toc.add(Map.of("label", label != null ? label : "", "title", title));
+            }
+        }
+        try {
+            return toc.isEmpty() ? null : objectMapper.writeValueAsString(toc);
+        } catch (JsonProcessingException e) {
+            return null;
+        }
+    }
+
+    private static String truncate(String value, int max) {
+        return value != null && value.length() > max ? value.substring(0, max) : value;
+    }
+
+    // ═══════════════════════════════════════════════════════════════════════════
+    // WRITING
+    // ═══════════════════════════════════════════════════════════════════════════
+
+    /**
+     * Write a batch in one transaction, then checkpoint the job at {@code offset}.
+     *
+     * @return Records in the batch
+     */
+    private int write(Batch batch, ImportJobTracker tracker, long offset) {
+        if (batch.size() > 0) {
+            Integer written = writeTransaction.execute(status ->
+                    insertAuthors(batch.authors) + insertEditions(batch.editions) + fillFromWorks(batch.works));
+            int succeeded = written != null ? written : 0;
+            tracker.counted(succeeded, batch.size() - succeeded);
+        }
+        tracker.checkpoint(offset);
+        return batch.size();
+    }
+
+    /**
+     * @return Authors added; those whose id or name is taken are not
+     */
+    private int insertAuthors(Map<String, String> namesById) {
+        if (namesById.isEmpty()) {
+            return 0;
+        }
+        List<Object> args = new ArrayList<>(namesById.size() * 2);
+        namesById.forEach((olid, name) -> Collections.addAll(args, name, olid));
+        return jdbcTemplate.update(INSERT_AUTHORS_SQL + rows(namesById.size(), AUTHOR_ROW) + " ON CONFLICT DO NOTHING",
+                args.toArray());
+    }
+
+    /**
+     * @return Books added
+     */
+    private int insertEditions(Map<String, Edition> editions) {
+        if (editions.isEmpty()) {
+            return 0;
+        }
+        List<Object> args = new ArrayList<>(editions.size() * 13);
+        for (Edition edition : editions.values()) {
+            Collections.addAll(args, edition.title(), edition.isbn(), edition.description(), edition.publisher(),
+                    edition.publishedDate() != null ? Date.valueOf(edition.publishedDate()) : null,
+                    edition.pages(), edition.firstLine(), edition.subjects().places(), edition.subjects().people(),
+                    edition.subjects().times(), edition.tableOfContents(), edition.olid(), edition.workId());
+        }
+        List<Map.Entry<String, Long>> inserted = jdbcTemplate.query(
+                INSERT_BOOKS_SQL + rows(editions.size(), BOOK_ROW) + " ON CONFLICT DO NOTHING RETURNING id, isbn",
+                (rs, rowNum) -> Map.entry(rs.getString("isbn"), rs.getLong("id")), args.toArray());
+
+        Map<Long, Edition> books = new LinkedHashMap<>();
+        Map<Long, List<String>> subjects = new LinkedHashMap<>();
+        for (Map.Entry<String, Long> book : inserted) {
+            Edition edition = editions.get(book.getKey());
+            books.put(book.getValue(), edition);
+            subjects.put(book.getValue(), edition.subjects().all());
+        }
+        linkAuthors(books);
+        linkSubjects(subjects);
+        return inserted.size();
+    }
+
+    /**
+     * @return Works with books in the catalog
+     */
+    private int fillFromWorks(Map<String, Work> works) {
+        if (works.isEmpty()) {
+            return 0;
+        }
+        Map<String, List<Long>> booksByWork = new HashMap<>();
+        jdbcTemplate.query("SELECT id, openlibrary_work_id FROM book_meta WHERE openlibrary_work_id IN ("
+                        + String.join(", ", Collections.nCopies(works.size(), "?")) + ")",
+                rs -> {
+                    booksByWork.computeIfAbsent(rs.getString("openlibrary_work_id"), w -> new ArrayList<>())
+                            .add(rs.getLong("id"));
+                },
+                works.keySet().toArray());
+        if (booksByWork.isEmpty()) {
+            return 0;
+        }
+
+        List<Object[]> updates = new ArrayList<>();
+        Map<Long, List<String>> subjects = new LinkedHashMap<>();
+        booksByWork.forEach((workId, bookIds) -> {
+            Work work = works.get(workId);
+            updates.add(new Object[] {work.description(), work.firstLine(), work.subjects().places(),
+                    work.subjects().people(), work.subjects().times(), workId});
+            bookIds.forEach(bookId -> subjects.put(bookId, work.subjects().all()));
+        });
+        jdbcTemplate.batchUpdate(FILL_FROM_WORK_SQL, updates);
+        linkSubjects(subjects);
+        return booksByWork.size();
+    }
+
+    /**
+     * Link books to their authors: by Open Library id, else by the name in the edition's
+     * "by" statement. Authors are only created from names, never fetched.
+     */
+    private void linkAuthors(Map<Long, Edition> books) {
+        Set<String> olids = new LinkedHashSet<>();
+        books.values().forEach(edition -> olids.addAll(edition.authorIds()));
+        Map<String, Long> idsByOlid = new HashMap<>();
+        if (!olids.isEmpty()) {
+            jdbcTemplate.query("SELECT id, openlibrary_id FROM author WHERE openlibrary_id IN ("
+                            + String.join(", ", Collections.nCopies(olids.size(), "?")) + ")",
+                    rs -> {
+                        idsByOlid.put(rs.getString("openlibrary_id"), rs.getLong("id"));
+                    },
+                    olids.toArray());
+        }
+
+        List<Object[]> links = new ArrayList<>();
+        Map<Long, String> byName = new LinkedHashMap<>();
+        books.forEach((bookId, edition) -> {
+            List<Long> authorIds = edition.authorIds().stream()
+                    .map(idsByOlid::get)
+                    .filter(id -> id != null)
+                    .distinct()
+                    .toList();
+            if (!authorIds.isEmpty()) {
+                authorIds.forEach(authorId -> links.add(new Object[] {bookId, authorId}));
+            } else if (edition.byStatementAuthor() != null) {
+                byName.put(bookId, edition.byStatementAuthor());
+            }
+        });
+        if (!byName.isEmpty()) {
+            Map<String, Long> idsByKey = authorService.getOrCreateAuthorIds(
+                    List.copyOf(new LinkedHashSet<>(byName.values())), null);
+            byName.forEach((bookId, name) -> {
+                Long authorId = idsByKey.get(AuthorService.nameKey(name));
+                if (authorId != null) {
+                    links.add(new Object[] {bookId, authorId});
+                }
+            });
+        }
+        jdbcTemplate.batchUpdate(INSERT_BOOK_AUTHOR_SQL, links);
+    }
+
+    /**
+     * Link books to the categories and tags of their subjects.
+     */
+    private void linkSubjects(Map<Long, List<String>> subjectsByBook) {
+        Map<Long, List<String>> categoriesByBook = new LinkedHashMap<>();
+        Map<Long, List<String>> tagsByBook = new LinkedHashMap<>();
+        Map<String, String> categoryNames = new LinkedHashMap<>();
+        Set<String> tagNames = new LinkedHashSet<>();
+        subjectsByBook.forEach((bookId, subjects) -> {
+            List<String> slugs = ExternalCategoryMapper.mapToCanonical(subjects);
+            slugs.forEach(slug -> categoryNames.putIfAbsent(slug, BookMetaAssembler.canonicalCategoryName(slug)));
+            categoriesByBook.put(bookId, slugs);
+            List<String> tags = TagService.tagNames(subjects);
+            tagNames.addAll(tags);
+            tagsByBook.put(bookId, tags);
+        });
+
+        Map<String, Long> categoryIds = categoryNames.isEmpty() ? Map.of() : categoryService.getOrCreateCategoryIds(categoryNames);
+        Map<String, Long> tagIds = tagNames.isEmpty() ? Map.of() : tagService.getOrCreateTagIds(tagNames);
+        jdbcTemplate.batchUpdate(INSERT_BOOK_CATEGORY_SQL, links(categoriesByBook, categoryIds));
+        jdbcTemplate.batchUpdate(INSERT_BOOK_TAG_SQL, links(tagsByBook, tagIds));
+    }
+
+    private static List<Object[]> links(Map<Long, List<String>> keysByBook, Map<String, Long> ids) {
+        List<Object[]> links = new ArrayList<>();
+        keysByBook.forEach((bookId, keys) -> keys.stream()
+                .map(ids::get)
+                .filter(id -> id != null)
+                .distinct()
+                .forEach(id -> links.add(new Object[] {bookId, id})));
+        return links;
+    }
+
+    private static String rows(int count, String row) {
+        return String.join(", ", Collections.nCopies(count, row));
+    }
+
+    // ═══════════════════════════════════════════════════════════════════════════
+    // RECORDS
+    // ═══════════════════════════════════════════════════════════════════════════
+
+    /**
+     * Records read since the last write, deduplicated by key.
+     */
+    private static final class Batch {
+        final Map<String, String> authors = new LinkedHashMap<>();     // Open Library id -> name
+        final Map<String, Edition> editions = new LinkedHashMap<>();   // ISBN -> edition
+        final Map<String, Work> works = new LinkedHashMap<>();         // work id -> work
+        int skipped;
+
+        int size() {
+            return authors.size() + editions.size() + works.size() + skipped;
+        }
+    }
+
+    private record Edition(String isbn, String title, String description, String publisher, LocalDate publishedDate,
+                           Integer pages, String firstLine, Subjects subjects, String tableOfContents,
+                           String olid, String workId, List<String> authorIds, String byStatementAuthor) {}
+
+    private record Work(String workId, String description, String firstLine, Subjects subjects) {}
+
+    /**
+     * @param all    Raw subjects, for categories and tags
+     * @param places Cleaned and joined as {@link BookMetaAssembler} stores them; null if none
+     */
+    private record Subjects(List<String> all, String places, String people, String times) {
+
+        static Subjects of(JsonNode record) {
+            return new Subjects(strings(record.path("subjects")),
+                    joined(record.path("subject_places"), 5),
+                    joined(record.path("subject_people"), 8),
+                    joined(record.path("subject_times"), 3));
+        }
+
+        private static String joined(JsonNode array, int limit) {
+            List<String> cleaned = DataCleaningUtils.cleanSubjectList(strings(array), limit);
+            return cleaned.isEmpty() ? null : String.join(", ", cleaned);
+        }
+    }
+
+    /**
+     * Reads a dump line by line, counting the uncompressed bytes consumed.
+     */
+    static final class DumpReader implements Closeable {
+
+        private final InputStream in;
+        private final byte[] buffer = new byte[1 << 16];
+        private int position;
+        private int limit;
+        private byte[] line = new byte[1 << 12];
+        private int length;
+        private long offset;        // bytes consumed, up to the end of the current line
+        private long lineOffset;
+
+        private DumpReader(InputStream in) {
+            this.in = in;
+        }
+
+        /**
+         * Open a gzipped or plain dump at the start of the first line at or after {@code offset}.
+         */
+        static DumpReader open(Path file, long offset) throws IOException {
+            InputStream in = new BufferedInputStream(Files.newInputStream(file), 1 << 16);
+            try {
+                in.mark(2);
+                boolean gzip = in.read() == 0x1f && in.read() == 0x8b;
+                in.reset();
+                DumpReader reader = new DumpReader(gzip ? new GZIPInputStream(in, 1 << 16) : in);
+                reader.skipTo(offset);
+                return reader;
+            } catch (IOException e) {
+                in.close();
+                throw e;
+            }
+        }
+
+        /**
+         * Read the next line.
+         *
+         * @return false at the end of the dump
+         */
+        boolean next() throws IOException {
+            lineOffset = offset;
+            length = 0;
+            while (true) {
+                if (position == limit && !fill()) {
+                    return length > 0;
+                }
+                int start = position;
+                while (position < limit && buffer[position] != '\n') {
+                    position++;
+                }
+                append(start, position - start);
+                offset += position - start;
+                if (position < limit) {
+                    position++;     // the newline
+                    offset++;
+                    if (length > 0 && line[length - 1] == '\r') {
+                        length--;
+                    }
+                    return true;
+                }
+            }
+        }
+
+        boolean isBlank() {
+            for (int i = 0; i < length; i++) {
+                if (!Character.isWhitespace(line[i])) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * The line's JSON record: the whole line, or its last tab-separated field
+         * (JSON has no raw tabs).
+         */
+        JsonNode json(ObjectMapper objectMapper) throws IOException {
+            int start = 0;
+            if (line[0] != '{') {
+                for (int i = length - 1; i >= 0; i--) {
+                    if (line[i] == '\t') {
+                        start = i + 1;
+                        break;
+                    }
+                }
+            }
+            return objectMapper.readTree(line, start, length - start);
+        }
+
+        long offset() {
+            return offset;
+        }
+
+        long lineOffset() {
+            return lineOffset;
+        }
+
+        private void skipTo(long target) throws IOException {
+            if (target <= 0) {
+                return;
+            }
+            // Stop one byte short: if that byte ends a line, the target starts one
+            while (offset < target - 1) {
+                if (position == limit && !fill()) {
+                    throw new EOFException("Offset " + target + " is past the end of the dump");
+                }
+                int skipped = (int) Math.min(limit - position, target - 1 - offset);
+                position += skipped;
+                offset += skipped;
+            }
+            if (position == limit && !fill()) {
+                throw new EOFException("Offset " + target + " is past the end of the dump");
+            }
+            if (buffer[position] == '\n') {
+                position++;
+                offset++;
+            } else {
+                next();     // the rest of a line cut by the offset
+            }
+        }
+
+        private boolean fill() throws IOException {
+            int read = in.read(buffer);
+            position = 0;
+            limit = Math.max(read, 0);
+            return read > 0;
+        }
+
+        private void append(int start, int count) {
+            if (length + count > line.length) {
+                line = Arrays.copyOf(line, Math.max(line.length * 2, length + count));
+            }
+            System.arraycopy(buffer, start, line, length, count);
+            length += count;
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+}
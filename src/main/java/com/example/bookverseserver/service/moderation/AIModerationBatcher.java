@@ -0,0 +1,215 @@
+package com.example.bookverseserver.service.moderation;
+
+import com.example.bookverseserver.enums.ContentModerationDecision;
+import com.example.bookverseserver.service.AIService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.function.Consumer;
+
+/**
+ * Batched AI review for gray-zone content (rule score 25-74).
+ *
+ * Instead of one LLM call per review/listing inside the user's request, items are
+ * queued and sent N at a time in a single numbered prompt. The model answers with
+ * a JSON array that is mapped back to each item by its number, and the caller's
+ * callback receives the final verdict. Anything the model skips, or a failed call,
+ * falls back to FLAG - the same fail-safe the synchronous path uses.
+ */
+@Component
+@Slf4j
+public class AIModerationBatcher {
+
+    private static final int MAX_TEXT_CHARS = 500;
+
+    private final AIService aiService;
+    private final ObjectMapper objectMapper;
+    private final int batchSize;
+    private final BlockingQueue<PendingItem> queue;
+
+    public AIModerationBatcher(
+            AIService aiService,
+            ObjectMapper objectMapper,
+            @Value("${app.moderation.ai-batch-size:20}") int batchSize,
+            @Value("${app.moderation.ai-queue-capacity:1000}") int queueCapacity) {
+        this.aiService = aiService;
+        this.objectMapper = objectMapper;
+        this.batchSize = batchSize;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+    }
+
+    /**
+     * Content to review plus what the rule engine already found.
+     */
+    public record Item(String text, String contentType, int ruleScore, List<String> matchedTerms) {}
+
+    /**
+     * AI decision for one item.
+     */
+    public record Verdict(ContentModerationDecision decision, String reason, boolean aiUsed) {}
+
+    private record PendingItem(Item item, Consumer<Verdict> callback) {}
+
+    /**
+     * Queue an item for the next batch. If called inside a transaction, the item is
+     * only queued after commit, so callbacks can see the saved row and rolled-back
+     * content is never reviewed.
+     *
+     * @param callback invoked on the batch worker thread with the final verdict
+     */
+    public void submit(Item item, Consumer<Verdict> callback) {
+        PendingItem pending = new PendingItem(item, callback);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    offer(pending);
+                }
+            });
+        } else {
+            offer(pending);
+        }
+    }
+
+    /**
+     * @return Number of items waiting for the next batch
+     */
+    public int getQueueSize() {
+        return queue.size();
+    }
+
+    private void offer(PendingItem pending) {
+        if (!queue.offer(pending)) {
+            // Provisional verdict stands; a moderator will still see FLAG-ed content
+            log.warn("AI moderation queue full ({} items), keeping provisional verdict", queue.size());
+        }
+    }
+
+    /**
+     * Drain the queue in batches of {@code batchSize}.
+     */
+    @Scheduled(fixedDelayString = "${app.moderation.ai-batch-flush-millis:3000}")
+    public void flush() {
+        List<PendingItem> batch = new ArrayList<>(batchSize);
+
+        while (queue.drainTo(batch, batchSize) > 0) {
+            List<Verdict> verdicts = reviewBatch(batch.stream().map(PendingItem::item).toList());
+
+            for (int i = 0; i < batch.size(); i++) {
+                try {
+                    batch.get(i).callback().accept(verdicts.get(i));
+                } catch (Exception e) {
+                    log.warn("AI moderation callback failed: {}", e.getMessage());
+                }
+            }
+            batch.clear();
+        }
+    }
+
+    /**
+     * Review a batch synchronously with one LLM call.
+     *
+     * @return One verdict per item, in input order
+     */
+    public List<Verdict> reviewBatch(List<Item> items) {
+        if (items.isEmpty()) {
+            return List.of();
+        }
+
+        if (!aiService.isAIAvailable()) {
+            log.debug("AI unavailable, defaulting {} queued items to FLAG", items.size());
+            return fallback(items.size(), "Content flagged for human review");
+        }
+
+        try {
+            String response = aiService.generateRecommendation(buildBatchPrompt(items));
+            Map<Integer, Verdict> byNumber = parseBatchResponse(response);
+
+            List<Verdict> verdicts = new ArrayList<>(items.size());
+            for (int i = 0; i < items.size(); i++) {
+                verdicts.add(byNumber.getOrDefault(i + 1,
+                        new Verdict(ContentModerationDecision.FLAG, "AI flagged for human review", false)));
+            }
+
+            log.info("AI moderated batch of {} items in one call", items.size());
+            return verdicts;
+
+        } catch (Exception e) {
+            log.warn("Batched AI moderation failed, falling back to FLAG: {}", e.getMessage());
+            return fallback(items.size(), "Content flagged for human review");
+        }
+    }
+
+    private List<Verdict> fallback(int count, String reason) {
+        return Collections.nCopies(count, new Verdict(ContentModerationDecision.FLAG, reason, false));
+    }
+
+    private String buildBatchPrompt(List<Item> items) {
+        StringBuilder list = new StringBuilder();
+        for (int i = 0; i < items.size(); i++) {
+            Item item = items.get(i);
+            String text = item.text().length() > MAX_TEXT_CHARS
+                    ? item.text().substring(0, MAX_TEXT_CHARS) + "..."
+                    : item.text();
+            list.append('[').append(i + 1).append("] ")
+                    .append("type=").append(item.contentType() != null ? item.contentType() : "UNKNOWN")
+                    .append(", rule score=").append(item.ruleScore())
+                    .append(", flagged=").append(item.matchedTerms().isEmpty() ? "none" : String.join(", ", item.matchedTerms()))
+                    .append("\n    \"").append(text.replace('"', '\'').replaceAll("\\s+", " ")).append("\"\n");
+        }
+
+        return """
+            You are a content moderator for a book marketplace. Decide for EACH numbered item whether it is appropriate.
+
+            Context:
+            - A rule-based system scored each item 0-100 (higher = more concerning) and listed what it flagged
+            - This is a BOOK MARKETPLACE - discussions of violence, death, war in literary context are normal
+
+            Book titles with violent words (e.g., "To Kill a Mockingbird", "American Psycho") are ALLOWED.
+            Honest negative reviews are ALLOWED even if harsh.
+            Spam, hate speech, personal attacks, and off-topic content are NOT ALLOWED.
+
+            Items:
+            %s
+            For each item use exactly one decision:
+            - APPROVE (content is fine for a book marketplace)
+            - FLAG (borderline, needs human review)
+            - BLOCK (clearly violates community guidelines)
+
+            Return ONLY a JSON array with one entry per item, no explanation:
+            [{"id": 1, "decision": "APPROVE"}, {"id": 2, "decision": "BLOCK"}]
+            """.formatted(list);
+    }
+
+    private Map<Integer, Verdict> parseBatchResponse(String response) throws Exception {
+        int start = response.indexOf('[');
+        int end = response.lastIndexOf(']');
+        if (start < 0 || end <= start) {
+            throw new IllegalArgumentException("No JSON array found in response");
+        }
+
+        Map<Integer, Verdict> verdicts = new HashMap<>();
+        for (JsonNode node : objectMapper.readTree(response.substring(start, end + 1))) {
+            int id = node.path("id").asInt(-1);
+            String decision = node.path("decision").asText("").trim().toUpperCase();
+
+            Verdict verdict = switch (decision) {
+                case "APPROVE" -> new Verdict(ContentModerationDecision.APPROVE, "AI determined content is appropriate", true);
+                case "BLOCK" -> new Verdict(ContentModerationDecision.BLOCK, "AI determined content violates guidelines", true);
+                default -> new Verdict(ContentModerationDecision.FLAG, "AI flagged for human review", true);
+            };
+            verdicts.put(id, verdict);
+        }
+        return verdicts;
+    }
+}
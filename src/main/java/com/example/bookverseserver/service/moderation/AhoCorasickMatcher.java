@@ -0,0 +1,162 @@
+package com.example.bookverseserver.service.moderation;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntConsumer;
+
+/**
+ * Immutable Aho-Corasick automaton over a fixed set of patterns.
+ *
+ * Finds every pattern occurring as a substring of the input in one left-to-right
+ * pass, regardless of how many patterns there are. Transitions are precomputed into
+ * a dense table (a DFA), so each input char costs a single array lookup.
+ *
+ * Built for already-normalized moderation text: the alphabet is 7-bit ASCII and any
+ * other char simply resets the automaton to its root.
+ */
+public final class AhoCorasickMatcher {
+
+    private static final int ALPHABET = 128;
+
+    private final int patternCount;
+    // delta[state * ALPHABET + c] -> next state
+    private final int[] delta;
+    // Patterns ending exactly at each state, and the next state (via failure links) with output
+    private final int[][] outputs;
+    private final int[] outputLink;
+
+    private AhoCorasickMatcher(int patternCount, int[] delta, int[][] outputs, int[] outputLink) {
+        this.patternCount = patternCount;
+        this.delta = delta;
+        this.outputs = outputs;
+        this.outputLink = outputLink;
+    }
+
+    /**
+     * Compile patterns. A pattern's index in the list is the id reported on a match;
+     * empty patterns and patterns with non-ASCII chars never match.
+     */
+    public static AhoCorasickMatcher compile(List<String> patterns) {
+        // 1. Trie
+        List<int[]> children = new ArrayList<>();
+        List<List<Integer>> ends = new ArrayList<>();
+        children.add(newRow());
+        ends.add(new ArrayList<>());
+
+        for (int id = 0; id < patterns.size(); id++) {
+            String pattern = patterns.get(id);
+            if (pattern == null || pattern.isEmpty() || !isAscii(pattern)) {
+                continue;
+            }
+            int state = 0;
+            for (int i = 0; i < pattern.length(); i++) {
+                int c = pattern.charAt(i);
+                if (children.get(state)[c] < 0) {
+                    children.get(state)[c] = children.size();
+                    children.add(newRow());
+                    ends.add(new ArrayList<>());
+                }
+                state = children.get(state)[c];
+            }
+            ends.get(state).add(id);
+        }
+
+        // 2. Failure links (BFS) folded into a full transition table
+        int states = children.size();
+        int[] delta = new int[states * ALPHABET];
+        int[] fail = new int[states];
+        int[] outputLink = new int[states];
+        Arrays.fill(outputLink, -1);
+
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        for (int c = 0; c < ALPHABET; c++) {
+            int child = children.get(0)[c];
+            if (child > 0) {
+                delta[c] = child;
+                fail[child] = 0;
+                queue.add(child);
+            } else {
+                delta[c] = 0;
+            }
+        }
+
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            int f = fail[state];
+            outputLink[state] = !ends.get(f).isEmpty() ? f : outputLink[f];
+
+            for (int c = 0; c < ALPHABET; c++) {
+                int child = children.get(state)[c];
+                if (child > 0) {
+                    fail[child] = delta[f * ALPHABET + c];
+                    delta[state * ALPHABET + c] = child;
+                    queue.add(child);
+                } else {
+                    delta[state * ALPHABET + c] = delta[f * ALPHABET + c];
+                }
+            }
+        }
+
+        int[][] outputs = new int[states][];
+        for (int s = 0; s < states; s++) {
+            outputs[s] = ends.get(s).stream().mapToInt(Integer::intValue).toArray();
+        }
+        return new AhoCorasickMatcher(patterns.size(), delta, outputs, outputLink);
+    }
+
+    public int patternCount() {
+        return patternCount;
+    }
+
+    /**
+     * Report the id of every pattern occurrence in {@code text[from, to)}.
+     * A pattern that occurs several times is reported several times.
+     */
+    public void match(char[] text, int from, int to, IntConsumer onMatch) {
+        int state = 0;
+        for (int i = from; i < to; i++) {
+            char c = text[i];
+            state = c < ALPHABET ? delta[state * ALPHABET + c] : 0;
+
+            for (int s = state; s >= 0; s = outputLink[s]) {
+                for (int id : outputs[s]) {
+                    onMatch.accept(id);
+                }
+            }
+        }
+    }
+
+    /**
+     * Mark {@code hits[id] = true} for every pattern present in the text.
+     */
+    public void matchAll(CharSequence text, boolean[] hits) {
+        int state = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            state = c < ALPHABET ? delta[state * ALPHABET + c] : 0;
+
+            for (int s = state; s >= 0; s = outputLink[s]) {
+                for (int id : outputs[s]) {
+                    hits[id] = true;
+                }
+            }
+        }
+    }
+
+    private static int[] newRow() {
+        int[] row = new int[ALPHABET];
+        Arrays.fill(row, -1);
+        return row;
+    }
+
+    private static boolean isAscii(String s) {
+        for (int i = 0; i < s.length(); i++) {
+            if (s.charAt(i) >= ALPHABET) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
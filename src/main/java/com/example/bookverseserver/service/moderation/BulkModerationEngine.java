@@ -0,0 +1,152 @@
+package com.example.bookverseserver.service.moderation;
+
+import com.example.bookverseserver.dto.request.ModerationRequest;
+import com.example.bookverseserver.dto.response.ModerationResponse;
+import com.example.bookverseserver.enums.ContentCategory;
+import com.example.bookverseserver.enums.ContentModerationDecision;
+import com.example.bookverseserver.enums.ContentSeverity;
+import com.example.bookverseserver.service.ContentModerationService;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static lombok.AccessLevel.PRIVATE;
+
+/**
+ * Moderates many items at once - catalog backfills after a rule change, bulk imports.
+ *
+ * Work goes chunk by chunk:
+ * 1. Rule engine on every item in parallel, on a bounded ForkJoin pool
+ *    (so a backfill can't take over the common pool request threads use)
+ * 2. Gray-zone items through {@link ContentModerationService#reviewWithAi},
+ *    {@code app.moderation.ai-batch-size} items per LLM call
+ * 3. The chunk's outcomes go to the caller's sink before the next chunk is read,
+ *    so memory stays bounded by the chunk size and the sink can checkpoint
+ */
+@Service
+@FieldDefaults(level = PRIVATE)
+@Slf4j
+public class BulkModerationEngine {
+
+    final ContentModerationService contentModerationService;
+    final ForkJoinPool pool;
+    final int aiBatchSize;
+
+    public BulkModerationEngine(ContentModerationService contentModerationService,
+                                @Qualifier("moderationPool") ForkJoinPool pool,
+                                @Value("${app.moderation.ai-batch-size:20}") int aiBatchSize) {
+        this.contentModerationService = contentModerationService;
+        this.pool = pool;
+        this.aiBatchSize = Math.max(1, aiBatchSize);
+    }
+
+    public record Item(Long id, String text, String contentType) {}
+
+    /**
+     * @param aiReviewed Whether the item was in the gray zone and went through AI review
+     */
+    public record Outcome(Item item, ModerationResponse verdict, boolean aiReviewed) {}
+
+    /**
+     * Moderate a whole stream, handing each chunk's outcomes to {@code sink} in order.
+     *
+     * @return Number of items moderated
+     */
+    public long moderate(Stream<Item> items, int chunkSize, Consumer<List<Outcome>> sink) {
+        long total = 0;
+        List<Item> chunk = new ArrayList<>(chunkSize);
+
+        Iterator<Item> iterator = items.iterator();
+        while (iterator.hasNext()) {
+            chunk.add(iterator.next());
+            if (chunk.size() >= chunkSize) {
+                sink.accept(moderateChunk(chunk));
+                total += chunk.size();
+                chunk = new ArrayList<>(chunkSize);
+            }
+        }
+        if (!chunk.isEmpty()) {
+            sink.accept(moderateChunk(chunk));
+            total += chunk.size();
+        }
+        return total;
+    }
+
+    /**
+     * @return One outcome per item, in input order
+     */
+    public List<Outcome> moderateChunk(List<Item> chunk) {
+        List<ModerationResponse> provisional;
+        try {
+            provisional = pool.submit(() -> chunk.parallelStream().map(this::checkRules).toList()).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Bulk moderation interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Bulk moderation failed", e.getCause());
+        }
+
+        List<ModerationResponse> verdicts = new ArrayList<>(provisional);
+        boolean[] aiReviewed = new boolean[chunk.size()];
+        List<Integer> grayZone = new ArrayList<>();
+        for (int i = 0; i < provisional.size(); i++) {
+            if (Boolean.TRUE.equals(provisional.get(i).getPendingAiReview())) {
+                grayZone.add(i);
+            }
+        }
+
+        for (int from = 0; from < grayZone.size(); from += aiBatchSize) {
+            List<Integer> batch = grayZone.subList(from, Math.min(from + aiBatchSize, grayZone.size()));
+            List<ModerationRequest> requests = new ArrayList<>(batch.size());
+            List<ModerationResponse> pending = new ArrayList<>(batch.size());
+            for (int index : batch) {
+                requests.add(toRequest(chunk.get(index)));
+                pending.add(provisional.get(index));
+            }
+
+            List<ModerationResponse> reviewed = contentModerationService.reviewWithAi(requests, pending);
+            for (int i = 0; i < batch.size(); i++) {
+                verdicts.set(batch.get(i), reviewed.get(i));
+                aiReviewed[batch.get(i)] = true;
+            }
+        }
+
+        List<Outcome> outcomes = new ArrayList<>(chunk.size());
+        for (int i = 0; i < chunk.size(); i++) {
+            outcomes.add(new Outcome(chunk.get(i), verdicts.get(i), aiReviewed[i]));
+        }
+        return outcomes;
+    }
+
+    private ModerationResponse checkRules(Item item) {
+        if (item.text() == null || item.text().isBlank()) {
+            return ModerationResponse.builder()
+                    .decision(ContentModerationDecision.APPROVE)
+                    .category(ContentCategory.CLEAN)
+                    .severity(ContentSeverity.LOW)
+                    .score(0)
+                    .reason("No content")
+                    .aiUsed(false)
+                    .pendingAiReview(false)
+                    .build();
+        }
+        return contentModerationService.moderateProvisional(toRequest(item));
+    }
+
+    private ModerationRequest toRequest(Item item) {
+        return ModerationRequest.builder()
+                .text(item.text())
+                .contentType(item.contentType())
+                .build();
+    }
+}
@@ -0,0 +1,160 @@
+package com.example.bookverseserver.service.moderation;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Immutable fuzzy index over normalized moderation terms.
+ *
+ * A word matches a term when their Levenshtein similarity is at least 85%, i.e.
+ * {@code distance <= 15% of the longer length}. That bound is tiny (0 below 7 chars,
+ * 1 up to 13, 2 up to 19...), so instead of a full matrix per (word, term) pair:
+ * - terms are bucketed by length and only lengths within the bound are visited
+ * - pairs whose bound is 0 are skipped: equality is an exact hit, which the
+ *   {@link AhoCorasickMatcher} pass already reports
+ * - distance is a banded two-row DP that stops as soon as a row exceeds the bound
+ *
+ * Rows live in a per-thread scratch buffer, so queries allocate nothing.
+ */
+public final class FuzzyTermIndex {
+
+    private static final int[][] NO_IDS = new int[0][];
+
+    private final char[][] terms;
+    // idsByLength[m] -> ids of terms with length m
+    private final int[][] idsByLength;
+    private final int maxLength;
+    private final ThreadLocal<int[]> scratch;
+
+    private FuzzyTermIndex(char[][] terms, int[][] idsByLength, int maxLength) {
+        this.terms = terms;
+        this.idsByLength = idsByLength;
+        this.maxLength = maxLength;
+        this.scratch = ThreadLocal.withInitial(() -> new int[2 * (maxLength + 1)]);
+    }
+
+    /**
+     * Index already-normalized terms; a term's index in the list is its id.
+     */
+    public static FuzzyTermIndex compile(List<String> normalizedTerms) {
+        char[][] terms = new char[normalizedTerms.size()][];
+        int maxLength = 0;
+        for (int id = 0; id < terms.length; id++) {
+            String term = normalizedTerms.get(id);
+            terms[id] = term == null ? new char[0] : term.toCharArray();
+            maxLength = Math.max(maxLength, terms[id].length);
+        }
+
+        List<List<Integer>> buckets = new ArrayList<>();
+        for (int m = 0; m <= maxLength; m++) {
+            buckets.add(new ArrayList<>());
+        }
+        for (int id = 0; id < terms.length; id++) {
+            if (terms[id].length > 0) {
+                buckets.get(terms[id].length).add(id);
+            }
+        }
+
+        int[][] idsByLength = maxLength == 0 ? NO_IDS : new int[maxLength + 1][];
+        for (int m = 0; m < idsByLength.length; m++) {
+            idsByLength[m] = buckets.get(m).stream().mapToInt(Integer::intValue).toArray();
+        }
+        return new FuzzyTermIndex(terms, idsByLength, maxLength);
+    }
+
+    /**
+     * Largest edit distance that still counts as a match (similarity >= 0.85).
+     */
+    static int maxDistance(int wordLength, int termLength) {
+        return 3 * Math.max(wordLength, termLength) / 20;
+    }
+
+    /**
+     * Query every whitespace-separated token of {@code text} once, setting
+     * {@code hits[id] = true} for each fuzzy-matching term. Terms already marked
+     * in {@code hits} are not re-checked.
+     */
+    public void matchTokens(CharSequence text, boolean[] hits) {
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean boundary = i == text.length() || Character.isWhitespace(text.charAt(i));
+            if (!boundary) {
+                if (start < 0) {
+                    start = i;
+                }
+            } else if (start >= 0) {
+                matchWord(text, start, i, hits);
+                start = -1;
+            }
+        }
+    }
+
+    /**
+     * Set {@code hits[id] = true} for each term fuzzy-matching {@code text[from, to)}.
+     */
+    public void matchWord(CharSequence text, int from, int to, boolean[] hits) {
+        int n = to - from;
+        if (n <= 0) {
+            return;
+        }
+        int[] rows = scratch.get();
+
+        for (int m = 1; m <= maxLength; m++) {
+            int k = maxDistance(n, m);
+            if (k == 0 || Math.abs(m - n) > k) {
+                continue;
+            }
+            for (int id : idsByLength[m]) {
+                if (!hits[id] && withinDistance(text, from, n, terms[id], k, rows)) {
+                    hits[id] = true;
+                }
+            }
+        }
+    }
+
+    /**
+     * Banded Levenshtein: only cells within {@code k} of the diagonal are computed,
+     * anything further is clamped to {@code k + 1}.
+     */
+    private static boolean withinDistance(CharSequence text, int from, int n, char[] term, int k, int[] rows) {
+        int m = term.length;
+        int over = k + 1;
+        int prev = 0;
+        int cur = m + 1;
+
+        for (int j = 0; j <= m; j++) {
+            rows[prev + j] = Math.min(j, over);
+        }
+
+        for (int i = 1; i <= n; i++) {
+            char c = text.charAt(from + i - 1);
+            int lo = Math.max(1, i - k);
+            int hi = Math.min(m, i + k);
+
+            rows[cur] = Math.min(i, over);
+            if (lo > 1) {
+                rows[cur + lo - 1] = over;
+            }
+            int rowMin = rows[cur];
+
+            for (int j = lo; j <= hi; j++) {
+                int cost = term[j - 1] == c ? 0 : 1;
+                int v = Math.min(Math.min(rows[prev + j] + 1, rows[cur + j - 1] + 1), rows[prev + j - 1] + cost);
+                v = Math.min(v, over);
+                rows[cur + j] = v;
+                rowMin = Math.min(rowMin, v);
+            }
+            if (hi < m) {
+                rows[cur + hi + 1] = over;
+            }
+            if (rowMin > k) {
+                return false;
+            }
+
+            int swap = prev;
+            prev = cur;
+            cur = swap;
+        }
+        return rows[prev + m] <= k;
+    }
+}
@@ -0,0 +1,298 @@
+package com.example.bookverseserver.service.moderation;
+
+import com.example.bookverseserver.dto.response.ModerationResponse;
+import com.example.bookverseserver.dto.response.Moderation.ModerationBackfillResponse;
+import com.example.bookverseserver.entity.SystemParameter;
+import com.example.bookverseserver.enums.ContentCategory;
+import com.example.bookverseserver.enums.ContentModerationDecision;
+import com.example.bookverseserver.enums.FlagSeverity;
+import com.example.bookverseserver.enums.FlagStatus;
+import com.example.bookverseserver.enums.FlagType;
+import com.example.bookverseserver.exception.AppException;
+import com.example.bookverseserver.exception.ErrorCode;
+import com.example.bookverseserver.repository.SystemParameterRepository;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+import static lombok.AccessLevel.PRIVATE;
+
+/**
+ * Re-moderates the existing catalog, e.g. after the blocked-term lists change.
+ *
+ * One run at a time, in the background:
+ * - Items are read in id order with keyset pagination and moderated by {@link BulkModerationEngine}
+ * - Each chunk's results are written with JDBC batches: non-approved listings get a PENDING
+ *   {@code FlaggedListing} (unless one is already open), blocked reviews are hidden
+ * - After each chunk, the last id is saved as a {@link SystemParameter} checkpoint;
+ *   a resumed run continues after it. Writes are idempotent, so re-processing the chunk
+ *   that was in flight during a crash is harmless.
+ */
+@Service
+@FieldDefaults(level = PRIVATE)
+@Slf4j
+public class ModerationBackfillService {
+
+    static final String CHECKPOINT_KEY = "moderation.backfill.%s.checkpoint";
+    static final String AUTO_ACTION = "BULK_REMODERATION";
+
+    static final String INSERT_FLAG_SQL = """
+            INSERT INTO flagged_listing
+                (listing_id, flag_type, flag_reason, confidence_score, severity, status, auto_action, flagged_at, updated_at)
+            SELECT ?, ?, ?, ?, ?, ?, ?, now(), now()
+            WHERE NOT EXISTS (
+                SELECT 1 FROM flagged_listing WHERE listing_id = ? AND status IN (?, ?)
+            )
+            """;
+
+    static final String HIDE_REVIEW_SQL = """
+            UPDATE review SET is_hidden = true, hidden_reason = ?, updated_at = now()
+            WHERE id = ? AND is_hidden = false
+            """;
+
+    public enum Target {
+        LISTING(
+                "SELECT id, title_override, description FROM listing WHERE id > ? AND deleted_at IS NULL ORDER BY id LIMIT ?",
+                "SELECT COUNT(*) FROM listing WHERE id > ? AND deleted_at IS NULL"),
+        REVIEW(
+                "SELECT id, comment FROM review WHERE id > ? AND is_hidden = false ORDER BY id LIMIT ?",
+                "SELECT COUNT(*) FROM review WHERE id > ? AND is_hidden = false");
+
+        final String pageSql;
+        final String countSql;
+
+        Target(String pageSql, String countSql) {
+            this.pageSql = pageSql;
+            this.countSql = countSql;
+        }
+    }
+
+    final BulkModerationEngine engine;
+    final JdbcTemplate jdbcTemplate;
+    final SystemParameterRepository systemParameterRepository;
+    final Executor executor;
+    final int chunkSize;
+
+    final AtomicReference<Run> current = new AtomicReference<>();
+
+    public ModerationBackfillService(BulkModerationEngine engine,
+                                     JdbcTemplate jdbcTemplate,
+                                     SystemParameterRepository systemParameterRepository,
+                                     @Qualifier("taskExecutor") Executor executor,
+                                     @Value("${app.moderation.backfill-chunk-size:500}") int chunkSize) {
+        this.engine = engine;
+        this.jdbcTemplate = jdbcTemplate;
+        this.systemParameterRepository = systemParameterRepository;
+        this.executor = executor;
+        this.chunkSize = Math.max(1, chunkSize);
+    }
+
+    /**
+     * Start re-moderating {@code target} in the background.
+     *
+     * @param resume Continue after the saved checkpoint instead of from the first id
+     */
+    public ModerationBackfillResponse start(Target target, boolean resume) {
+        long afterId = resume ? loadCheckpoint(target) : 0L;
+        Run run = new Run(target, afterId);
+        run.total = jdbcTemplate.queryForObject(target.countSql, Long.class, afterId);
+
+        Run previous = current.get();
+        if ((previous != null && previous.isActive()) || !current.compareAndSet(previous, run)) {
+            throw new AppException(ErrorCode.MODERATION_BACKFILL_RUNNING);
+        }
+
+        log.info("🔁 Moderation backfill of {} started after id {} ({} items)", target, afterId, run.total);
+        executor.execute(() -> execute(run));
+        return run.toResponse();
+    }
+
+    /**
+     * Ask the running backfill to stop after its current chunk; it can be resumed later.
+     */
+    public ModerationBackfillResponse stop() {
+        Run run = current.get();
+        if (run == null) {
+            return null;
+        }
+        if (run.isActive()) {
+            run.stopRequested = true;
+            run.status = "STOPPING";
+        }
+        return run.toResponse();
+    }
+
+    /**
+     * @return Progress of the current or last run, null if none ran since startup
+     */
+    public ModerationBackfillResponse getProgress() {
+        Run run = current.get();
+        return run != null ? run.toResponse() : null;
+    }
+
+    private void execute(Run run) {
+        try {
+            engine.moderate(scan(run.target, run.checkpointId).takeWhile(item -> !run.stopRequested),
+                    chunkSize, outcomes -> {
+                        write(run.target, outcomes);
+                        long lastId = outcomes.get(outcomes.size() - 1).item().id();
+                        saveCheckpoint(run.target, lastId);
+                        run.record(outcomes, lastId);
+                        log.debug("Moderation backfill of {}: {}/{} processed", run.target, run.processed, run.total);
+                    });
+
+            run.status = run.stopRequested ? "STOPPED" : "COMPLETED";
+            log.info("✅ Moderation backfill of {} {}: {} processed, {} flagged, {} blocked",
+                    run.target, run.status.toLowerCase(), run.processed, run.flagged, run.blocked);
+        } catch (Exception e) {
+            run.status = "FAILED";
+            run.error = e.getMessage();
+            log.error("❌ Moderation backfill of {} failed at id {}: {}", run.target, run.checkpointId, e.getMessage(), e);
+        } finally {
+            run.finishedAt = LocalDateTime.now();
+        }
+    }
+
+    /**
+     * Lazily page through the target in id order.
+     */
+    private Stream<BulkModerationEngine.Item> scan(Target target, long afterId) {
+        return Stream.iterate(fetchPage(target, afterId), page -> !page.isEmpty(),
+                        page -> fetchPage(target, page.get(page.size() - 1).id()))
+                .flatMap(List::stream);
+    }
+
+    private List<BulkModerationEngine.Item> fetchPage(Target target, long afterId) {
+        return jdbcTemplate.query(target.pageSql, (rs, rowNum) -> switch (target) {
+            case LISTING -> {
+                String title = rs.getString("title_override");
+                String description = rs.getString("description");
+                // Same text as listing creation moderates
+                String text = description != null ? description : "";
+                if (title != null) {
+                    text = title + " " + text;
+                }
+                yield new BulkModerationEngine.Item(rs.getLong("id"), text, "LISTING");
+            }
+            case REVIEW -> new BulkModerationEngine.Item(rs.getLong("id"), rs.getString("comment"), "REVIEW");
+        }, afterId, chunkSize);
+    }
+
+    private void write(Target target, List<BulkModerationEngine.Outcome> outcomes) {
+        List<Object[]> batch = new ArrayList<>();
+
+        for (BulkModerationEngine.Outcome outcome : outcomes) {
+            ModerationResponse verdict = outcome.verdict();
+            Long id = outcome.item().id();
+
+            if (target == Target.LISTING && verdict.getDecision() != ContentModerationDecision.APPROVE) {
+                boolean blocked = verdict.getDecision() == ContentModerationDecision.BLOCK;
+                batch.add(new Object[] {
+                        id,
+                        (verdict.getCategory() == ContentCategory.SPAM ? FlagType.SPAM : FlagType.INAPPROPRIATE).name(),
+                        truncate(verdict.getReason(), 500),
+                        verdict.getScore() != null ? verdict.getScore() / 100.0 : null,
+                        (blocked ? FlagSeverity.HIGH : FlagSeverity.MEDIUM).name(),
+                        FlagStatus.PENDING.name(),
+                        AUTO_ACTION,
+                        id, FlagStatus.PENDING.name(), FlagStatus.REVIEWING.name()
+                });
+            } else if (target == Target.REVIEW && verdict.getDecision() == ContentModerationDecision.BLOCK) {
+                batch.add(new Object[] {truncate(verdict.getReason(), 255), id});
+            }
+        }
+
+        if (!batch.isEmpty()) {
+            jdbcTemplate.batchUpdate(target == Target.LISTING ? INSERT_FLAG_SQL : HIDE_REVIEW_SQL, batch);
+        }
+    }
+
+    private long loadCheckpoint(Target target) {
+        return systemParameterRepository.findById(CHECKPOINT_KEY.formatted(target.name().toLowerCase()))
+                .map(SystemParameter::getValue)
+                .map(Long::parseLong)
+                .orElse(0L);
+    }
+
+    private void saveCheckpoint(Target target, long lastId) {
+        systemParameterRepository.save(SystemParameter.builder()
+                .key(CHECKPOINT_KEY.formatted(target.name().toLowerCase()))
+                .value(String.valueOf(lastId))
+                .description("Last " + target.name().toLowerCase() + " id re-moderated by the backfill")
+                .scope("MODERATION")
+                .build());
+    }
+
+    private static String truncate(String value, int max) {
+        return value != null && value.length() > max ? value.substring(0, max) : value;
+    }
+
+    private static final class Run {
+        final Target target;
+        final LocalDateTime startedAt = LocalDateTime.now();
+        final AtomicLong processed = new AtomicLong();
+        final AtomicLong approved = new AtomicLong();
+        final AtomicLong flagged = new AtomicLong();
+        final AtomicLong blocked = new AtomicLong();
+        final AtomicLong aiReviewed = new AtomicLong();
+
+        volatile long total;
+        volatile long checkpointId;
+        volatile String status = "RUNNING";
+        volatile boolean stopRequested;
+        volatile LocalDateTime finishedAt;
+        volatile String error;
+
+        Run(Target target, long checkpointId) {
+            this.target = target;
+            this.checkpointId = checkpointId;
+        }
+
+        boolean isActive() {
+            return finishedAt == null;
+        }
+
+        void record(List<BulkModerationEngine.Outcome> outcomes, long lastId) {
+            for (BulkModerationEngine.Outcome outcome : outcomes) {
+                switch (outcome.verdict().getDecision()) {
+                    case APPROVE -> approved.incrementAndGet();
+                    case FLAG -> flagged.incrementAndGet();
+                    case BLOCK -> blocked.incrementAndGet();
+                }
+                if (outcome.aiReviewed()) {
+                    aiReviewed.incrementAndGet();
+                }
+            }
+            processed.addAndGet(outcomes.size());
+            checkpointId = lastId;
+        }
+
+        ModerationBackfillResponse toResponse() {
+            return ModerationBackfillResponse.builder()
+                    .target(target.name())
+                    .status(status)
+                    .total(total)
+                    .processed(processed.get())
+                    .approved(approved.get())
+                    .flagged(flagged.get())
+                    .blocked(blocked.get())
+                    .aiReviewed(aiReviewed.get())
+                    .checkpointId(checkpointId)
+                    .startedAt(startedAt)
+                    .finishedAt(finishedAt)
+                    .error(error)
+                    .build();
+        }
+    }
+}
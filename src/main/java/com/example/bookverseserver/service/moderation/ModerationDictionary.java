@@ -0,0 +1,111 @@
+package com.example.bookverseserver.service.moderation;
+
+import com.example.bookverseserver.enums.ContentSeverity;
+import com.example.bookverseserver.enums.ModerationTermList;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Immutable, fully compiled moderation dictionary.
+ *
+ * Everything the rule engine needs is precomputed here - normalized severity terms
+ * with their automaton and fuzzy index, compiled regexes, lowercased whitelists -
+ * so a request only ever sees a complete snapshot. Reloads build a new instance
+ * and swap it in; see {@link ModerationDictionaryService}.
+ */
+@Getter
+@Slf4j
+public final class ModerationDictionary {
+
+    /**
+     * A critical/high/medium term, normalized for matching.
+     */
+    public record Term(String term, String normalized, ContentSeverity severity) {}
+
+    private final long version;
+    private final String source;
+    private final LocalDateTime loadedAt = LocalDateTime.now();
+    private final Map<ModerationTermList, Integer> sizes;
+
+    // Ordered critical, then high, then medium; ids match the matcher and index
+    private final List<Term> blockedTerms;
+    private final AhoCorasickMatcher termMatcher;
+    private final FuzzyTermIndex fuzzyTermIndex;
+
+    private final List<String> bookWhitelist;
+    private final List<String> bookTitlesWhitelist;
+    private final List<Pattern> trollPatterns;
+    private final List<Pattern> spamPatterns;
+    private final List<String> offTopicKeywords;
+
+    private ModerationDictionary(long version, String source, Map<ModerationTermList, List<String>> lists) {
+        this.version = version;
+        this.source = source;
+
+        Map<ModerationTermList, Integer> counts = new EnumMap<>(ModerationTermList.class);
+        for (ModerationTermList list : ModerationTermList.values()) {
+            counts.put(list, get(lists, list).size());
+        }
+        this.sizes = Collections.unmodifiableMap(counts);
+
+        List<Term> terms = new ArrayList<>();
+        addTerms(terms, get(lists, ModerationTermList.CRITICAL), ContentSeverity.CRITICAL);
+        addTerms(terms, get(lists, ModerationTermList.HIGH), ContentSeverity.HIGH);
+        addTerms(terms, get(lists, ModerationTermList.MEDIUM), ContentSeverity.MEDIUM);
+        List<String> normalized = terms.stream().map(Term::normalized).toList();
+        this.blockedTerms = List.copyOf(terms);
+        this.termMatcher = AhoCorasickMatcher.compile(normalized);
+        this.fuzzyTermIndex = FuzzyTermIndex.compile(normalized);
+
+        this.bookWhitelist = lowercase(get(lists, ModerationTermList.BOOK_WHITELIST));
+        this.bookTitlesWhitelist = lowercase(get(lists, ModerationTermList.BOOK_TITLES_WHITELIST));
+        this.offTopicKeywords = lowercase(get(lists, ModerationTermList.OFF_TOPIC_KEYWORDS));
+        this.trollPatterns = compilePatterns(get(lists, ModerationTermList.TROLL_PATTERNS));
+        this.spamPatterns = compilePatterns(get(lists, ModerationTermList.SPAM_PATTERNS));
+    }
+
+    public static ModerationDictionary compile(long version, String source, Map<ModerationTermList, List<String>> lists) {
+        return new ModerationDictionary(version, source, lists);
+    }
+
+    private static List<String> get(Map<ModerationTermList, List<String>> lists, ModerationTermList list) {
+        return lists.getOrDefault(list, List.of());
+    }
+
+    private static void addTerms(List<Term> target, List<String> terms, ContentSeverity severity) {
+        for (String term : terms) {
+            String normalized = TextNormalizer.normalize(term);
+            if (normalized.isEmpty()) {
+                // Would match every text
+                log.warn("⚠️ Ignoring blocked term that normalizes to nothing: '{}'", term);
+                continue;
+            }
+            target.add(new Term(term, normalized, severity));
+        }
+    }
+
+    private static List<String> lowercase(List<String> terms) {
+        return terms.stream().map(String::toLowerCase).toList();
+    }
+
+    private static List<Pattern> compilePatterns(List<String> patterns) {
+        List<Pattern> compiled = new ArrayList<>(patterns.size());
+        for (String pattern : patterns) {
+            try {
+                compiled.add(Pattern.compile(pattern, Pattern.CASE_INSENSITIVE));
+            } catch (PatternSyntaxException e) {
+                log.warn("⚠️ Ignoring invalid moderation pattern '{}': {}", pattern, e.getDescription());
+            }
+        }
+        return List.copyOf(compiled);
+    }
+}
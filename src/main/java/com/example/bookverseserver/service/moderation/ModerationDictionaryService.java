@@ -0,0 +1,291 @@
+package com.example.bookverseserver.service.moderation;
+
+import com.example.bookverseserver.dto.request.Moderation.ModerationTermRequest;
+import com.example.bookverseserver.dto.response.Moderation.ModerationDictionaryResponse;
+import com.example.bookverseserver.dto.response.Moderation.ModerationTermResponse;
+import com.example.bookverseserver.entity.Moderation.ModerationTerm;
+import com.example.bookverseserver.enums.ModerationTermList;
+import com.example.bookverseserver.exception.AppException;
+import com.example.bookverseserver.exception.ErrorCode;
+import com.example.bookverseserver.repository.ModerationTermRepository;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+import static lombok.AccessLevel.PRIVATE;
+
+/**
+ * Owns the live {@link ModerationDictionary}.
+ *
+ * Terms come from the dictionary file ({@code app.moderation.dictionary-location},
+ * blocked_terms.json by default) plus active {@link ModerationTerm} rows added by moderators.
+ * A reload compiles a whole new snapshot on a dedicated thread and publishes it with
+ * one volatile write: requests keep using the previous snapshot until then, never a
+ * half-built one, and never wait for compilation.
+ *
+ * Reloads run when a moderator adds or removes a term, and when polling notices the
+ * file or the term table changed (e.g. edited on another instance). A failed reload
+ * keeps the current snapshot.
+ */
+@Service
+@FieldDefaults(level = PRIVATE)
+@Slf4j
+public class ModerationDictionaryService {
+
+    // FAIL-CLOSED: Hardcoded fallback critical terms if the dictionary file fails to load
+    // These are the absolute minimum that MUST always be blocked
+    static final List<String> FALLBACK_CRITICAL_TERMS = List.of(
+        "kill yourself", "kill urself", "commit suicide",
+        "child porn", "child exploitation",
+        "i will kill you", "gonna kill you"
+    );
+
+    final ObjectMapper objectMapper;
+    final ResourceLoader resourceLoader;
+    final ModerationTermRepository moderationTermRepository;
+    final Executor executor;
+    final String location;
+
+    final AtomicLong versions = new AtomicLong();
+    final AtomicBoolean reloadQueued = new AtomicBoolean();
+
+    volatile ModerationDictionary dictionary;
+
+    // What the live snapshot was built from, for change polling
+    volatile long loadedFileStamp;
+    volatile String loadedDbStamp = "";
+
+    public ModerationDictionaryService(ObjectMapper objectMapper,
+                                       ResourceLoader resourceLoader,
+                                       ModerationTermRepository moderationTermRepository,
+                                       @Qualifier("moderationDictionaryExecutor") Executor executor,
+                                       @Value("${app.moderation.dictionary-location:classpath:moderation/blocked_terms.json}") String location) {
+        this.objectMapper = objectMapper;
+        this.resourceLoader = resourceLoader;
+        this.moderationTermRepository = moderationTermRepository;
+        this.executor = executor;
+        this.location = location;
+    }
+
+    /**
+     * First load is synchronous so moderation never runs without a dictionary.
+     */
+    @PostConstruct
+    public void init() {
+        dictionary = build(true);
+    }
+
+    /**
+     * @return The live snapshot; read it once per moderation call and use that instance throughout
+     */
+    public ModerationDictionary current() {
+        return dictionary;
+    }
+
+    /**
+     * Queue a reload on the dictionary thread. Requests arriving while one is already
+     * queued are coalesced into it.
+     */
+    public void reloadAsync() {
+        if (reloadQueued.compareAndSet(false, true)) {
+            executor.execute(() -> {
+                reloadQueued.set(false);
+                reload();
+            });
+        }
+    }
+
+    /**
+     * Build and publish a new snapshot on the calling thread.
+     *
+     * @return The live snapshot afterwards - the previous one if the reload failed
+     */
+    public synchronized ModerationDictionary reload() {
+        try {
+            ModerationDictionary next = build(false);
+            dictionary = next;
+            log.info("🔄 Moderation dictionary v{} published ({})", next.getVersion(), next.getSource());
+        } catch (Exception e) {
+            log.error("❌ Moderation dictionary reload failed, keeping v{}: {}",
+                dictionary.getVersion(), e.getMessage());
+        }
+        return dictionary;
+    }
+
+    @Scheduled(fixedDelayString = "${app.moderation.dictionary-poll-millis:30000}")
+    public void checkForChanges() {
+        if (fileStamp() != loadedFileStamp || !dbStamp().equals(loadedDbStamp)) {
+            log.debug("Moderation dictionary source changed, reloading");
+            reloadAsync();
+        }
+    }
+
+    // ============ Moderator term management ============
+
+    public List<ModerationTermResponse> getTerms() {
+        return moderationTermRepository.findByActiveTrueOrderByIdAsc().stream()
+            .map(this::toResponse)
+            .toList();
+    }
+
+    public ModerationTermResponse addTerm(ModerationTermRequest request, Long moderatorId) {
+        String term = request.getTerm().trim();
+        if (request.getList().isPattern()) {
+            try {
+                Pattern.compile(term);
+            } catch (PatternSyntaxException e) {
+                throw new AppException(ErrorCode.INVALID_MODERATION_PATTERN);
+            }
+        }
+
+        ModerationTerm entity = moderationTermRepository.findByTermAndList(term, request.getList())
+            .orElseGet(() -> ModerationTerm.builder()
+                .term(term)
+                .list(request.getList())
+                .createdBy(moderatorId)
+                .build());
+        entity.setActive(true);
+        entity = moderationTermRepository.save(entity);
+
+        log.info("Moderator {} added '{}' to {} moderation list", moderatorId, term, request.getList());
+        reloadAsync();
+        return toResponse(entity);
+    }
+
+    public void removeTerm(Long termId, Long moderatorId) {
+        ModerationTerm entity = moderationTermRepository.findById(termId)
+            .orElseThrow(() -> new AppException(ErrorCode.MODERATION_TERM_NOT_FOUND));
+        entity.setActive(false);
+        moderationTermRepository.save(entity);
+
+        log.info("Moderator {} removed '{}' from {} moderation list", moderatorId, entity.getTerm(), entity.getList());
+        reloadAsync();
+    }
+
+    public ModerationDictionaryResponse getDictionaryInfo() {
+        ModerationDictionary live = dictionary;
+        return ModerationDictionaryResponse.builder()
+            .version(live.getVersion())
+            .source(live.getSource())
+            .loadedAt(live.getLoadedAt())
+            .sizes(live.getSizes())
+            .build();
+    }
+
+    // ============ Loading ============
+
+    private ModerationDictionary build(boolean initial) {
+        // Stamps first: a change landing mid-build is picked up by the next poll
+        long fileStamp = fileStamp();
+        String dbStamp = dbStamp();
+
+        Map<ModerationTermList, List<String>> lists = new EnumMap<>(ModerationTermList.class);
+        String source;
+        try {
+            lists.putAll(readFile());
+            source = location;
+        } catch (IOException e) {
+            if (!initial) {
+                throw new UncheckedIOException(e);
+            }
+            log.error("❌ Failed to load {}: {} — USING FALLBACK CRITICAL TERMS", location, e.getMessage());
+            // FAIL-CLOSED: Use hardcoded fallback for critical terms, NEVER allow moderation to be a no-op
+            lists.put(ModerationTermList.CRITICAL, new ArrayList<>(FALLBACK_CRITICAL_TERMS));
+            source = "fallback critical terms";
+        }
+
+        int dbTerms = 0;
+        try {
+            for (ModerationTerm term : moderationTermRepository.findByActiveTrueOrderByIdAsc()) {
+                List<String> list = lists.computeIfAbsent(term.getList(), key -> new ArrayList<>());
+                if (!list.contains(term.getTerm())) {
+                    list.add(term.getTerm());
+                    dbTerms++;
+                }
+            }
+        } catch (RuntimeException e) {
+            if (!initial) {
+                throw e;
+            }
+            log.warn("⚠️ Moderator-added terms unavailable, starting with file terms only: {}", e.getMessage());
+        }
+
+        ModerationDictionary compiled = ModerationDictionary.compile(
+            versions.incrementAndGet(), source + " + " + dbTerms + " moderator terms", lists);
+        loadedFileStamp = fileStamp;
+        loadedDbStamp = dbStamp;
+
+        Map<ModerationTermList, Integer> sizes = compiled.getSizes();
+        log.info("✅ Loaded blocked terms: {} critical, {} high, {} medium, {} phrase whitelist, {} title whitelist",
+            sizes.get(ModerationTermList.CRITICAL), sizes.get(ModerationTermList.HIGH),
+            sizes.get(ModerationTermList.MEDIUM), sizes.get(ModerationTermList.BOOK_WHITELIST),
+            sizes.get(ModerationTermList.BOOK_TITLES_WHITELIST));
+        return compiled;
+    }
+
+    private Map<ModerationTermList, List<String>> readFile() throws IOException {
+        Map<String, List<String>> raw;
+        try (InputStream inputStream = resourceLoader.getResource(location).getInputStream()) {
+            raw = objectMapper.readValue(inputStream, new TypeReference<>() {});
+        }
+
+        Map<ModerationTermList, List<String>> lists = new EnumMap<>(ModerationTermList.class);
+        for (ModerationTermList list : ModerationTermList.values()) {
+            lists.put(list, new ArrayList<>(raw.getOrDefault(list.getJsonKey(), List.of())));
+        }
+        return lists;
+    }
+
+    private long fileStamp() {
+        try {
+            Resource resource = resourceLoader.getResource(location);
+            return resource.exists() ? resource.lastModified() : 0L;
+        } catch (IOException e) {
+            return 0L;
+        }
+    }
+
+    private String dbStamp() {
+        try {
+            String latest = moderationTermRepository.findTopByOrderByUpdatedAtDesc()
+                .map(term -> String.valueOf(term.getUpdatedAt()))
+                .orElse("");
+            return moderationTermRepository.count() + "@" + latest;
+        } catch (RuntimeException e) {
+            // Unreachable database: don't reload in a loop
+            return loadedDbStamp;
+        }
+    }
+
+    private ModerationTermResponse toResponse(ModerationTerm term) {
+        return ModerationTermResponse.builder()
+            .id(term.getId())
+            .term(term.getTerm())
+            .list(term.getList())
+            .active(term.getActive())
+            .createdBy(term.getCreatedBy())
+            .createdAt(term.getCreatedAt())
+            .build();
+    }
+}
@@ -0,0 +1,197 @@
+package com.example.bookverseserver.service.moderation;
+
+import java.text.Normalizer;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Single-pass text normalization for moderation matching.
+ *
+ * Everything that used to be separate passes - NFKD decomposition, zero-width
+ * stripping, Cyrillic/Greek homoglyphs, lowercasing, leet speak and "anything else
+ * becomes a space" - is folded into one lookup table indexed by char, precomputed
+ * once per JVM. Normalizing is then a walk over the input that also collapses
+ * repeats and whitespace as it writes, followed by an in-place pass joining spaced
+ * single letters ("k i l l" -> "kill").
+ *
+ * Output only contains {@code [a-z]} and single spaces, with no leading or trailing space.
+ */
+public final class TextNormalizer {
+
+    // FOLD[c] == DROP: char disappears; == EXPAND: see EXPANSIONS (ligatures, "①"...)
+    private static final char DROP = '\0';
+    private static final char EXPAND = '\uFFFF';
+
+    private static final char[] FOLD = new char[Character.MAX_VALUE + 1];
+    private static final Map<Character, char[]> EXPANSIONS = new HashMap<>();
+
+    // Extended leet speak normalization
+    private static final Map<Character, Character> LEET_MAP = new HashMap<>();
+    static {
+        // Basic leet
+        LEET_MAP.put('4', 'a'); LEET_MAP.put('@', 'a');
+        LEET_MAP.put('3', 'e'); LEET_MAP.put('€', 'e');
+        LEET_MAP.put('1', 'i'); LEET_MAP.put('!', 'i'); LEET_MAP.put('|', 'i');
+        LEET_MAP.put('0', 'o');
+        LEET_MAP.put('5', 's'); LEET_MAP.put('$', 's');
+        LEET_MAP.put('7', 't'); LEET_MAP.put('+', 't');
+        LEET_MAP.put('8', 'b');
+        LEET_MAP.put('6', 'g'); LEET_MAP.put('9', 'g');
+        LEET_MAP.put('2', 'z');
+    }
+
+    // Cyrillic homoglyph map (lookalike characters used to bypass filters), applied before lowercasing
+    private static final Map<Character, Character> HOMOGLYPH_MAP = new HashMap<>();
+    static {
+        // Cyrillic lookalikes → Latin (using Unicode escapes for reliability)
+        HOMOGLYPH_MAP.put('\u0430', 'a'); HOMOGLYPH_MAP.put('\u0410', 'a'); // Cyrillic а/А → a
+        HOMOGLYPH_MAP.put('\u0435', 'e'); HOMOGLYPH_MAP.put('\u0415', 'e'); // Cyrillic е/Е → e
+        HOMOGLYPH_MAP.put('\u0456', 'i'); HOMOGLYPH_MAP.put('\u0406', 'i'); // Cyrillic і/І → i
+        HOMOGLYPH_MAP.put('\u043E', 'o'); HOMOGLYPH_MAP.put('\u041E', 'o'); // Cyrillic о/О → o
+        HOMOGLYPH_MAP.put('\u0440', 'p'); HOMOGLYPH_MAP.put('\u0420', 'p'); // Cyrillic р/Р → p
+        HOMOGLYPH_MAP.put('\u0441', 'c'); HOMOGLYPH_MAP.put('\u0421', 'c'); // Cyrillic с/С → c
+        HOMOGLYPH_MAP.put('\u0443', 'y'); HOMOGLYPH_MAP.put('\u0423', 'y'); // Cyrillic у/У → y
+        HOMOGLYPH_MAP.put('\u0445', 'x'); HOMOGLYPH_MAP.put('\u0425', 'x'); // Cyrillic х/Х → x
+        HOMOGLYPH_MAP.put('\u0412', 'b'); // Cyrillic В → b
+        HOMOGLYPH_MAP.put('\u041D', 'h'); // Cyrillic Н → h
+        HOMOGLYPH_MAP.put('\u041A', 'k'); // Cyrillic К → k
+        HOMOGLYPH_MAP.put('\u041C', 'm'); // Cyrillic М → m
+        HOMOGLYPH_MAP.put('\u0422', 't'); // Cyrillic Т → t
+        // Greek lookalikes
+        HOMOGLYPH_MAP.put('\u03B1', 'a'); // Greek α → a
+        HOMOGLYPH_MAP.put('\u03B5', 'e'); // Greek ε → e
+        HOMOGLYPH_MAP.put('\u03BF', 'o'); // Greek ο → o
+    }
+
+    static {
+        StringBuilder folded = new StringBuilder();
+        for (int c = 0; c <= Character.MAX_VALUE; c++) {
+            char ch = (char) c;
+            if (Character.isSurrogate(ch)) {
+                FOLD[c] = ' ';
+                continue;
+            }
+            folded.setLength(0);
+            for (char d : Normalizer.normalize(String.valueOf(ch), Normalizer.Form.NFKD).toCharArray()) {
+                if (isInvisible(d)) {
+                    continue;
+                }
+                char lower = Character.toLowerCase(HOMOGLYPH_MAP.getOrDefault(d, d));
+                char mapped = LEET_MAP.getOrDefault(lower, lower);
+                folded.append(mapped >= 'a' && mapped <= 'z' ? mapped : ' ');
+            }
+
+            if (folded.isEmpty()) {
+                FOLD[c] = DROP;
+            } else if (folded.length() == 1) {
+                FOLD[c] = folded.charAt(0);
+            } else {
+                FOLD[c] = EXPAND;
+                EXPANSIONS.put(ch, folded.toString().toCharArray());
+            }
+        }
+    }
+
+    private TextNormalizer() {
+    }
+
+    /**
+     * Zero-width and formatting chars used to split words ("nig\u200Bger"), plus
+     * combining accents left over from NFKD ("é" -> "e").
+     */
+    private static boolean isInvisible(char d) {
+        if ((d >= '\u200B' && d <= '\u200D') || d == '\uFEFF' || d == '\u00AD' || d == '\u034F'
+                || (d >= '\u2060' && d <= '\u2064')) {
+            return true;
+        }
+        int type = Character.getType(d);
+        return type == Character.NON_SPACING_MARK || type == Character.ENCLOSING_MARK
+                || type == Character.COMBINING_SPACING_MARK;
+    }
+
+    public static String normalize(String text) {
+        if (text == null || text.isEmpty()) {
+            return "";
+        }
+
+        char[] out = new char[text.length()];
+        int len = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char ch = text.charAt(i);
+            char f = FOLD[ch];
+            if (f == DROP) {
+                continue;
+            }
+            if (f != EXPAND) {
+                len = emit(out, len, f);
+                continue;
+            }
+            char[] expansion = EXPANSIONS.get(ch);
+            // Room for the expansion plus one char per remaining input char
+            int needed = len + expansion.length + (text.length() - i - 1);
+            if (needed > out.length) {
+                out = Arrays.copyOf(out, Math.max(out.length * 2, needed));
+            }
+            for (char e : expansion) {
+                len = emit(out, len, e);
+            }
+        }
+        if (len > 0 && out[len - 1] == ' ') {
+            len--;
+        }
+
+        len = joinSpacedLetters(out, len);
+        return new String(out, 0, len);
+    }
+
+    /**
+     * Append one folded char: no leading or doubled spaces, no run of 3+ equal letters.
+     */
+    private static int emit(char[] out, int len, char f) {
+        if (f == ' ') {
+            if (len == 0 || out[len - 1] == ' ') {
+                return len;
+            }
+        } else if (len >= 2 && out[len - 1] == f && out[len - 2] == f) {
+            return len;
+        }
+        out[len] = f;
+        return len + 1;
+    }
+
+    /**
+     * Join consecutive single-letter words in place: "k i l l" -> "kill".
+     */
+    private static int joinSpacedLetters(char[] out, int len) {
+        int w = 0;
+        boolean previousSingle = false;
+        int start = 0;
+        while (start < len) {
+            int end = start;
+            while (end < len && out[end] != ' ') {
+                end++;
+            }
+            boolean single = end - start == 1;
+
+            if (single && previousSingle) {
+                // Drop the separating space, keeping the repeat cap
+                char c = out[start];
+                w--;
+                if (!(w >= 2 && out[w - 1] == c && out[w - 2] == c)) {
+                    out[w++] = c;
+                }
+            } else {
+                for (int i = start; i < end; i++) {
+                    out[w++] = out[i];
+                }
+            }
+            if (end < len) {
+                out[w++] = ' ';
+            }
+            previousSingle = single;
+            start = end + 1;
+        }
+        return w;
+    }
+}
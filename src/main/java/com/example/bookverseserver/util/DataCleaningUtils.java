@@ -249,7 +249,6 @@ public final class DataCleaningUtils {
         Map.entry("лев николаевич толстой", "Leo Tolstoy"),
         Map.entry("фёдор достоевский", "Fyodor Dostoevsky"),
         Map.entry("фёдор михайлович достоевский", "Fyodor Dostoevsky"),
-        Map.entry("фёдор достоевский", "Fyodor Dostoevsky"),
         Map.entry("антон чехов", "Anton Chekhov"),
         Map.entry("антон павлович чехов", "Anton Chekhov"),
         Map.entry("александр пушкин", "Alexander Pushkin"),
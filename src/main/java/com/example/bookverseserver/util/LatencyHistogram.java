@@ -0,0 +1,88 @@
+package com.example.bookverseserver.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free latency histogram over fixed buckets (upper bounds in {@link #BOUNDS_MILLIS},
+ * plus one overflow bucket).
+ *
+ * Recording is a couple of adds; percentiles are reported as the upper bound of the
+ * bucket they fall in, -1 past the last bound.
+ */
+public class LatencyHistogram {
+
+    public static final long[] BOUNDS_MILLIS = {5, 10, 25, 50, 100, 250, 500, 1000, 2500, 5000, 10000};
+
+    private final LongAdder totalMillis = new LongAdder();
+    private final LongAdder[] buckets = new LongAdder[BOUNDS_MILLIS.length + 1];
+
+    public LatencyHistogram() {
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    public void record(long millis) {
+        totalMillis.add(millis);
+        buckets[bucketOf(millis)].increment();
+    }
+
+    public Snapshot snapshot() {
+        long[] counts = new long[buckets.length];
+        long count = 0;
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = buckets[i].sum();
+            count += counts[i];
+        }
+        return new Snapshot(counts, count, totalMillis.sum());
+    }
+
+    static int bucketOf(long millis) {
+        for (int i = 0; i < BOUNDS_MILLIS.length; i++) {
+            if (millis <= BOUNDS_MILLIS[i]) {
+                return i;
+            }
+        }
+        return BOUNDS_MILLIS.length;
+    }
+
+    /**
+     * Bucket counts read at one point in time.
+     */
+    public record Snapshot(long[] counts, long count, long totalMillis) {
+
+        public long meanMillis() {
+            return count == 0 ? 0 : totalMillis / count;
+        }
+
+        public long percentileMillis(double quantile) {
+            if (count == 0) {
+                return 0;
+            }
+            long rank = (long) Math.ceil(count * quantile);
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return i < BOUNDS_MILLIS.length ? BOUNDS_MILLIS[i] : -1;
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * @return Bucket label ("le100ms", ..., "gt10000ms") to count, in bucket order
+         */
+        public Map<String, Long> buckets() {
+            Map<String, Long> buckets = new LinkedHashMap<>();
+            for (int i = 0; i < counts.length; i++) {
+                buckets.put(i < BOUNDS_MILLIS.length
+                        ? "le" + BOUNDS_MILLIS[i] + "ms"
+                        : "gt" + BOUNDS_MILLIS[BOUNDS_MILLIS.length - 1] + "ms", counts[i]);
+            }
+            return buckets;
+        }
+    }
+}
@@ -0,0 +1,433 @@
+package com.example.bookverseserver.util;
+
+import java.text.Normalizer;
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Deterministic parser for common book search queries.
+ *
+ * Handles the patterns most people actually type, in English and Vietnamese:
+ * - Price limits: "under 100k", "dưới 150.000đ", "$10-$20", "từ 50k đến 100k", "below 1tr"
+ * - Ratings: "4+ stars", "at least 4 stars", "4 sao trở lên"
+ * - Condition: "like new", "như mới", "very good", "brand new"
+ * - Author: "by Agatha Christie", "của Nguyễn Nhật Ánh", "tác giả ..."
+ * - Categories: keyword match via {@link ExternalCategoryMapper}
+ *
+ * Returns empty when the query needs interpretation ("something like Dune but
+ * shorter", "cheap gift for my dad", a bare "under 15") - those go to the LLM.
+ */
+public final class SearchQueryParser {
+
+    private static final int MAX_FREE_TEXT_WORDS = 6;
+
+    private static final double THOUSAND = 1_000;
+    private static final double MILLION = 1_000_000;
+
+    // Amount token, already accent-folded: "$15", "100k", "150.000d", "1.5tr", "200"
+    private static final Pattern AMOUNT = Pattern.compile(
+            "^(\\$)?(\\d+(?:[.,]\\d+)*)(k|nghin|ngan|tr|trieu|m|d|vnd|dong|usd|\\$)?$");
+
+    private static final Map<String, Double> UNIT_WORDS = Map.ofEntries(
+            Map.entry("k", THOUSAND), Map.entry("nghin", THOUSAND), Map.entry("ngan", THOUSAND),
+            Map.entry("tr", MILLION), Map.entry("trieu", MILLION), Map.entry("m", MILLION),
+            Map.entry("million", MILLION),
+            Map.entry("d", 1.0), Map.entry("vnd", 1.0), Map.entry("dong", 1.0)
+    );
+    private static final Set<String> USD_WORDS = Set.of("$", "usd", "dollar", "dollars", "bucks");
+
+    // A bare number followed by one of these counts something other than money
+    private static final Set<String> COUNT_NOUNS = Set.of(
+            "page", "pages", "year", "years", "chapter", "chapters", "word", "words", "volume", "volumes",
+            "edition", "editions", "copy", "copies", "review", "reviews", "star", "stars", "hour", "hours",
+            "trang", "nam", "chuong", "tap", "cuon", "quyen"
+    );
+
+    private static final List<String[]> MAX_PRICE_PHRASES = phrases(
+            "under", "below", "less than", "cheaper than", "max", "maximum", "up to", "at most",
+            "no more than", "within", "<", "<=", "duoi", "toi da", "khong qua", "re hon", "it hon"
+    );
+    private static final List<String[]> MIN_PRICE_PHRASES = phrases(
+            "over", "above", "more than", "at least", "min", "minimum", "from", ">", ">=",
+            "tren", "hon", "tu", "toi thieu"
+    );
+    private static final List<String[]> RANGE_SEPARATORS = phrases("-", "to", "and", "den", "toi");
+
+    private static final Set<String> STAR_WORDS = Set.of("star", "stars", "sao", "rating");
+    private static final List<String[]> RATING_PREFIXES = phrases(
+            "at least", "rated", "rating", "min", "minimum", "over", "above", "tu", "tren", "it nhat"
+    );
+    private static final List<String[]> RATING_SUFFIXES = phrases(
+            "+", "and up", "& up", "or more", "or higher", "and above", "tro len"
+    );
+
+    // Most specific first so "like new" wins over "new"
+    private static final Map<String, List<String[]>> CONDITION_PHRASES = new LinkedHashMap<>();
+    static {
+        CONDITION_PHRASES.put("LIKE_NEW", phrases("like new", "like-new", "nhu moi", "mint"));
+        CONDITION_PHRASES.put("VERY_GOOD", phrases("very good", "rat tot"));
+        CONDITION_PHRASES.put("NEW", phrases("brand new", "new condition", "unused", "sach moi", "moi 100%"));
+        CONDITION_PHRASES.put("GOOD", phrases("good condition", "con tot"));
+        CONDITION_PHRASES.put("ACCEPTABLE", phrases("acceptable", "well read", "well-read"));
+    }
+
+    private static final List<String[]> AUTHOR_MARKERS = phrases(
+            "by", "author", "written by", "tac gia", "cua", "viet boi"
+    );
+
+    private static final Set<String> FILLER_WORDS = Set.of(
+            "a", "an", "the", "book", "books", "novel", "novels", "find", "show", "me", "search",
+            "for", "with", "in", "of", "price", "priced", "cost", "costing", "condition", "copy",
+            "copies", "sach", "cuon", "quyen", "tim", "gia", "loai", "ve", "dong"
+    );
+
+    // Words that mean the user wants judgement, not filtering
+    private static final Set<String> VAGUE_WORDS = Set.of(
+            "like", "similar", "recommend", "recommendation", "suggest", "something", "anything",
+            "feel", "feeling", "vibe", "vibes", "mood", "gift", "cheap", "affordable", "expensive",
+            "best", "good", "great", "popular", "trending", "but", "not", "without", "?",
+            "giong", "goi", "y", "hay", "re", "dat", "qua", "tang"
+    );
+
+    private SearchQueryParser() {
+    }
+
+    /**
+     * Structured filters extracted from a query. Prices are in VND.
+     */
+    public record ParsedQuery(
+            String searchTerms,
+            String author,
+            List<String> categories,
+            Double minPrice,
+            Double maxPrice,
+            Double minRating,
+            String condition
+    ) {}
+
+    /**
+     * Parse a query locally.
+     *
+     * @param usdToVnd rate used for "$"/"usd" amounts
+     * @return parsed filters, or empty if the query needs the LLM
+     */
+    public static Optional<ParsedQuery> parse(String query, double usdToVnd) {
+        if (query == null || query.isBlank()) {
+            return Optional.empty();
+        }
+
+        // Split "50k-100k" / "$10-$20" into separate tokens
+        String spaced = query.trim()
+                .replaceAll("(\\d[\\p{L}$.]*)\\s*[-–]\\s*(?=\\$?\\d)", "$1 - ")
+                .replaceAll("(\\d)\\+", "$1 +")
+                .replaceAll("[,;!]+(\\s|$)", " ");
+
+        String[] raw = spaced.split("\\s+");
+        String[] folded = new String[raw.length];
+        for (int i = 0; i < raw.length; i++) {
+            folded[i] = fold(raw[i]);
+        }
+        boolean[] used = new boolean[raw.length];
+
+        Double minRating = parseRating(folded, used);
+        if (minRating != null && minRating < 0) {
+            return Optional.empty();
+        }
+
+        double[] price = {Double.NaN, Double.NaN};
+        if (!parsePrice(folded, used, usdToVnd, price)) {
+            return Optional.empty();
+        }
+
+        String condition = parseCondition(folded, used);
+        String author = parseAuthor(raw, folded, used);
+
+        List<String> leftoverRaw = new ArrayList<>();
+        List<String> leftoverFolded = new ArrayList<>();
+        for (int i = 0; i < raw.length; i++) {
+            if (used[i]) {
+                continue;
+            }
+            if (VAGUE_WORDS.contains(folded[i]) || raw[i].endsWith("?")) {
+                return Optional.empty();
+            }
+            if (!FILLER_WORDS.contains(folded[i])) {
+                leftoverRaw.add(raw[i]);
+                leftoverFolded.add(folded[i]);
+            }
+        }
+
+        if (leftoverRaw.size() > MAX_FREE_TEXT_WORDS) {
+            return Optional.empty();
+        }
+
+        List<String> categories = ExternalCategoryMapper.mapToCanonical(
+                leftoverFolded.isEmpty() ? List.of() : List.of(String.join(" ", leftoverFolded)));
+
+        // A bare category name is a filter, not a search term
+        List<String> searchTerms = new ArrayList<>();
+        for (int i = 0; i < leftoverRaw.size(); i++) {
+            if (!isCategoryName(leftoverFolded.get(i))) {
+                searchTerms.add(leftoverRaw.get(i));
+            }
+        }
+
+        return Optional.of(new ParsedQuery(
+                String.join(" ", searchTerms),
+                author,
+                categories.isEmpty() ? null : categories,
+                Double.isNaN(price[0]) ? null : price[0],
+                Double.isNaN(price[1]) ? null : price[1],
+                minRating,
+                condition
+        ));
+    }
+
+    // ─────────────────────────────────────────────────────────────────────────────
+    // Passes (each marks the tokens it consumes)
+    // ─────────────────────────────────────────────────────────────────────────────
+
+    /**
+     * @return min rating, null if none, or -1 if a rating was mentioned but is invalid
+     */
+    private static Double parseRating(String[] t, boolean[] used) {
+        for (int i = 0; i < t.length; i++) {
+            if (used[i] || !t[i].matches("\\d(\\.\\d)?")) {
+                continue;
+            }
+            int end = i + 1;
+            if (end < t.length && t[end].equals("+")) {
+                end++;
+            }
+            boolean rated = i > 0 && !used[i - 1] && (t[i - 1].equals("rated") || t[i - 1].equals("rating"));
+            if (end < t.length && STAR_WORDS.contains(t[end])) {
+                end++;
+            } else if (!rated) {
+                continue;
+            }
+
+            double value = Double.parseDouble(t[i]);
+            if (value > 5) {
+                return -1.0;
+            }
+
+            int start = i;
+            for (String[] prefix : RATING_PREFIXES) {
+                if (i - prefix.length >= 0 && matchAt(t, used, i - prefix.length, prefix)) {
+                    start = i - prefix.length;
+                    break;
+                }
+            }
+            for (String[] suffix : RATING_SUFFIXES) {
+                if (matchAt(t, used, end, suffix)) {
+                    end += suffix.length;
+                    break;
+                }
+            }
+            Arrays.fill(used, start, end, true);
+            return value;
+        }
+        return null;
+    }
+
+    /**
+     * Fills {@code out} with [min, max]; returns false if an amount is ambiguous.
+     */
+    private static boolean parsePrice(String[] t, boolean[] used, double usdToVnd, double[] out) {
+        for (int i = 0; i < t.length; i++) {
+            if (used[i]) {
+                continue;
+            }
+
+            String[] op = matchAny(t, used, i, MAX_PRICE_PHRASES);
+            boolean isMax = op != null;
+            if (op == null) {
+                op = matchAny(t, used, i, MIN_PRICE_PHRASES);
+            }
+            if (op == null) {
+                // "between 50k and 100k" / "50k - 100k" with no leading operator
+                op = t[i].equals("between") ? new String[]{"between"} : new String[0];
+            }
+
+            int pos = i + op.length;
+            Amount first = parseAmount(t, used, pos, usdToVnd);
+            if (first == null) {
+                continue;
+            }
+
+            int next = pos + first.tokens();
+            String[] sep = matchAny(t, used, next, RANGE_SEPARATORS);
+            Amount second = sep == null ? null : parseAmount(t, used, next + sep.length, usdToVnd);
+
+            if (second != null) {
+                int end = next + sep.length + second.tokens();
+                if (!second.hasUnit() && (notMoney(first, t, end) || notMoney(second, t, end))) {
+                    return false; // "from 1990 to 2000", "300 - 500 pages"
+                }
+                // "50-100k": the trailing unit applies to both ends
+                double low = first.hasUnit() ? first.value() : first.value() * second.multiplier();
+                if (!second.hasUnit() && low < THOUSAND) {
+                    return false;
+                }
+                out[0] = Math.min(low, second.value());
+                out[1] = Math.max(low, second.value());
+                Arrays.fill(used, i, next + sep.length + second.tokens(), true);
+            } else {
+                if (op.length == 0 || op[0].equals("between")) {
+                    if (!first.hasUnit()) {
+                        continue; // plain number, e.g. "1984" or "harry potter 3"
+                    }
+                    // A price with no direction ("mystery 100k") is a guess either way
+                    return false;
+                }
+                if (!first.hasUnit() && (first.value() < THOUSAND || notMoney(first, t, next))) {
+                    return false; // "under 15", "from 1945", "over 1000 pages"
+                }
+                out[isMax ? 1 : 0] = first.value();
+                Arrays.fill(used, i, next, true);
+            }
+            i = next - 1;
+        }
+        return true;
+    }
+
+    private static String parseCondition(String[] t, boolean[] used) {
+        for (int i = 0; i < t.length; i++) {
+            for (Map.Entry<String, List<String[]>> entry : CONDITION_PHRASES.entrySet()) {
+                String[] phrase = matchAny(t, used, i, entry.getValue());
+                if (phrase != null) {
+                    Arrays.fill(used, i, i + phrase.length, true);
+                    return entry.getKey();
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * "by Agatha Christie" - the name runs until the next consumed token or the end.
+     */
+    private static String parseAuthor(String[] raw, String[] t, boolean[] used) {
+        for (int i = 0; i < t.length; i++) {
+            String[] marker = matchAny(t, used, i, AUTHOR_MARKERS);
+            if (marker == null) {
+                continue;
+            }
+            int start = i + marker.length;
+            int end = start;
+            while (end < t.length && !used[end] && !FILLER_WORDS.contains(t[end])) {
+                end++;
+            }
+            if (end == start) {
+                continue;
+            }
+            Arrays.fill(used, i, end, true);
+            return String.join(" ", Arrays.copyOfRange(raw, start, end));
+        }
+        return null;
+    }
+
+    // ─────────────────────────────────────────────────────────────────────────────
+    // Helpers
+    // ─────────────────────────────────────────────────────────────────────────────
+
+    private record Amount(double value, double multiplier, boolean hasUnit, int tokens) {}
+
+    private static Amount parseAmount(String[] t, boolean[] used, int i, double usdToVnd) {
+        if (i >= t.length || used[i]) {
+            return null;
+        }
+        Matcher m = AMOUNT.matcher(t[i]);
+        if (!m.matches()) {
+            return null;
+        }
+
+        double number = parseNumber(m.group(2));
+        String unit = m.group(1) != null ? "$" : m.group(3);
+        int tokens = 1;
+
+        if (unit == null && i + 1 < t.length && !used[i + 1]
+                && (UNIT_WORDS.containsKey(t[i + 1]) || USD_WORDS.contains(t[i + 1]))) {
+            unit = t[i + 1];
+            tokens = 2;
+        }
+
+        if (unit == null) {
+            return new Amount(number, 1.0, false, tokens);
+        }
+        double multiplier = USD_WORDS.contains(unit) ? usdToVnd : UNIT_WORDS.get(unit);
+        return new Amount(number * multiplier, multiplier, true, tokens);
+    }
+
+    /**
+     * "150.000" and "150,000" are thousands separators; "1.5" is a decimal.
+     */
+    private static double parseNumber(String s) {
+        if (s.matches("\\d{1,3}([.,]\\d{3})+")) {
+            return Double.parseDouble(s.replaceAll("[.,]", ""));
+        }
+        return Double.parseDouble(s.replace(',', '.'));
+    }
+
+    /**
+     * A unit-less amount that more likely means something else: a year ("from 1945")
+     * or a count of what follows it ("over 1000 pages").
+     */
+    private static boolean notMoney(Amount amount, String[] t, int after) {
+        if (amount.hasUnit()) {
+            return false;
+        }
+        double value = amount.value();
+        boolean year = value >= 1000 && value <= 2100 && value == Math.rint(value);
+        return year || (after < t.length && COUNT_NOUNS.contains(t[after]));
+    }
+
+    private static boolean isCategoryName(String token) {
+        String slug = token.replace('-', '_');
+        return ExternalCategoryMapper.CANONICAL_CATEGORIES.contains(slug)
+                || slug.equals("nonfiction")
+                || (slug.endsWith("s") && ExternalCategoryMapper.CANONICAL_CATEGORIES.contains(slug.substring(0, slug.length() - 1)));
+    }
+
+    private static String[] matchAny(String[] t, boolean[] used, int i, List<String[]> candidates) {
+        for (String[] phrase : candidates) {
+            if (matchAt(t, used, i, phrase)) {
+                return phrase;
+            }
+        }
+        return null;
+    }
+
+    private static boolean matchAt(String[] t, boolean[] used, int i, String[] phrase) {
+        if (i < 0 || i + phrase.length > t.length) {
+            return false;
+        }
+        for (int k = 0; k < phrase.length; k++) {
+            if (used[i + k] || !t[i + k].equals(phrase[k])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Longest phrases first so "less than" is tried before a single-word match
+    private static List<String[]> phrases(String... values) {
+        List<String[]> result = new ArrayList<>();
+        for (String value : values) {
+            result.add(value.split(" "));
+        }
+        result.sort((a, b) -> b.length - a.length);
+        return List.copyOf(result);
+    }
+
+    /**
+     * Lowercase, strip diacritics (đ → d) and trailing punctuation.
+     */
+    private static String fold(String token) {
+        String folded = Normalizer.normalize(token.toLowerCase(), Normalizer.Form.NFD)
+                .replaceAll("\\p{M}", "")
+                .replace('đ', 'd');
+        return folded.length() > 1 ? folded.replaceAll("[.:\"']+$", "") : folded;
+    }
+}
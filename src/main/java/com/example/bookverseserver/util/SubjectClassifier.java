@@ -0,0 +1,374 @@
+package com.example.bookverseserver.util;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Classifies external subjects (Open Library, Google Books) into canonical categories and
+ * genre tags in a single pass.
+ *
+ * Every keyword is compiled once into a trie over words. A subject is lower-cased and split
+ * into words, and the trie is walked from each word, so a subject costs a few map lookups
+ * per word however many keywords there are. Keywords match whole words, as {@code \bkeyword\b}
+ * would: "war" matches "World War, 1939-1945" but not "Software".
+ *
+ * - Categories score one point per distinct keyword found in any subject; "in literature",
+ *   "in fiction" and "in art" do not count ("Women in art" is not about art).
+ * - Tags come from subjects that contain no excluded phrase and are written in Latin script.
+ */
+public final class SubjectClassifier {
+
+    /**
+     * Categories of {@link ExternalCategoryMapper} and tags of the TagService.
+     */
+    public static final SubjectClassifier OPEN_LIBRARY = openLibrary();
+
+    private final List<String> categories;
+    private final Node root;
+    private final int[] keywordCategory;    // keyword id -> index in categories
+
+    private SubjectClassifier(List<String> categories, Node root, int[] keywordCategory) {
+        this.categories = categories;
+        this.root = root;
+        this.keywordCategory = keywordCategory;
+    }
+
+    /**
+     * Category scores and tags of a book's subjects.
+     */
+    public Classification classify(Collection<String> subjects) {
+        BitSet matched = new BitSet(keywordCategory.length);
+        Set<String> tags = new LinkedHashSet<>();
+        if (subjects != null) {
+            List<String> words = new ArrayList<>();
+            List<String> subjectTags = new ArrayList<>();
+            List<int[]> keywordMatches = new ArrayList<>();     // {keyword id, first word, last word}
+            for (String subject : subjects) {
+                if (subject == null) {
+                    continue;
+                }
+                boolean latin = split(subject, words);
+                boolean excluded = !latin;
+                boolean[] muted = null;
+                subjectTags.clear();
+                keywordMatches.clear();
+
+                for (int start = 0; start < words.size(); start++) {
+                    Node node = root;
+                    for (int end = start; end < words.size(); end++) {
+                        node = node.next.get(words.get(end));
+                        if (node == null) {
+                            break;
+                        }
+                        for (int keyword : node.keywords) {
+                            keywordMatches.add(new int[] {keyword, start, end});
+                        }
+                        subjectTags.addAll(node.tags);
+                        excluded |= node.excluded;
+                        if (node.muting) {
+                            muted = muted != null ? muted : new boolean[words.size()];
+                            muted[end] = true;
+                        }
+                    }
+                }
+
+                for (int[] match : keywordMatches) {
+                    if (muted == null || !anyMuted(muted, match[1], match[2])) {
+                        matched.set(match[0]);
+                    }
+                }
+                if (!excluded) {
+                    tags.addAll(subjectTags);
+                }
+            }
+        }
+
+        Map<String, Integer> scores = new LinkedHashMap<>();
+        for (String category : categories) {
+            scores.put(category, 0);
+        }
+        for (int keyword = matched.nextSetBit(0); keyword >= 0; keyword = matched.nextSetBit(keyword + 1)) {
+            scores.merge(categories.get(keywordCategory[keyword]), 1, Integer::sum);
+        }
+        return new Classification(Collections.unmodifiableMap(scores), Collections.unmodifiableSet(tags));
+    }
+
+    /**
+     * @param categoryScores Every category, in canonical order, with its score
+     * @param tags           Tag names, in the order their subjects were given
+     */
+    public record Classification(Map<String, Integer> categoryScores, Set<String> tags) {
+
+        /**
+         * Categories with a score, best first; ties keep canonical order.
+         */
+        public List<String> topCategories(int limit) {
+            return categoryScores.entrySet().stream()
+                    .filter(e -> e.getValue() > 0)
+                    .sorted((a, b) -> b.getValue().compareTo(a.getValue()))
+                    .limit(limit)
+                    .map(Map.Entry::getKey)
+                    .toList();
+        }
+    }
+
+    /**
+     * Lower-cased words of the subject, split at anything but letters and digits.
+     *
+     * @return Whether all its letters are Latin
+     */
+    static boolean split(String subject, List<String> words) {
+        words.clear();
+        boolean latin = true;
+        int start = -1;
+        for (int i = 0; i <= subject.length(); i++) {
+            char c = i < subject.length() ? subject.charAt(i) : ' ';
+            if (Character.isLetterOrDigit(c)) {
+                if (start < 0) {
+                    start = i;
+                }
+                if (latin && Character.isLetter(c) && !isLatin(c)) {
+                    latin = false;
+                }
+            } else if (start >= 0) {
+                words.add(subject.substring(start, i).toLowerCase());
+                start = -1;
+            }
+        }
+        return latin;
+    }
+
+    private static boolean isLatin(char c) {
+        Character.UnicodeBlock block = Character.UnicodeBlock.of(c);
+        return block == Character.UnicodeBlock.BASIC_LATIN
+                || block == Character.UnicodeBlock.LATIN_1_SUPPLEMENT
+                || block == Character.UnicodeBlock.LATIN_EXTENDED_A
+                || block == Character.UnicodeBlock.LATIN_EXTENDED_B;
+    }
+
+    private static boolean anyMuted(boolean[] muted, int first, int last) {
+        for (int i = first; i <= last; i++) {
+            if (muted[i]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static final class Node {
+        final Map<String, Node> next = new HashMap<>();
+        final List<Integer> keywords = new ArrayList<>(1);
+        final List<String> tags = new ArrayList<>(1);
+        boolean excluded;
+        boolean muting;    // last word of a phrase whose last word must not count for categories
+    }
+
+    private static final class Builder {
+        final List<String> categories;
+        final Node root = new Node();
+        final List<Integer> keywordCategory = new ArrayList<>();
+
+        Builder(List<String> categories) {
+            this.categories = categories;
+        }
+
+        Builder category(String category, String... keywords) {
+            int index = categories.indexOf(category);
+            if (index < 0) {
+                throw new IllegalArgumentException("Unknown category: " + category);
+            }
+            for (String keyword : keywords) {
+                Node node = node(keyword);
+                // "self-help" and "self help" are the same words, so one keyword
+                boolean known = node.keywords.stream().anyMatch(id -> keywordCategory.get(id) == index);
+                if (!known) {
+                    node.keywords.add(keywordCategory.size());
+                    keywordCategory.add(index);
+                }
+            }
+            return this;
+        }
+
+        Builder tag(String keyword, String tag) {
+            node(keyword).tags.add(tag);
+            return this;
+        }
+
+        Builder exclude(String... phrases) {
+            for (String phrase : phrases) {
+                node(phrase).excluded = true;
+            }
+            return this;
+        }
+
+        Builder mute(String... phrases) {
+            for (String phrase : phrases) {
+                node(phrase).muting = true;
+            }
+            return this;
+        }
+
+        SubjectClassifier build() {
+            return new SubjectClassifier(categories, root,
+                    keywordCategory.stream().mapToInt(Integer::intValue).toArray());
+        }
+
+        private Node node(String phrase) {
+            List<String> words = new ArrayList<>();
+            split(phrase, words);
+            if (words.isEmpty()) {
+                throw new IllegalArgumentException("No words in: " + phrase);
+            }
+            Node node = root;
+            for (String word : words) {
+                node = node.next.computeIfAbsent(word, w -> new Node());
+            }
+            return node;
+        }
+    }
+
+    private static SubjectClassifier openLibrary() {
+        return new Builder(ExternalCategoryMapper.CANONICAL_CATEGORIES)
+                // ── Categories (see ExternalCategoryMapper) ──
+                .category("children",
+                        "children", "juvenile", "kids", "young readers", "picture book",
+                        "middle grade", "ya", "young adult", "teen", "nursery")
+                .category("comics",
+                        "comic", "graphic novel", "manga", "superhero", "marvel", "dc comics",
+                        "sequential art", "cartoon")
+                .category("biography",
+                        "biography", "biograph", "autobiography", "memoir", "life of",
+                        "personal narrative", "true story")
+                .category("self_help",
+                        "self-help", "self help", "personal development", "motivation",
+                        "self improvement", "how to", "success", "productivity",
+                        "mindfulness", "mental health", "psychology", "wellness")
+                .category("technology",
+                        "technology", "computer", "programming", "software", "engineering",
+                        "artificial intelligence", "machine learning", "data science",
+                        "internet", "digital", "coding", "electronics", "robotics")
+                .category("science",
+                        "science", "physics", "chemistry", "biology", "mathematics",
+                        "astronomy", "geology", "ecology", "evolution", "genetics",
+                        "medical", "medicine", "nature", "scientific")
+                .category("history",
+                        "history", "historical", "ancient", "medieval", "century",
+                        "war", "civil war", "world war", "revolution", "civilization",
+                        "archaeology", "prehistoric")
+                .category("art",
+                        "art", "artist", "painting", "sculpture", "photography",
+                        "design", "architecture", "music", "film", "theater", "theatre",
+                        "dance", "craft", "creative", "aesthetic")
+                .category("fiction",
+                        "fiction", "novel", "stories", "fantasy", "science fiction",
+                        "mystery", "thriller", "romance", "horror", "adventure",
+                        "literary fiction", "drama", "suspense", "crime", "detective")
+                .category("non_fiction",
+                        "non-fiction", "nonfiction", "non fiction", "essays", "reference",
+                        "journalism", "documentary", "true crime", "travel", "cooking",
+                        "business", "economics", "politics", "philosophy", "religion",
+                        "education", "sports", "hobby", "guide")
+                // "Women in art", "Sisters in fiction": a theme, not the category
+                .mute("in literature", "in fiction", "in art")
+
+                // ── Tags: keyword -> display name (see TagService) ──
+                // Fiction genres
+                .tag("romance", "Romance")
+                .tag("love stories", "Romance")
+                .tag("historical fiction", "Historical Fiction")
+                .tag("historical", "Historical")
+                .tag("mystery", "Mystery")
+                .tag("thriller", "Thriller")
+                .tag("horror", "Horror")
+                .tag("fantasy", "Fantasy")
+                .tag("science fiction", "Science Fiction")
+                .tag("literary fiction", "Literary Fiction")
+                .tag("fiction classics", "Classics")
+                .tag("classical literature", "Classics")
+                .tag("domestic fiction", "Domestic Fiction")
+                .tag("adventure", "Adventure")
+                .tag("coming of age", "Coming of Age")
+                .tag("regency", "Regency")
+                .tag("gothic", "Gothic")
+                .tag("magical realism", "Magical Realism")
+                .tag("dystopian", "Dystopian")
+                .tag("crime", "Crime")
+                .tag("detective", "Detective")
+                .tag("suspense", "Suspense")
+                .tag("psychological", "Psychological")
+                .tag("war", "War")
+                .tag("satire", "Satire")
+                .tag("humor", "Humor")
+                .tag("comedy", "Comedy")
+                // Non-fiction genres
+                .tag("biography", "Biography")
+                .tag("memoir", "Memoir")
+                .tag("autobiography", "Autobiography")
+                .tag("history", "History")
+                .tag("philosophy", "Philosophy")
+                .tag("politics", "Politics")
+                .tag("psychology", "Psychology")
+                .tag("self-help", "Self-Help")
+                .tag("personal development", "Personal Development")
+                .tag("business", "Business")
+                .tag("economics", "Economics")
+                .tag("science", "Science")
+                .tag("technology", "Technology")
+                .tag("nature", "Nature")
+                .tag("travel", "Travel")
+                .tag("cooking", "Cooking")
+                .tag("art", "Art")
+                .tag("music", "Music")
+                .tag("religion", "Religion")
+                .tag("spirituality", "Spirituality")
+                .tag("true crime", "True Crime")
+                .tag("essays", "Essays")
+                // Themes & descriptors
+                .tag("family", "Family")
+                .tag("courtship", "Courtship")
+                .tag("marriage", "Marriage")
+                .tag("social class", "Social Class")
+                .tag("manners", "Manners & Customs")
+                .tag("young women", "Young Women")
+                .tag("sisters", "Sisters")
+                .tag("friendship", "Friendship")
+                .tag("love", "Love")
+                .tag("death", "Death")
+                .tag("identity", "Identity")
+                .tag("childhood", "Childhood")
+                // Plural and derived forms Open Library uses, which whole words of the keywords
+                // above don't match: "Humorous stories", "Thrillers", "Napoleonic Wars"
+                .tag("romances", "Romance")
+                .tag("thrillers", "Thriller")
+                .tag("adventures", "Adventure")
+                .tag("adventurers", "Adventure")
+                .tag("crimes", "Crime")
+                .tag("detectives", "Detective")
+                .tag("wars", "War")
+                .tag("warfare", "War")
+                .tag("satires", "Satire")
+                .tag("humorous", "Humor")
+                .tag("memoirs", "Memoir")
+                .tag("sciences", "Science")
+                .tag("travels", "Travel")
+                .tag("arts", "Art")
+                .tag("musical", "Music")
+                .tag("musicians", "Music")
+                .tag("religions", "Religion")
+                .tag("lovers", "Love")
+                .tag("families", "Family")
+                // Subjects too generic or about the format, not the genre
+                .exclude("fiction", "novel", "large type books", "reading level", "textbooks",
+                        "english language", "language and languages", "readers", "adaptations",
+                        "coloring books", "emoticons", "drama dramatic works", "british and irish fiction")
+                .build();
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.bookverseserver.security;
+
+import com.example.bookverseserver.repository.InvalidatedTokenRepository;
+import com.example.bookverseserver.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TokenRevocationIndexTest {
+
+  @Mock private InvalidatedTokenRepository invalidatedTokenRepository;
+  @Mock private UserRepository userRepository;
+
+  private TokenRevocationIndex index;
+
+  @BeforeEach
+  void setUp() {
+    index = new TokenRevocationIndex(invalidatedTokenRepository, userRepository, 3600, 36000, 16);
+  }
+
+  @Test
+  void init_LoadsRevokedTokensAndPasswordChanges() {
+    Date future = new Date(System.currentTimeMillis() + 60_000);
+    LocalDateTime changedAt = LocalDateTime.now().minusMinutes(5);
+    when(invalidatedTokenRepository.findUnexpiredCreatedSince(any(), any()))
+        .thenReturn(List.<Object[]>of(new Object[] {"jti-1", future}));
+    when(userRepository.findPasswordChangesSince(any()))
+        .thenReturn(List.<Object[]>of(new Object[] {9L, changedAt}));
+
+    index.init();
+
+    assertTrue(index.isRevoked("jti-1"));
+    assertFalse(index.isRevoked("jti-2"));
+    Instant changed = changedAt.atZone(ZoneId.systemDefault()).toInstant();
+    assertTrue(index.isIssuedBeforePasswordChange(9L, changed.minusSeconds(1)));
+    assertFalse(index.isIssuedBeforePasswordChange(9L, changed.plusSeconds(1)));
+    assertFalse(index.isIssuedBeforePasswordChange(10L, changed.minusSeconds(1)));
+  }
+
+  @Test
+  void revoke_GrowsPastInitialCapacityWithoutLosingEntries() {
+    Date future = new Date(System.currentTimeMillis() + 60_000);
+    List<String> jtis = IntStream.range(0, 500)
+        .mapToObj(i -> UUID.randomUUID().toString())
+        .toList();
+
+    jtis.forEach(jti -> index.revoke(jti, future));
+
+    assertEquals(500, index.revokedCount());
+    assertTrue(jtis.stream().allMatch(index::isRevoked));
+    assertFalse(index.isRevoked(UUID.randomUUID().toString()));
+  }
+
+  @Test
+  void sync_PrunesExpiredRevocations() {
+    index.revoke("short-lived", new Date(System.currentTimeMillis() + 50));
+    index.revoke("long-lived", new Date(System.currentTimeMillis() + 60_000));
+    assertTrue(index.isRevoked("short-lived"));
+
+    long deadline = System.currentTimeMillis() + 100;
+    while (System.currentTimeMillis() < deadline) {
+      Thread.onSpinWait();
+    }
+    index.sync();
+
+    assertFalse(index.isRevoked("short-lived"));
+    assertTrue(index.isRevoked("long-lived"));
+    assertEquals(1, index.revokedCount());
+  }
+}
@@ -0,0 +1,44 @@
+package com.example.bookverseserver.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenVerdictCacheTest {
+
+  private static final long IN_AN_HOUR = System.currentTimeMillis() + 3_600_000;
+
+  @Test
+  void put_FullCacheEvictsTheLeastRecentlyUsedToken() {
+    TokenVerdictCache cache = new TokenVerdictCache(2, 60);
+    cache.put("a", jwt("a"), 1L, IN_AN_HOUR);
+    cache.put("b", jwt("b"), 2L, IN_AN_HOUR);
+    assertNotNull(cache.get("a"));
+
+    cache.put("c", jwt("c"), 3L, IN_AN_HOUR);
+
+    assertEquals(2, cache.size());
+    assertNotNull(cache.get("a"));
+    assertNull(cache.get("b"));
+    assertNotNull(cache.get("c"));
+  }
+
+  @Test
+  void evictUser_ForgetsEveryTokenOfTheUser() {
+    TokenVerdictCache cache = new TokenVerdictCache(10, 60);
+    cache.put("a", jwt("a"), 1L, IN_AN_HOUR);
+    cache.put("b", jwt("b"), 1L, IN_AN_HOUR);
+    cache.put("c", jwt("c"), 2L, IN_AN_HOUR);
+
+    cache.evictUser(1L);
+
+    assertNull(cache.get("a"));
+    assertNull(cache.get("b"));
+    assertNotNull(cache.get("c"));
+  }
+
+  private static Jwt jwt(String token) {
+    return Jwt.withTokenValue(token).header("alg", "HS512").subject(token).build();
+  }
+}
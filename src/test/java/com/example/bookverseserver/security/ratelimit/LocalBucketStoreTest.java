@@ -0,0 +1,112 @@
+package com.example.bookverseserver.security.ratelimit;
+
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.BucketConfiguration;
+import io.github.bucket4j.Refill;
+import org.junit.jupiter.api.Disabled;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LocalBucketStoreTest {
+
+  private static final BucketConfiguration THREE_PER_MINUTE = BucketConfiguration.builder()
+      .addLimit(Bandwidth.classic(3, Refill.greedy(3, Duration.ofMinutes(1))))
+      .build();
+
+  @Test
+  void tryConsume_LimitsEachKeySeparately() {
+    LocalBucketStore store = new LocalBucketStore(1000, Duration.ofMinutes(1));
+
+    for (int i = 0; i < 3; i++) {
+      assertTrue(store.tryConsume("a", THREE_PER_MINUTE).isConsumed());
+    }
+    assertFalse(store.tryConsume("a", THREE_PER_MINUTE).isConsumed());
+    assertTrue(store.tryConsume("b", THREE_PER_MINUTE).isConsumed());
+    assertEquals(2, store.size());
+  }
+
+  @Test
+  void tryConsume_EvictsLeastRecentlyUsedInsteadOfClearing() {
+    LocalBucketStore store = new LocalBucketStore(16 * 4, Duration.ofMinutes(1));
+    // Exhaust a hot client, then keep it active while many one-off clients pass through
+    for (int i = 0; i < 3; i++) {
+      store.tryConsume("hot", THREE_PER_MINUTE);
+    }
+    for (int i = 0; i < 10_000; i++) {
+      store.tryConsume("client-" + i, THREE_PER_MINUTE);
+      if (i % 2 == 0) {
+        assertFalse(store.tryConsume("hot", THREE_PER_MINUTE).isConsumed(), "hot client was forgotten at " + i);
+      }
+    }
+
+    assertTrue(store.size() <= 64);
+    assertTrue(store.evictions() >= 10_000 - 64);
+  }
+
+  @Test
+  void tryConsume_DropsIdleBuckets() throws InterruptedException {
+    LocalBucketStore store = new LocalBucketStore(1000, Duration.ofMillis(20));
+    IntStream.range(0, 100).forEach(i -> store.tryConsume("client-" + i, THREE_PER_MINUTE));
+
+    Thread.sleep(50);
+    // Idle entries of a segment are dropped when that segment is next used
+    IntStream.range(0, 200).forEach(i -> store.tryConsume("later-" + i, THREE_PER_MINUTE));
+
+    assertEquals(200, store.size());
+  }
+
+  /**
+   * Benchmark: 100k distinct clients, 5 requests each against a 3/min limit, 8 threads.
+   * Publishes throughput to the test report; asserts the limits held and memory stayed within the bound.
+   */
+  @Test
+  @Tag("benchmark")
+  @Disabled("Benchmark - takes seconds of CPU. Enable to measure throughput.")
+  void benchmark_HundredThousandDistinctClients(TestReporter reporter) throws Exception {
+    int clients = 100_000;
+    int threads = 8;
+    int requestsPerClient = 5;
+    LocalBucketStore store = new LocalBucketStore(200_000, Duration.ofMinutes(1));
+    AtomicInteger rejected = new AtomicInteger();
+
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    long start = System.nanoTime();
+    Future<?>[] futures = new Future<?>[threads];
+    for (int t = 0; t < threads; t++) {
+      int offset = t;
+      futures[t] = executor.submit(() -> {
+        for (int round = 0; round < requestsPerClient; round++) {
+          for (int client = offset; client < clients; client += threads) {
+            if (!store.tryConsume("ip:10.0." + client, THREE_PER_MINUTE).isConsumed()) {
+              rejected.incrementAndGet();
+            }
+          }
+        }
+      });
+    }
+    for (Future<?> future : futures) {
+      future.get();
+    }
+    long elapsedNanos = System.nanoTime() - start;
+    executor.shutdown();
+    assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+
+    long requests = (long) clients * requestsPerClient;
+    reporter.publishEntry("LocalBucketStore", String.format(
+        "%d requests from %d clients in %d ms (%.0f req/s), %d evictions",
+        requests, clients, TimeUnit.NANOSECONDS.toMillis(elapsedNanos), requests * 1e9 / elapsedNanos, store.evictions()));
+    assertEquals(clients, store.size());
+    assertEquals(clients * 2, rejected.get());
+  }
+}
@@ -0,0 +1,101 @@
+package com.example.bookverseserver.security.ratelimit;
+
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.BucketConfiguration;
+import io.github.bucket4j.Refill;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Two stores stand in for two application instances sharing one database
+ * (H2 in PostgreSQL mode).
+ */
+class PostgresBucketStoreTest {
+
+  private static final BucketConfiguration THREE_PER_MINUTE = perMinute(3);
+  private static final BucketConfiguration HUNDRED_PER_MINUTE = perMinute(100);
+
+  private CountingDataSource dataSource;
+
+  @BeforeEach
+  void setUp() {
+    JdbcDataSource h2 = new JdbcDataSource();
+    h2.setURL("jdbc:h2:mem:" + UUID.randomUUID() + ";MODE=PostgreSQL;DB_CLOSE_DELAY=-1");
+    dataSource = new CountingDataSource(h2);
+  }
+
+  @Test
+  void tryConsume_InstancesShareOneBucketPerKey() {
+    PostgresBucketStore first = newStore(0.1);
+    PostgresBucketStore second = newStore(0.1);
+
+    assertTrue(first.tryConsume("LOGIN|ip:1.2.3.4", THREE_PER_MINUTE).isConsumed());
+    assertTrue(second.tryConsume("LOGIN|ip:1.2.3.4", THREE_PER_MINUTE).isConsumed());
+    assertTrue(first.tryConsume("LOGIN|ip:1.2.3.4", THREE_PER_MINUTE).isConsumed());
+
+    assertFalse(second.tryConsume("LOGIN|ip:1.2.3.4", THREE_PER_MINUTE).isConsumed());
+    assertFalse(first.tryConsume("LOGIN|ip:1.2.3.4", THREE_PER_MINUTE).isConsumed());
+    assertTrue(second.tryConsume("LOGIN|ip:5.6.7.8", THREE_PER_MINUTE).isConsumed());
+  }
+
+  @Test
+  void tryConsume_PrefetchSkipsTheDatabaseForMostRequests() {
+    PostgresBucketStore first = newStore(0.1);
+    PostgresBucketStore second = newStore(0.1);
+    dataSource.connections.set(0);
+
+    int allowed = 0;
+    for (int i = 0; i < 150; i++) {
+      PostgresBucketStore store = i % 2 == 0 ? first : second;
+      if (store.tryConsume("GENERAL|user:7", HUNDRED_PER_MINUTE).isConsumed()) {
+        allowed++;
+      }
+    }
+
+    // Each instance may run ahead of the shared bucket by its prefetch (10 tokens)
+    assertTrue(allowed >= 100 && allowed <= 120, "allowed " + allowed);
+    assertTrue(dataSource.connections.get() < 50, "database hit " + dataSource.connections.get() + " times");
+  }
+
+  @Test
+  void purgeExpired_KeepsBucketsStillRefilling() {
+    PostgresBucketStore store = newStore(0);
+    store.tryConsume("SEARCH|ip:1.2.3.4", THREE_PER_MINUTE);
+
+    assertEquals(0, store.purgeExpired(100));
+  }
+
+  private PostgresBucketStore newStore(double prefetchRatio) {
+    return new PostgresBucketStore(dataSource, 1000, Duration.ofMinutes(1), prefetchRatio, Duration.ofSeconds(10));
+  }
+
+  private static BucketConfiguration perMinute(int tokens) {
+    return BucketConfiguration.builder()
+        .addLimit(Bandwidth.classic(tokens, Refill.greedy(tokens, Duration.ofMinutes(1))))
+        .build();
+  }
+
+  private static final class CountingDataSource extends DelegatingDataSource {
+    final AtomicInteger connections = new AtomicInteger();
+
+    CountingDataSource(JdbcDataSource target) {
+      super(target);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+      connections.incrementAndGet();
+      return super.getConnection();
+    }
+  }
+}
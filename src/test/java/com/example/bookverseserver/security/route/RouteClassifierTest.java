@@ -0,0 +1,81 @@
+package com.example.bookverseserver.security.route;
+
+import com.example.bookverseserver.dto.response.Admin.RouteStatsResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RouteClassifierTest {
+
+  private final RouteClassifier classifier = RouteClassifier.standard();
+
+  @Test
+  void classify_StandardRoutes() {
+    assertEquals(RouteClass.LOGIN, classifier.classify("/api/auth/login"));
+    assertEquals(RouteClass.REGISTRATION, classifier.classify("/api/auth/register"));
+    assertEquals(RouteClass.PASSWORD_RESET, classifier.classify("/api/auth/change-forgot-password"));
+    assertEquals(RouteClass.OTP, classifier.classify("/api/auth/verify-otp"));
+    assertEquals(RouteClass.AUTH, classifier.classify("/api/auth/refresh"));
+    assertEquals(RouteClass.AUTH, classifier.classify("/login/oauth2/code/google"));
+    assertEquals(RouteClass.SEARCH, classifier.classify("/api/ai/search/parse"));
+    assertEquals(RouteClass.GENERAL, classifier.classify("/api/books/42"));
+    assertEquals(RouteClass.GENERAL, classifier.classify("/"));
+    assertEquals(RouteClass.EXCLUDED, classifier.classify("/swagger-ui/index.html"));
+    assertEquals(RouteClass.EXCLUDED, classifier.classify("/v3/api-docs"));
+  }
+
+  @Test
+  void classify_IgnoresEmptySegmentsAndPathParameters() {
+    assertEquals(RouteClass.LOGIN, classifier.classify("/api//auth/login/"));
+    assertEquals(RouteClass.LOGIN, classifier.classify("/api/auth/login;jsessionid=abc"));
+  }
+
+  @Test
+  void classify_PrefersLiteralOverWildcardAndDeeperOverShallower() {
+    RouteClassifier custom = RouteClassifier.builder()
+        .route("/api/**", RouteClass.AUTH)
+        .route("/api/*/search/**", RouteClass.SEARCH)
+        .route("/api/books/search", RouteClass.EXCLUDED)
+        .build();
+
+    assertEquals(RouteClass.EXCLUDED, custom.classify("/api/books/search"));
+    assertEquals(RouteClass.SEARCH, custom.classify("/api/books/search/deep"));
+    assertEquals(RouteClass.SEARCH, custom.classify("/api/listings/search"));
+    assertEquals(RouteClass.AUTH, custom.classify("/api/listings"));
+    assertEquals(RouteClass.GENERAL, custom.classify("/other"));
+  }
+
+  @Test
+  void classify_StoresClassOnRequest() {
+    MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/auth/login");
+
+    assertEquals(RouteClass.LOGIN, classifier.classify(request));
+    assertEquals(RouteClass.LOGIN, request.getAttribute(RouteClassifier.ATTRIBUTE));
+
+    request.setRequestURI("/api/books");
+    assertEquals(RouteClass.LOGIN, classifier.classify(request));
+  }
+
+  @Test
+  void routeMetrics_CountsAndBucketsLatency() {
+    RouteMetrics metrics = new RouteMetrics();
+    for (int i = 0; i < 98; i++) {
+      metrics.record(RouteClass.SEARCH, 3_000_000, 200);
+    }
+    metrics.record(RouteClass.SEARCH, 300_000_000, 500);
+    metrics.record(RouteClass.SEARCH, 20_000_000_000L, 200);
+
+    RouteStatsResponse.RouteClassStats search = metrics.snapshot().getRoutes().stream()
+        .filter(stats -> stats.getRouteClass().equals("search"))
+        .findFirst()
+        .orElseThrow();
+    assertEquals(100, search.getRequests());
+    assertEquals(1, search.getServerErrors());
+    assertEquals(5, search.getP50Millis());
+    assertEquals(500, search.getP99Millis());
+    assertEquals(98, search.getLatency().get("le5ms"));
+    assertEquals(1, search.getLatency().get("gt10000ms"));
+    assertEquals(0, metrics.requests(RouteClass.LOGIN));
+  }
+}
@@ -0,0 +1,56 @@
+package com.example.bookverseserver.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AIStreamServiceTest {
+
+  @Test
+  void worker_ClosedEmitterInterruptsTheRunningStream() throws Exception {
+    AIStreamService.Worker worker = new AIStreamService.Worker();
+    CountDownLatch started = new CountDownLatch(1);
+    AtomicBoolean interrupted = new AtomicBoolean();
+    Thread thread = new Thread(() -> {
+      worker.start();
+      started.countDown();
+      try {
+        Thread.sleep(10_000);   // Stands in for the blocked read of the provider stream
+      } catch (InterruptedException e) {
+        interrupted.set(true);
+      }
+      worker.finish();
+    });
+    thread.start();
+
+    assertTrue(started.await(5, TimeUnit.SECONDS));
+    worker.cancel();
+    thread.join(5_000);
+
+    assertTrue(interrupted.get());
+  }
+
+  @Test
+  void worker_ClosedBeforeStartNeverRuns() {
+    AIStreamService.Worker worker = new AIStreamService.Worker();
+    worker.cancel();
+
+    assertFalse(worker.start());
+    worker.finish();
+  }
+
+  @Test
+  void worker_CompletionAfterTheStreamLeavesThePooledThreadAlone() {
+    AIStreamService.Worker worker = new AIStreamService.Worker();
+    assertTrue(worker.start());
+    worker.finish();
+
+    worker.cancel();   // onCompletion after our own complete()
+
+    assertFalse(Thread.currentThread().isInterrupted());
+  }
+}
@@ -0,0 +1,111 @@
+package com.example.bookverseserver.service;
+
+import com.example.bookverseserver.dto.response.External.OpenLibraryAuthorWorkResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AuthorWorksHydratorTest {
+
+  @Mock private OpenLibraryService openLibraryService;
+
+  private ExecutorService executor;
+  private AuthorWorksHydrator hydrator;
+  private final AtomicInteger running = new AtomicInteger();
+  private final AtomicInteger maxRunning = new AtomicInteger();
+
+  @BeforeEach
+  void setUp() {
+    executor = Executors.newVirtualThreadPerTaskExecutor();
+    hydrator = new AuthorWorksHydrator(openLibraryService, executor, 4, 100, 24);
+  }
+
+  @AfterEach
+  void tearDown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  void hydrateFirst_RunsInParallelWithinConcurrencyLimit() {
+    slowEditions(100);
+
+    long start = System.nanoTime();
+    List<OpenLibraryAuthorWorkResponse.Entry> hydrated = hydrator.hydrateFirst(works(20), 20, work -> true);
+    long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+    assertEquals(20, hydrated.size());
+    assertEquals(3, hydrated.get(0).getEdition_count());
+    assertEquals("https://covers.openlibrary.org/b/id/1-L.jpg", hydrated.get(0).getCoverImageUrl());
+    assertTrue(maxRunning.get() <= 4, "ran " + maxRunning.get() + " at once");
+    // 20 works x 100 ms at 4 at a time, vs 2 s one by one
+    assertTrue(elapsedMillis < 1500, "took " + elapsedMillis + " ms");
+  }
+
+  @Test
+  void hydrateFirst_ReturnsFirstPageWhileRestHydrateIntoCache() throws Exception {
+    slowEditions(100);
+    List<OpenLibraryAuthorWorkResponse.Entry> works = works(20);
+
+    long start = System.nanoTime();
+    List<OpenLibraryAuthorWorkResponse.Entry> firstPage = hydrator.hydrateFirst(works, 2, work -> true);
+    long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+    assertEquals(List.of("/works/OL0W", "/works/OL1W"), firstPage.stream().map(OpenLibraryAuthorWorkResponse.Entry::getKey).toList());
+    assertTrue(elapsedMillis < 400, "took " + elapsedMillis + " ms");
+
+    // Background hydration finishes; the full list then needs no more requests
+    Thread.sleep(800);
+    clearInvocations(openLibraryService);
+    assertEquals(20, hydrator.hydrateFirst(works(20), 20, work -> true).size());
+    verify(openLibraryService, never()).fetchWorkDetails(any());
+  }
+
+  @Test
+  void hydrateFirst_FailedWorkIsSkippedAndNotCached() {
+    doThrow(new ResourceAccessException("timeout")).when(openLibraryService).fetchWorkDetails(any());
+
+    List<OpenLibraryAuthorWorkResponse.Entry> hydrated =
+        hydrator.hydrateFirst(works(1), 10, work -> work.getEdition_count() > 1);
+
+    assertTrue(hydrated.isEmpty());
+    hydrator.hydrateFirst(works(1), 10, work -> true);
+    verify(openLibraryService, times(2)).fetchWorkDetails(any());
+  }
+
+  private void slowEditions(long millis) {
+    doAnswer(invocation -> {
+      int now = running.incrementAndGet();
+      maxRunning.accumulateAndGet(now, Math::max);
+      Thread.sleep(millis);
+      running.decrementAndGet();
+      OpenLibraryAuthorWorkResponse.Entry work = invocation.getArgument(0);
+      work.setEdition_count(3);
+      work.setDescription("A description");
+      work.setCovers(List.of(1));
+      work.setCoverImageUrl("https://covers.openlibrary.org/b/id/1-L.jpg");
+      return null;
+    }).when(openLibraryService).fetchWorkDetails(any());
+  }
+
+  private static List<OpenLibraryAuthorWorkResponse.Entry> works(int count) {
+    return IntStream.range(0, count)
+        .mapToObj(i -> OpenLibraryAuthorWorkResponse.Entry.builder().key("/works/OL" + i + "W").title("Work " + i).build())
+        .toList();
+  }
+}
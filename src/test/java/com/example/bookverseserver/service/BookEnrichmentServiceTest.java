@@ -0,0 +1,122 @@
+package com.example.bookverseserver.service;
+
+import com.example.bookverseserver.dto.response.External.RichBookData;
+import com.example.bookverseserver.enums.MetadataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BookEnrichmentServiceTest {
+
+  private static final String ISBN = "9780261103573";
+
+  @Mock private OpenLibraryService openLibraryService;
+  @Mock private GoogleBooksService googleBooksService;
+  @Mock private IsbnMetadataCacheService isbnMetadataCacheService;
+
+  private ExecutorService executor;
+  private BookEnrichmentService enrichmentService;
+
+  @BeforeEach
+  void setUp() {
+    executor = Executors.newVirtualThreadPerTaskExecutor();
+    enrichmentService = new BookEnrichmentService(
+        openLibraryService, googleBooksService, isbnMetadataCacheService, executor, 1000);
+    // Cache misses: every lookup goes to the source
+    when(isbnMetadataCacheService.getAsync(eq(ISBN), any(MetadataSource.class), any()))
+        .thenAnswer(invocation -> invocation.<Supplier<CompletableFuture<RichBookData>>>getArgument(2).get());
+  }
+
+  @AfterEach
+  void tearDown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  void fetchEnrichedBookData_QueriesSourcesConcurrently() {
+    when(openLibraryService.fetchRichBookDetailsByIsbnAsync(eq(ISBN), any()))
+        .thenReturn(CompletableFuture.supplyAsync(() -> slow(300, openLibraryData()), executor));
+    when(googleBooksService.fetchBookByIsbn(ISBN)).thenAnswer(invocation -> slow(300, googleData()));
+
+    long start = System.nanoTime();
+    BookEnrichmentService.EnrichedBookResult result = enrichmentService.fetchEnrichedBookData("978-0-261-10357-3");
+    long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+    assertTrue(result.isFound());
+    assertTrue(result.isMergedFromMultipleSources());
+    assertEquals("The Fellowship of the Ring", result.getData().getTitle());
+    assertEquals("https://books.google.com/cover.jpg", result.getData().getCoverUrl());
+    assertTrue(elapsedMillis < 550, "took " + elapsedMillis + " ms");
+  }
+
+  @Test
+  void fetchEnrichedBookData_ReturnsPartialMergeWhenSourceMissesDeadline() {
+    when(openLibraryService.fetchRichBookDetailsByIsbnAsync(eq(ISBN), any()))
+        .thenReturn(CompletableFuture.completedFuture(openLibraryData()));
+    when(googleBooksService.fetchBookByIsbn(ISBN)).thenAnswer(invocation -> slow(5000, googleData()));
+
+    long start = System.nanoTime();
+    BookEnrichmentService.EnrichedBookResult result = enrichmentService.fetchEnrichedBookData(ISBN);
+    long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+    assertTrue(result.isFound());
+    assertFalse(result.isMergedFromMultipleSources());
+    assertEquals("OPEN_LIBRARY", result.getPrimarySource());
+    assertTrue(elapsedMillis < 2000, "took " + elapsedMillis + " ms");
+  }
+
+  @Test
+  void fetchEnrichedBookData_FailedSourceCountsAsMissing() {
+    when(openLibraryService.fetchRichBookDetailsByIsbnAsync(eq(ISBN), any()))
+        .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("503 from Open Library")));
+    when(googleBooksService.fetchBookByIsbn(ISBN)).thenReturn(googleData());
+
+    BookEnrichmentService.EnrichedBookResult result = enrichmentService.fetchEnrichedBookData(ISBN);
+
+    assertTrue(result.isFound());
+    assertEquals("GOOGLE_BOOKS", result.getPrimarySource());
+  }
+
+  private static RichBookData slow(long millis, RichBookData data) {
+    try {
+      Thread.sleep(millis);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    return data;
+  }
+
+  private static RichBookData openLibraryData() {
+    return RichBookData.builder()
+        .isbn(ISBN)
+        .title("The Fellowship of the Ring")
+        .authors(List.of("J.R.R. Tolkien"))
+        .categories(List.of("Fantasy fiction"))
+        .build();
+  }
+
+  private static RichBookData googleData() {
+    return RichBookData.builder()
+        .isbn(ISBN)
+        .title("Fellowship of the Ring")
+        .coverUrl("https://books.google.com/cover.jpg")
+        .categories(List.of("Fiction"))
+        .build();
+  }
+}
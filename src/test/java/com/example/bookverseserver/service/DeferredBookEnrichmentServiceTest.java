@@ -0,0 +1,183 @@
+package com.example.bookverseserver.service;
+
+import com.example.bookverseserver.dto.response.External.RichBookData;
+import com.example.bookverseserver.entity.Product.Author;
+import com.example.bookverseserver.entity.Product.BookMeta;
+import com.example.bookverseserver.entity.Product.Category;
+import com.example.bookverseserver.enums.MetadataSource;
+import com.example.bookverseserver.repository.AuthorRepository;
+import com.example.bookverseserver.repository.BookMetaRepository;
+import com.example.bookverseserver.repository.CategoryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DeferredBookEnrichmentServiceTest {
+
+  private static final String ISBN = "9780141439518";
+
+  @Mock private BookMetaRepository bookMetaRepository;
+  @Mock private AuthorRepository authorRepository;
+  @Mock private CategoryRepository categoryRepository;
+  @Mock private AuthorService authorService;
+  @Mock private CategoryService categoryService;
+  @Mock private TagService tagService;
+  @Mock private OpenLibraryService openLibraryService;
+  @Mock private IsbnMetadataCacheService isbnMetadataCacheService;
+  @Mock private JdbcTemplate jdbcTemplate;
+  @Mock private PlatformTransactionManager transactionManager;
+
+  private final List<Runnable> submitted = new ArrayList<>();
+  private DeferredBookEnrichmentService service;
+
+  @BeforeEach
+  void setUp() {
+    service = new DeferredBookEnrichmentService(bookMetaRepository, authorRepository, categoryRepository,
+        authorService, categoryService, tagService, openLibraryService, isbnMetadataCacheService,
+        new BookMetaAssembler(), jdbcTemplate, transactionManager, submitted::add, 2, 3, 0);
+  }
+
+  @Test
+  void enrich_PatchesTheSkeletonAndMovesItsListingsToTheNewCategory() {
+    Author author = Author.builder().id(5L).name("Jane Austen").build();
+    Category fiction = Category.builder().id(3L).name("Fiction").build();
+    BookMeta skeleton = skeleton();
+    when(isbnMetadataCacheService.get(eq(ISBN), eq(MetadataSource.OPEN_LIBRARY), any())).thenReturn(prideAndPrejudice());
+    when(bookMetaRepository.findById(42L)).thenReturn(Optional.of(skeleton));
+    when(authorService.getOrCreateAuthorIds(anyList(), any())).thenReturn(Map.of("jane austen", 5L));
+    when(authorRepository.findAllById(any())).thenReturn(List.of(author));
+    when(categoryService.getOrCreateCategoryIds(anyMap())).thenReturn(Map.of("fiction", 3L));
+    when(categoryRepository.findAllById(any())).thenReturn(List.of(fiction));
+    when(tagService.extractTags(anyList())).thenReturn(Set.of());
+
+    service.enrich(42L, ISBN, 1);
+
+    assertEquals("Pride and Prejudice", skeleton.getTitle());
+    assertEquals("A novel.", skeleton.getDescription());
+    assertEquals("Penguin", skeleton.getPublisher());   // Seller typed "penguin books"
+    assertEquals(Set.of(author), skeleton.getAuthors());
+    assertEquals(Set.of(fiction), skeleton.getCategories());
+    assertEquals(1, skeleton.getImages().size());
+    verify(bookMetaRepository).save(skeleton);
+    verify(jdbcTemplate).update(DeferredBookEnrichmentService.UPDATE_LISTINGS_SQL, 3L, 42L);
+  }
+
+  @Test
+  void enrich_KeepsTheSkeletonWhenOpenLibraryHasNothing() {
+    when(isbnMetadataCacheService.get(eq(ISBN), eq(MetadataSource.OPEN_LIBRARY), any())).thenReturn(null);
+
+    service.enrich(42L, ISBN, 1);
+
+    verifyNoInteractions(bookMetaRepository, jdbcTemplate);
+  }
+
+  @Test
+  void enrich_RetriesFailedLookupsUntilOneSucceeds() {
+    BookMeta skeleton = skeleton();
+    when(isbnMetadataCacheService.get(eq(ISBN), eq(MetadataSource.OPEN_LIBRARY), any()))
+        .thenThrow(new ResourceAccessException("Read timed out"))
+        .thenReturn(prideAndPrejudice());
+    when(bookMetaRepository.findById(42L)).thenReturn(Optional.of(skeleton));
+
+    assertDoesNotThrow(() -> service.enrich(42L, ISBN, 1));
+    verifyNoInteractions(bookMetaRepository);
+    assertEquals(1, service.getQueueSize());   // Due for a retry, not dropped
+
+    service.retryDue();
+    assertEquals(1, submitted.size());
+    submitted.get(0).run();
+
+    assertEquals("Pride and Prejudice", skeleton.getTitle());
+    verify(bookMetaRepository).save(skeleton);
+    assertEquals(0, service.getQueueSize());
+  }
+
+  @Test
+  void enrich_GivesUpAfterMaxAttempts() {
+    when(isbnMetadataCacheService.get(eq(ISBN), eq(MetadataSource.OPEN_LIBRARY), any()))
+        .thenThrow(new ResourceAccessException("429 Too Many Requests"));
+
+    service.enrich(42L, ISBN, 1);
+    service.retryDue();
+    submitted.get(0).run();     // Attempt 2
+    service.retryDue();
+    submitted.get(1).run();     // Attempt 3, the last
+    service.retryDue();
+
+    assertEquals(2, submitted.size());
+    assertEquals(0, service.getQueueSize());
+    verify(isbnMetadataCacheService, times(3)).get(eq(ISBN), eq(MetadataSource.OPEN_LIBRARY), any());
+  }
+
+  @Test
+  void enrich_RetriesIncompleteData() {
+    when(isbnMetadataCacheService.get(eq(ISBN), eq(MetadataSource.OPEN_LIBRARY), any()))
+        .thenReturn(prideAndPrejudice().toBuilder().description(null).incomplete(true).build());
+    when(bookMetaRepository.findById(42L)).thenReturn(Optional.of(skeleton()));
+
+    service.enrich(42L, ISBN, 1);
+
+    verify(bookMetaRepository).save(any(BookMeta.class));
+    assertEquals(1, service.getQueueSize());
+  }
+
+  @Test
+  void enrichLater_QueuesEachBookOnceUntilItRuns() {
+    when(isbnMetadataCacheService.get(anyString(), eq(MetadataSource.OPEN_LIBRARY), any())).thenReturn(null);
+
+    // No transaction: queued straight away
+    service.enrichLater(42L, ISBN);
+    service.enrichLater(42L, ISBN);
+
+    assertEquals(1, submitted.size());
+    assertEquals(1, service.getQueueSize());
+    submitted.get(0).run();
+    assertEquals(0, service.getQueueSize());
+  }
+
+  private static BookMeta skeleton() {
+    return BookMeta.builder()
+        .id(42L)
+        .title("pride and prejudice")
+        .isbn(ISBN)
+        .publisher("penguin books")
+        .images(new HashSet<>())
+        .authors(new HashSet<>())
+        .categories(new HashSet<>())
+        .tags(new HashSet<>())
+        .build();
+  }
+
+  private static RichBookData prideAndPrejudice() {
+    return RichBookData.builder()
+        .title("Pride and Prejudice")
+        .isbn(ISBN)
+        .description("A novel.")
+        .publisher("Penguin")
+        .coverUrl("https://covers.openlibrary.org/b/isbn/" + ISBN + "-L.jpg")
+        .authors(List.of("Jane Austen"))
+        .categories(List.of("Fiction", "Courtship -- Fiction"))
+        .build();
+  }
+}
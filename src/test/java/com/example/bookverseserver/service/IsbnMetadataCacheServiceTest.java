@@ -0,0 +1,179 @@
+package com.example.bookverseserver.service;
+
+import com.example.bookverseserver.dto.response.External.RichBookData;
+import com.example.bookverseserver.entity.Product.IsbnMetadata;
+import com.example.bookverseserver.enums.MetadataSource;
+import com.example.bookverseserver.repository.IsbnMetadataRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class IsbnMetadataCacheServiceTest {
+
+  private static final String ISBN = "9780141439518";
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+
+  @Mock private IsbnMetadataRepository isbnMetadataRepository;
+  @Mock private PlatformTransactionManager transactionManager;
+
+  @Test
+  void get_RepeatLookupIsServedFromMemory() {
+    IsbnMetadataCacheService cache = newCache(60);
+    AtomicInteger fetches = new AtomicInteger();
+
+    RichBookData first = cache.get(ISBN, MetadataSource.OPEN_LIBRARY, () -> {
+      fetches.incrementAndGet();
+      return book("Pride and Prejudice");
+    });
+    RichBookData second = cache.get("978-0-14-143951-8", MetadataSource.OPEN_LIBRARY, () -> {
+      fetches.incrementAndGet();
+      return book("other");
+    });
+
+    assertEquals("Pride and Prejudice", first.getTitle());
+    assertSame(first, second);
+    assertEquals(1, fetches.get());
+    verify(isbnMetadataRepository, times(1)).save(any(IsbnMetadata.class));
+  }
+
+  @Test
+  void get_NotFoundIsCachedOnlyForNegativeTtl() {
+    AtomicInteger fetches = new AtomicInteger();
+
+    IsbnMetadataCacheService cache = newCache(60);
+    assertNull(cache.get(ISBN, MetadataSource.GOOGLE_BOOKS, () -> { fetches.incrementAndGet(); return null; }));
+    assertNull(cache.get(ISBN, MetadataSource.GOOGLE_BOOKS, () -> { fetches.incrementAndGet(); return null; }));
+    assertEquals(1, fetches.get());
+
+    IsbnMetadataCacheService expiring = newCache(0);
+    expiring.get(ISBN, MetadataSource.GOOGLE_BOOKS, () -> { fetches.incrementAndGet(); return null; });
+    expiring.get(ISBN, MetadataSource.GOOGLE_BOOKS, () -> { fetches.incrementAndGet(); return null; });
+    assertEquals(3, fetches.get());
+  }
+
+  @Test
+  void get_FetchErrorsAreNotCached() {
+    IsbnMetadataCacheService cache = newCache(60);
+    AtomicInteger fetches = new AtomicInteger();
+
+    assertThrows(ResourceAccessException.class, () -> cache.get(ISBN, MetadataSource.OPEN_LIBRARY, () -> {
+      fetches.incrementAndGet();
+      throw new ResourceAccessException("Read timed out");
+    }));
+    RichBookData data = cache.get(ISBN, MetadataSource.OPEN_LIBRARY, () -> {
+      fetches.incrementAndGet();
+      return book("Pride and Prejudice");
+    });
+
+    assertEquals("Pride and Prejudice", data.getTitle());
+    assertEquals(2, fetches.get());
+    verify(isbnMetadataRepository, times(1)).save(any(IsbnMetadata.class));
+  }
+
+  @Test
+  void getAsync_FetchErrorsAreNotCached() {
+    IsbnMetadataCacheService cache = newCache(60);
+
+    CompletableFuture<RichBookData> failed = cache.getAsync(ISBN, MetadataSource.GOOGLE_BOOKS,
+        () -> CompletableFuture.failedFuture(new ResourceAccessException("429 Too Many Requests")));
+    RichBookData data = cache.getAsync(ISBN, MetadataSource.GOOGLE_BOOKS,
+        () -> CompletableFuture.completedFuture(book("Pride and Prejudice"))).join();
+
+    assertTrue(failed.isCompletedExceptionally());
+    assertEquals("Pride and Prejudice", data.getTitle());
+    verify(isbnMetadataRepository, times(1)).save(any(IsbnMetadata.class));
+  }
+
+  @Test
+  void get_IncompleteDataIsServedAndRefreshedOnTheNextLookup() {
+    IsbnMetadataCacheService cache = newCache(60);
+    RichBookData incomplete = book("Pride and Prejudice").toBuilder().incomplete(true).build();
+
+    assertSame(incomplete, cache.get(ISBN, MetadataSource.OPEN_LIBRARY, () -> incomplete));
+    // Served again while the refresh fetches the description
+    assertSame(incomplete, cache.get(ISBN, MetadataSource.OPEN_LIBRARY,
+        () -> book("Pride and Prejudice").toBuilder().description("A novel.").build()));
+
+    assertEquals("A novel.", cache.get(ISBN, MetadataSource.OPEN_LIBRARY, () -> fail("should not fetch")).getDescription());
+  }
+
+  @Test
+  void get_IncompleteRefreshKeepsCompleteData() throws Exception {
+    when(isbnMetadataRepository.findByIsbnAndSource(ISBN, MetadataSource.OPEN_LIBRARY))
+        .thenReturn(Optional.of(row(book("Old title"), LocalDateTime.now().minusDays(60))));
+    IsbnMetadataCacheService cache = newCache(60);
+
+    cache.get(ISBN, MetadataSource.OPEN_LIBRARY, () -> book("New title").toBuilder().incomplete(true).build());
+
+    assertEquals("Old title", cache.get(ISBN, MetadataSource.OPEN_LIBRARY, () -> fail("should not fetch")).getTitle());
+  }
+
+  @Test
+  void get_LoadsPersistedEntryWithoutFetching() throws Exception {
+    when(isbnMetadataRepository.findByIsbnAndSource(ISBN, MetadataSource.OPEN_LIBRARY))
+        .thenReturn(Optional.of(row(book("Pride and Prejudice"), LocalDateTime.now().minusDays(1))));
+    IsbnMetadataCacheService cache = newCache(60);
+
+    RichBookData data = cache.get(ISBN, MetadataSource.OPEN_LIBRARY, () -> fail("should not fetch"));
+
+    assertEquals("Pride and Prejudice", data.getTitle());
+    assertEquals(List.of("Jane Austen"), data.getAuthors());
+    verify(isbnMetadataRepository, never()).save(any());
+  }
+
+  @Test
+  void get_ServesStaleEntryAndRefreshesInBackground() throws Exception {
+    when(isbnMetadataRepository.findByIsbnAndSource(ISBN, MetadataSource.OPEN_LIBRARY))
+        .thenReturn(Optional.of(row(book("Old title"), LocalDateTime.now().minusDays(60))));
+    IsbnMetadataCacheService cache = newCache(60);
+
+    RichBookData served = cache.get(ISBN, MetadataSource.OPEN_LIBRARY, () -> book("New title"));
+
+    assertEquals("Old title", served.getTitle());
+    ArgumentCaptor<IsbnMetadata> saved = ArgumentCaptor.forClass(IsbnMetadata.class);
+    verify(isbnMetadataRepository).save(saved.capture());
+    assertTrue(saved.getValue().getPayload().contains("New title"));
+    assertEquals("New title", cache.get(ISBN, MetadataSource.OPEN_LIBRARY, () -> fail("should not fetch")).getTitle());
+  }
+
+  // Runs background refreshes inline so the test can observe them
+  private IsbnMetadataCacheService newCache(long negativeTtlMinutes) {
+    return new IsbnMetadataCacheService(isbnMetadataRepository, objectMapper, Runnable::run, transactionManager,
+        100, 720, negativeTtlMinutes);
+  }
+
+  private IsbnMetadata row(RichBookData data, LocalDateTime fetchedAt) throws Exception {
+    return IsbnMetadata.builder()
+        .isbn(ISBN)
+        .source(MetadataSource.OPEN_LIBRARY)
+        .found(true)
+        .payload(objectMapper.writeValueAsString(data))
+        .fetchedAt(fetchedAt)
+        .build();
+  }
+
+  private static RichBookData book(String title) {
+    return RichBookData.builder()
+        .isbn(ISBN)
+        .title(title)
+        .authors(List.of("Jane Austen"))
+        .build();
+  }
+}
@@ -0,0 +1,277 @@
+package com.example.bookverseserver.service;
+
+import com.example.bookverseserver.dto.request.Product.BulkListingItem;
+import com.example.bookverseserver.dto.response.External.RichBookData;
+import com.example.bookverseserver.dto.response.ModerationResponse;
+import com.example.bookverseserver.dto.response.Product.BulkUploadResponse;
+import com.example.bookverseserver.dto.response.Product.ListingResponse;
+import com.example.bookverseserver.entity.Product.Author;
+import com.example.bookverseserver.entity.Product.Category;
+import com.example.bookverseserver.entity.Product.Listing;
+import com.example.bookverseserver.enums.BookCondition;
+import com.example.bookverseserver.enums.ContentCategory;
+import com.example.bookverseserver.enums.ContentModerationDecision;
+import com.example.bookverseserver.enums.MetadataSource;
+import com.example.bookverseserver.exception.ErrorCode;
+import com.example.bookverseserver.mapper.ListingMapper;
+import com.example.bookverseserver.repository.AuthorRepository;
+import com.example.bookverseserver.repository.BookMetaRepository;
+import com.example.bookverseserver.repository.CategoryRepository;
+import com.example.bookverseserver.repository.ListingRepository;
+import com.example.bookverseserver.service.importjob.ImportJobTracker;
+import com.example.bookverseserver.service.moderation.BulkModerationEngine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.SqlParameterValue;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class ListingImportServiceTest {
+
+  private static final Long SELLER_ID = 7L;
+
+  @Mock private BookMetaRepository bookMetaRepository;
+  @Mock private AuthorRepository authorRepository;
+  @Mock private CategoryRepository categoryRepository;
+  @Mock private AuthorService authorService;
+  @Mock private CategoryService categoryService;
+  @Mock private ListingRepository listingRepository;
+  @Mock private ListingMapper listingMapper;
+  @Mock private IsbnMetadataCacheService isbnMetadataCacheService;
+  @Mock private OpenLibraryService openLibraryService;
+  @Mock private BulkModerationEngine bulkModerationEngine;
+  @Mock private JdbcTemplate jdbcTemplate;
+  @Mock private PlatformTransactionManager transactionManager;
+  @Mock private ImportJobTracker tracker;
+  @Mock private PreparedStatement statement;
+
+  private final AtomicLong ids = new AtomicLong(100);
+  private ListingImportService importService;
+
+  @BeforeEach
+  void setUp() {
+    importService = new ListingImportService(bookMetaRepository, authorRepository, categoryRepository,
+        authorService, categoryService, listingRepository, listingMapper, new BookMetaAssembler(), isbnMetadataCacheService, openLibraryService,
+        bulkModerationEngine, jdbcTemplate, transactionManager, Runnable::run, 10, 2);
+
+    when(tracker.getJobId()).thenReturn("job-1");
+    when(bulkModerationEngine.moderateChunk(anyList())).thenAnswer(invocation -> moderate(invocation.getArgument(0)));
+
+    when(isbnMetadataCacheService.get(anyString(), eq(MetadataSource.OPEN_LIBRARY), any()))
+        .thenAnswer(invocation -> invocation.<Supplier<RichBookData>>getArgument(2).get());
+    when(authorService.getOrCreateAuthorIds(any(), any())).thenReturn(Map.of("frank herbert", 1L));
+    when(authorRepository.getReferenceById(anyLong()))
+        .thenAnswer(invocation -> Author.builder().id(invocation.getArgument(0)).build());
+    when(categoryService.getOrCreateCategoryIds(any())).thenReturn(Map.of("fiction", 2L));
+    when(categoryRepository.findBySlug(anyString()))
+        .thenReturn(Optional.of(Category.builder().id(2L).slug("fiction").build()));
+    when(categoryRepository.getReferenceById(anyLong()))
+        .thenAnswer(invocation -> Category.builder().id(invocation.getArgument(0)).build());
+    // Books with an ISBN: one multi-row insert returning (id, isbn)
+    when(jdbcTemplate.query(startsWith("INSERT INTO book_meta"), any(RowMapper.class), any(Object[].class)))
+        .thenAnswer(invocation -> {
+          Object[] values = (Object[]) invocation.getRawArguments()[2];
+          List<Map.Entry<String, Long>> inserted = new ArrayList<>();
+          for (int i = 0; i < values.length; i += ListingImportService.BOOK_TYPES.length) {
+            inserted.add(Map.entry((String) ((SqlParameterValue) values[i + 1]).getValue(), ids.incrementAndGet()));
+          }
+          return inserted;
+        });
+    // Books without an ISBN and listings: JDBC batches with generated keys
+    when(jdbcTemplate.batchUpdate(any(PreparedStatementCreator.class), any(BatchPreparedStatementSetter.class),
+        any(KeyHolder.class))).thenAnswer(invocation -> {
+      BatchPreparedStatementSetter setter = invocation.getArgument(1);
+      KeyHolder keys = invocation.getArgument(2);
+      int[] counts = new int[setter.getBatchSize()];
+      for (int i = 0; i < counts.length; i++) {
+        try {
+          setter.setValues(statement, i);
+        } catch (SQLException e) {
+          throw new DataIntegrityViolationException(e.getMessage(), e);
+        }
+        keys.getKeyList().add(Map.of("id", ids.incrementAndGet()));
+        counts[i] = 1;
+      }
+      return counts;
+    });
+    when(listingRepository.findAllById(any())).thenAnswer(invocation -> {
+      List<Listing> listings = new ArrayList<>();
+      for (Long id : invocation.<Iterable<Long>>getArgument(0)) {
+        listings.add(Listing.builder().id(id).build());
+      }
+      return listings;
+    });
+    when(listingMapper.toListingResponse(any(Listing.class)))
+        .thenAnswer(invocation -> ListingResponse.builder().id(invocation.<Listing>getArgument(0).getId()).build());
+  }
+
+  @Test
+  void importListings_FetchesEachDistinctIsbnOnceAndCreatesOneBook() {
+    when(bookMetaRepository.findIdsAndPrimaryCategoryByIsbnIn(any())).thenReturn(List.of());
+    when(openLibraryService.fetchRichBookDetailsByIsbn("9780441172719")).thenReturn(RichBookData.builder()
+        .title("Dune")
+        .authors(List.of("Frank Herbert"))
+        .build());
+
+    BulkUploadResponse response = importService.importListings(SELLER_ID, List.of(
+        item("Dune", "978-0-441-17271-9"),
+        item("Dune (used)", "9780441172719"),
+        item("Dune again", "978 0441172719")), tracker);
+
+    assertEquals(3, response.getSuccessCount());
+    assertEquals(0, response.getFailureCount());
+    verify(openLibraryService, times(1)).fetchRichBookDetailsByIsbn("9780441172719");
+    verify(jdbcTemplate, times(1)).query(startsWith("INSERT INTO book_meta"), any(RowMapper.class), any(Object[].class));
+    verify(jdbcTemplate).batchUpdate(eq(ListingImportService.INSERT_BOOK_AUTHOR_SQL),
+        argThat((List<Object[]> links) -> links.size() == 1 && links.get(0)[1].equals(1L)));
+    verify(authorService, times(1)).getOrCreateAuthorIds(eq(List.of("Frank Herbert")), any());
+    verify(jdbcTemplate, times(1)).batchUpdate(any(PreparedStatementCreator.class),
+        any(BatchPreparedStatementSetter.class), any(KeyHolder.class));
+    assertEquals("job-1", response.getJobId());
+    verify(tracker).succeeded(eq(2), eq("Dune again"), anyLong(), isNull());
+    verify(tracker).flush();
+  }
+
+  @Test
+  void importListings_ExistingBooksAreNotFetched() {
+    when(bookMetaRepository.findIdsAndPrimaryCategoryByIsbnIn(any()))
+        .thenReturn(List.<Object[]>of(new Object[] {"9780441172719", 42L, 2L}));
+
+    BulkUploadResponse response = importService.importListings(SELLER_ID, List.of(item("Dune", "9780441172719")), tracker);
+
+    assertEquals(1, response.getSuccessCount());
+    verifyNoInteractions(openLibraryService, authorService, categoryService);
+    verify(jdbcTemplate, never()).query(startsWith("INSERT INTO book_meta"), any(RowMapper.class), any(Object[].class));
+  }
+
+  @Test
+  void importListings_BookAnotherImportCreatedIsUsed() throws SQLException {
+    when(bookMetaRepository.findIdsAndPrimaryCategoryByIsbnIn(any()))
+        .thenReturn(List.of())
+        .thenReturn(List.<Object[]>of(new Object[] {"9780441172719", 42L, 2L}));
+    when(jdbcTemplate.query(startsWith("INSERT INTO book_meta"), any(RowMapper.class), any(Object[].class)))
+        .thenReturn(List.of());   // ON CONFLICT DO NOTHING
+
+    BulkUploadResponse response = importService.importListings(SELLER_ID, List.of(item("Dune", "9780441172719")), tracker);
+
+    assertEquals(1, response.getSuccessCount());
+    verify(jdbcTemplate, never()).batchUpdate(eq(ListingImportService.INSERT_BOOK_AUTHOR_SQL), anyList());
+    verify(statement).setObject(1, 42L, Types.BIGINT);
+  }
+
+  @Test
+  void importListings_NullsAreBoundWithTheirColumnType() throws SQLException {
+    BulkListingItem item = item("Dune", null);
+    item.setPrice(null);
+    item.setPublishYear(null);
+
+    importService.importListings(SELLER_ID, List.of(item), tracker);
+
+    verify(statement).setNull(5, Types.DATE);       // Book's published date
+    verify(statement).setNull(4, Types.NUMERIC);    // Listing's price
+  }
+
+  @Test
+  void importListings_FailedRowDoesNotFailItsChunk() throws SQLException {
+    doThrow(new SQLException("constraint violated")).when(statement).setString(1, "Broken");
+
+    BulkUploadResponse response = importService.importListings(SELLER_ID, List.of(
+        item("Dune", null),
+        item("Broken", null),
+        item("Emma", null)), tracker);
+
+    assertEquals(2, response.getSuccessCount());
+    assertEquals(1, response.getFailureCount());
+    BulkUploadResponse.BulkUploadError error = response.getErrors().get(0);
+    assertEquals(2, error.getRowNumber());
+    assertEquals("Unexpected error: constraint violated", error.getMessage());
+    // The chunk was rolled back, then retried row by row
+    verify(transactionManager, times(2)).rollback(any());
+    verify(tracker).failed(1, "Broken", "Unexpected error: constraint violated");
+    verify(tracker, times(2)).succeeded(anyInt(), anyString(), anyLong(), isNull());
+  }
+
+  @Test
+  void importListings_BlockedRowsFailAndFlaggedRowsAreQueuedForReview() {
+    BulkUploadResponse response = importService.importListings(SELLER_ID, List.of(
+        item("Dune", null),
+        item("Buy followers spam", null),
+        item("Suspicious Emma", null)), tracker);
+
+    assertEquals(2, response.getSuccessCount());
+    assertEquals(1, response.getFailureCount());
+    assertEquals(2, response.getErrors().get(0).getRowNumber());
+    verify(tracker).failed(1, "Buy followers spam", ErrorCode.CONTENT_SPAM.getMessage());
+    verify(jdbcTemplate).batchUpdate(eq(ListingImportService.INSERT_FLAG_SQL),
+        argThat((List<Object[]> flags) -> flags.size() == 1 && "INAPPROPRIATE".equals(flags.get(0)[1])));
+    // Moderated before its transaction: the blocked row was never written
+    verify(transactionManager, never()).rollback(any());
+  }
+
+  /**
+   * Titles containing "spam" are blocked and "Suspicious" ones flagged; the rest are approved.
+   */
+  private static List<BulkModerationEngine.Outcome> moderate(List<BulkModerationEngine.Item> items) {
+    List<BulkModerationEngine.Outcome> outcomes = new ArrayList<>();
+    for (BulkModerationEngine.Item item : items) {
+      ContentModerationDecision decision = item.text().contains("spam") ? ContentModerationDecision.BLOCK
+          : item.text().startsWith("Suspicious") ? ContentModerationDecision.FLAG
+          : ContentModerationDecision.APPROVE;
+      outcomes.add(new BulkModerationEngine.Outcome(item, ModerationResponse.builder()
+          .decision(decision)
+          .category(decision == ContentModerationDecision.BLOCK ? ContentCategory.SPAM : ContentCategory.CLEAN)
+          .score(decision == ContentModerationDecision.APPROVE ? 0 : 60)
+          .reason("rules")
+          .build(), decision == ContentModerationDecision.FLAG));
+    }
+    return outcomes;
+  }
+
+  private static BulkListingItem item(String title, String isbn) {
+    return BulkListingItem.builder()
+        .title(title)
+        .author("Frank Herbert")
+        .isbn(isbn)
+        .publisher("Chilton")
+        .publishYear(1965)
+        .category("fiction")
+        .condition(BookCondition.GOOD)
+        .price(120000.0)
+        .stock(1)
+        .description("A well kept copy of a classic novel.")
+        .build();
+  }
+}
@@ -0,0 +1,82 @@
+package com.example.bookverseserver.service;
+
+import com.example.bookverseserver.entity.User.User;
+import com.example.bookverseserver.exception.AppException;
+import com.example.bookverseserver.security.TokenRevocationIndex;
+import com.example.bookverseserver.security.TokenVerdictCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class NimbusJwtServiceTest {
+
+  private static final String SIGNER_KEY = "0123456789abcdef".repeat(8);
+
+  @Mock private TokenRevocationIndex tokenRevocationIndex;
+
+  private TokenVerdictCache tokenVerdictCache;
+  private NimbusJwtService jwtService;
+  private String token;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    tokenVerdictCache = new TokenVerdictCache(100, 60);
+    jwtService = new NimbusJwtService(tokenRevocationIndex, tokenVerdictCache);
+    ReflectionTestUtils.setField(jwtService, "SIGNER_KEY", SIGNER_KEY);
+    ReflectionTestUtils.setField(jwtService, "VALID_DURATION", 3600L);
+    jwtService.initKeys();
+
+    token = jwtService.generateToken(User.builder().id(7L).username("reader").email("reader@example.com").build());
+  }
+
+  @Test
+  void verifyAccessToken_SecondCallIsServedFromCache() {
+    Jwt first = jwtService.verifyAccessToken(token);
+    Jwt second = jwtService.verifyAccessToken(token);
+
+    assertSame(first, second);
+    assertEquals("7", first.getSubject());
+    assertEquals("reader", first.getClaimAsString("username"));
+    assertNotNull(first.getExpiresAt());
+    verify(tokenRevocationIndex, times(1)).isRevoked(anyString());
+    verify(tokenRevocationIndex, times(1)).isIssuedBeforePasswordChange(eq(7L), any());
+  }
+
+  @Test
+  void verifyAccessToken_RejectsTamperedSignature() {
+    String tampered = token.substring(0, token.length() - 2)
+        + (token.endsWith("AA") ? "BB" : "AA");
+
+    assertThrows(AppException.class, () -> jwtService.verifyAccessToken(tampered));
+    verifyNoInteractions(tokenRevocationIndex);
+  }
+
+  @Test
+  void verifyAccessToken_RejectsRevokedToken() {
+    when(tokenRevocationIndex.isRevoked(anyString())).thenReturn(true);
+
+    assertThrows(AppException.class, () -> jwtService.verifyAccessToken(token));
+    assertEquals(0, tokenVerdictCache.size());
+  }
+
+  @Test
+  void verifyAccessToken_PasswordChangeAfterEvictionRejectsToken() {
+    jwtService.verifyAccessToken(token);
+
+    when(tokenRevocationIndex.isIssuedBeforePasswordChange(eq(7L), any())).thenReturn(true);
+    tokenVerdictCache.evictUser(7L);
+
+    assertThrows(AppException.class, () -> jwtService.verifyAccessToken(token));
+  }
+}
@@ -0,0 +1,68 @@
+package com.example.bookverseserver.service;
+
+import com.example.bookverseserver.dto.response.External.OpenLibraryEditionResponse;
+import com.example.bookverseserver.dto.response.External.RichBookData;
+import com.example.bookverseserver.service.http.UpstreamHttpClients;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OpenLibraryServiceTest {
+
+  private static final String ISBN = "9780141439518";
+
+  @Mock private UpstreamHttpClients upstreamHttpClients;
+  @Mock private RestTemplate restTemplate;
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+  private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+  private final CountDownLatch release = new CountDownLatch(1);
+  private OpenLibraryService service;
+
+  @BeforeEach
+  void setUp() {
+    when(upstreamHttpClients.restTemplate("open-library")).thenReturn(restTemplate);
+    service = new OpenLibraryService(upstreamHttpClients, objectMapper, 50);
+  }
+
+  @AfterEach
+  void tearDown() {
+    release.countDown();
+    executor.shutdownNow();
+  }
+
+  @Test
+  void fetchRichBookDetailsByIsbnAsync_SlowDescriptionOnlyMarksTheDataIncomplete() throws Exception {
+    JsonNode data = objectMapper.readTree("""
+        {"ISBN:%s": {"key": "/books/OL1M", "title": "Pride and Prejudice"}}
+        """.formatted(ISBN));
+    when(restTemplate.getForObject(contains("/api/books"), eq(JsonNode.class))).thenReturn(data);
+    when(restTemplate.getForObject(contains("/isbn/"), eq(OpenLibraryEditionResponse.class))).thenAnswer(invocation -> {
+      release.await();   // Hangs until the test is over
+      return null;
+    });
+
+    RichBookData result = service.fetchRichBookDetailsByIsbnAsync(ISBN, executor).get(5, TimeUnit.SECONDS);
+
+    assertEquals("Pride and Prejudice", result.getTitle());
+    assertNull(result.getDescription());
+    assertTrue(result.isIncomplete());
+  }
+}
@@ -0,0 +1,113 @@
+package com.example.bookverseserver.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TaxonomyIdResolverTest {
+
+  @Mock private JdbcTemplate jdbcTemplate;
+
+  private final Map<String, Long> rows = new HashMap<>();
+  private final List<Object> inserted = new ArrayList<>();
+  private TaxonomyIdResolver resolver;
+
+  @BeforeEach
+  void setUp() {
+    resolver = new TaxonomyIdResolver(jdbcTemplate, "book_tag", "slug", "name, slug, usage_count", 10);
+  }
+
+  @Test
+  void resolve_SelectsExistingKeysAndInsertsTheRestOnce() {
+    rows.put("romance", 1L);
+    stubSelect();
+    stubInsert(false);
+
+    Map<String, Long> ids = resolver.resolve(List.of("romance", "regency", "romance"),
+        slug -> new Object[] {slug.toUpperCase(), slug, 0});
+
+    assertEquals(Map.of("romance", 1L, "regency", 2L), ids);
+    assertEquals(List.<Object>of("REGENCY", "regency", 0), inserted);
+    verify(jdbcTemplate).query(startsWith("SELECT id, slug AS taxonomy_key FROM book_tag WHERE slug IN (?, ?)"),
+        any(RowMapper.class), any(Object[].class));
+    verify(jdbcTemplate).query(startsWith("INSERT INTO book_tag (name, slug, usage_count) VALUES (?, ?, ?)"
+        + " ON CONFLICT DO NOTHING"), any(RowMapper.class), any(Object[].class));
+  }
+
+  @Test
+  void resolve_ServesRepeatedKeysFromTheCache() {
+    rows.put("romance", 1L);
+    stubSelect();
+
+    resolver.resolve(List.of("romance"), slug -> new Object[] {slug, slug, 0});
+    Map<String, Long> ids = resolver.resolve(List.of("romance"), slug -> new Object[] {slug, slug, 0});
+
+    assertEquals(Map.of("romance", 1L), ids);
+    verify(jdbcTemplate, times(1)).query(any(String.class), any(RowMapper.class), any(Object[].class));
+  }
+
+  @Test
+  void resolve_RereadsKeysAConcurrentWriterInsertedFirst() {
+    stubSelect();
+    stubInsert(true);
+
+    Map<String, Long> ids = resolver.resolve(List.of("gothic"), slug -> new Object[] {slug, slug, 0});
+
+    assertEquals(Map.of("gothic", 7L), ids);
+    verify(jdbcTemplate, times(2)).query(startsWith("SELECT"), any(RowMapper.class), any(Object[].class));
+  }
+
+  @Test
+  void find_DoesNotInsert() {
+    stubSelect();
+
+    assertTrue(resolver.find(List.of("gothic")).isEmpty());
+    verify(jdbcTemplate, never()).query(startsWith("INSERT"), any(RowMapper.class), any(Object[].class));
+  }
+
+  private void stubSelect() {
+    lenient().when(jdbcTemplate.query(startsWith("SELECT"), any(RowMapper.class), any(Object[].class)))
+        .thenAnswer(invocation -> Arrays.stream((Object[]) invocation.getRawArguments()[2])
+            .filter(rows::containsKey)
+            .map(key -> Map.entry((String) key, rows.get(key)))
+            .toList());
+  }
+
+  /**
+   * @param lost Whether another writer inserts the rows first, so ours conflict
+   */
+  private void stubInsert(boolean lost) {
+    when(jdbcTemplate.query(startsWith("INSERT"), any(RowMapper.class), any(Object[].class)))
+        .thenAnswer(invocation -> {
+          Object[] values = (Object[]) invocation.getRawArguments()[2];
+          List<Map.Entry<String, Long>> returned = new ArrayList<>();
+          for (int i = 0; i < values.length; i += 3) {
+            String slug = (String) values[i + 1];
+            if (lost) {
+              rows.put(slug, 7L);
+            } else {
+              inserted.addAll(List.of(values[i], values[i + 1], values[i + 2]));
+              rows.put(slug, (long) rows.size() + 1);
+              returned.add(Map.entry(slug, rows.get(slug)));
+            }
+          }
+          return returned;
+        });
+  }
+}
@@ -0,0 +1,44 @@
+package com.example.bookverseserver.service.ai;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonArrayStreamParserTest {
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+
+  @Test
+  void feed_EmitsEachArrayElementAsSoonAsItCloses() {
+    List<JsonNode> elements = new ArrayList<>();
+    JsonArrayStreamParser parser = new JsonArrayStreamParser(objectMapper, elements::add);
+
+    parser.feed("```json\n{\"moodDescription\": \"cozy {rainy} days\", \"recommendations\": [{\"listingId\": 1, ");
+    assertTrue(elements.isEmpty());
+
+    parser.feed("\"moodTags\": [\"warm\", \"slow\"]}, {\"listingId\"");
+    assertEquals(1, elements.size());
+    assertEquals(1, elements.get(0).path("listingId").asInt());
+    assertEquals(2, elements.get(0).path("moodTags").size());
+
+    parser.feed(": 2, \"whyThisFits\": \"quote \\\" and } brace\"}]}\n```");
+    assertEquals(2, elements.size());
+    assertEquals("quote \" and } brace", elements.get(1).path("whyThisFits").asText());
+  }
+
+  @Test
+  void feed_IgnoresObjectsOutsideArrays() {
+    List<JsonNode> elements = new ArrayList<>();
+    JsonArrayStreamParser parser = new JsonArrayStreamParser(objectMapper, elements::add);
+
+    parser.feed("{\"summary\": \"fine\", \"meta\": {\"a\": 1}}");
+
+    assertTrue(elements.isEmpty());
+    assertEquals("{\"summary\": \"fine\", \"meta\": {\"a\": 1}}", parser.getText());
+  }
+}
@@ -0,0 +1,172 @@
+package com.example.bookverseserver.service.ai;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProviderRotatorTest {
+
+  private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+  private ProviderRotator rotator;
+
+  @BeforeEach
+  void setUp() {
+    rotator = new ProviderRotator(null);
+  }
+
+  @AfterEach
+  void tearDown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  void generate_RoundRobinsOverProvidersWithPermits() throws Exception {
+    rotator.initialize(List.of(new StubProvider("groq", 10, 0), new StubProvider("mistral", 10, 0)));
+
+    assertEquals("groq", rotator.generate("hi"));
+    assertEquals("mistral", rotator.generate("hi"));
+    assertEquals("groq", rotator.generate("hi"));
+    assertEquals(0, rotator.getShedCount());
+  }
+
+  @Test
+  void generate_SkipsProvidersWithAnEmptyBucket() throws Exception {
+    StubProvider groq = new StubProvider("groq", 0, 30_000);
+    rotator.initialize(List.of(groq, new StubProvider("mistral", 10, 0)));
+
+    assertEquals("mistral", rotator.generate("hi"));
+    assertEquals("mistral", rotator.generate("hi"));
+    assertEquals(0, groq.waits.get());
+  }
+
+  @Test
+  void generate_WaitsOnTheSoonestRefillWithinTheBudget() throws Exception {
+    StubProvider groq = new StubProvider("groq", 0, 5_000);
+    StubProvider mistral = new StubProvider("mistral", 0, 200);
+    rotator.initialize(List.of(groq, mistral));
+    rotator.configureAdmission(2, 1_000);
+
+    assertEquals("mistral", rotator.generate("hi"));
+    assertEquals(1, mistral.waits.get());
+    assertEquals(1_000, mistral.lastWaitMillis.get());
+    assertEquals(0, groq.waits.get());
+    assertEquals(0, rotator.getShedCount());
+  }
+
+  @Test
+  void generate_ShedsWhenTheRefillIsBeyondTheBudget() {
+    StubProvider groq = new StubProvider("groq", 0, 5_000);
+    rotator.initialize(List.of(groq));
+    rotator.configureAdmission(2, 1_000);
+
+    AIProviderException e = assertThrows(AIProviderException.class, () -> rotator.generate("hi"));
+
+    assertTrue(e.isRateLimited());
+    assertEquals(0, groq.waits.get());
+    assertEquals(1, rotator.getShedCount());
+  }
+
+  @Test
+  void generate_ShedsWhenTheQueueIsFull() throws Exception {
+    StubProvider groq = new StubProvider("groq", 0, 200);
+    groq.blockWaiters = new CountDownLatch(1);
+    rotator.initialize(List.of(groq));
+    rotator.configureAdmission(1, 1_000);
+
+    Future<String> queued = executor.submit(() -> rotator.generate("hi"));
+    assertTrue(groq.waiting.await(5, TimeUnit.SECONDS));
+
+    assertThrows(AIProviderException.class, () -> rotator.generate("hi"));
+    assertEquals(1, rotator.getShedCount());
+
+    groq.blockWaiters.countDown();
+    assertEquals("groq", queued.get(5, TimeUnit.SECONDS));
+    assertEquals(1, rotator.getShedCount());
+  }
+
+  @Test
+  void canAdmit_FalseWhenEveryBucketIsEmpty() {
+    StubProvider groq = new StubProvider("groq", 0, 5_000);
+    StubProvider mistral = new StubProvider("mistral", 0, 3_000);
+    rotator.initialize(List.of(groq, mistral));
+    rotator.configureAdmission(2, 1_000);
+
+    assertFalse(rotator.canAdmit());
+
+    mistral.refillMillis = 500;   // Within the wait budget
+    assertTrue(rotator.canAdmit());
+
+    rotator.configureAdmission(0, 1_000);   // ... but no queue slot
+    assertFalse(rotator.canAdmit());
+
+    groq.tokens.set(1);
+    assertTrue(rotator.canAdmit());
+  }
+
+  /**
+   * Provider answering with its own name, with a token bucket the test controls.
+   * A timed permit wait succeeds if the bucket refills within it.
+   */
+  private static final class StubProvider implements AIProvider {
+    final String name;
+    final AtomicInteger tokens;
+    volatile long refillMillis;
+    final AtomicInteger waits = new AtomicInteger();
+    final AtomicLong lastWaitMillis = new AtomicLong();
+    final CountDownLatch waiting = new CountDownLatch(1);
+    volatile CountDownLatch blockWaiters;
+    final ProviderStats stats = new ProviderStats();
+
+    StubProvider(String name, int tokens, long refillMillis) {
+      this.name = name;
+      this.tokens = new AtomicInteger(tokens);
+      this.refillMillis = refillMillis;
+    }
+
+    @Override public String getName() { return name; }
+    @Override public String getModel() { return name + "-model"; }
+    @Override public int getRpmLimit() { return 60; }
+    @Override public boolean isEnabled() { return true; }
+    @Override public ProviderStatus getStatus() { return ProviderStatus.AVAILABLE; }
+    @Override public boolean isAvailable() { return tokens.get() > 0; }
+    @Override public ProviderStats getStats() { return stats; }
+    @Override public void setCooldown(int seconds) { stats.setCooldown(seconds); }
+
+    @Override
+    public boolean tryAcquirePermit() {
+      return tokens.getAndUpdate(left -> Math.max(0, left - 1)) > 0;
+    }
+
+    @Override
+    public boolean tryAcquirePermit(long maxWaitMillis) throws InterruptedException {
+      waits.incrementAndGet();
+      lastWaitMillis.set(maxWaitMillis);
+      waiting.countDown();
+      if (blockWaiters != null) {
+        blockWaiters.await();
+      }
+      return tryAcquirePermit() || refillMillis <= maxWaitMillis;
+    }
+
+    @Override
+    public long millisUntilPermit() {
+      return tokens.get() > 0 ? 0 : refillMillis;
+    }
+
+    @Override
+    public String generate(String prompt, int timeoutSeconds) {
+      return name;
+    }
+  }
+}
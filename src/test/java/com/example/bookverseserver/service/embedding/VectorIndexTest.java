@@ -0,0 +1,70 @@
+package com.example.bookverseserver.service.embedding;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VectorIndexTest {
+
+  private static final int DIM = TextEmbedder.DIMENSIONS;
+
+  @Test
+  void search_ReturnsClosestDocumentFirst() {
+    long[] ids = {1L, 2L, 3L};
+    float[][] vectors = {
+        TextEmbedder.embed("Murder on the Orient Express detective mystery crime"),
+        TextEmbedder.embed("The Hobbit fantasy dragons magic adventure"),
+        TextEmbedder.embed("Pride and Prejudice romance love regency")
+    };
+    VectorIndex index = VectorIndex.build(ids, vectors, DIM);
+
+    List<VectorIndex.Hit> hits = index.search(
+        index.prepareQuery(TextEmbedder.embed("mysteries and detectives")), 2, null);
+
+    assertEquals(2, hits.size());
+    assertEquals(1L, hits.get(0).id());
+    assertTrue(hits.get(0).score() >= hits.get(1).score());
+  }
+
+  @Test
+  void search_RespectsFilter() {
+    long[] ids = {1L, 2L};
+    float[][] vectors = {
+        TextEmbedder.embed("space opera science fiction"),
+        TextEmbedder.embed("science fiction robots")
+    };
+    VectorIndex index = VectorIndex.build(ids, vectors, DIM);
+
+    List<VectorIndex.Hit> hits = index.search(
+        index.prepareQuery(TextEmbedder.embed("science fiction")), 5, id -> id != 1L);
+
+    assertEquals(1, hits.size());
+    assertEquals(2L, hits.get(0).id());
+  }
+
+  @Test
+  void search_IvfLayoutFindsExactMatch() {
+    int n = 3000;
+    long[] ids = new long[n];
+    float[][] vectors = new float[n][];
+    for (int i = 0; i < n; i++) {
+      ids[i] = i;
+      vectors[i] = TextEmbedder.embed("title" + i + " subject" + (i % 37) + " tag" + (i % 11));
+    }
+    VectorIndex index = VectorIndex.build(ids, vectors, DIM);
+
+    List<VectorIndex.Hit> hits = index.search(index.prepareQuery(vectors[1234]), 1, null);
+
+    assertEquals(1234L, hits.get(0).id());
+  }
+
+  @Test
+  void similarity_UnknownIdIsNaN() {
+    VectorIndex index = VectorIndex.empty(DIM);
+
+    assertTrue(Float.isNaN(index.similarity(new float[DIM], 42L)));
+    assertTrue(index.search(new float[DIM], 3, null).isEmpty());
+  }
+}
@@ -0,0 +1,135 @@
+package com.example.bookverseserver.service.http;
+
+import com.example.bookverseserver.configuration.HttpClientProperties;
+import com.example.bookverseserver.dto.response.Admin.UpstreamStatsResponse;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the clients against a local HTTP server.
+ */
+class UpstreamHttpClientsTest {
+
+  private HttpServer server;
+  private String baseUrl;
+  private HttpClientProperties properties;
+  private UpstreamHttpClients clients;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+    server.setExecutor(Executors.newCachedThreadPool());
+    server.start();
+    baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+    properties = new HttpClientProperties();
+    clients = new UpstreamHttpClients(properties, new RestTemplateBuilder());
+  }
+
+  @AfterEach
+  void tearDown() {
+    server.stop(0);
+  }
+
+  @Test
+  void restTemplate_AsksForGzipAndInflatesTheResponse() {
+    AtomicReference<String> acceptEncoding = new AtomicReference<>();
+    AtomicReference<String> userAgent = new AtomicReference<>();
+    server.createContext("/books", exchange -> {
+      acceptEncoding.set(exchange.getRequestHeaders().getFirst("Accept-Encoding"));
+      userAgent.set(exchange.getRequestHeaders().getFirst("User-Agent"));
+      exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+      respond(exchange, 200, gzip("{\"title\":\"Dune\"}"));
+    });
+
+    String body = clients.restTemplate("open-library").getForObject(baseUrl + "/books", String.class);
+
+    assertEquals("{\"title\":\"Dune\"}", body);
+    assertEquals("gzip", acceptEncoding.get());
+    assertEquals(properties.getUserAgent(), userAgent.get());
+  }
+
+  @Test
+  void restTemplate_OpenCircuitRejectsWithoutCallingTheHost() {
+    properties.getDefaults().setFailureThreshold(2);
+    AtomicInteger calls = new AtomicInteger();
+    server.createContext("/rates", exchange -> {
+      calls.incrementAndGet();
+      respond(exchange, 503, "down".getBytes(StandardCharsets.UTF_8));
+    });
+    RestTemplate restTemplate = clients.restTemplate("ghn");
+
+    assertThrows(HttpServerErrorException.class, () -> restTemplate.getForObject(baseUrl + "/rates", String.class));
+    assertThrows(HttpServerErrorException.class, () -> restTemplate.getForObject(baseUrl + "/rates", String.class));
+    assertThrows(ResourceAccessException.class, () -> restTemplate.getForObject(baseUrl + "/rates", String.class));
+
+    assertEquals(2, calls.get());
+    UpstreamStatsResponse.HostStats stats = clients.stats().getHosts().get(0);
+    assertEquals("OPEN", stats.getCircuitState());
+    assertEquals(2, stats.getServerErrors());
+    assertEquals(1, stats.getRejected());
+  }
+
+  @Test
+  void restTemplate_LimitsConnectionsPerHost() throws Exception {
+    properties.getDefaults().setMaxConnectionsPerHost(1);
+    properties.getDefaults().setAcquireTimeoutMillis(50);
+    CountDownLatch release = new CountDownLatch(1);
+    CountDownLatch arrived = new CountDownLatch(1);
+    server.createContext("/slow", exchange -> {
+      arrived.countDown();
+      try {
+        release.await(5, TimeUnit.SECONDS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      respond(exchange, 200, "ok".getBytes(StandardCharsets.UTF_8));
+    });
+    RestTemplate restTemplate = clients.restTemplate("textbee");
+
+    CompletableFuture<String> first = CompletableFuture.supplyAsync(
+        () -> restTemplate.getForObject(baseUrl + "/slow", String.class));
+    assertTrue(arrived.await(5, TimeUnit.SECONDS));
+
+    assertThrows(ResourceAccessException.class, () -> restTemplate.getForObject(baseUrl + "/slow", String.class));
+    release.countDown();
+    assertEquals("ok", first.get(5, TimeUnit.SECONDS));
+    assertEquals("ok", restTemplate.getForObject(baseUrl + "/slow", String.class));
+  }
+
+  private static void respond(HttpExchange exchange, int status, byte[] body) throws IOException {
+    exchange.sendResponseHeaders(status, body.length);
+    try (OutputStream out = exchange.getResponseBody()) {
+      out.write(body);
+    }
+  }
+
+  private static byte[] gzip(String text) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+      out.write(text.getBytes(StandardCharsets.UTF_8));
+    }
+    return bytes.toByteArray();
+  }
+}
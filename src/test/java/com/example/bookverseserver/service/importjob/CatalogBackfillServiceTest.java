@@ -0,0 +1,65 @@
+package com.example.bookverseserver.service.importjob;
+
+import com.example.bookverseserver.dto.response.External.RichBookData;
+import com.example.bookverseserver.enums.ImportJobType;
+import com.example.bookverseserver.service.BookEnrichmentService;
+import com.example.bookverseserver.service.CategoryService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.sql.ResultSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CatalogBackfillServiceTest {
+
+  private static final String ISBN = "9780141439518";
+
+  @Mock private BookEnrichmentService bookEnrichmentService;
+  @Mock private CategoryService categoryService;
+  @Mock private JdbcTemplate jdbcTemplate;
+  @Mock private PlatformTransactionManager transactionManager;
+  @Mock private ImportJobTracker tracker;
+  @Mock private ResultSet resultSet;
+
+  @Test
+  void recategorize_ListingsMoveToTheBestMatchNotTheLowestId() throws Exception {
+    CatalogBackfillService service = new CatalogBackfillService(bookEnrichmentService, categoryService,
+        jdbcTemplate, transactionManager, Runnable::run, 100, 2);
+    when(jdbcTemplate.queryForObject(anyString(), eq(Integer.class), any(Object[].class))).thenReturn(1);
+    when(resultSet.getLong("id")).thenReturn(42L);
+    when(resultSet.getString("isbn")).thenReturn(ISBN);
+    when(jdbcTemplate.query(anyString(), any(RowMapper.class), any(Object[].class)))
+        .thenAnswer(invocation -> List.of(invocation.<RowMapper<?>>getArgument(1).mapRow(resultSet, 0)))
+        .thenReturn(List.of());
+    when(bookEnrichmentService.fetchEnrichedBookData(ISBN)).thenReturn(BookEnrichmentService.EnrichedBookResult.builder()
+        .found(true)
+        .data(RichBookData.builder().isbn(ISBN).categories(List.of("history", "fiction")).build())
+        .build());
+    Map<String, Long> ids = new LinkedHashMap<>();
+    ids.put("history", 9L);
+    ids.put("fiction", 3L);
+    when(categoryService.getOrCreateCategoryIds(anyMap())).thenReturn(ids);
+    when(jdbcTemplate.queryForList(CatalogBackfillService.SELECT_CATEGORIES_SQL, Long.class, 42L)).thenReturn(List.of(3L));
+
+    service.run(ImportJobType.RECATEGORIZATION, tracker);
+
+    verify(jdbcTemplate).batchUpdate(eq(CatalogBackfillService.INSERT_CATEGORY_SQL), anyList());
+    verify(jdbcTemplate).update(CatalogBackfillService.UPDATE_LISTINGS_SQL, 9L, 42L);
+    verify(tracker).succeeded(0, ISBN, 42L, "history, fiction");
+  }
+}
@@ -0,0 +1,233 @@
+package com.example.bookverseserver.service.importjob;
+
+import com.example.bookverseserver.dto.request.Product.BulkListingItem;
+import com.example.bookverseserver.dto.response.Product.BulkUploadResponse;
+import com.example.bookverseserver.dto.response.Product.ImportJobResponse;
+import com.example.bookverseserver.entity.Product.ImportJob;
+import com.example.bookverseserver.enums.ImportJobStatus;
+import com.example.bookverseserver.enums.ImportJobType;
+import com.example.bookverseserver.exception.AppException;
+import com.example.bookverseserver.exception.ErrorCode;
+import com.example.bookverseserver.repository.ImportJobItemRepository;
+import com.example.bookverseserver.repository.ImportJobRepository;
+import com.example.bookverseserver.service.ListingImportService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ImportJobServiceTest {
+
+  private static final Long SELLER_ID = 7L;
+
+  @Mock private ImportJobRepository importJobRepository;
+  @Mock private ImportJobItemRepository importJobItemRepository;
+  @Mock private ListingImportService listingImportService;
+  @Mock private CatalogBackfillService catalogBackfillService;
+  @Mock private OpenLibraryDumpImporter openLibraryDumpImporter;
+  @Mock private JdbcTemplate jdbcTemplate;
+
+  private final Map<String, ImportJob> jobs = new HashMap<>();
+
+  @Test
+  void submitListings_ReturnsQueuedJobAndWorkerCompletesIt() {
+    List<Runnable> queue = new ArrayList<>();
+    ImportJobService service = newService(queue::add);
+    List<BulkListingItem> items = List.of(BulkListingItem.builder().title("Dune").build());
+
+    ImportJobResponse response = service.submitListings(SELLER_ID, items);
+
+    assertEquals(ImportJobStatus.QUEUED, response.getStatus());
+    assertEquals(ImportJobType.BULK_LISTINGS, response.getType());
+    verifyNoInteractions(listingImportService);
+
+    queue.get(0).run();
+    verify(listingImportService).importListings(eq(SELLER_ID), eq(items), any(ImportJobTracker.class));
+    verify(jdbcTemplate).update(eq(ImportJobTracker.START_SQL), eq("RUNNING"), any(), eq(response.getJobId()));
+    verify(jdbcTemplate).update(eq(ImportJobTracker.FINISH_SQL), eq("COMPLETED"), isNull(), any(), eq(response.getJobId()));
+  }
+
+  @Test
+  void submitListings_FullQueueIsRefused() {
+    ImportJobService service = newService(task -> { throw new RejectedExecutionException("full"); });
+
+    AppException e = assertThrows(AppException.class, () -> service.submitListings(SELLER_ID, List.of()));
+
+    assertEquals(ErrorCode.IMPORT_QUEUE_FULL, e.getErrorCode());
+    verify(jdbcTemplate).update(eq(ImportJobTracker.FINISH_SQL), eq("FAILED"), eq("Import queue full"), any(), anyString());
+  }
+
+  @Test
+  void importListingsNow_FailureIsRecordedAndRethrown() {
+    ImportJobService service = newService(Runnable::run);
+    when(listingImportService.importListings(eq(SELLER_ID), any(), any()))
+        .thenThrow(new IllegalStateException("database down"));
+
+    assertThrows(IllegalStateException.class, () -> service.importListingsNow(SELLER_ID, List.of()));
+
+    verify(jdbcTemplate).update(eq(ImportJobTracker.FINISH_SQL), eq("FAILED"), eq("database down"), any(), anyString());
+  }
+
+  @Test
+  void importListingsNow_ReturnsTheImportResult() {
+    ImportJobService service = newService(Runnable::run);
+    BulkUploadResponse result = BulkUploadResponse.builder().successCount(1).build();
+    when(listingImportService.importListings(eq(SELLER_ID), any(), any())).thenReturn(result);
+
+    assertSame(result, service.importListingsNow(SELLER_ID, List.of()));
+  }
+
+  @Test
+  void importListingsNow_LargeUploadsMustBeSubmittedAsJobs() {
+    ImportJobService service = newService(Runnable::run);
+    BulkListingItem item = BulkListingItem.builder().title("Dune").build();
+
+    AppException e = assertThrows(AppException.class,
+        () -> service.importListingsNow(SELLER_ID, List.of(item, item, item)));
+
+    assertEquals(ErrorCode.BULK_UPLOAD_TOO_LARGE_FOR_SYNC, e.getErrorCode());
+    verifyNoInteractions(listingImportService, jdbcTemplate);
+  }
+
+  @Test
+  void getJob_OnlyOwnerOrAdminSeesIt() {
+    ImportJobService service = newService(task -> {});
+    String jobId = service.submitListings(SELLER_ID, List.of()).getJobId();
+
+    assertEquals(jobId, service.getJob(jobId, SELLER_ID, false).getJobId());
+    assertEquals(jobId, service.getJob(jobId, 1L, true).getJobId());
+    AppException e = assertThrows(AppException.class, () -> service.getJob(jobId, 8L, false));
+    assertEquals(ErrorCode.IMPORT_JOB_NOT_FOUND, e.getErrorCode());
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void tracker_FlushWritesBufferedItemsInOneBatchWithCounters() {
+    ImportJobTracker tracker = new ImportJobTracker("job-1", jdbcTemplate);
+    tracker.total(3);
+    tracker.succeeded(0, "Dune", 11L, null);
+    tracker.failed(1, "Emma", "Price too low");
+    tracker.skipped(2, "9780000000000", "No data found in any source");
+
+    tracker.flush();
+
+    ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.forClass(List.class);
+    verify(jdbcTemplate, times(1)).batchUpdate(eq(ImportJobTracker.INSERT_ITEM_SQL), rows.capture());
+    assertEquals(3, rows.getValue().size());
+    assertArrayEquals(new Object[] {"job-1", 1, "Emma", "FAILED", null, "Price too low"}, rows.getValue().get(1));
+    verify(jdbcTemplate).update(ImportJobTracker.UPDATE_PROGRESS_SQL, null, 3, 3, 1, 1, "job-1");
+
+    tracker.flush();
+    verify(jdbcTemplate, times(1)).batchUpdate(eq(ImportJobTracker.INSERT_ITEM_SQL), any(List.class));
+  }
+
+  @Test
+  void resumeDumpImport_StartsFromTheOffsetTheFailedJobReached() {
+    List<Runnable> queue = new ArrayList<>();
+    ImportJobService service = newService(queue::add);
+    String jobId = service.submitDumpImport("ol_dump_editions.txt.gz", 0, 1L).getJobId();
+    jobs.get(jobId).setStatus(ImportJobStatus.FAILED);
+    jobs.get(jobId).setSourceOffset(4_096L);
+    when(jdbcTemplate.update(ImportJobService.CLAIM_RESUME_SQL, jobId)).thenReturn(1);
+
+    ImportJobResponse resumed = service.resumeDumpImport(jobId, 1L);
+
+    assertEquals(4_096L, resumed.getSourceOffset());
+    queue.get(1).run();
+    verify(openLibraryDumpImporter).run(eq("ol_dump_editions.txt.gz"), eq(4_096L), any(ImportJobTracker.class));
+    AppException e = assertThrows(AppException.class, () -> service.resumeDumpImport(resumed.getJobId(), 1L));
+    assertEquals(ErrorCode.INVALID_REQUEST, e.getErrorCode());
+  }
+
+  @Test
+  void heartbeat_KeepsOwnJobsAliveThenFailsOnlyStaleOnes() {
+    ImportJobService service = newService(task -> {});
+    String jobId = service.submitListings(SELLER_ID, List.of()).getJobId();
+
+    service.heartbeat();
+
+    String workerId = jobs.get(jobId).getWorkerId();
+    assertNotNull(workerId);
+    verify(jdbcTemplate).update(ImportJobService.HEARTBEAT_JOB_SQL, jobId);
+    InOrder order = inOrder(jdbcTemplate, importJobRepository);
+    order.verify(jdbcTemplate).update(ImportJobService.HEARTBEAT_SQL, workerId);
+    order.verify(importJobRepository).failStale(eq(List.of("QUEUED", "RUNNING")), eq(120L),
+        eq(ImportJobService.INTERRUPTED), any());
+  }
+
+  @Test
+  void resumeDumpImport_ResumesAFailedJobOnlyOnce() {
+    List<Runnable> queue = new ArrayList<>();
+    ImportJobService service = newService(queue::add);
+    String jobId = service.submitDumpImport("ol_dump_editions.txt.gz", 0, 1L).getJobId();
+    jobs.get(jobId).setStatus(ImportJobStatus.FAILED);
+    when(jdbcTemplate.update(ImportJobService.CLAIM_RESUME_SQL, jobId)).thenReturn(1, 0);
+
+    service.resumeDumpImport(jobId, 1L);
+    AppException e = assertThrows(AppException.class, () -> service.resumeDumpImport(jobId, 1L));
+
+    assertEquals(ErrorCode.INVALID_REQUEST, e.getErrorCode());
+    assertEquals(2, queue.size());   // The original job and one resume
+  }
+
+  @Test
+  void resumeDumpImport_FullQueueLeavesTheJobResumable() {
+    List<Runnable> queue = new ArrayList<>();
+    ImportJobService service = newService(task -> {
+      if (!queue.isEmpty()) {
+        throw new RejectedExecutionException("full");
+      }
+      queue.add(task);
+    });
+    String jobId = service.submitDumpImport("ol_dump_editions.txt.gz", 0, 1L).getJobId();
+    jobs.get(jobId).setStatus(ImportJobStatus.FAILED);
+    when(jdbcTemplate.update(ImportJobService.CLAIM_RESUME_SQL, jobId)).thenReturn(1);
+
+    assertThrows(AppException.class, () -> service.resumeDumpImport(jobId, 1L));
+
+    verify(jdbcTemplate).update(ImportJobService.RELEASE_RESUME_SQL, jobId);
+  }
+
+  @Test
+  void tracker_CheckpointFlushesCountedItemsThenRecordsTheOffset() {
+    ImportJobTracker tracker = new ImportJobTracker("job-1", jdbcTemplate);
+    tracker.counted(900, 100);
+
+    tracker.checkpoint(65_536L);
+
+    verify(jdbcTemplate).update(ImportJobTracker.UPDATE_PROGRESS_SQL, null, 0, 1000, 900, 0, "job-1");
+    verify(jdbcTemplate).update(ImportJobTracker.CHECKPOINT_SQL, 65_536L, "job-1");
+    verify(jdbcTemplate, never()).batchUpdate(eq(ImportJobTracker.INSERT_ITEM_SQL), any(List.class));
+  }
+
+  private ImportJobService newService(Executor executor) {
+    lenient().when(importJobRepository.save(any(ImportJob.class))).thenAnswer(invocation -> {
+      ImportJob job = invocation.getArgument(0);
+      jobs.put(job.getId(), job);
+      return job;
+    });
+    lenient().when(importJobRepository.findById(anyString()))
+        .thenAnswer(invocation -> Optional.ofNullable(jobs.get(invocation.<String>getArgument(0))));
+    return new ImportJobService(importJobRepository, importJobItemRepository, listingImportService,
+        catalogBackfillService, openLibraryDumpImporter, jdbcTemplate, executor, 2, 120);
+  }
+}
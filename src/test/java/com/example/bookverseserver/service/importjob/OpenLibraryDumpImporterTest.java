@@ -0,0 +1,193 @@
+package com.example.bookverseserver.service.importjob;
+
+import com.example.bookverseserver.exception.AppException;
+import com.example.bookverseserver.exception.ErrorCode;
+import com.example.bookverseserver.service.AuthorService;
+import com.example.bookverseserver.service.CategoryService;
+import com.example.bookverseserver.service.TagService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Disabled;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OpenLibraryDumpImporterTest {
+
+  private static final String AUTHOR = "/type/author\t/authors/OL21594A\t4\t2008-04-01T03:28:50\t"
+      + "{\"type\": {\"key\": \"/type/author\"}, \"key\": \"/authors/OL21594A\", \"name\": \"Jane Austen\"}";
+  private static final String EDITION = "/type/edition\t/books/OL7353617M\t5\t2010-03-11T23:51:36\t"
+      + "{\"type\": {\"key\": \"/type/edition\"}, \"key\": \"/books/OL7353617M\", \"title\": \"Pride and Prejudice\","
+      + " \"isbn_13\": [\"978-0-14-143951-8\"], \"publishers\": [\"Penguin\"], \"publish_date\": \"April 2003\","
+      + " \"number_of_pages\": 480, \"authors\": [{\"key\": \"/authors/OL21594A\"}], \"works\": [{\"key\": \"/works/OL66554W\"}],"
+      + " \"subjects\": [\"Courtship -- Fiction\", \"Regency\"], \"description\": {\"type\": \"/type/text\", \"value\": \"A novel.\"}}";
+  private static final String NO_ISBN = "{\"type\": {\"key\": \"/type/edition\"}, \"key\": \"/books/OL1M\", \"title\": \"Emma\"}";
+  private static final String CYRILLIC = "{\"type\": {\"key\": \"/type/edition\"}, \"key\": \"/books/OL2M\","
+      + " \"title\": \"Война и мир\", \"isbn_10\": [\"5170900000\"]}";
+
+  @Mock private AuthorService authorService;
+  @Mock private CategoryService categoryService;
+  @Mock private TagService tagService;
+  @Mock private JdbcTemplate jdbcTemplate;
+  @Mock private PlatformTransactionManager transactionManager;
+
+  @TempDir Path dumpDirectory;
+
+  private ImportJobTracker tracker;
+
+  @BeforeEach
+  void setUp() {
+    tracker = new ImportJobTracker("job-1", jdbcTemplate);
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void run_LoadsCleanedRecordsAndCheckpointsTheUncompressedOffset() throws IOException {
+    long size = gzip("editions.txt.gz", AUTHOR, EDITION, NO_ISBN, CYRILLIC, "not json");
+    stubBookInsert();
+    lenient().when(jdbcTemplate.update(startsWith(OpenLibraryDumpImporter.INSERT_AUTHORS_SQL), any(Object[].class))).thenReturn(1);
+    when(categoryService.getOrCreateCategoryIds(anyMap())).thenReturn(Map.of("fiction", 3L));
+
+    importer(100).run("editions.txt.gz", 0, tracker);
+
+    ArgumentCaptor<Object[]> book = ArgumentCaptor.forClass(Object[].class);
+    verify(jdbcTemplate).query(startsWith("INSERT INTO book_meta"), any(RowMapper.class), book.capture());
+    List<Object> values = Arrays.asList(book.getValue());
+    assertEquals(List.of("Pride and Prejudice", "9780141439518", "A novel.", "Penguin"), values.subList(0, 4));
+    assertEquals("2003-01-01", values.get(4).toString());
+    assertEquals(List.of("OL7353617M", "OL66554W"), values.subList(11, 13));
+    verify(jdbcTemplate).update(startsWith(OpenLibraryDumpImporter.INSERT_AUTHORS_SQL), eq("Jane Austen"), eq("OL21594A"));
+    verify(jdbcTemplate).batchUpdate(eq(OpenLibraryDumpImporter.INSERT_BOOK_CATEGORY_SQL),
+        argThat((List<Object[]> rows) -> rows.size() == 1 && rows.get(0)[0].equals(42L) && rows.get(0)[1].equals(3L)));
+    // 2 written, 2 skipped, 1 unreadable
+    verify(jdbcTemplate).update(ImportJobTracker.UPDATE_PROGRESS_SQL, "LOADING", 0, 5, 2, 1, "job-1");
+    verify(jdbcTemplate).update(ImportJobTracker.CHECKPOINT_SQL, size, "job-1");
+  }
+
+  @Test
+  void run_ResumesAtTheFirstLineAfterTheOffset() throws IOException {
+    gzip("editions.txt.gz", AUTHOR, EDITION);
+    stubBookInsert();
+
+    // An offset inside the author line skips the rest of it
+    importer(100).run("editions.txt.gz", 10, tracker);
+
+    verify(jdbcTemplate, never()).update(startsWith(OpenLibraryDumpImporter.INSERT_AUTHORS_SQL), any(Object[].class));
+    verify(jdbcTemplate).query(startsWith("INSERT INTO book_meta"), any(RowMapper.class), any(Object[].class));
+
+    // So does one at the start of the edition line
+    reset(jdbcTemplate);
+    importer(100).run("editions.txt.gz", AUTHOR.length() + 1, tracker);
+    verify(jdbcTemplate).query(startsWith("INSERT INTO book_meta"), any(RowMapper.class), any(Object[].class));
+  }
+
+  @Test
+  void run_CheckpointsAfterEveryBatch() throws IOException {
+    gzip("authors.txt", AUTHOR, AUTHOR.replace("OL21594A", "OL1A"), AUTHOR.replace("OL21594A", "OL2A"));
+
+    importer(2).run("authors.txt", 0, tracker);
+
+    ArgumentCaptor<Long> offsets = ArgumentCaptor.forClass(Long.class);
+    verify(jdbcTemplate, times(2)).update(eq(ImportJobTracker.CHECKPOINT_SQL), offsets.capture(), eq("job-1"));
+    assertTrue(offsets.getAllValues().get(0) < offsets.getAllValues().get(1));
+  }
+
+  @Test
+  void resolve_RefusesFilesOutsideTheDumpDirectory() {
+    OpenLibraryDumpImporter importer = importer(100);
+
+    assertEquals(ErrorCode.INVALID_REQUEST,
+        assertThrows(AppException.class, () -> importer.resolve("../etc/passwd")).getErrorCode());
+    assertEquals(ErrorCode.IMPORT_SOURCE_NOT_FOUND,
+        assertThrows(AppException.class, () -> importer.resolve("missing.txt.gz")).getErrorCode());
+  }
+
+  /**
+   * Benchmark: stream a gzipped editions dump with the database mocked out.
+   * Publishes the records/s of reading, parsing, cleaning and classifying to the test report.
+   */
+  @Test
+  @Tag("benchmark")
+  @Disabled("Benchmark - takes seconds of CPU. Enable to measure throughput.")
+  void benchmark_EditionsDump(TestReporter reporter) throws IOException {
+    int records = 50_000;
+    List<String> lines = new ArrayList<>(records);
+    for (int i = 0; i < records; i++) {
+      lines.add(EDITION.replace("978-0-14-143951-8", String.valueOf(9_780_000_000_000L + i)));
+    }
+    gzip("editions.txt.gz", lines.toArray(String[]::new));
+    when(jdbcTemplate.query(startsWith("INSERT INTO book_meta"), any(RowMapper.class), any(Object[].class)))
+        .thenAnswer(invocation -> {
+          Object[] values = (Object[]) invocation.getRawArguments()[2];
+          List<Map.Entry<String, Long>> inserted = new ArrayList<>();
+          for (int i = 0; i < values.length; i += 13) {
+            inserted.add(Map.entry((String) values[i + 1], (long) i));
+          }
+          return inserted;
+        });
+
+    long start = System.nanoTime();
+    importer(1_000).run("editions.txt.gz", 0, tracker);
+    long elapsedNanos = System.nanoTime() - start;
+
+    reporter.publishEntry("OpenLibraryDumpImporter", String.format("%d edition records in %d ms (%.0f records/s)",
+        records, elapsedNanos / 1_000_000, records * 1e9 / elapsedNanos));
+    verify(jdbcTemplate, times(records / 1_000 + 1)).update(eq(ImportJobTracker.CHECKPOINT_SQL), anyLong(), anyString());
+  }
+
+  private OpenLibraryDumpImporter importer(int batchSize) {
+    return new OpenLibraryDumpImporter(authorService, categoryService, tagService, jdbcTemplate,
+        transactionManager, dumpDirectory.toString(), batchSize);
+  }
+
+  /**
+   * Every inserted book gets id 42.
+   */
+  private void stubBookInsert() {
+    when(jdbcTemplate.query(startsWith("INSERT INTO book_meta"), any(RowMapper.class), any(Object[].class)))
+        .thenAnswer(invocation -> List.of(Map.entry((String) ((Object[]) invocation.getRawArguments()[2])[1], 42L)));
+  }
+
+  /**
+   * Write the lines, gzipped if the name ends in .gz.
+   *
+   * @return Uncompressed size
+   */
+  private long gzip(String name, String... lines) throws IOException {
+    byte[] content = (String.join("\n", lines) + "\n").getBytes(StandardCharsets.UTF_8);
+    try (OutputStream out = name.endsWith(".gz")
+        ? new GZIPOutputStream(Files.newOutputStream(dumpDirectory.resolve(name)))
+        : Files.newOutputStream(dumpDirectory.resolve(name))) {
+      out.write(content);
+    }
+    return content.length;
+  }
+}
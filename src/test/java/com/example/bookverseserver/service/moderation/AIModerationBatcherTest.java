@@ -0,0 +1,97 @@
+package com.example.bookverseserver.service.moderation;
+
+import com.example.bookverseserver.enums.ContentModerationDecision;
+import com.example.bookverseserver.service.AIService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AIModerationBatcherTest {
+
+  @Mock private AIService aiService;
+
+  private AIModerationBatcher batcher;
+
+  @BeforeEach
+  void setUp() {
+    batcher = new AIModerationBatcher(aiService, new ObjectMapper(), 2, 10);
+  }
+
+  @Test
+  void submit_WaitsForTheScheduledFlush() {
+    batcher.submit(item("Great copy"), verdict -> fail("reviewed before the flush"));
+
+    assertEquals(1, batcher.getQueueSize());
+    verifyNoInteractions(aiService);
+  }
+
+  @Test
+  void flush_SendsOneCallPerBatchSize() {
+    when(aiService.isAIAvailable()).thenReturn(true);
+    when(aiService.generateRecommendation(anyString()))
+        .thenReturn("[{\"id\": 1, \"decision\": \"APPROVE\"}, {\"id\": 2, \"decision\": \"BLOCK\"}]");
+    List<String> reviewed = new ArrayList<>();
+    for (String text : List.of("one", "two", "three", "four", "five")) {
+      batcher.submit(item(text), verdict -> reviewed.add(text));
+    }
+
+    batcher.flush();
+
+    verify(aiService, times(3)).generateRecommendation(anyString());   // 2 + 2 + 1
+    assertEquals(List.of("one", "two", "three", "four", "five"), reviewed);
+    assertEquals(0, batcher.getQueueSize());
+  }
+
+  @Test
+  void flush_CallsBackOneVerdictPerItemInOrder() {
+    when(aiService.isAIAvailable()).thenReturn(true);
+    // Answered out of order, and the second item is missing
+    when(aiService.generateRecommendation(anyString())).thenReturn("""
+        Here you go: [{"id": 1, "decision": "BLOCK"}]
+        """);
+    Map<String, List<AIModerationBatcher.Verdict>> verdicts = new LinkedHashMap<>();
+    for (String text : List.of("spam", "fine")) {
+      verdicts.put(text, new ArrayList<>());
+      batcher.submit(item(text), verdicts.get(text)::add);
+    }
+
+    batcher.flush();
+
+    assertEquals(1, verdicts.get("spam").size());
+    assertEquals(ContentModerationDecision.BLOCK, verdicts.get("spam").get(0).decision());
+    assertEquals(1, verdicts.get("fine").size());
+    assertEquals(ContentModerationDecision.FLAG, verdicts.get("fine").get(0).decision());
+    assertFalse(verdicts.get("fine").get(0).aiUsed());
+  }
+
+  @Test
+  void flush_FailedCallFlagsTheWholeBatch() {
+    when(aiService.isAIAvailable()).thenReturn(true);
+    when(aiService.generateRecommendation(anyString())).thenThrow(new IllegalStateException("rate limited"));
+    List<AIModerationBatcher.Verdict> verdicts = new ArrayList<>();
+    batcher.submit(item("one"), verdicts::add);
+    batcher.submit(item("two"), verdicts::add);
+
+    batcher.flush();
+
+    assertEquals(2, verdicts.size());
+    assertTrue(verdicts.stream().allMatch(verdict -> verdict.decision() == ContentModerationDecision.FLAG));
+  }
+
+  private static AIModerationBatcher.Item item(String text) {
+    return new AIModerationBatcher.Item(text, "LISTING", 40, List.of());
+  }
+}
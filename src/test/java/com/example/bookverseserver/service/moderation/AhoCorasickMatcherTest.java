@@ -0,0 +1,64 @@
+package com.example.bookverseserver.service.moderation;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AhoCorasickMatcherTest {
+
+  @Test
+  void matchAll_FindsOverlappingAndNestedPatterns() {
+    AhoCorasickMatcher matcher = AhoCorasickMatcher.compile(List.of("he", "she", "his", "hers", "kill you", ""));
+    boolean[] hits = new boolean[matcher.patternCount()];
+
+    matcher.matchAll("ushers will kill your", hits);
+
+    assertArrayEquals(new boolean[] {true, true, false, true, true, false}, hits);
+  }
+
+  @Test
+  void match_ReportsEveryOccurrence() {
+    AhoCorasickMatcher matcher = AhoCorasickMatcher.compile(List.of("aa", "a"));
+    char[] text = "aaa".toCharArray();
+    int[] counts = new int[2];
+
+    matcher.match(text, 0, text.length, id -> counts[id]++);
+
+    assertEquals(2, counts[0]);
+    assertEquals(3, counts[1]);
+  }
+
+  @Test
+  void matchAll_AgreesWithNaiveContains() {
+    Random random = new Random(42);
+    List<String> patterns = new ArrayList<>();
+    for (int i = 0; i < 200; i++) {
+      patterns.add(randomText(random, 2 + random.nextInt(6)));
+    }
+    AhoCorasickMatcher matcher = AhoCorasickMatcher.compile(patterns);
+
+    for (int round = 0; round < 50; round++) {
+      String text = randomText(random, 1000);
+      boolean[] hits = new boolean[patterns.size()];
+      matcher.matchAll(text, hits);
+
+      for (int i = 0; i < patterns.size(); i++) {
+        assertEquals(text.contains(patterns.get(i)), hits[i], patterns.get(i));
+      }
+    }
+  }
+
+  private String randomText(Random random, int length) {
+    // Small alphabet so patterns actually occur
+    String alphabet = "abcde ";
+    StringBuilder sb = new StringBuilder(length);
+    for (int i = 0; i < length; i++) {
+      sb.append(alphabet.charAt(random.nextInt(alphabet.length())));
+    }
+    return sb.toString();
+  }
+}
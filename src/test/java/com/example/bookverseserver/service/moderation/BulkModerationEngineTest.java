@@ -0,0 +1,89 @@
+package com.example.bookverseserver.service.moderation;
+
+import com.example.bookverseserver.dto.request.ModerationRequest;
+import com.example.bookverseserver.dto.response.ModerationResponse;
+import com.example.bookverseserver.enums.ContentModerationDecision;
+import com.example.bookverseserver.service.ContentModerationService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BulkModerationEngineTest {
+
+  @Mock
+  private ContentModerationService contentModerationService;
+
+  private ForkJoinPool pool;
+  private BulkModerationEngine engine;
+
+  @BeforeEach
+  void setUp() {
+    pool = new ForkJoinPool(4);
+    engine = new BulkModerationEngine(contentModerationService, pool, 2);
+  }
+
+  @AfterEach
+  void tearDown() {
+    pool.shutdown();
+  }
+
+  @Test
+  void moderate_ChunksInOrderAndBatchesGrayZoneForAi() {
+    // Texts starting with "gray" land in the gray zone, the rest are clean
+    when(contentModerationService.moderateProvisional(any(ModerationRequest.class))).thenAnswer(invocation -> {
+      boolean gray = invocation.<ModerationRequest>getArgument(0).getText().startsWith("gray");
+      return ModerationResponse.builder()
+          .decision(gray ? ContentModerationDecision.FLAG : ContentModerationDecision.APPROVE)
+          .pendingAiReview(gray)
+          .build();
+    });
+    when(contentModerationService.reviewWithAi(anyList(), anyList())).thenAnswer(invocation ->
+        invocation.<List<ModerationRequest>>getArgument(0).stream()
+            .map(request -> ModerationResponse.builder().decision(ContentModerationDecision.BLOCK).build())
+            .toList());
+
+    List<BulkModerationEngine.Item> items = IntStream.rangeClosed(1, 7)
+        .mapToObj(i -> new BulkModerationEngine.Item((long) i, (i % 2 == 0 ? "gray " : "fine ") + i, "REVIEW"))
+        .toList();
+    List<List<BulkModerationEngine.Outcome>> chunks = new ArrayList<>();
+
+    long total = engine.moderate(items.stream(), 4, chunks::add);
+
+    assertEquals(7, total);
+    assertEquals(2, chunks.size());
+    List<BulkModerationEngine.Outcome> outcomes = chunks.stream().flatMap(List::stream).toList();
+    for (int i = 0; i < outcomes.size(); i++) {
+      BulkModerationEngine.Outcome outcome = outcomes.get(i);
+      boolean gray = (i + 1) % 2 == 0;
+      assertEquals(i + 1L, outcome.item().id());
+      assertEquals(gray, outcome.aiReviewed());
+      assertEquals(gray ? ContentModerationDecision.BLOCK : ContentModerationDecision.APPROVE,
+          outcome.verdict().getDecision());
+    }
+    // 2 gray items in the first chunk, 1 in the second, AI batch size 2
+    verify(contentModerationService, times(2)).reviewWithAi(anyList(), anyList());
+  }
+
+  @Test
+  void moderateChunk_BlankTextIsApprovedWithoutRules() {
+    List<BulkModerationEngine.Outcome> outcomes = engine.moderateChunk(
+        List.of(new BulkModerationEngine.Item(1L, "  ", "LISTING")));
+
+    assertEquals(ContentModerationDecision.APPROVE, outcomes.get(0).verdict().getDecision());
+    verifyNoInteractions(contentModerationService);
+  }
+}
@@ -0,0 +1,84 @@
+package com.example.bookverseserver.service.moderation;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FuzzyTermIndexTest {
+
+  @Test
+  void matchTokens_FindsObfuscatedSpellings() {
+    FuzzyTermIndex index = FuzzyTermIndex.compile(List.of("motherfucker", "idiot", "kill yourself"));
+    boolean[] hits = new boolean[3];
+
+    index.matchTokens("what a mothrfucker and an idot", hits);
+
+    // 1 edit in 12 chars is within 15%; 1 edit in 5 chars is not
+    assertArrayEquals(new boolean[] {true, false, false}, hits);
+  }
+
+  @Test
+  void matchWord_AgreesWithFullLevenshtein() {
+    Random random = new Random(7);
+    List<String> terms = new ArrayList<>();
+    for (int i = 0; i < 300; i++) {
+      terms.add(randomWord(random, 5 + random.nextInt(16)));
+    }
+    FuzzyTermIndex index = FuzzyTermIndex.compile(terms);
+
+    for (int round = 0; round < 2000; round++) {
+      // Mutate a term so near misses are common
+      String word = mutate(random, terms.get(random.nextInt(terms.size())));
+      boolean[] hits = new boolean[terms.size()];
+      index.matchWord(word, 0, word.length(), hits);
+
+      for (int i = 0; i < terms.size(); i++) {
+        String term = terms.get(i);
+        int distance = levenshtein(word, term);
+        // Pairs allowing no edits are exact matches, left to the automaton
+        boolean expected = FuzzyTermIndex.maxDistance(word.length(), term.length()) > 0
+            && 1.0 - (double) distance / Math.max(word.length(), term.length()) >= 0.85;
+        assertEquals(expected, hits[i], word + " vs " + term);
+      }
+    }
+  }
+
+  private String mutate(Random random, String term) {
+    StringBuilder sb = new StringBuilder(term);
+    int edits = random.nextInt(4);
+    for (int e = 0; e < edits && sb.length() > 1; e++) {
+      int pos = random.nextInt(sb.length());
+      switch (random.nextInt(3)) {
+        case 0 -> sb.deleteCharAt(pos);
+        case 1 -> sb.insert(pos, (char) ('a' + random.nextInt(3)));
+        default -> sb.setCharAt(pos, (char) ('a' + random.nextInt(3)));
+      }
+    }
+    return sb.toString();
+  }
+
+  private String randomWord(Random random, int length) {
+    StringBuilder sb = new StringBuilder(length);
+    for (int i = 0; i < length; i++) {
+      sb.append((char) ('a' + random.nextInt(3)));
+    }
+    return sb.toString();
+  }
+
+  private int levenshtein(String a, String b) {
+    int[][] dp = new int[a.length() + 1][b.length() + 1];
+    for (int i = 0; i <= a.length(); i++) dp[i][0] = i;
+    for (int j = 0; j <= b.length(); j++) dp[0][j] = j;
+    for (int i = 1; i <= a.length(); i++) {
+      for (int j = 1; j <= b.length(); j++) {
+        int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+        dp[i][j] = Math.min(Math.min(dp[i - 1][j] + 1, dp[i][j - 1] + 1), dp[i - 1][j - 1] + cost);
+      }
+    }
+    return dp[a.length()][b.length()];
+  }
+}
@@ -0,0 +1,46 @@
+package com.example.bookverseserver.service.moderation;
+
+import com.example.bookverseserver.enums.ContentSeverity;
+import com.example.bookverseserver.enums.ModerationTermList;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ModerationDictionaryTest {
+
+  @Test
+  void compile_OrdersTermsBySeverityAndMatchesThem() {
+    ModerationDictionary dictionary = ModerationDictionary.compile(3, "test", Map.of(
+        ModerationTermList.MEDIUM, List.of("crap"),
+        ModerationTermList.CRITICAL, List.of("kill yourself"),
+        ModerationTermList.HIGH, List.of("scumbag")));
+
+    assertEquals(3, dictionary.getVersion());
+    List<ModerationDictionary.Term> terms = dictionary.getBlockedTerms();
+    assertEquals(List.of(ContentSeverity.CRITICAL, ContentSeverity.HIGH, ContentSeverity.MEDIUM),
+        terms.stream().map(ModerationDictionary.Term::severity).toList());
+
+    boolean[] hits = new boolean[terms.size()];
+    dictionary.getTermMatcher().matchAll(TextNormalizer.normalize("What a SCUMBAG"), hits);
+    assertArrayEquals(new boolean[] {false, true, false}, hits);
+  }
+
+  @Test
+  void compile_SkipsUnusableEntriesInsteadOfFailing() {
+    ModerationDictionary dictionary = ModerationDictionary.compile(1, "test", Map.of(
+        ModerationTermList.CRITICAL, List.of("...", "kill yourself"),
+        ModerationTermList.SPAM_PATTERNS, List.of("(unclosed", "buy\\s+now"),
+        ModerationTermList.BOOK_WHITELIST, List.of("Kill Shot")));
+
+    assertEquals(1, dictionary.getBlockedTerms().size());
+    assertEquals(1, dictionary.getSpamPatterns().size());
+    assertTrue(dictionary.getSpamPatterns().get(0).matcher("BUY NOW").find());
+    assertEquals(List.of("kill shot"), dictionary.getBookWhitelist());
+    // Sizes report what was configured, not what compiled
+    assertEquals(2, dictionary.getSizes().get(ModerationTermList.CRITICAL));
+    assertEquals(0, dictionary.getSizes().get(ModerationTermList.HIGH));
+  }
+}
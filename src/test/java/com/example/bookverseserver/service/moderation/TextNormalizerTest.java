@@ -0,0 +1,31 @@
+package com.example.bookverseserver.service.moderation;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TextNormalizerTest {
+
+  @Test
+  void normalize_UndoesCommonObfuscation() {
+    assertEquals("kill yourself", TextNormalizer.normalize("K i l l   Y0URSELF..."));
+    assertEquals("idiot", TextNormalizer.normalize("id\u200Bi\u200Dot"));
+    // Cyrillic o
+    assertEquals("moron", TextNormalizer.normalize("m\u043Er\u043En"));
+    assertEquals("shit", TextNormalizer.normalize("$h|t"));
+  }
+
+  @Test
+  void normalize_CollapsesRepeatsAndSeparators() {
+    assertEquals("soo good", TextNormalizer.normalize("  sooooo...   GOOD ??? "));
+    assertEquals("cafe fiance", TextNormalizer.normalize("Café \uFB01ancé"));
+    assertEquals("", TextNormalizer.normalize("  ... \uD83D\uDE02  "));
+    assertEquals("", TextNormalizer.normalize(null));
+  }
+
+  @Test
+  void normalize_KeepsSingleLettersThatAreNotSpacedOut() {
+    assertEquals("i read a book", TextNormalizer.normalize("I read a book"));
+    assertEquals("abc", TextNormalizer.normalize("a b c"));
+  }
+}
@@ -0,0 +1,81 @@
+package com.example.bookverseserver.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SearchQueryParserTest {
+
+  private static final double USD_TO_VND = 25000;
+
+  private SearchQueryParser.ParsedQuery parse(String query) {
+    Optional<SearchQueryParser.ParsedQuery> result = SearchQueryParser.parse(query, USD_TO_VND);
+    assertTrue(result.isPresent(), "expected local parse for: " + query);
+    return result.get();
+  }
+
+  @Test
+  void parse_MaxPriceInThousands() {
+    SearchQueryParser.ParsedQuery parsed = parse("mystery under 100k");
+
+    assertEquals("mystery", parsed.searchTerms());
+    assertEquals(100_000.0, parsed.maxPrice());
+    assertNull(parsed.minPrice());
+    assertEquals(List.of("fiction"), parsed.categories());
+  }
+
+  @Test
+  void parse_VietnamesePriceRangeAndCondition() {
+    SearchQueryParser.ParsedQuery parsed = parse("sách lịch sử từ 50k đến 150.000đ như mới");
+
+    assertEquals(50_000.0, parsed.minPrice());
+    assertEquals(150_000.0, parsed.maxPrice());
+    assertEquals("LIKE_NEW", parsed.condition());
+    assertEquals("lịch sử", parsed.searchTerms());
+  }
+
+  @Test
+  void parse_UsdRangeAuthorAndRating() {
+    SearchQueryParser.ParsedQuery parsed = parse("$10-$20 by Agatha Christie 4+ stars");
+
+    assertEquals(250_000.0, parsed.minPrice());
+    assertEquals(500_000.0, parsed.maxPrice());
+    assertEquals("Agatha Christie", parsed.author());
+    assertEquals(4.0, parsed.minRating());
+    assertEquals("", parsed.searchTerms());
+  }
+
+  @Test
+  void parse_PlainNumberStaysSearchTerm() {
+    SearchQueryParser.ParsedQuery parsed = parse("1984 orwell");
+
+    assertEquals("1984 orwell", parsed.searchTerms());
+    assertNull(parsed.maxPrice());
+  }
+
+  @Test
+  void parse_AmbiguousQueriesAreLeftToLlm() {
+    assertTrue(SearchQueryParser.parse("something like Dune but shorter", USD_TO_VND).isEmpty());
+    assertTrue(SearchQueryParser.parse("cheap mystery books", USD_TO_VND).isEmpty());
+    assertTrue(SearchQueryParser.parse("fantasy under 15", USD_TO_VND).isEmpty());
+  }
+
+  @Test
+  void parse_YearsAndCountsAfterAnOperatorAreLeftToLlm() {
+    assertTrue(SearchQueryParser.parse("history books from 1945", USD_TO_VND).isEmpty());
+    assertTrue(SearchQueryParser.parse("novels over 1000 pages", USD_TO_VND).isEmpty());
+    assertTrue(SearchQueryParser.parse("fantasy under 5000 words", USD_TO_VND).isEmpty());
+    assertTrue(SearchQueryParser.parse("war novels from 1990 to 2000", USD_TO_VND).isEmpty());
+    assertTrue(SearchQueryParser.parse("sách trên 2000 trang", USD_TO_VND).isEmpty());
+  }
+
+  @Test
+  void parse_BareAmountsThatAreNotYearsStayPrices() {
+    assertEquals(150_000.0, parse("mystery under 150000").maxPrice());
+    assertEquals(50_000.0, parse("history from 50000").minPrice());
+    assertEquals(1945_000.0, parse("history over 1945k").minPrice());
+  }
+}
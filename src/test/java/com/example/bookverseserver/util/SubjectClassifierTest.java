@@ -0,0 +1,134 @@
+package com.example.bookverseserver.util;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Disabled;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+
+import java.io.BufferedReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SubjectClassifierTest {
+
+  private static final SubjectClassifier CLASSIFIER = SubjectClassifier.OPEN_LIBRARY;
+
+  @Test
+  void classify_ScoresCategoriesAndCollectsTagsInOnePass() {
+    SubjectClassifier.Classification result = CLASSIFIER.classify(List.of(
+        "Fiction", "Love stories", "Courtship -- Fiction", "Regency", "England -- Social life and customs"));
+
+    assertEquals("fiction", result.topCategories(3).get(0));
+    // Subjects containing "fiction" are too generic to tag
+    assertEquals(Set.of("Romance", "Love", "Regency"), result.tags());
+  }
+
+  @Test
+  void classify_MatchesWholeWordsOnly() {
+    SubjectClassifier.Classification result = CLASSIFIER.classify(List.of("Software", "Edward, Prince of Wales"));
+
+    assertEquals(0, result.categoryScores().get("history"));
+    assertFalse(result.tags().contains("War"));
+    assertEquals(List.of("technology"), result.topCategories(3));
+  }
+
+  @Test
+  void classify_CountsEachKeywordOnce() {
+    SubjectClassifier.Classification result = CLASSIFIER.classify(List.of("Self-help", "Self help", "self-help techniques"));
+
+    assertEquals(1, result.categoryScores().get("self_help"));
+    assertEquals(Set.of("Self-Help"), result.tags());
+  }
+
+  @Test
+  void classify_ThemeInArtIsNotTheArtCategory() {
+    assertEquals(0, CLASSIFIER.classify(List.of("Women in art")).categoryScores().get("art"));
+    assertEquals(1, CLASSIFIER.classify(List.of("Art, Renaissance")).categoryScores().get("art"));
+  }
+
+  @Test
+  void classify_NonLatinSubjectsAreNotTagged() {
+    SubjectClassifier.Classification result = CLASSIFIER.classify(List.of("Любовь", "Love"));
+
+    assertEquals(Set.of("Love"), result.tags());
+  }
+
+  @Test
+  void classify_InflectedSubjectsKeepTheirTags() throws Exception {
+    // Catch-22: "Humorous stories" is tagged Humor, as when tags matched substrings
+    assertEquals(Set.of("Satire", "Humor", "War", "Comedy", "Philosophy"), CLASSIFIER.classify(corpus().get(34)).tags());
+
+    assertEquals(Set.of("Thriller", "Romance", "Adventure", "War"),
+        CLASSIFIER.classify(List.of("Thrillers", "Romances", "Adventures", "Napoleonic Wars, 1800-1815")).tags());
+  }
+
+  @Test
+  void mapToCanonical_CorpusBooksGetTheirObviousCategory() throws Exception {
+    List<List<String>> corpus = corpus();
+
+    assertEquals("fiction", ExternalCategoryMapper.mapToPrimaryCategory(corpus.get(0)));    // Pride and Prejudice
+    assertTrue(ExternalCategoryMapper.mapToCanonical(corpus.get(7)).contains("technology")); // Java programming
+    assertTrue(ExternalCategoryMapper.mapToCanonical(corpus.get(8)).contains("comics"));     // Batman
+    assertTrue(ExternalCategoryMapper.mapToCanonical(corpus.get(32)).contains("children"));  // Picture book
+    assertEquals(List.of(), ExternalCategoryMapper.mapToCanonical(List.of("Diaries", "Amsterdam")));
+  }
+
+  /**
+   * Benchmark: classify the corpus of Open Library subject lists over and over.
+   * Publishes throughput to the test report; asserts every pass gives the same answer.
+   */
+  @Test
+  @Tag("benchmark")
+  @Disabled("Benchmark - takes seconds of CPU. Enable to measure throughput.")
+  void benchmark_OpenLibrarySubjectCorpus(TestReporter reporter) throws Exception {
+    List<List<String>> corpus = corpus();
+    int subjects = corpus.stream().mapToInt(List::size).sum();
+    int rounds = 5_000;
+
+    for (List<String> book : corpus) {   // Warm-up
+      CLASSIFIER.classify(book);
+    }
+    long start = System.nanoTime();
+    int categorized = 0;
+    int tags = 0;
+    for (int round = 0; round < rounds; round++) {
+      for (List<String> book : corpus) {
+        SubjectClassifier.Classification result = CLASSIFIER.classify(book);
+        categorized += result.topCategories(3).isEmpty() ? 0 : 1;
+        tags += result.tags().size();
+      }
+    }
+    long elapsedNanos = System.nanoTime() - start;
+
+    long books = (long) corpus.size() * rounds;
+    reporter.publishEntry("SubjectClassifier", String.format(
+        "%d books (%d subjects) in %d ms (%.0f books/s, %.0f subjects/s)",
+        books, (long) subjects * rounds, elapsedNanos / 1_000_000,
+        books * 1e9 / elapsedNanos, (double) subjects * rounds * 1e9 / elapsedNanos));
+    assertEquals(0, categorized % rounds);
+    assertEquals(0, tags % rounds);
+  }
+
+  private static List<List<String>> corpus() throws Exception {
+    ObjectMapper objectMapper = new ObjectMapper();
+    List<List<String>> corpus = new ArrayList<>();
+    try (InputStream in = SubjectClassifierTest.class.getResourceAsStream("/openlibrary/work-subjects.jsonl");
+         BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+      String line;
+      while ((line = reader.readLine()) != null) {
+        if (!line.isBlank()) {
+          corpus.add(objectMapper.readValue(line, new TypeReference<List<String>>() {}));
+        }
+      }
+    }
+    return corpus;
+  }
+}